@@ -0,0 +1,61 @@
+package com.planner.io;
+
+import com.google.api.client.util.DateTime;
+import com.google.api.services.calendar.model.Event;
+import com.google.api.services.calendar.model.EventDateTime;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a full export of events to a {@link LocalCalendarService} with a fixed round trip per request, which
+ * stands in for the network latency of Google Calendar. Exporting one event per request, as was done before batching,
+ * costs the latency once per event. Run with {@code ./gradlew jmh}; results are written to
+ * {@code benchmarks/jmh-results.json}.
+ *
+ * @author Andrew Roe
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CalendarSyncBenchmark {
+
+    /** Round trip of every request, in milliseconds */
+    private static final long LATENCY_MILLIS = 20;
+
+    /** Number of events being exported */
+    @Param({"1000", "10000"})
+    private int numEvents;
+
+    /** Number of batches in flight at the same time */
+    @Param({"1", "8"})
+    private int maxInFlight;
+
+    private CalendarSync sync;
+    private List<CalendarService.Call> calls;
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        sync = new CalendarSync(new LocalCalendarService(LATENCY_MILLIS, 0), maxInFlight,
+                CalendarSync.DEFAULT_BASE_BACKOFF_MILLIS);
+        calls = new ArrayList<>(numEvents);
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < numEvents; i++) {
+            long eventStart = start + i * 60 * 60_000L;
+            calls.add(CalendarService.Call.insert(new Event().setSummary("Event " + i)
+                    .setStart(new EventDateTime().setDateTime(new DateTime(eventStart)))
+                    .setEnd(new EventDateTime().setDateTime(new DateTime(eventStart + 30 * 60_000)))));
+        }
+    }
+
+    @Benchmark
+    public CalendarSync.Summary export() throws IOException {
+        return sync.execute(calls);
+    }
+}
@@ -0,0 +1,99 @@
+package com.planner.io;
+
+import com.planner.manager.ScheduleManager;
+import com.planner.models.Card;
+import com.planner.models.UserConfig;
+import com.planner.util.Time;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of persisting a single edit: appending it to the {@link Journal} with group commit, committing
+ * each edit with its own fsync, and rewriting the whole {@link Snapshot} after every edit.
+ * Run with {@code ./gradlew jmh}; results are written to {@code benchmarks/jmh-results.json}.
+ *
+ * @author Andrew Roe
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JournalBenchmark {
+
+    /** Seed used for generating every workload */
+    private static final long SEED = 34;
+    /** Possible durations (in hours) for a generated Task */
+    private static final double[] TASK_HOURS = {0.5, 1.0, 1.5, 2.0, 3.0, 4.0, 6.0, 8.0};
+
+    /** Number of Tasks in the workload */
+    @Param({"1000", "100000"})
+    private int numTasks;
+
+    private ScheduleManager sm;
+    private Random rand;
+    private Path dir;
+    private String snapshotFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        UserConfig userConfig = new UserConfig();
+        userConfig.setMaxDays(90);
+        sm = new ScheduleManager(userConfig);
+        rand = new Random(SEED);
+
+        Card.Color[] colors = Card.Color.values();
+        for (int i = 0; i < 5; i++) {
+            sm.addCard("Card " + i, colors[i]);
+        }
+        for (int i = 0; i < numTasks; i++) {
+            double hours = TASK_HOURS[rand.nextInt(TASK_HOURS.length)];
+            sm.addTask("Task " + i, hours, Time.getFormattedCalendarInstance(rand.nextInt(90)), rand.nextInt(5));
+        }
+        dir = Files.createTempDirectory("planner");
+        snapshotFile = dir.resolve("snapshot.bin").toString();
+        sm.openJournal(dir.resolve("journal.bin").toString(), snapshotFile);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        sm.closeJournal();
+        Files.deleteIfExists(dir.resolve("journal.bin"));
+        Files.deleteIfExists(dir.resolve("snapshot.bin"));
+        Files.deleteIfExists(dir);
+    }
+
+    @Benchmark
+    public Object journaledEdit() {
+        return edit();
+    }
+
+    @Benchmark
+    public Object journaledEditWithSync() {
+        Object task = edit();
+        sm.syncJournal();
+        return task;
+    }
+
+    @Benchmark
+    public Object snapshotEdit() {
+        Object task = edit();
+        sm.saveSnapshot(snapshotFile);
+        return task;
+    }
+
+    /**
+     * Modifies the hours of a random Task
+     *
+     * @return modified Task
+     */
+    private Object edit() {
+        return sm.modTask(rand.nextInt(numTasks), null, TASK_HOURS[rand.nextInt(TASK_HOURS.length)], null, -1);
+    }
+}
@@ -0,0 +1,82 @@
+package com.planner.io;
+
+import com.planner.manager.ScheduleManager;
+import com.planner.models.Card;
+import com.planner.models.UserConfig;
+import com.planner.util.Time;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cold start of a session: resuming a built schedule from a {@link Snapshot}, compared to restoring
+ * the same planner state and regenerating the schedule with {@link ScheduleManager#buildSchedule()}.
+ * Run with {@code ./gradlew jmh}; results are written to {@code benchmarks/jmh-results.json}.
+ *
+ * @author Andrew Roe
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SnapshotBenchmark {
+
+    /** Seed used for generating every workload */
+    private static final long SEED = 34;
+    /** Possible durations (in hours) for a generated Task */
+    private static final double[] TASK_HOURS = {0.5, 1.0, 1.5, 2.0, 3.0, 4.0, 6.0, 8.0};
+
+    /** Number of Tasks in the workload */
+    @Param({"1000", "100000"})
+    private int numTasks;
+
+    private UserConfig userConfig;
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        userConfig = new UserConfig();
+        userConfig.setMaxDays(90);
+        ScheduleManager sm = new ScheduleManager(userConfig);
+        Random rand = new Random(SEED);
+
+        Card.Color[] colors = Card.Color.values();
+        for (int i = 0; i < 5; i++) {
+            sm.addCard("Card " + i, colors[i]);
+        }
+        for (int i = 0; i < numTasks; i++) {
+            double hours = TASK_HOURS[rand.nextInt(TASK_HOURS.length)];
+            sm.addTask("Task " + i, hours, Time.getFormattedCalendarInstance(rand.nextInt(90)), rand.nextInt(5));
+        }
+        sm.buildSchedule();
+        file = Files.createTempFile("planner", ".snap");
+        Snapshot.writeSnapshot(file, sm);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public Object resume() throws IOException {
+        ScheduleManager sm = new ScheduleManager(userConfig);
+        Snapshot.readSnapshot(file, sm);
+        return sm.getSchedule();
+    }
+
+    @Benchmark
+    public Object resumeAndRebuild() throws IOException {
+        ScheduleManager sm = new ScheduleManager(userConfig);
+        Snapshot.readSnapshot(file, sm);
+        sm.invalidateSchedule();
+        sm.buildSchedule();
+        return sm.getSchedule();
+    }
+}
@@ -0,0 +1,85 @@
+package com.planner.io;
+
+import com.planner.manager.ScheduleManager;
+import com.planner.models.Card;
+import com.planner.models.UserConfig;
+import com.planner.util.Time;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures exporting a full year of schedule, with recurring Events on every weekday, to an Excel file.
+ * Run with {@code ./gradlew jmh}; results are written to {@code benchmarks/jmh-results.json}.
+ *
+ * @author Andrew Roe
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpreadsheetBenchmark {
+
+    /** Seed used for generating every workload */
+    private static final long SEED = 34;
+    /** Possible durations (in hours) for a generated Task */
+    private static final double[] TASK_HOURS = {0.5, 1.0, 1.5, 2.0, 3.0, 4.0, 6.0, 8.0};
+    /** Number of days in the schedule */
+    private static final int NUM_DAYS = 365;
+    /** File written by every export, within data/spreadsheets */
+    private static final String FILENAME = "benchmark.xlsx";
+
+    /** Number of Tasks in the workload */
+    @Param({"1000", "10000"})
+    private int numTasks;
+
+    private ScheduleManager sm;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        UserConfig userConfig = new UserConfig();
+        userConfig.setMaxDays(NUM_DAYS);
+        sm = new ScheduleManager(userConfig);
+        Random rand = new Random(SEED);
+
+        Card.Color[] colors = Card.Color.values();
+        for (int i = 0; i < 5; i++) {
+            sm.addCard("Card " + i, colors[i]);
+        }
+        for (int i = 0; i < numTasks; i++) {
+            double hours = TASK_HOURS[rand.nextInt(TASK_HOURS.length)];
+            sm.addTask("Task " + i, hours, Time.getFormattedCalendarInstance(rand.nextInt(NUM_DAYS)), rand.nextInt(5));
+        }
+        List<Calendar> weekdays = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            Calendar day = Time.getFormattedCalendarInstance(i);
+            int dayOfWeek = day.get(Calendar.DAY_OF_WEEK);
+            if (dayOfWeek != Calendar.SATURDAY && dayOfWeek != Calendar.SUNDAY) weekdays.add(day);
+        }
+        Calendar start = Time.getFormattedCalendarInstance(0);
+        start.set(Calendar.HOUR_OF_DAY, 12);
+        Calendar end = (Calendar) start.clone();
+        end.set(Calendar.HOUR_OF_DAY, 13);
+        sm.addEvent("Lunch", 0, new Time.TimeStamp(start, end), true, weekdays);
+        sm.buildSchedule();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(Paths.get("data/spreadsheets", FILENAME));
+    }
+
+    @Benchmark
+    public void exportToExcel() throws IOException {
+        sm.exportScheduleToExcel(FILENAME);
+    }
+}
@@ -0,0 +1,138 @@
+package com.planner.manager;
+
+import com.planner.models.Card;
+import com.planner.models.Task;
+import com.planner.util.Time;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a full {@link ScheduleManager#buildSchedule()} rebuild, which drives
+ * {@link com.planner.schedule.CompactScheduler#assignDay} once per {@link com.planner.schedule.day.Day},
+ * as well as the incremental rebuild that follows a single Task edit and the cost of deleting and restoring a Task.
+ * <p>
+ * Workloads are synthetic but deterministic (fixed seed), so results from different runs can be compared.
+ * Run with {@code ./gradlew jmh}; results are written to {@code benchmarks/jmh-results.json}.
+ *
+ * @author Andrew Roe
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScheduleManagerBenchmark {
+
+    /** Seed used for generating every workload */
+    private static final long SEED = 34;
+    /** Possible durations (in hours) for a generated Task */
+    private static final double[] TASK_HOURS = {0.5, 1.0, 1.5, 2.0, 3.0, 4.0, 6.0, 8.0};
+
+    /** Number of Tasks in the workload */
+    @Param({"10", "1000", "100000", "1000000"})
+    private int numTasks;
+    /** Number of days to schedule */
+    @Param({"14", "365"})
+    private int maxDays;
+    /** Number of recurring Events placed on every day of the week */
+    @Param({"0", "6"})
+    private int eventsPerDay;
+
+    private ScheduleManager sm;
+    /** ID of the Task with the latest due date, which is edited between incremental rebuilds */
+    private int lastDueId;
+    /** Total hours the edited Task alternates between */
+    private double[] editHours;
+    /** Number of edits performed so far */
+    private int numEdits;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        sm = new ScheduleManager();
+        sm.getUserConfig().setMaxDays(maxDays);
+        Random rand = new Random(SEED);
+
+        Card.Color[] colors = Card.Color.values();
+        for (int i = 0; i < 5; i++) {
+            sm.addCard("Card " + i, colors[i]);
+        }
+
+        int lastDue = -1;
+        for (int i = 0; i < numTasks; i++) {
+            double hours = TASK_HOURS[rand.nextInt(TASK_HOURS.length)];
+            // due dates fall within the horizon so every Task is scheduled on each rebuild
+            int dueDays = rand.nextInt(maxDays);
+            Calendar due = Time.getFormattedCalendarInstance(dueDays);
+            sm.addTask("Task " + i, hours, due, rand.nextInt(5));
+            if (dueDays >= lastDue) {
+                lastDue = dueDays;
+                lastDueId = i;
+            }
+        }
+        double hours = sm.getTask(lastDueId).getTotalHours();
+        editHours = new double[]{hours, hours + 0.5};
+
+        addRecurringEvents();
+        sm.buildSchedule();
+    }
+
+    /**
+     * Adds {@code eventsPerDay} back-to-back 45 minute recurring Events, separated by 30 minute gaps,
+     * to every day of the week starting at 9:00am
+     */
+    private void addRecurringEvents() {
+        List<Calendar> week = new ArrayList<>(7);
+        for (int i = 0; i < 7; i++) {
+            week.add(Time.getFormattedCalendarInstance(i));
+        }
+
+        int startMin = 9 * 60;
+        for (int i = 0; i < eventsPerDay; i++) {
+            Calendar start = Time.getFormattedCalendarInstance(0);
+            start.add(Calendar.MINUTE, startMin);
+            Calendar end = (Calendar) start.clone();
+            end.add(Calendar.MINUTE, 45);
+            sm.addEvent("Event " + i, i % 5, new Time.TimeStamp(start, end), true, week);
+            startMin += 75;
+        }
+    }
+
+    @Benchmark
+    public Object buildSchedule() {
+        sm.setParallelPlanning(false);
+        sm.invalidateSchedule();
+        sm.buildSchedule();
+        return sm.getSchedule();
+    }
+
+    @Benchmark
+    public Object buildScheduleParallel() {
+        sm.setParallelPlanning(true);
+        sm.invalidateSchedule();
+        sm.buildSchedule();
+        return sm.getSchedule();
+    }
+
+    @Benchmark
+    public Object rebuildAfterTaskEdit() {
+        sm.setParallelPlanning(false);
+        sm.modTask(lastDueId, null, editHours[numEdits++ % 2], null, -1);
+        sm.buildSchedule();
+        return sm.getSchedule();
+    }
+
+    @Benchmark
+    public Object deleteAndRestoreTask() {
+        // measures the task queues alone, so the schedule is not rebuilt
+        Task task = sm.getTask(numEdits++ % numTasks);
+        sm.deleteTask(task.getId());
+        return sm.restoreTask(task.getId(), task.getName(), task.getTotalHours(), task.getDueDate(),
+                task.getCard().getId());
+    }
+}
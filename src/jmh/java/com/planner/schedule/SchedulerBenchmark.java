@@ -0,0 +1,94 @@
+package com.planner.schedule;
+
+import com.planner.manager.ScheduleManager;
+import com.planner.models.Card;
+import com.planner.models.Task;
+import com.planner.models.UserConfig;
+import com.planner.schedule.day.Day;
+import com.planner.util.Time;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link CompactScheduler} and {@link DynamicScheduler} on identical workloads. Besides the time of a full
+ * rebuild, the quality of the resulting schedule is printed once per trial:
+ * <ul>
+ *     <li>overflow: SubTasks that did not fit within their Day</li>
+ *     <li>unscheduled: Task hours left over at the end of the horizon</li>
+ *     <li>fragments: average number of SubTasks per Task</li>
+ * </ul>
+ * Run with {@code ./gradlew jmh}; results are written to {@code benchmarks/jmh-results.json}.
+ *
+ * @author Andrew Roe
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SchedulerBenchmark {
+
+    /** Seed used for generating every workload */
+    private static final long SEED = 34;
+    /** Possible durations (in hours) for a generated Task */
+    private static final double[] TASK_HOURS = {0.5, 1.0, 1.5, 2.0, 3.0, 4.0, 6.0, 8.0};
+
+    /** Scheduling algorithm being measured */
+    @Param({"compact", "dynamic"})
+    private String scheduler;
+    /** Number of Tasks in the workload */
+    @Param({"100", "10000", "100000"})
+    private int numTasks;
+    /** Number of days to schedule */
+    @Param({"14", "90"})
+    private int maxDays;
+
+    private ScheduleManager sm;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        UserConfig userConfig = new UserConfig();
+        userConfig.setSchedulingAlgorithm(scheduler.equals("dynamic") ? 0 : 1);
+        userConfig.setMaxDays(maxDays);
+        sm = new ScheduleManager(userConfig);
+        Random rand = new Random(SEED);
+
+        Card.Color[] colors = Card.Color.values();
+        for (int i = 0; i < 5; i++) {
+            sm.addCard("Card " + i, colors[i]);
+        }
+        for (int i = 0; i < numTasks; i++) {
+            double hours = TASK_HOURS[rand.nextInt(TASK_HOURS.length)];
+            sm.addTask("Task " + i, hours, Time.getFormattedCalendarInstance(rand.nextInt(maxDays)), rand.nextInt(5));
+        }
+        sm.buildSchedule();
+    }
+
+    @TearDown(Level.Trial)
+    public void reportQuality() {
+        int overflow = 0;
+        int subTasks = 0;
+        for (Day day : sm.getSchedule()) {
+            for (Task.SubTask subTask : day.getSubTaskList()) {
+                subTasks++;
+                if (subTask.isOverflow()) overflow++;
+            }
+        }
+        double unscheduled = 0;
+        for (Task task : sm.getTaskManager()) {
+            unscheduled += task.getSubTotalHoursRemaining();
+        }
+        System.out.printf("%n# Quality [%s, tasks=%d, days=%d]: overflow=%d, unscheduled=%.1fh, fragments=%.2f%n",
+                scheduler, numTasks, maxDays, overflow, unscheduled, (double) subTasks / sm.getNumTasks());
+    }
+
+    @Benchmark
+    public Object buildSchedule() {
+        sm.invalidateSchedule();
+        sm.buildSchedule();
+        return sm.getSchedule();
+    }
+}
@@ -0,0 +1,64 @@
+package com.planner.schedule.day;
+
+import com.planner.models.Event;
+import com.planner.models.Task;
+import com.planner.models.UserConfig;
+import com.planner.util.Time;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Calendar;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures placing {@link com.planner.models.Task.SubTask} around {@link Event} within a single {@link Day},
+ * which is the innermost step of every schedule rebuild.
+ *
+ * @author Andrew Roe
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DayBenchmark {
+
+    /** Number of Events placed in the Day */
+    @Param({"0", "6", "24", "48"})
+    private int numEvents;
+
+    private UserConfig userConfig;
+    private Event[] events;
+    private long time;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // 12am-11:59pm range so that every event fits within the day
+        userConfig = new UserConfig(new int[]{0, 24}, new int[]{24, 24, 24, 24, 24, 24, 24}, 14, 5,
+                false, true, true, 1, 0.5, false, true, true);
+        time = Time.toEpochMinute(Time.getFormattedCalendarInstance(1));
+
+        events = new Event[numEvents];
+        int spacing = numEvents == 0 ? 0 : 24 * 60 / numEvents;
+        for (int i = 0; i < numEvents; i++) {
+            Calendar start = Time.getFormattedCalendarInstance(1);
+            start.add(Calendar.MINUTE, i * spacing);
+            Calendar end = (Calendar) start.clone();
+            end.add(Calendar.MINUTE, spacing / 2);
+            events[i] = new Event(i, "Event " + i, null, new Time.TimeStamp(start, end));
+        }
+    }
+
+    @Benchmark
+    public Day fillDay() {
+        Day day = new Day(0, 24, 1);
+        for (Event e : events) {
+            day.addEvent(e);
+        }
+        for (int i = 0; i < 8; i++) {
+            Task task = new Task(i, "Task " + i, 1.5, Time.getFormattedCalendarInstance(2));
+            day.addPlainSubTask(task, 1.5, userConfig, time, false);
+        }
+        return day;
+    }
+}
@@ -0,0 +1,78 @@
+package com.planner.script;
+
+import com.planner.manager.ScheduleManager;
+import com.planner.models.UserConfig;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures planner scripts compiled once and run from their bytecode: a planning run that adds and schedules Tasks
+ * by recursing over them, and a recursive computation that only exercises the interpreter. Run with
+ * {@code ./gradlew jmh}; results are written to {@code benchmarks/jmh-results.json}.
+ *
+ * @author Andrew Roe
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScriptBenchmark {
+
+    /** Adds Tasks due over the next 30 days, one call per Task, then builds the schedule */
+    private static final String PLANNING_SCRIPT = "func add_tasks(i, n)\n" +
+            "  if (i.==(n))\n" +
+            "    return\n" +
+            "  task(\"Task \".add(i), i.%(4).+(1), i.%(30).+(1))\n" +
+            "  add_tasks(i.++(), n)\n" +
+            "\n" +
+            "add_tasks(0, input_int())\n" +
+            "build()\n";
+    /** Makes about 30K calls without touching the planner */
+    private static final String FIB_SCRIPT = "func fib(n)\n" +
+            "  if (n.<(2))\n" +
+            "    return n\n" +
+            "  return fib(n.-(1)).+(fib(n.-(2)))\n" +
+            "\n" +
+            "fib(20)\n";
+
+    /** Number of Tasks added by the planning script */
+    @Param({"100", "1000"})
+    private int numTasks;
+
+    private Script planning;
+    private Script fib;
+    private PrintStream out;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        planning = Script.compile(PLANNING_SCRIPT, "planning");
+        fib = Script.compile(FIB_SCRIPT, "fib");
+        out = new PrintStream(OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public ScheduleManager plan() throws IOException {
+        ScheduleManager sm = new ScheduleManager(new UserConfig());
+        new ScriptEngine(sm, new BufferedReader(new StringReader(numTasks + "\n")), out).run(planning);
+        return sm;
+    }
+
+    @Benchmark
+    public Script fib() throws IOException {
+        new ScriptEngine(null, new BufferedReader(new StringReader("")), out).run(fib);
+        return fib;
+    }
+
+    @Benchmark
+    public Script compile() {
+        return Script.compile(PLANNING_SCRIPT, "planning");
+    }
+}
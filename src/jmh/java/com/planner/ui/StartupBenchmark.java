@@ -0,0 +1,122 @@
+package com.planner.ui;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Measures the time from launching the application jar until {@link TUI} shows its first prompt, with and without
+ * the class-data sharing archive built by {@code ./gradlew cdsArchive}. Every invocation starts a new JVM, so the
+ * timings include JVM startup and class loading, which dominate the latency of a short session. Run with
+ * {@code ./gradlew jmh}, which builds the jar and the archive first; results are written to
+ * {@code benchmarks/jmh-results.json}.
+ *
+ * @author Andrew Roe
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 20)
+@Fork(1)
+public class StartupBenchmark {
+
+    /** Whether the JVM maps the classes of the application from the archive */
+    @Param({"false", "true"})
+    private boolean cds;
+
+    private List<String> command;
+    /** Directory holding the settings, data and logs of the launched sessions */
+    private Path home;
+    private Process process;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Path jar = pathOf("planner.jar");
+        Path profile = pathOf("planner.profile");
+        command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        if (cds) {
+            command.add("-XX:SharedArchiveFile=" + pathOf("planner.cds"));
+        }
+        command.add("-jar");
+        command.add(jar.toString());
+        command.add("--interactive");
+
+        home = Files.createTempDirectory("planner-startup");
+        Files.createDirectories(home.resolve("settings"));
+        Files.copy(profile, home.resolve("settings").resolve("profile.json"));
+    }
+
+    @Benchmark
+    public int firstPrompt() throws IOException {
+        process = new ProcessBuilder(command)
+                .directory(home.toFile())
+                .redirectErrorStream(true)
+                .start();
+        InputStream out = process.getInputStream();
+        // the prompt is the first "> " that begins a line, following the banner
+        int read = 0;
+        int last = '\n';
+        int c;
+        while ((c = out.read()) != -1) {
+            read++;
+            if (last == '\n' && c == '>') {
+                return read;
+            }
+            last = c;
+        }
+        throw new IllegalStateException("Session exited before its first prompt");
+    }
+
+    @TearDown(Level.Invocation)
+    public void quit() throws IOException, InterruptedException {
+        if (process == null) return;
+        try (OutputStream in = process.getOutputStream()) {
+            in.write("quit\n".getBytes());
+        } catch (IOException e) {
+            // the session already exited
+        }
+        // drains the output so that the session is never blocked writing it
+        process.getInputStream().transferTo(OutputStream.nullOutputStream());
+        if (!process.waitFor(10, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+        process = null;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(home)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    /**
+     * Gets a file passed to the benchmark as a system property by the {@code jmh} task
+     *
+     * @param property name of the system property
+     * @return path of the file
+     * @throws IllegalStateException when the property is not set or the file does not exist
+     */
+    private static Path pathOf(String property) {
+        String value = System.getProperty(property);
+        if (value == null || !Files.exists(Paths.get(value))) {
+            throw new IllegalStateException("Missing " + property + " (" + value + "); run with ./gradlew jmh");
+        }
+        return Paths.get(value);
+    }
+}
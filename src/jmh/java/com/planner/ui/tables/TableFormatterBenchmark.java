@@ -0,0 +1,94 @@
+package com.planner.ui.tables;
+
+import com.planner.manager.ScheduleManager;
+import com.planner.models.Card;
+import com.planner.models.UserConfig;
+import com.planner.util.Time;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures displaying the schedule of a full year: rendering every row from scratch, reusing every cached row,
+ * re-rendering only the rows of a Task that was renamed, and rendering only the first page of SubTasks from scratch.
+ * Run with {@code ./gradlew jmh}; results are written to {@code benchmarks/jmh-results.json}.
+ *
+ * @author Andrew Roe
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TableFormatterBenchmark {
+
+    /** Seed used for generating every workload */
+    private static final long SEED = 34;
+    /** Possible durations (in hours) for a generated Task */
+    private static final double[] TASK_HOURS = {0.5, 1.0, 1.5, 2.0, 3.0, 4.0, 6.0, 8.0};
+    /** Number of days in the schedule */
+    private static final int NUM_DAYS = 365;
+    /** First screen of the SubTask table */
+    private static final TableView FIRST_PAGE = new TableView(null, null, 1, 50);
+
+    /** Number of Tasks in the workload */
+    @Param({"1000", "10000"})
+    private int numTasks;
+
+    private ScheduleManager sm;
+    private Random rand;
+    /** Buffer reused as the console */
+    private final StringBuilder out = new StringBuilder();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        UserConfig userConfig = new UserConfig();
+        userConfig.setMaxDays(NUM_DAYS);
+        sm = new ScheduleManager(userConfig);
+        rand = new Random(SEED);
+
+        Card.Color[] colors = Card.Color.values();
+        for (int i = 0; i < 5; i++) {
+            sm.addCard("Card " + i, colors[i]);
+        }
+        for (int i = 0; i < numTasks; i++) {
+            double hours = TASK_HOURS[rand.nextInt(TASK_HOURS.length)];
+            sm.addTask("Task " + i, hours, Time.getFormattedCalendarInstance(rand.nextInt(NUM_DAYS)), rand.nextInt(5));
+        }
+        sm.buildSchedule();
+        sm.writeScheduleStr(out);
+    }
+
+    @Benchmark
+    public int renderAll() throws IOException {
+        out.setLength(0);
+        TableFormatter.appendScheduleTable(out, sm.getSchedule(), true, new TableFormatter.RowCache());
+        return out.length();
+    }
+
+    @Benchmark
+    public int renderCached() throws IOException {
+        out.setLength(0);
+        sm.writeScheduleStr(out);
+        return out.length();
+    }
+
+    @Benchmark
+    public int renderAfterEdit() throws IOException {
+        sm.getTask(rand.nextInt(numTasks)).setName("Task " + rand.nextInt(numTasks));
+        out.setLength(0);
+        sm.writeScheduleStr(out);
+        return out.length();
+    }
+
+    @Benchmark
+    public int renderFirstPage() throws IOException {
+        out.setLength(0);
+        TableFormatter.appendSubTaskTable(out, sm.getSchedule(), sm.getUserConfig(), FIRST_PAGE,
+                new TableFormatter.RowCache());
+        return out.length();
+    }
+}
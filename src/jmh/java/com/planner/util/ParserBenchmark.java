@@ -0,0 +1,75 @@
+package com.planner.util;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing a batch of {@code task} and {@code event} commands, as read by a bulk import: splitting each line
+ * into Strings first, as the CLI used to, and scanning each line in place into a reused {@link CommandLine}.
+ * Run with {@code ./gradlew jmh}; results are written to {@code benchmarks/jmh-results.json}.
+ *
+ * @author Andrew Roe
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParserBenchmark {
+
+    /** Seed used for generating every workload */
+    private static final long SEED = 34;
+    /** Number of commands in the batch */
+    private static final int NUM_LINES = 1000;
+
+    private String[] tasks;
+    private String[] events;
+    private CommandLine cmd;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random rand = new Random(SEED);
+        tasks = new String[NUM_LINES];
+        events = new String[NUM_LINES];
+        for (int i = 0; i < NUM_LINES; i++) {
+            tasks[i] = String.format("task \"Task %d\" %.1f @ %02d-%02d-2025 +C%d", i, 0.5 + rand.nextInt(16) / 2.0,
+                    1 + rand.nextInt(28), 1 + rand.nextInt(12), rand.nextInt(5));
+            int start = 1 + rand.nextInt(10);
+            events[i] = String.format("event %b \"Event %d\" @ %s %d:%02d-%dpm", rand.nextBoolean(), i,
+                    rand.nextBoolean() ? "mon wed fri" : "15-06-2025", start, rand.nextInt(4) * 15, start + 1);
+        }
+        cmd = new CommandLine();
+    }
+
+    @Benchmark
+    public void tokenizeTasks(Blackhole bh) {
+        for (String line : tasks) {
+            bh.consume(Parser.parseTask(Parser.tokenize(line)));
+        }
+    }
+
+    @Benchmark
+    public void scanTasks(Blackhole bh) {
+        for (String line : tasks) {
+            bh.consume(Parser.parseTask(cmd.scan(line)));
+        }
+    }
+
+    @Benchmark
+    public void tokenizeEvents(Blackhole bh) {
+        for (String line : events) {
+            bh.consume(Parser.parseEvent(Parser.tokenize(line)));
+        }
+    }
+
+    @Benchmark
+    public void scanEvents(Blackhole bh) {
+        for (String line : events) {
+            bh.consume(Parser.parseEvent(cmd.scan(line)));
+        }
+    }
+}
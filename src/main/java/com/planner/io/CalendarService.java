@@ -0,0 +1,239 @@
+package com.planner.io;
+
+import com.google.api.client.util.DateTime;
+import com.google.api.services.calendar.model.Event;
+import com.google.api.services.calendar.model.Events;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Remote calendar holding the events exported by Agile Planner. {@link GoogleCalendarService} talks to Google
+ * Calendar, while {@link LocalCalendarService} keeps the events in memory so that syncing can be tested and measured
+ * without a network or an account.
+ * <p>
+ * Writes are sent as batches of {@link Call}s, each completed with its own status, so one HTTP round trip covers
+ * many events and a rejected call can be retried without repeating the others.
+ *
+ * @author Andrew Roe
+ */
+public interface CalendarService {
+
+    /** Largest number of calls sent in one batch, as recommended by Google Calendar */
+    int MAX_BATCH_SIZE = 50;
+    /** Largest number of events listed per page, as allowed by Google Calendar */
+    int MAX_PAGE_SIZE = 2500;
+
+    /**
+     * Sends a batch of calls and completes each of them with its status
+     *
+     * @param calls calls being sent, at most {@link #MAX_BATCH_SIZE}
+     * @throws IOException when the batch as a whole could not be sent, in which case none of the calls are completed
+     */
+    void executeBatch(List<Call> calls) throws IOException;
+
+    /**
+     * Lists one page of the single (expanded) events ending after a time, ordered by their start
+     *
+     * @param timeMin time the events end after
+     * @param pageToken token of the page from a previous listing, or <code>null</code> for the first page
+     * @param maxResults largest number of events in the page, at most {@link #MAX_PAGE_SIZE}
+     * @return page of events, with the token of the next page if there is one
+     * @throws IOException when the page could not be listed
+     */
+    Events listEvents(DateTime timeMin, String pageToken, int maxResults) throws IOException;
+
+    /**
+     * Determines whether a failed call or request may succeed if sent again, which is the case for rate limits and
+     * server errors
+     *
+     * @param status HTTP status of the failure
+     * @param reason reason given by the service, or <code>null</code> if there is none
+     * @return boolean value for whether the failure is transient
+     */
+    static boolean isRetryable(int status, String reason) {
+        if (status == 429 || status >= 500) return true;
+        return status == 403 && ("rateLimitExceeded".equals(reason) || "userRateLimitExceeded".equals(reason));
+    }
+
+    /**
+     * Single write of a batch, which is completed by the service once the batch has been sent
+     *
+     * @author Andrew Roe
+     */
+    final class Call {
+
+        /**
+         * Kind of write made by a Call
+         */
+        public enum Method { INSERT, UPDATE, DELETE }
+
+        private final Method method;
+        /** ID of the remote event, or <code>null</code> for an insert */
+        private final String eventId;
+        /** Event being written, or <code>null</code> for a delete */
+        private final Event event;
+        /** HTTP status of the last attempt, or 0 if the call has not been completed */
+        private int status;
+        /** Reason given for a failure, or <code>null</code> */
+        private String reason;
+        /** Event returned by the service */
+        private Event result;
+
+        private Call(Method method, String eventId, Event event) {
+            this.method = method;
+            this.eventId = eventId;
+            this.event = event;
+        }
+
+        /**
+         * Creates a call inserting an event
+         *
+         * @param event event being inserted
+         * @return insert Call
+         */
+        public static Call insert(Event event) {
+            return new Call(Method.INSERT, null, event);
+        }
+
+        /**
+         * Creates a call replacing the fields of an event
+         *
+         * @param eventId ID of the remote event
+         * @param event new fields of the event
+         * @return update Call
+         */
+        public static Call update(String eventId, Event event) {
+            return new Call(Method.UPDATE, eventId, event);
+        }
+
+        /**
+         * Creates a call deleting an event
+         *
+         * @param eventId ID of the remote event
+         * @return delete Call
+         */
+        public static Call delete(String eventId) {
+            return new Call(Method.DELETE, eventId, null);
+        }
+
+        public Method getMethod() {
+            return method;
+        }
+
+        public String getEventId() {
+            return eventId;
+        }
+
+        public Event getEvent() {
+            return event;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        public Event getResult() {
+            return result;
+        }
+
+        /**
+         * Determines whether the call was sent and its response received
+         *
+         * @return boolean value for whether the call has a status
+         */
+        public boolean isCompleted() {
+            return status != 0;
+        }
+
+        /**
+         * Determines whether the last attempt succeeded
+         *
+         * @return boolean value for whether the status is 2xx
+         */
+        public boolean isSuccessful() {
+            return status >= 200 && status < 300;
+        }
+
+        /**
+         * Determines whether the last attempt found that the remote event no longer exists, such as after it was
+         * deleted by hand
+         *
+         * @return boolean value for whether the status is 404 or 410
+         */
+        public boolean isGone() {
+            return status == 404 || status == 410;
+        }
+
+        /**
+         * Determines whether the last attempt failed in a way that may succeed if sent again
+         *
+         * @return boolean value for whether the failure is transient
+         */
+        public boolean isRetryable() {
+            return CalendarService.isRetryable(status, reason);
+        }
+
+        /**
+         * Completes the call, which is done by the service once its response has been received
+         *
+         * @param status HTTP status of the response
+         * @param reason reason given for a failure, or <code>null</code>
+         * @param result event returned by the service, or <code>null</code>
+         */
+        public void complete(int status, String reason, Event result) {
+            this.status = status;
+            this.reason = reason;
+            this.result = result;
+        }
+    }
+
+    /**
+     * Failure of a whole request, such as a page listing or a batch rejected by a rate limit
+     *
+     * @author Andrew Roe
+     */
+    class ServiceException extends IOException {
+
+        private static final long serialVersionUID = 1L;
+
+        /** HTTP status of the response */
+        private final int status;
+        /** Reason given by the service, or <code>null</code> */
+        private final String reason;
+
+        /**
+         * Constructs a {@code ServiceException}
+         *
+         * @param status HTTP status of the response
+         * @param reason reason given by the service, or <code>null</code>
+         * @param message description of the failure
+         */
+        public ServiceException(int status, String reason, String message) {
+            super(message);
+            this.status = status;
+            this.reason = reason;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        /**
+         * Determines whether the request may succeed if sent again
+         *
+         * @return boolean value for whether the failure is transient
+         */
+        public boolean isRetryable() {
+            return CalendarService.isRetryable(status, reason);
+        }
+    }
+}
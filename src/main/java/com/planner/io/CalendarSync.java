@@ -0,0 +1,315 @@
+package com.planner.io;
+
+import com.google.api.client.util.DateTime;
+import com.google.api.services.calendar.model.Event;
+import com.google.api.services.calendar.model.Events;
+import com.planner.util.Metrics;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Engine writing many events to a {@link CalendarService} at once. Calls are grouped into batches of
+ * {@link CalendarService#MAX_BATCH_SIZE}, of which a bounded number are in flight at the same time, so a full export
+ * costs a few dozen round trips instead of one per event.
+ * <p>
+ * Calls rejected by a rate limit or a server error are retried in a later batch after an exponential backoff with
+ * full jitter. A rate limit hit by any batch also holds back every other batch until the backoff has passed, rather
+ * than letting them all run into it.
+ *
+ * @author Andrew Roe
+ */
+public class CalendarSync {
+
+    /** Default number of batches in flight at the same time */
+    public static final int DEFAULT_MAX_IN_FLIGHT = 4;
+    /** Default delay before the first retry, in milliseconds */
+    public static final long DEFAULT_BASE_BACKOFF_MILLIS = 250;
+    /** Longest delay before a retry, in milliseconds */
+    private static final long MAX_BACKOFF_MILLIS = 32_000;
+    /** Number of times a call is sent before it is given up on */
+    private static final int MAX_ATTEMPTS = 8;
+    /** Latency of each batch, including retries */
+    private static final Metrics.Histogram BATCH_LATENCY = Metrics.histogram("google.batch_ns");
+    /** Number of calls sent again after a transient failure */
+    private static final Metrics.Counter RETRIES = Metrics.counter("google.retries");
+
+    /** Service that the calls are sent to */
+    private final CalendarService service;
+    /** Number of batches in flight at the same time */
+    private final int maxInFlight;
+    /** Longest delay before the first retry, in milliseconds, which doubles with each further attempt */
+    private final long baseBackoffMillis;
+    /** Time (from {@link System#nanoTime()}) before which no request is sent, after a rate limit was hit */
+    private final AtomicLong pausedUntil;
+
+    /**
+     * Constructs a {@code CalendarSync} with the default concurrency and backoff
+     *
+     * @param service calendar being written
+     */
+    public CalendarSync(CalendarService service) {
+        this(service, DEFAULT_MAX_IN_FLIGHT, DEFAULT_BASE_BACKOFF_MILLIS);
+    }
+
+    /**
+     * Constructs a {@code CalendarSync}
+     *
+     * @param service calendar being written
+     * @param maxInFlight number of batches in flight at the same time
+     * @param baseBackoffMillis delay before the first retry, in milliseconds, which doubles with every attempt
+     * @throws IllegalArgumentException when the number of batches is less than 1 or the backoff is negative
+     */
+    public CalendarSync(CalendarService service, int maxInFlight, long baseBackoffMillis) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("At least one batch must be in flight.");
+        } else if (baseBackoffMillis < 0) {
+            throw new IllegalArgumentException("Backoff cannot be negative.");
+        }
+        this.service = service;
+        this.maxInFlight = maxInFlight;
+        this.baseBackoffMillis = baseBackoffMillis;
+        this.pausedUntil = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Sends every call, each completed with the status of its last attempt. When a batch fails, the batches that have
+     * not started are skipped and those in flight finish before this returns, so no call is completed afterwards and
+     * those that were are reported by {@link CalendarService.Call#isCompleted()}.
+     *
+     * @param calls calls being sent
+     * @return summary of the calls
+     * @throws IOException when a batch failed in a way that cannot be retried, or kept failing, in which case the calls
+     *                     that were not sent are left uncompleted
+     */
+    public Summary execute(List<CalendarService.Call> calls) throws IOException {
+        Summary summary = new Summary();
+        if (calls.isEmpty()) return summary;
+        int numBatches = (calls.size() + CalendarService.MAX_BATCH_SIZE - 1) / CalendarService.MAX_BATCH_SIZE;
+        if (numBatches == 1 || maxInFlight == 1) {
+            for (int i = 0; i < numBatches; i++) {
+                sendBatch(batchOf(calls, i), summary);
+            }
+            return summary;
+        }
+        AtomicInteger threadId = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(Math.min(maxInFlight, numBatches), r -> {
+            Thread thread = new Thread(r, "calendar-sync-" + threadId.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<Future<Void>> futures = new ArrayList<>(numBatches);
+        try {
+            for (int i = 0; i < numBatches; i++) {
+                List<CalendarService.Call> batch = batchOf(calls, i);
+                futures.add(workers.submit(() -> {
+                    sendBatch(batch, summary);
+                    return null;
+                }));
+            }
+            for (Future<Void> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    // batches in flight are left to finish, since interrupting one leaves the outcome of its calls
+                    // unknown
+                    futures.forEach(f -> f.cancel(false));
+                    if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+                    if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+                    throw new IOException(e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(f -> f.cancel(false));
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while syncing the calendar");
+        } finally {
+            workers.shutdown();
+            awaitTermination(workers);
+        }
+        return summary;
+    }
+
+    /**
+     * Lists every single event ending after a time, following the pages of the listing
+     *
+     * @param timeMin time the events end after
+     * @return events ordered by their start
+     * @throws IOException when a page failed in a way that cannot be retried, or kept failing
+     */
+    public List<Event> listAll(DateTime timeMin) throws IOException {
+        List<Event> events = new ArrayList<>();
+        String pageToken = null;
+        do {
+            Events page = null;
+            for (int attempt = 1; page == null; attempt++) {
+                awaitPause();
+                try {
+                    page = service.listEvents(timeMin, pageToken, CalendarService.MAX_PAGE_SIZE);
+                } catch (CalendarService.ServiceException e) {
+                    if (!e.isRetryable() || attempt == MAX_ATTEMPTS) throw e;
+                    RETRIES.increment();
+                    backOff(attempt);
+                }
+            }
+            if (page.getItems() != null) {
+                events.addAll(page.getItems());
+            }
+            pageToken = page.getNextPageToken();
+        } while (pageToken != null);
+        return events;
+    }
+
+    /**
+     * Sends a batch, then sends its calls that failed transiently again until they succeed or run out of attempts
+     *
+     * @param batch calls being sent
+     * @param summary summary receiving the outcome of each call
+     * @throws IOException when the batch failed in a way that cannot be retried, or kept failing
+     */
+    private void sendBatch(List<CalendarService.Call> batch, Summary summary) throws IOException {
+        long start = System.nanoTime();
+        List<CalendarService.Call> pending = batch;
+        for (int attempt = 1; !pending.isEmpty(); attempt++) {
+            awaitPause();
+            try {
+                service.executeBatch(pending);
+            } catch (CalendarService.ServiceException e) {
+                if (!e.isRetryable() || attempt == MAX_ATTEMPTS) throw e;
+                RETRIES.add(pending.size());
+                summary.retries.addAndGet(pending.size());
+                backOff(attempt);
+                continue;
+            }
+            List<CalendarService.Call> retry = new ArrayList<>();
+            for (CalendarService.Call call : pending) {
+                if (call.isSuccessful()) {
+                    summary.succeeded.incrementAndGet();
+                } else if (call.isRetryable() && attempt < MAX_ATTEMPTS) {
+                    retry.add(call);
+                } else {
+                    summary.failed.incrementAndGet();
+                }
+            }
+            if (!retry.isEmpty()) {
+                RETRIES.add(retry.size());
+                summary.retries.addAndGet(retry.size());
+                backOff(attempt);
+            }
+            pending = retry;
+        }
+        BATCH_LATENCY.recordSince(start);
+    }
+
+    /**
+     * Holds every request back until a random time within the exponential backoff of an attempt
+     *
+     * @param attempt number of the failed attempt, starting at 1
+     * @throws InterruptedIOException when the thread is interrupted while waiting
+     */
+    private void backOff(int attempt) throws InterruptedIOException {
+        long cap = Math.min(MAX_BACKOFF_MILLIS, baseBackoffMillis << Math.min(attempt - 1, 20));
+        long delayNanos = ThreadLocalRandom.current().nextLong(cap + 1) * 1_000_000;
+        long until = System.nanoTime() + delayNanos;
+        pausedUntil.accumulateAndGet(until, (prev, next) -> prev - next < 0 ? next : prev);
+        awaitPause();
+    }
+
+    /**
+     * Waits until requests are no longer held back by a backoff
+     *
+     * @throws InterruptedIOException when the thread is interrupted while waiting
+     */
+    private void awaitPause() throws InterruptedIOException {
+        long remaining;
+        while ((remaining = pausedUntil.get() - System.nanoTime()) > 0) {
+            try {
+                Thread.sleep(remaining / 1_000_000, (int) (remaining % 1_000_000));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while backing off from the calendar");
+            }
+        }
+    }
+
+    /**
+     * Waits until every batch in flight has finished, so that the outcome of each call is final once a sync has
+     * returned
+     *
+     * @param workers threads sending the batches, which have been shut down
+     */
+    private static void awaitTermination(ExecutorService workers) {
+        boolean interrupted = false;
+        while (!workers.isTerminated()) {
+            try {
+                workers.awaitTermination(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Gets a batch of calls
+     *
+     * @param calls all calls being sent
+     * @param index index of the batch
+     * @return calls of the batch
+     */
+    private static List<CalendarService.Call> batchOf(List<CalendarService.Call> calls, int index) {
+        int from = index * CalendarService.MAX_BATCH_SIZE;
+        return calls.subList(from, Math.min(calls.size(), from + CalendarService.MAX_BATCH_SIZE));
+    }
+
+    /**
+     * Outcome of the calls of a sync
+     *
+     * @author Andrew Roe
+     */
+    public static class Summary {
+
+        private final AtomicInteger succeeded = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final AtomicInteger retries = new AtomicInteger();
+
+        /**
+         * Gets the number of calls that succeeded
+         *
+         * @return number of successful calls
+         */
+        public int getSucceeded() {
+            return succeeded.get();
+        }
+
+        /**
+         * Gets the number of calls that failed permanently or ran out of attempts
+         *
+         * @return number of failed calls
+         */
+        public int getFailed() {
+            return failed.get();
+        }
+
+        /**
+         * Gets the number of times calls were sent again after a transient failure
+         *
+         * @return number of retries
+         */
+        public int getRetries() {
+            return retries.get();
+        }
+    }
+}
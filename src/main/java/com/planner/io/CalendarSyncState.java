@@ -0,0 +1,378 @@
+package com.planner.io;
+
+import com.google.api.services.calendar.model.Event;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Record of the events last exported to a remote calendar, by the key of the SubTask or Event they were created for.
+ * Each entry holds the ID of the remote event and a hash of its content, so a later export only sends the events
+ * that were added, changed or removed since, rather than writing the whole schedule again.
+ * <p>
+ * The key and hash are also written to the private extended properties of every remote event, which lets the record
+ * be rebuilt from the calendar itself when the local file is lost.
+ *
+ * @author Andrew Roe
+ */
+public class CalendarSyncState {
+
+    /** Private extended property holding the key of a remote event */
+    static final String KEY_PROPERTY = "agilePlannerKey";
+    /** Private extended property holding the content hash of a remote event */
+    static final String HASH_PROPERTY = "agilePlannerHash";
+    /** Offset basis of the 64-bit FNV-1a hash */
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    /** Prime of the 64-bit FNV-1a hash */
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /** Entries by key, sorted so that the file is stable between exports */
+    private final TreeMap<String, Entry> entries;
+
+    /**
+     * Constructs an empty {@code CalendarSyncState}, as before the first export
+     */
+    public CalendarSyncState() {
+        this.entries = new TreeMap<>();
+    }
+
+    /**
+     * Reads the state written by a previous export
+     *
+     * @param file file of the state
+     * @return state read from the file, or <code>null</code> if the file does not exist
+     * @throws IOException when the file cannot be read
+     * @throws IllegalArgumentException when the file is not a sync state
+     */
+    public static CalendarSyncState read(Path file) throws IOException {
+        if (!Files.exists(file)) return null;
+        CalendarSyncState state;
+        try {
+            state = new Gson().fromJson(Files.readString(file), CalendarSyncState.class);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid sync state " + file, e);
+        }
+        if (state == null || state.entries == null) {
+            throw new IllegalArgumentException("Invalid sync state " + file);
+        }
+        return state;
+    }
+
+    /**
+     * Rebuilds the state from the events of a remote calendar that carry a key, such as when the local file is lost
+     *
+     * @param remoteEvents events of the remote calendar
+     * @return state of the keyed events
+     */
+    public static CalendarSyncState fromRemote(List<Event> remoteEvents) {
+        CalendarSyncState state = new CalendarSyncState();
+        for (Event event : remoteEvents) {
+            if (event.getExtendedProperties() == null || event.getExtendedProperties().getPrivate() == null) {
+                continue;
+            }
+            Map<String, String> properties = event.getExtendedProperties().getPrivate();
+            String key = properties.get(KEY_PROPERTY);
+            String hash = properties.get(HASH_PROPERTY);
+            if (key == null || hash == null) continue;
+            try {
+                state.entries.put(key, new Entry(event.getId(), Long.parseUnsignedLong(hash, 16), endOf(event)));
+            } catch (NumberFormatException e) {
+                // hash was edited by hand, so the event is rewritten on the next export
+                state.entries.put(key, new Entry(event.getId(), 0, endOf(event)));
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Writes the state, replacing the file only once it is complete
+     *
+     * @param file file of the state
+     * @throws IOException when the file cannot be written
+     */
+    public void write(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(tmp, new GsonBuilder().create().toJson(this).getBytes(StandardCharsets.UTF_8));
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Computes the calls bringing the remote calendar from this state to a set of events. Events that are new are
+     * inserted, those whose content changed are updated, and those no longer wanted are deleted unless they already
+     * ended, in which case they are kept on the calendar as history and only forgotten.
+     * <p>
+     * Every wanted event is given the private extended properties holding its key and hash.
+     *
+     * @param wanted events that the calendar should hold, by key
+     * @param nowMillis current time, before which ended events are kept
+     * @return delta holding the calls
+     */
+    public Delta diff(Map<String, Event> wanted, long nowMillis) {
+        Delta delta = new Delta();
+        for (Map.Entry<String, Event> want : wanted.entrySet()) {
+            String key = want.getKey();
+            Event event = want.getValue();
+            long hash = hashOf(event);
+            Map<String, String> properties = new HashMap<>();
+            properties.put(KEY_PROPERTY, key);
+            properties.put(HASH_PROPERTY, Long.toHexString(hash));
+            event.setExtendedProperties(new Event.ExtendedProperties().setPrivate(properties));
+
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                delta.add(CalendarService.Call.insert(event), key, hash, endOf(event));
+                delta.numInserts++;
+            } else if (entry.hash != hash) {
+                delta.add(CalendarService.Call.update(entry.eventId, event), key, hash, endOf(event));
+                delta.numUpdates++;
+            } else {
+                delta.numUnchanged++;
+            }
+        }
+        for (Map.Entry<String, Entry> have : entries.entrySet()) {
+            if (wanted.containsKey(have.getKey())) continue;
+            if (have.getValue().endMillis <= nowMillis) {
+                delta.expired.add(have.getKey());
+            } else {
+                delta.add(CalendarService.Call.delete(have.getValue().eventId), have.getKey(), 0, 0);
+                delta.numDeletes++;
+            }
+        }
+        return delta;
+    }
+
+    /**
+     * Records the outcome of the calls of a delta once they have been sent. Calls that failed, or were never completed
+     * since the sync stopped first, leave their entry as it was, so they are sent again by the next export. Updates of
+     * events that no longer exist remotely remove their entry, so the next diff inserts them again.
+     *
+     * @param delta delta whose calls were sent
+     * @return number of calls that failed, not counting those that found their remote event gone
+     */
+    public int apply(Delta delta) {
+        int numFailed = 0;
+        for (String key : delta.expired) {
+            entries.remove(key);
+        }
+        for (CalendarService.Call call : delta.calls) {
+            Pending pending = delta.pending.get(call);
+            switch (call.getMethod()) {
+                case INSERT:
+                    if (call.isSuccessful()) {
+                        entries.put(pending.key, new Entry(call.getResult().getId(), pending.hash, pending.endMillis));
+                    } else {
+                        numFailed++;
+                    }
+                    break;
+                case UPDATE:
+                    if (call.isSuccessful()) {
+                        entries.put(pending.key, new Entry(call.getEventId(), pending.hash, pending.endMillis));
+                    } else if (call.isGone()) {
+                        entries.remove(pending.key);
+                        delta.numGone++;
+                    } else {
+                        numFailed++;
+                    }
+                    break;
+                case DELETE:
+                    if (call.isSuccessful() || call.isGone()) {
+                        entries.remove(pending.key);
+                    } else {
+                        numFailed++;
+                    }
+                    break;
+            }
+        }
+        return numFailed;
+    }
+
+    /**
+     * Removes every entry, such as after the exported events were deleted from the calendar
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Gets the ID of the remote event exported for a key
+     *
+     * @param key key of the SubTask or Event
+     * @return ID of the remote event, or <code>null</code> if none was exported
+     */
+    public String getEventId(String key) {
+        Entry entry = entries.get(key);
+        return entry == null ? null : entry.eventId;
+    }
+
+    /**
+     * Gets the number of exported events
+     *
+     * @return number of entries
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Computes the 64-bit FNV-1a hash of every field of an event that Agile Planner writes
+     *
+     * @param event event being hashed
+     * @return content hash of the event
+     */
+    static long hashOf(Event event) {
+        long hash = FNV_OFFSET;
+        hash = hash(hash, event.getSummary());
+        hash = hash(hash, event.getDescription());
+        hash = hash(hash, event.getColorId());
+        hash = hash(hash, event.getStart() != null ? event.getStart().getDateTime().getValue() : 0);
+        return hash(hash, event.getEnd() != null ? event.getEnd().getDateTime().getValue() : 0);
+    }
+
+    private static long hash(long hash, String value) {
+        if (value == null) {
+            return (hash ^ 0xff) * FNV_PRIME;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            hash = (hash ^ (c & 0xff)) * FNV_PRIME;
+            hash = (hash ^ (c >>> 8)) * FNV_PRIME;
+        }
+        // separates consecutive Strings so that moving characters between them changes the hash
+        return (hash ^ 0xfe) * FNV_PRIME;
+    }
+
+    private static long hash(long hash, long value) {
+        for (int i = 0; i < 8; i++) {
+            hash = (hash ^ ((value >>> (i * 8)) & 0xff)) * FNV_PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * Gets the end of an event
+     *
+     * @param event remote event
+     * @return end in milliseconds since the epoch, or <code>Long.MAX_VALUE</code> if it has none
+     */
+    private static long endOf(Event event) {
+        if (event.getEnd() == null || event.getEnd().getDateTime() == null) return Long.MAX_VALUE;
+        return event.getEnd().getDateTime().getValue();
+    }
+
+    /**
+     * Exported event of a key
+     */
+    private static class Entry {
+        /** ID of the remote event */
+        private final String eventId;
+        /** Hash of the content last written */
+        private final long hash;
+        /** End of the event, in milliseconds since the epoch */
+        private final long endMillis;
+
+        private Entry(String eventId, long hash, long endMillis) {
+            this.eventId = eventId;
+            this.hash = hash;
+            this.endMillis = endMillis;
+        }
+    }
+
+    /**
+     * Entry that a call will record once it succeeds
+     */
+    private static class Pending {
+        private final String key;
+        private final long hash;
+        private final long endMillis;
+
+        private Pending(String key, long hash, long endMillis) {
+            this.key = key;
+            this.hash = hash;
+            this.endMillis = endMillis;
+        }
+    }
+
+    /**
+     * Calls bringing a remote calendar up to date, computed by {@link #diff(Map, long)}
+     *
+     * @author Andrew Roe
+     */
+    public static final class Delta {
+
+        private final List<CalendarService.Call> calls = new ArrayList<>();
+        private final Map<CalendarService.Call, Pending> pending = new IdentityHashMap<>();
+        /** Keys of events that ended and are no longer wanted */
+        private final List<String> expired = new ArrayList<>();
+        private int numInserts;
+        private int numUpdates;
+        private int numDeletes;
+        private int numUnchanged;
+        /** Number of updates that found their remote event gone, counted once the calls were sent */
+        private int numGone;
+
+        private Delta() {
+        }
+
+        private void add(CalendarService.Call call, String key, long hash, long endMillis) {
+            calls.add(call);
+            pending.put(call, new Pending(key, hash, endMillis));
+        }
+
+        /**
+         * Gets the calls of the delta, to be sent with {@link CalendarSync#execute(List)}
+         *
+         * @return inserts and updates in the order of the wanted events, followed by deletes
+         */
+        public List<CalendarService.Call> getCalls() {
+            return calls;
+        }
+
+        public int getNumInserts() {
+            return numInserts;
+        }
+
+        public int getNumUpdates() {
+            return numUpdates;
+        }
+
+        public int getNumDeletes() {
+            return numDeletes;
+        }
+
+        public int getNumUnchanged() {
+            return numUnchanged;
+        }
+
+        /**
+         * Gets the number of updates that found their remote event gone, such as after it was deleted by hand
+         *
+         * @return number of updates to be sent again as inserts
+         */
+        public int getNumGone() {
+            return numGone;
+        }
+
+        /**
+         * Determines whether the calendar is already up to date
+         *
+         * @return boolean value for whether there are no calls
+         */
+        public boolean isEmpty() {
+            return calls.isEmpty();
+        }
+    }
+}
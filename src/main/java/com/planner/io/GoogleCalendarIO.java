@@ -25,9 +25,15 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.security.GeneralSecurityException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Class to demonstrate use of Calendar events list API.
@@ -56,18 +62,38 @@ public class GoogleCalendarIO {
             Collections.singletonList(CalendarScopes.CALENDAR);
     private static final String CREDENTIALS_FILE_PATH = "/credentials.json";
     private static final String calendarId = "primary";
-    private final Calendar service;
+    /**
+     * File recording the events of the last export, so the next export only sends what changed.
+     */
+    private static final String SYNC_STATE_PATH = "data/google_sync.json";
+    private final CalendarSync sync;
+    private final Path syncStateFile;
     private EventLog eventLog;
 
     public GoogleCalendarIO(EventLog eventLog) throws GeneralSecurityException, IOException {
         this.eventLog = eventLog;
         final NetHttpTransport HTTP_TRANSPORT = GoogleNetHttpTransport.newTrustedTransport();
-        service = new Calendar.Builder(HTTP_TRANSPORT, JSON_FACTORY, getCredentials(HTTP_TRANSPORT))
+        Calendar service = new Calendar.Builder(HTTP_TRANSPORT, JSON_FACTORY, getCredentials(HTTP_TRANSPORT))
                 .setApplicationName(APPLICATION_NAME)
                 .build();
+        this.sync = new CalendarSync(new GoogleCalendarService(service, calendarId));
+        this.syncStateFile = Paths.get(SYNC_STATE_PATH);
         this.eventLog.reportGoogleCalendarAuthorization();
     }
 
+    /**
+     * Constructs a {@code GoogleCalendarIO} syncing with any calendar, such as a {@link LocalCalendarService}
+     *
+     * @param eventLog Global event log object
+     * @param sync sync engine writing the calendar
+     * @param syncStateFile file recording the events of the last export
+     */
+    public GoogleCalendarIO(EventLog eventLog, CalendarSync sync, Path syncStateFile) {
+        this.eventLog = eventLog;
+        this.sync = sync;
+        this.syncStateFile = syncStateFile;
+    }
+
     /**
      * Creates an authorized Credential object.
      *
@@ -97,35 +123,75 @@ public class GoogleCalendarIO {
     }
 
     // [COMPLETE]
-    public void exportScheduleToGoogle(UserConfig userconfig, List<Day> week) throws IOException {
-        // need to handle null pointer here since if we try to export to Google without building, else we'll get an exception
+    public CalendarSyncState.Delta exportScheduleToGoogle(UserConfig userconfig, List<Day> week) throws IOException {
+        // need to handle null pointer here since if we try to export to Google without building, else we'll get an
+        // exception
+        Map<String, Event> wanted = formatScheduleToGoogleEvents(week);
+        long now = System.currentTimeMillis();
+        CalendarSyncState state = CalendarSyncState.read(syncStateFile);
+        if (state == null) {
+            // the schedule starts today, so every event it may have exported ends after midnight
+            DateTime today = new DateTime(Time.getFormattedCalendarInstance(0).getTime());
+            state = CalendarSyncState.fromRemote(sync.listAll(today));
+        }
+        CalendarSyncState.Delta delta = state.diff(wanted, now);
+        int failed;
+        try {
+            sync.execute(delta.getCalls());
+        } finally {
+            // the calls completed before a failure are recorded, so the next export does not insert their events again
+            failed = state.apply(delta);
+            state.write(syncStateFile);
+        }
+        if (delta.getNumGone() > 0) {
+            // events deleted by hand since the last export are created again, along with another try of any failed
+            // calls
+            CalendarSyncState.Delta recreated = state.diff(wanted, now);
+            try {
+                sync.execute(recreated.getCalls());
+            } finally {
+                failed = state.apply(recreated);
+                state.write(syncStateFile);
+            }
+        }
+        if (failed > 0) {
+            throw new IOException(failed + " of " + delta.getCalls().size()
+                    + " events could not be written to Google Calendar");
+        }
+        eventLog.reportGoogleCalendarExportSchedule();
+        return delta;
+    }
+
+    /**
+     * Formats every SubTask and Event of a schedule as a Google event, keyed by what it was created for. A SubTask is
+     * keyed by its Task and its position among the SubTasks of the Task, so moving it to another time updates its
+     * remote event rather than replacing it. An Event is keyed by itself and its day, since recurring Events repeat.
+     *
+     * @param week Days of the schedule
+     * @return Google events by key, in the order of the schedule
+     */
+    private static Map<String, Event> formatScheduleToGoogleEvents(List<Day> week) {
+        Map<String, Event> events = new LinkedHashMap<>();
+        Map<Integer, Integer> numSubTasks = new HashMap<>();
         for(Day day : week) {
-            // todo need config option that prevents writing of log output to console
+            long epochDay = Time.getEpochDay(day.getStartOfDay());
             for (com.planner.models.Event e1 : day.getEventList()) {
-                Event event = GoogleCalendarUtil.formatEventToGoogleEvent(e1);
-                event = service.events().insert(calendarId, event).execute();
-                System.out.printf("Event created: %s\n", event.getHtmlLink());
+                events.put("event-" + e1.getId() + "-" + epochDay, GoogleCalendarUtil.formatEventToGoogleEvent(e1));
             }
 
             for(Task.SubTask subTask : day.getSubTaskList()) {
-                Event event = GoogleCalendarUtil.formatTaskToGoogleEvent(subTask);
-                event = service.events().insert(calendarId, event).execute();
-                System.out.printf("Task created: %s\n", event.getHtmlLink());
+                int taskId = subTask.getParentTask().getId();
+                int ordinal = numSubTasks.merge(taskId, 1, Integer::sum);
+                events.put("task-" + taskId + "-" + ordinal, GoogleCalendarUtil.formatTaskToGoogleEvent(subTask));
             }
         }
-        eventLog.reportGoogleCalendarExportSchedule();
+        return events;
     }
 
     // [COMPLETE]
     public void importScheduleFromGoogle() throws IOException {
         DateTime now = new DateTime(System.currentTimeMillis());
-        Events events = service.events().list("primary")
-                .setMaxResults(100)
-                .setTimeMin(now)
-                .setOrderBy("startTime")
-                .setSingleEvents(true)
-                .execute();
-        List<Event> items = events.getItems();
+        List<Event> items = sync.listAll(now);
         List<String> tasks = GoogleCalendarUtil.formatGoogleEventsToTasks(items);
         if (tasks.isEmpty()) {
             System.out.println("No upcoming tasks found.");
@@ -141,22 +207,18 @@ public class GoogleCalendarIO {
     // [COMPLETE]
     public int cleanGoogleSchedule() throws IOException {
         DateTime now = new DateTime(Time.getFormattedCalendarInstance(0).getTime());
-        Events events = service.events().list("primary")
-                .setMaxResults(100)
-                .setTimeMin(now)
-                .setOrderBy("startTime")
-                .setSingleEvents(true)
-                .execute();
-        List<Event> items = events.getItems();
-        int count = 0;
-        for(Event e : items) {
+        List<CalendarService.Call> calls = new ArrayList<>();
+        for(Event e : sync.listAll(now)) {
             // hashcode representing an Agile Planner created event
             if(e.getDescription() != null && e.getDescription().contains("eb007aba6df2559a02ceb17ddba47c85b3e2b930")) {
-                service.events().delete(calendarId, e.getId()).execute();
-                count++;
+                calls.add(CalendarService.Call.delete(e.getId()));
             }
         }
+        int count = sync.execute(calls).getSucceeded();
+        // events that ended before today stay on the calendar, so they are forgotten rather than deleted
+        CalendarSyncState state = new CalendarSyncState();
+        state.write(syncStateFile);
         eventLog.reportGoogleCalendarCleanSchedule(count);
         return count;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,122 @@
+package com.planner.io;
+
+import com.google.api.client.googleapis.batch.BatchRequest;
+import com.google.api.client.googleapis.batch.json.JsonBatchCallback;
+import com.google.api.client.googleapis.json.GoogleJsonError;
+import com.google.api.client.googleapis.json.GoogleJsonResponseException;
+import com.google.api.client.http.HttpHeaders;
+import com.google.api.client.util.DateTime;
+import com.google.api.services.calendar.Calendar;
+import com.google.api.services.calendar.model.Event;
+import com.google.api.services.calendar.model.Events;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * {@link CalendarService} backed by a calendar of an authorized Google account, which sends each batch of calls as
+ * one multipart HTTP request
+ *
+ * @author Andrew Roe
+ */
+public class GoogleCalendarService implements CalendarService {
+
+    /** Client for the Google Calendar API */
+    private final Calendar calendar;
+    /** ID of the calendar that Events are written to */
+    private final String calendarId;
+
+    /**
+     * Constructs a {@code GoogleCalendarService}
+     *
+     * @param calendar authorized client of the Calendar API
+     * @param calendarId ID of the calendar being written, such as {@code primary}
+     */
+    public GoogleCalendarService(Calendar calendar, String calendarId) {
+        this.calendar = calendar;
+        this.calendarId = calendarId;
+    }
+
+    @Override
+    public void executeBatch(List<Call> calls) throws IOException {
+        BatchRequest batch = calendar.batch();
+        for (Call call : calls) {
+            switch (call.getMethod()) {
+                case INSERT:
+                    calendar.events().insert(calendarId, call.getEvent()).queue(batch, callback(call));
+                    break;
+                case UPDATE:
+                    calendar.events().update(calendarId, call.getEventId(), call.getEvent())
+                            .queue(batch, callback(call));
+                    break;
+                case DELETE:
+                    calendar.events().delete(calendarId, call.getEventId()).queue(batch, callback(call));
+                    break;
+            }
+        }
+        try {
+            batch.execute();
+        } catch (GoogleJsonResponseException e) {
+            throw toServiceException(e);
+        }
+    }
+
+    @Override
+    public Events listEvents(DateTime timeMin, String pageToken, int maxResults) throws IOException {
+        try {
+            return calendar.events().list(calendarId)
+                    .setMaxResults(maxResults)
+                    .setTimeMin(timeMin)
+                    .setOrderBy("startTime")
+                    .setSingleEvents(true)
+                    .setPageToken(pageToken)
+                    .execute();
+        } catch (GoogleJsonResponseException e) {
+            throw toServiceException(e);
+        }
+    }
+
+    /**
+     * Creates the callback completing a call with the response of its part of a batch
+     *
+     * @param call call being completed
+     * @param <T> type of the response
+     * @return callback of the call
+     */
+    private static <T> JsonBatchCallback<T> callback(Call call) {
+        return new JsonBatchCallback<T>() {
+            @Override
+            public void onSuccess(T result, HttpHeaders responseHeaders) {
+                call.complete(200, null, result instanceof Event ? (Event) result : null);
+            }
+
+            @Override
+            public void onFailure(GoogleJsonError e, HttpHeaders responseHeaders) {
+                call.complete(e.getCode(), reasonOf(e), null);
+            }
+        };
+    }
+
+    /**
+     * Converts the failure of a request into a {@link CalendarService.ServiceException}
+     *
+     * @param e failure of the request
+     * @return exception with the status and reason of the failure
+     */
+    private static ServiceException toServiceException(GoogleJsonResponseException e) {
+        ServiceException se = new ServiceException(e.getStatusCode(), reasonOf(e.getDetails()), e.getMessage());
+        se.initCause(e);
+        return se;
+    }
+
+    /**
+     * Gets the reason of the first error of a failure, such as {@code rateLimitExceeded}
+     *
+     * @param error failure reported by Google
+     * @return reason of the failure, or <code>null</code> if none is given
+     */
+    private static String reasonOf(GoogleJsonError error) {
+        if (error == null || error.getErrors() == null || error.getErrors().isEmpty()) return null;
+        return error.getErrors().get(0).getReason();
+    }
+}
@@ -0,0 +1,352 @@
+package com.planner.io;
+
+import com.planner.manager.ScheduleManager;
+import com.planner.models.Card;
+import com.planner.models.Event;
+import com.planner.models.Task;
+import com.planner.util.IntMap;
+import com.planner.util.Time;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads and writes JBin files, the plain-text planner format kept under {@code data/jbin}. A JBin file starts with
+ * the date it was written on ({@code dd-MM-yyyy}), followed by sections of one record per line:
+ * <pre>
+ * TASK {
+ *   name, hours, days until due
+ * }
+ * CARD {
+ *   name, color, T0, T1, ...
+ * }
+ * EVENT {
+ *   name, color, false, HH:mm-HH:mm, dd-MM-yyyy
+ *   name, color, true, HH:mm-HH:mm, MON WED FRI
+ * }
+ * </pre>
+ * Due dates are relative to the date of the file, and Cards refer to Tasks by their position within the TASK section.
+ * Events refer to the first Card of their color. Any other section (such as {@code DAY}) is skipped, since the
+ * schedule is regenerated from the imported Tasks.
+ * <p>
+ * Files are streamed line by line, and every record is handed to the {@link ScheduleManager} as soon as it is read,
+ * so importing never holds more of the file in memory than a single line (plus the IDs of the imported Tasks).
+ *
+ * @author Andrew Roe
+ */
+public class JBin {
+
+    /**
+     * Imports a JBin file into a {@link ScheduleManager}
+     *
+     * @param path path of the JBin file
+     * @param scheduleManager manager receiving the Tasks, Cards and Events
+     * @throws IOException when the file cannot be read
+     * @throws IllegalArgumentException when the file is not a valid JBin file
+     */
+    public static void importJBin(Path path, ScheduleManager scheduleManager) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            readJBin(reader, scheduleManager);
+        }
+    }
+
+    /**
+     * Exports the Tasks, Cards and Events of a {@link ScheduleManager} to a JBin file
+     *
+     * @param path path of the JBin file, which is replaced if it exists
+     * @param scheduleManager manager being exported
+     * @throws IOException when the file cannot be written
+     */
+    public static void exportJBin(Path path, ScheduleManager scheduleManager) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writeJBin(writer, scheduleManager);
+        }
+    }
+
+    /**
+     * Reads JBin contents into a {@link ScheduleManager}
+     *
+     * @param in reader over the JBin contents
+     * @param scheduleManager manager receiving the Tasks, Cards and Events
+     * @throws IOException when the contents cannot be read
+     * @throws IllegalArgumentException when the contents are not valid JBin
+     */
+    public static void readJBin(Reader in, ScheduleManager scheduleManager) throws IOException {
+        BufferedReader reader = in instanceof BufferedReader ? (BufferedReader) in : new BufferedReader(in);
+        boolean dated = false;
+        long fileDay = 0;
+        String section = null;
+        // IDs of the imported Tasks by their position within the TASK section
+        int[] taskIds = new int[16];
+        int numTasks = 0;
+        Map<Card.Color, Card> cardsByColor = new EnumMap<>(Card.Color.class);
+        for (Card card : scheduleManager.getCards()) {
+            cardsByColor.putIfAbsent(card.getColor(), card);
+        }
+
+        String line;
+        int lineNum = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNum++;
+            line = line.trim();
+            if (line.isEmpty()) continue;
+            try {
+                if (!dated) {
+                    fileDay = parseDate(line);
+                    dated = true;
+                } else if (section == null) {
+                    if (!line.endsWith("{")) {
+                        throw new IllegalArgumentException("Expected a section");
+                    }
+                    section = line.substring(0, line.length() - 1).trim();
+                } else if (line.equals("}")) {
+                    section = null;
+                } else if (section.equals("TASK")) {
+                    if (numTasks == taskIds.length) {
+                        taskIds = Arrays.copyOf(taskIds, numTasks * 2);
+                    }
+                    taskIds[numTasks++] = readTask(line, fileDay, scheduleManager).getId();
+                } else if (section.equals("CARD")) {
+                    Card card = readCard(line, taskIds, numTasks, scheduleManager);
+                    cardsByColor.putIfAbsent(card.getColor(), card);
+                } else if (section.equals("EVENT")) {
+                    readEvent(line, fileDay, cardsByColor, scheduleManager);
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid JBin line " + lineNum + ": " + e.getMessage(), e);
+            }
+        }
+        if (section != null) {
+            throw new IllegalArgumentException("JBin section " + section + " is not closed");
+        }
+    }
+
+    /**
+     * Writes the Tasks, Cards and Events of a {@link ScheduleManager} as JBin contents dated today
+     *
+     * @param out writer receiving the JBin contents
+     * @param scheduleManager manager being exported
+     * @throws IOException when the contents cannot be written
+     */
+    public static void writeJBin(Writer out, ScheduleManager scheduleManager) throws IOException {
+        long today = Time.getEpochDay(Time.toEpochMinute(Calendar.getInstance()));
+        out.write(formatDate(today));
+        out.write("\n\nTASK {\n");
+
+        List<Task> tasks = new ArrayList<>(scheduleManager.getArchivedTasks());
+        tasks.addAll(scheduleManager.getTaskManager());
+        tasks.sort(Comparator.comparingInt(Task::getId));
+        // positions of the Tasks on each Card
+        IntMap<StringBuilder> cardRefs = new IntMap<>();
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            long dueDay = Time.getEpochDay(Time.toEpochMinute(task.getDueDate()));
+            out.write("  " + task.getName() + ", " + task.getTotalHours() + ", " + (dueDay - today) + "\n");
+            if (task.getCard() != null) {
+                StringBuilder refs = cardRefs.get(task.getCard().getId());
+                if (refs == null) {
+                    refs = new StringBuilder();
+                    cardRefs.put(task.getCard().getId(), refs);
+                }
+                refs.append(", T").append(i);
+            }
+        }
+
+        out.write("}\n\nCARD {\n");
+        for (Card card : scheduleManager.getCards()) {
+            StringBuilder refs = cardRefs.get(card.getId());
+            out.write("  " + card.getName() + ", " + card.getColor() + (refs != null ? refs : "") + "\n");
+        }
+
+        out.write("}\n\nEVENT {\n");
+        // recurring Events are listed under every day they take place on
+        Set<Event> events = new LinkedHashSet<>(scheduleManager.getIndivEvents());
+        for (List<Event> dayEvents : scheduleManager.getRecurEvents()) {
+            events.addAll(dayEvents);
+        }
+        for (Event event : events) {
+            out.write("  " + event.getName() + ", " + (event.getCard() != null ? event.getCard().getColor() : "-")
+                    + ", " + event.isRecurring() + ", " + event.get24HourTimeStampString() + ", ");
+            if (event.isRecurring()) {
+                out.write(event.getDaysString());
+            } else {
+                out.write(formatDate(Time.getEpochDay(event.getTimeStamp().getStartMinute())));
+            }
+            out.write("\n");
+        }
+        out.write("}\n");
+        out.flush();
+    }
+
+    /**
+     * Reads a record of the TASK section and adds the Task, without a Card, to the manager
+     *
+     * @param line record being read
+     * @param fileDay local epoch-day of the file
+     * @param scheduleManager manager receiving the Task
+     * @return the added Task
+     */
+    private static Task readTask(String line, long fileDay, ScheduleManager scheduleManager) {
+        // the name comes first so that it may hold commas
+        int dueIdx = line.lastIndexOf(',');
+        int hoursIdx = dueIdx > 0 ? line.lastIndexOf(',', dueIdx - 1) : -1;
+        if (hoursIdx <= 0) {
+            throw new IllegalArgumentException("Expected <name>, <hours>, <days until due>");
+        }
+        double hours = Double.parseDouble(line.substring(hoursIdx + 1, dueIdx).trim());
+        int dueDays = Integer.parseInt(line.substring(dueIdx + 1).trim());
+        Calendar due = Time.toCalendar((fileDay + dueDays) * Time.MINUTES_PER_DAY);
+        return scheduleManager.addTask(line.substring(0, hoursIdx).trim(), hours, due, -1);
+    }
+
+    /**
+     * Reads a record of the CARD section, adds the Card to the manager and moves its Tasks onto it
+     *
+     * @param line record being read
+     * @param taskIds IDs of the imported Tasks by their position within the TASK section
+     * @param numTasks number of imported Tasks
+     * @param scheduleManager manager receiving the Card
+     * @return the added Card
+     */
+    private static Card readCard(String line, int[] taskIds, int numTasks, ScheduleManager scheduleManager) {
+        String[] fields = line.split(",");
+        // Task references trail the color, and anything before the color belongs to the name
+        int colorIdx = fields.length - 1;
+        while (colorIdx > 0 && fields[colorIdx].trim().startsWith("T")) {
+            colorIdx--;
+        }
+        if (colorIdx == 0) {
+            throw new IllegalArgumentException("Expected <name>, <color>, <task references>");
+        }
+        String name = String.join(",", Arrays.copyOfRange(fields, 0, colorIdx)).trim();
+        Card card = scheduleManager.addCard(name, Card.Color.valueOf(fields[colorIdx].trim()));
+
+        for (int i = colorIdx + 1; i < fields.length; i++) {
+            int taskIdx = Integer.parseInt(fields[i].trim().substring(1));
+            if (taskIdx < 0 || taskIdx >= numTasks) {
+                throw new IllegalArgumentException("Card refers to unknown task T" + taskIdx);
+            }
+            scheduleManager.modTask(taskIds[taskIdx], null, -1, null, card.getId());
+        }
+        return card;
+    }
+
+    /**
+     * Reads a record of the EVENT section and adds the Event to the manager
+     *
+     * @param line record being read
+     * @param fileDay local epoch-day of the file
+     * @param cardsByColor first Card of each color
+     * @param scheduleManager manager receiving the Event
+     */
+    private static void readEvent(String line, long fileDay, Map<Card.Color, Card> cardsByColor,
+                                  ScheduleManager scheduleManager) {
+        // the name comes first so that it may hold commas, followed by exactly four fields
+        int[] commas = new int[4];
+        int idx = line.length();
+        for (int i = 3; i >= 0; i--) {
+            idx = idx > 0 ? line.lastIndexOf(',', idx - 1) : -1;
+            if (idx <= 0) {
+                throw new IllegalArgumentException("Expected <name>, <color>, <recurring>, <time>, <date or days>");
+            }
+            commas[i] = idx;
+        }
+        String name = line.substring(0, commas[0]).trim();
+        String color = line.substring(commas[0] + 1, commas[1]).trim();
+        boolean recurring = Boolean.parseBoolean(line.substring(commas[1] + 1, commas[2]).trim());
+        String time = line.substring(commas[2] + 1, commas[3]).trim();
+        String dates = line.substring(commas[3] + 1).trim();
+
+        Card card = color.equals("-") ? null : cardsByColor.get(Card.Color.valueOf(color));
+        int cardId = card != null ? card.getId() : -1;
+        int dash = time.indexOf('-');
+        if (dash < 0) {
+            throw new IllegalArgumentException("Expected <HH:mm-HH:mm>");
+        }
+        long day = recurring ? fileDay : parseDate(dates);
+        Time.TimeStamp timeStamp = new Time.TimeStamp(
+                day * Time.MINUTES_PER_DAY + parseMinuteOfDay(time.substring(0, dash)),
+                day * Time.MINUTES_PER_DAY + parseMinuteOfDay(time.substring(dash + 1)));
+
+        if (recurring) {
+            List<Calendar> days = new ArrayList<>();
+            for (String dayOfWeek : dates.split("\\s+")) {
+                Calendar date = Calendar.getInstance();
+                date.set(Calendar.DAY_OF_WEEK, Event.DayOfWeek.valueOf(dayOfWeek).ordinal() + 1);
+                days.add(date);
+            }
+            scheduleManager.addEvent(name, cardId, timeStamp, true, days);
+        } else {
+            scheduleManager.addEvent(name, cardId, timeStamp, false, null);
+        }
+    }
+
+    /**
+     * Parses a date in the format {@code dd-MM-yyyy}
+     *
+     * @param date date being parsed
+     * @return local epoch-day of the date
+     */
+    private static long parseDate(String date) {
+        String[] fields = date.split("-");
+        if (fields.length != 3) {
+            throw new IllegalArgumentException("Expected <dd-MM-yyyy>");
+        }
+        try {
+            return LocalDate.of(Integer.parseInt(fields[2]), Integer.parseInt(fields[1]), Integer.parseInt(fields[0]))
+                    .toEpochDay();
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Invalid date " + date);
+        }
+    }
+
+    /**
+     * Formats a local epoch-day in the format {@code dd-MM-yyyy}
+     *
+     * @param epochDay local epoch-day
+     * @return formatted date
+     */
+    private static String formatDate(long epochDay) {
+        LocalDate date = LocalDate.ofEpochDay(epochDay);
+        return String.format("%02d-%02d-%04d", date.getDayOfMonth(), date.getMonthValue(), date.getYear());
+    }
+
+    /**
+     * Parses a time in the format {@code H:mm}
+     *
+     * @param time time being parsed
+     * @return minute of the day
+     */
+    private static int parseMinuteOfDay(String time) {
+        int colon = time.indexOf(':');
+        if (colon < 0) {
+            throw new IllegalArgumentException("Expected <HH:mm>");
+        }
+        int hour = Integer.parseInt(time.substring(0, colon).trim());
+        int minute = Integer.parseInt(time.substring(colon + 1).trim());
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59) {
+            throw new IllegalArgumentException("Invalid time " + time);
+        }
+        return hour * 60 + minute;
+    }
+}
@@ -0,0 +1,799 @@
+package com.planner.io;
+
+import com.planner.manager.ScheduleManager;
+import com.planner.models.Card;
+import com.planner.models.Event;
+import com.planner.models.Task;
+import com.planner.util.Time;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Calendar;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of the mutations of a {@link ScheduleManager}, so that every edit since the last snapshot
+ * survives a crash without rewriting the whole planner state.
+ * <p>
+ * A journal starts with a magic number and a format version, followed by records. Each record is the length of its
+ * payload, a CRC32 checksum of the payload and the payload itself, which starts with the sequence number of the
+ * record and the type of mutation. Sequence numbers keep increasing for the lifetime of the planner. Replaying a
+ * journal stops at the first record that is incomplete or fails its checksum, since only the tail of the file can be
+ * torn by a crash, and that tail is cut off before new records are appended.
+ * <p>
+ * Appending a record only buffers it in memory. A background thread commits every buffered record with a single
+ * write and fsync once per sync interval (group commit), so a burst of edits costs one fsync rather than one each.
+ * Records appended while a commit is in progress join the next one. Records stay buffered until their commit has
+ * been forced to disk, and a failed commit is cut off the file so that it is written again by the next one. When it
+ * cannot be cut off, no more records are appended, since replaying would stop at the torn record before them.
+ * <p>
+ * Journals are compacted into a {@link Snapshot} by the same background thread: the snapshot stores the sequence
+ * number of the last record it includes, and once it is on disk the journal is rewritten with only the records
+ * appended since. Records which are already included in the planner state a journal is opened against (such as
+ * after a crash between both steps) are skipped rather than replayed.
+ *
+ * @author Andrew Roe
+ */
+public class Journal implements Closeable {
+
+    /** Identifies journal files ("APJN") */
+    private static final int MAGIC = 0x41504A4E;
+    /** Current version of the format */
+    private static final short VERSION = 1;
+    /** Number of bytes of the header */
+    private static final int HEADER_SIZE = 6;
+    /** Number of bytes preceding the payload of each record */
+    private static final int RECORD_HEADER_SIZE = 8;
+    /** Default number of milliseconds between commits */
+    public static final long DEFAULT_SYNC_INTERVAL = 50;
+
+    /** Record of an added Task */
+    private static final byte ADD_TASK = 1;
+    /** Record of a modified Task */
+    private static final byte MOD_TASK = 2;
+    /** Record of a deleted Task */
+    private static final byte DELETE_TASK = 3;
+    /** Record of an added Card */
+    private static final byte ADD_CARD = 4;
+    /** Record of a modified Card */
+    private static final byte MOD_CARD = 5;
+    /** Record of a deleted Card */
+    private static final byte DELETE_CARD = 6;
+    /** Record of an added Event */
+    private static final byte ADD_EVENT = 7;
+    /** Record of a modified Event */
+    private static final byte MOD_EVENT = 8;
+    /** Record of a deleted Event */
+    private static final byte DELETE_EVENT = 9;
+
+    /** Path of the journal file */
+    private final Path path;
+    /** Channel of the journal file, which is replaced when the journal is compacted */
+    private FileChannel channel;
+    /** Commits buffered records in the background */
+    private final ScheduledExecutorService syncer;
+    /** Records appended since the last commit */
+    private final Batch pending;
+    /** Payload of the record being appended */
+    private final ByteArrayOutputStream payload;
+    /** Stream writing into the payload */
+    private final DataOutputStream record;
+    /** Computes the checksum of each record */
+    private final CRC32 crc;
+    /** Serializes commits, so that appending never waits on an fsync */
+    private final Object syncLock;
+    /** Sequence number of the last record appended */
+    private long sequence;
+    /** Number of records in the journal, including those not committed yet */
+    private int numRecords;
+    /** Number of bytes of the journal file up to the last committed record */
+    private long committedSize;
+    /** Failure of the last commit, kept until a later commit succeeds */
+    private IOException failure;
+    /** Whether a failed commit left part of a record in the file that could not be cut off */
+    private boolean torn;
+    /** Whether the journal was closed */
+    private boolean closed;
+
+    /**
+     * Constructs a new Journal appending to an open channel
+     *
+     * @param path path of the journal file
+     * @param channel channel of the journal file
+     * @param sequence sequence number of the last record already included in the planner state
+     */
+    private Journal(Path path, FileChannel channel, long sequence) {
+        this.path = path;
+        this.channel = channel;
+        this.sequence = sequence;
+        this.pending = new Batch();
+        this.payload = new ByteArrayOutputStream(64);
+        this.record = new DataOutputStream(payload);
+        this.crc = new CRC32();
+        this.syncLock = new Object();
+        this.syncer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "journal-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Opens a journal with the default sync interval, replaying its records into a {@link ScheduleManager}
+     *
+     * @param path path of the journal, which is created if it does not exist
+     * @param scheduleManager manager receiving the replayed mutations, which must not journal them again
+     * @param includedSequence sequence number of the last record already included in the manager's state
+     * @return journal appending after the replayed records
+     * @throws IOException when the journal cannot be read or written
+     * @throws IllegalArgumentException when the file is not a journal, or a record cannot be replayed
+     */
+    public static Journal open(Path path, ScheduleManager scheduleManager, long includedSequence)
+            throws IOException {
+        return open(path, scheduleManager, includedSequence, DEFAULT_SYNC_INTERVAL);
+    }
+
+    /**
+     * Opens a journal, replaying its records into a {@link ScheduleManager}
+     *
+     * @param path path of the journal, which is created if it does not exist
+     * @param scheduleManager manager receiving the replayed mutations, which must not journal them again
+     * @param includedSequence sequence number of the last record already included in the manager's state
+     * @param syncInterval number of milliseconds between commits
+     * @return journal appending after the replayed records
+     * @throws IOException when the journal cannot be read or written
+     * @throws IllegalArgumentException when the file is not a journal, or a record cannot be replayed
+     */
+    public static Journal open(Path path, ScheduleManager scheduleManager, long includedSequence,
+                               long syncInterval) throws IOException {
+        Path dir = path.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        Journal journal = new Journal(path, channel, includedSequence);
+        try {
+            long size = channel.size();
+            if (size == 0) {
+                writeHeader(channel);
+                journal.committedSize = HEADER_SIZE;
+            } else {
+                // read onto the heap rather than mapped, since a mapped file cannot be truncated on every platform
+                ByteBuffer buffer = ByteBuffer.allocate((int) size);
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer) < 0) break;
+                }
+                buffer.flip();
+                if (size < HEADER_SIZE || buffer.getInt() != MAGIC) {
+                    throw new IllegalArgumentException("Not a planner journal");
+                }
+                short version = buffer.getShort();
+                if (version > VERSION) {
+                    throw new IllegalArgumentException("Unsupported journal version " + version);
+                }
+                journal.replay(buffer, scheduleManager);
+                // cuts off a torn record, so new records follow the last valid one
+                channel.truncate(buffer.position());
+                channel.position(buffer.position());
+                journal.committedSize = buffer.position();
+            }
+        } catch (IOException | RuntimeException e) {
+            journal.syncer.shutdown();
+            channel.close();
+            throw e;
+        }
+        journal.syncer.scheduleWithFixedDelay(journal::syncQuietly, syncInterval, syncInterval,
+                TimeUnit.MILLISECONDS);
+        return journal;
+    }
+
+    /**
+     * Replays the records of a journal until the first incomplete or corrupted one, skipping those already
+     * included in the planner state
+     *
+     * @param buffer buffer positioned at the first record, which ends up after the last valid one
+     * @param scheduleManager manager receiving the mutations
+     * @throws IllegalArgumentException when a valid record cannot be replayed
+     */
+    private void replay(ByteBuffer buffer, ScheduleManager scheduleManager) {
+        while (buffer.remaining() >= RECORD_HEADER_SIZE) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining()) {
+                buffer.position(start);
+                break;
+            }
+            ByteBuffer recordBuffer = buffer.slice();
+            recordBuffer.limit(length);
+            crc.reset();
+            crc.update(recordBuffer);
+            if ((int) crc.getValue() != checksum) {
+                buffer.position(start);
+                break;
+            }
+            recordBuffer.rewind();
+            long recordSequence = recordBuffer.getLong();
+            if (recordSequence > sequence) {
+                try {
+                    apply(recordBuffer, scheduleManager);
+                } catch (RuntimeException e) {
+                    throw new IllegalArgumentException("Journal record " + recordSequence
+                            + " could not be replayed", e);
+                }
+                sequence = recordSequence;
+            }
+            buffer.position(start + RECORD_HEADER_SIZE + length);
+            numRecords++;
+        }
+    }
+
+    /**
+     * Applies the mutation of a single record
+     *
+     * @param buffer buffer holding the payload of the record
+     * @param scheduleManager manager receiving the mutation
+     */
+    private static void apply(ByteBuffer buffer, ScheduleManager scheduleManager) {
+        byte type = buffer.get();
+        int id = buffer.getInt();
+        if (type == ADD_TASK) {
+            String name = readString(buffer);
+            double hours = buffer.getDouble();
+            Calendar due = Time.toCalendar(buffer.getLong());
+            scheduleManager.restoreTask(id, name, hours, due, buffer.getInt());
+        } else if (type == MOD_TASK) {
+            String name = readString(buffer);
+            double hours = buffer.getDouble();
+            long due = buffer.getLong();
+            scheduleManager.modTask(id, name, hours, due != Long.MIN_VALUE ? Time.toCalendar(due) : null,
+                    buffer.getInt());
+        } else if (type == DELETE_TASK) {
+            scheduleManager.deleteTask(id);
+        } else if (type == ADD_CARD) {
+            String name = readString(buffer);
+            scheduleManager.restoreCard(id, name, Card.Color.values()[buffer.get()]);
+        } else if (type == MOD_CARD) {
+            String name = readString(buffer);
+            byte color = buffer.get();
+            scheduleManager.modCard(id, name, color >= 0 ? Card.Color.values()[color] : null);
+        } else if (type == DELETE_CARD) {
+            scheduleManager.deleteCard(id);
+        } else if (type == ADD_EVENT) {
+            String name = readString(buffer);
+            int cardId = buffer.getInt();
+            Time.TimeStamp timeStamp = new Time.TimeStamp(buffer.getLong(), buffer.getLong());
+            byte days = buffer.get();
+            scheduleManager.restoreEvent(id, name, cardId, timeStamp, days != 0 ? toDays(days) : null);
+        } else if (type == MOD_EVENT) {
+            String name = readString(buffer);
+            int cardId = buffer.getInt();
+            long start = buffer.getLong();
+            long end = buffer.getLong();
+            Time.TimeStamp timeStamp = start != Long.MIN_VALUE ? new Time.TimeStamp(start, end) : null;
+            byte days = buffer.get();
+            scheduleManager.modEventDays(id, name, cardId, timeStamp, days >= 0 ? toDays(days) : null);
+        } else if (type == DELETE_EVENT) {
+            scheduleManager.deleteEvent(id);
+        } else {
+            throw new IllegalArgumentException("Unknown journal record type " + type);
+        }
+    }
+
+    /**
+     * Gets the sequence number of the last record that was appended or replayed
+     *
+     * @return sequence number of the last record, which a snapshot of the planner state includes
+     */
+    public synchronized long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Gets the number of records in the journal, including those not committed yet
+     *
+     * @return number of records
+     */
+    public synchronized int getNumRecords() {
+        return numRecords;
+    }
+
+    /**
+     * Appends the addition of a Task
+     *
+     * @param task Task that was added
+     */
+    public synchronized void appendAddTask(Task task) {
+        DataOutputStream out = begin(ADD_TASK, task.getId());
+        try {
+            writeString(out, task.getName());
+            out.writeDouble(task.getTotalHours());
+            out.writeLong(Time.toEpochMinute(task.getDueDate()));
+            out.writeInt(task.getCard() != null ? task.getCard().getId() : -1);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        end();
+    }
+
+    /**
+     * Appends the modification of a Task, using the arguments of {@link ScheduleManager#modTask}
+     *
+     * @param id ID of the Task
+     * @param name new name, or <code>null</code> if unchanged
+     * @param hours new number of hours, or -1 if unchanged
+     * @param due new due date, or <code>null</code> if unchanged
+     * @param cardId ID of the new Card, or -1 if unchanged
+     */
+    public synchronized void appendModTask(int id, String name, double hours, Calendar due, int cardId) {
+        DataOutputStream out = begin(MOD_TASK, id);
+        try {
+            writeString(out, name);
+            out.writeDouble(hours);
+            out.writeLong(due != null ? Time.toEpochMinute(due) : Long.MIN_VALUE);
+            out.writeInt(cardId);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        end();
+    }
+
+    /**
+     * Appends the deletion of a Task
+     *
+     * @param id ID of the Task
+     */
+    public synchronized void appendDeleteTask(int id) {
+        begin(DELETE_TASK, id);
+        end();
+    }
+
+    /**
+     * Appends the addition of a Card
+     *
+     * @param card Card that was added
+     */
+    public synchronized void appendAddCard(Card card) {
+        DataOutputStream out = begin(ADD_CARD, card.getId());
+        try {
+            writeString(out, card.getName());
+            out.writeByte(card.getColor().ordinal());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        end();
+    }
+
+    /**
+     * Appends the modification of a Card, using the arguments of {@link ScheduleManager#modCard}
+     *
+     * @param id ID of the Card
+     * @param name new name, or <code>null</code> if unchanged
+     * @param color new color, or <code>null</code> if unchanged
+     */
+    public synchronized void appendModCard(int id, String name, Card.Color color) {
+        DataOutputStream out = begin(MOD_CARD, id);
+        try {
+            writeString(out, name);
+            out.writeByte(color != null ? color.ordinal() : -1);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        end();
+    }
+
+    /**
+     * Appends the deletion of a Card
+     *
+     * @param id ID of the Card
+     */
+    public synchronized void appendDeleteCard(int id) {
+        begin(DELETE_CARD, id);
+        end();
+    }
+
+    /**
+     * Appends the addition of an Event
+     *
+     * @param event Event that was added
+     */
+    public synchronized void appendAddEvent(Event event) {
+        DataOutputStream out = begin(ADD_EVENT, event.getId());
+        try {
+            writeString(out, event.getName());
+            out.writeInt(event.getCard() != null ? event.getCard().getId() : -1);
+            out.writeLong(event.getTimeStamp().getStartMinute());
+            out.writeLong(event.getTimeStamp().getEndMinute());
+            out.writeByte(event.isRecurring() ? toMask(event.getDays()) : 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        end();
+    }
+
+    /**
+     * Appends the modification of an Event, using the arguments of {@link ScheduleManager#modEventDays}
+     *
+     * @param id ID of the Event
+     * @param name new name, or <code>null</code> if unchanged
+     * @param cardId ID of the new Card, or -1 if unchanged
+     * @param timeStamp new time of the Event, or <code>null</code> if unchanged
+     * @param days new days of the week of a recurring Event, or <code>null</code> if unchanged
+     */
+    public synchronized void appendModEvent(int id, String name, int cardId, Time.TimeStamp timeStamp,
+                                            Event.DayOfWeek[] days) {
+        DataOutputStream out = begin(MOD_EVENT, id);
+        try {
+            writeString(out, name);
+            out.writeInt(cardId);
+            out.writeLong(timeStamp != null ? timeStamp.getStartMinute() : Long.MIN_VALUE);
+            out.writeLong(timeStamp != null ? timeStamp.getEndMinute() : Long.MIN_VALUE);
+            out.writeByte(days != null ? toMask(days) : -1);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        end();
+    }
+
+    /**
+     * Appends the deletion of an Event
+     *
+     * @param id ID of the Event
+     */
+    public synchronized void appendDeleteEvent(int id) {
+        begin(DELETE_EVENT, id);
+        end();
+    }
+
+    /**
+     * Commits every record appended so far with a single write and fsync. The records stay buffered when the commit
+     * fails, and are written again by the next one.
+     *
+     * @throws IOException when the records cannot be written, or an earlier commit left a torn record behind
+     */
+    public void sync() throws IOException {
+        synchronized (syncLock) {
+            byte[] batch;
+            synchronized (this) {
+                if (torn) {
+                    throw new IOException("Journal holds a torn record", failure);
+                }
+                if (closed || pending.size() == 0) return;
+                batch = pending.toByteArray();
+            }
+            long start = channel.position();
+            try {
+                ByteBuffer buffer = ByteBuffer.wrap(batch);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                try {
+                    // cuts off whatever part of the batch was written, so that the next commit follows the last one
+                    channel.truncate(start);
+                    channel.position(start);
+                } catch (IOException f) {
+                    e.addSuppressed(f);
+                    synchronized (this) {
+                        torn = true;
+                    }
+                }
+                synchronized (this) {
+                    failure = e;
+                }
+                throw e;
+            }
+            synchronized (this) {
+                // records appended during the commit are kept for the next one
+                pending.discard(batch.length);
+                committedSize += batch.length;
+                failure = null;
+            }
+        }
+    }
+
+    /**
+     * Gets the failure of the last commit, which is cleared once a later commit succeeds
+     *
+     * @return failure of the last commit, or <code>null</code> if it succeeded
+     */
+    public synchronized IOException getFailure() {
+        return failure;
+    }
+
+    /**
+     * Compacts the journal into a snapshot of the planner state taken after its last record. The snapshot is written
+     * and forced to disk by the background thread, then the journal is rewritten with only the records appended
+     * since it was taken, so the caller does not wait on either. Compactions run one at a time, in the order they
+     * were started, and a torn record left by a failed commit is dropped as well.
+     *
+     * @param snapshotPath path of the snapshot, which is replaced
+     * @param snapshot serialized snapshot including every record appended so far
+     * @return completes once the journal is compacted, or exceptionally with the reason it could not be
+     * @throws IllegalStateException when the journal is closed
+     */
+    public CompletableFuture<Void> compact(Path snapshotPath, byte[] snapshot) {
+        long end;
+        int included;
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Journal is closed");
+            }
+            end = committedSize + pending.size();
+            included = numRecords;
+        }
+        CompletableFuture<Void> compaction = new CompletableFuture<>();
+        syncer.execute(() -> {
+            try {
+                Snapshot.writeSnapshot(snapshotPath, snapshot);
+                dropRecords(end, included);
+                compaction.complete(null);
+            } catch (IOException | RuntimeException e) {
+                compaction.completeExceptionally(e);
+            }
+        });
+        return compaction;
+    }
+
+    /**
+     * Rewrites the journal without the records a snapshot includes, committing the records appended since. The new
+     * journal is forced to disk before it replaces the old one, so a crash leaves either of them behind.
+     *
+     * @param end offset in the journal following the last record included in the snapshot
+     * @param included number of records included in the snapshot
+     * @throws IOException when the journal cannot be rewritten
+     */
+    private void dropRecords(long end, int included) throws IOException {
+        synchronized (syncLock) {
+            byte[] batch;
+            long committed;
+            synchronized (this) {
+                if (closed) {
+                    throw new IOException("Journal is closed");
+                }
+                batch = pending.toByteArray();
+                committed = committedSize;
+            }
+            // records committed since the snapshot was taken are read back, and those still buffered are appended
+            int skipped = (int) Math.max(0, end - committed);
+            ByteBuffer kept = ByteBuffer.allocate((int) (HEADER_SIZE + Math.max(0, committed - end)
+                    + batch.length - skipped));
+            kept.putInt(MAGIC).putShort(VERSION);
+            if (end < committed) {
+                kept.limit((int) (HEADER_SIZE + committed - end));
+                while (kept.hasRemaining()) {
+                    if (channel.read(kept, end + kept.position() - HEADER_SIZE) < 0) {
+                        throw new IOException("Journal ended before its last committed record");
+                    }
+                }
+                kept.limit(kept.capacity());
+            }
+            kept.put(batch, skipped, batch.length - skipped).flip();
+            Path dir = path.toAbsolutePath().getParent();
+            Path tmp = Files.createTempFile(dir, path.getFileName().toString(), ".tmp");
+            boolean moved = false;
+            try {
+                try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                    while (kept.hasRemaining()) {
+                        out.write(kept);
+                    }
+                    out.force(true);
+                }
+                // the channel is closed first, since an open file cannot be replaced on every platform
+                channel.close();
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                moved = true;
+                Snapshot.forceDirectory(dir);
+            } finally {
+                Files.deleteIfExists(tmp);
+                if (!channel.isOpen()) {
+                    channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                    channel.position(moved ? kept.limit() : committed);
+                }
+            }
+            synchronized (this) {
+                pending.discard(batch.length);
+                committedSize = kept.limit();
+                numRecords -= included;
+                torn = false;
+                failure = null;
+            }
+        }
+    }
+
+    /**
+     * Commits all remaining records and closes the journal
+     *
+     * @throws IOException when the records cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        syncer.shutdown();
+        try {
+            sync();
+        } finally {
+            synchronized (syncLock) {
+                synchronized (this) {
+                    closed = true;
+                }
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * Commits buffered records from the background thread, leaving any failure to {@link #getFailure()}
+     */
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (IOException e) {
+            synchronized (this) {
+                failure = e;
+            }
+        }
+    }
+
+    /**
+     * Begins a new record
+     *
+     * @param type type of the record
+     * @param id ID of the Task, Card or Event the record refers to
+     * @return stream receiving the rest of the payload
+     */
+    private DataOutputStream begin(byte type, int id) {
+        if (closed) {
+            throw new IllegalStateException("Journal is closed");
+        } else if (torn) {
+            throw new IllegalStateException("Journal holds a torn record, so no more records are appended");
+        }
+        payload.reset();
+        try {
+            record.writeLong(++sequence);
+            record.writeByte(type);
+            record.writeInt(id);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return record;
+    }
+
+    /**
+     * Buffers the current record with its length and checksum until the next commit
+     */
+    private void end() {
+        byte[] bytes = payload.toByteArray();
+        crc.reset();
+        crc.update(bytes);
+        writeInt(pending, bytes.length);
+        writeInt(pending, (int) crc.getValue());
+        pending.write(bytes, 0, bytes.length);
+        numRecords++;
+    }
+
+    /**
+     * Writes the header of a journal at the start of an empty channel
+     *
+     * @param channel channel of the journal
+     * @throws IOException when the header cannot be written
+     */
+    private static void writeHeader(FileChannel channel) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putShort(VERSION).flip();
+        channel.position(0);
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        channel.force(false);
+    }
+
+    /**
+     * Writes a big-endian int to a buffer
+     *
+     * @param out buffer receiving the int
+     * @param value int being written
+     */
+    private static void writeInt(ByteArrayOutputStream out, int value) {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+
+    /**
+     * Writes a String that may be <code>null</code>
+     *
+     * @param out stream receiving the String
+     * @param str String being written
+     * @throws IOException when the String cannot be written
+     */
+    private static void writeString(DataOutputStream out, String str) throws IOException {
+        if (str == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads a String that may be <code>null</code>
+     *
+     * @param buffer buffer positioned at the String
+     * @return String that was read
+     */
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Converts days of the week to a bitmask
+     *
+     * @param days days of the week
+     * @return bitmask with the bit of each day's ordinal set
+     */
+    private static int toMask(Event.DayOfWeek[] days) {
+        int mask = 0;
+        for (Event.DayOfWeek day : days) {
+            mask |= 1 << day.ordinal();
+        }
+        return mask;
+    }
+
+    /**
+     * Converts a bitmask to days of the week
+     *
+     * @param mask bitmask with the bit of each day's ordinal set
+     * @return days of the week
+     */
+    private static Event.DayOfWeek[] toDays(int mask) {
+        Event.DayOfWeek[] days = new Event.DayOfWeek[Integer.bitCount(mask)];
+        int idx = 0;
+        for (Event.DayOfWeek day : Event.DayOfWeek.values()) {
+            if ((mask & 1 << day.ordinal()) != 0) days[idx++] = day;
+        }
+        return days;
+    }
+
+    /**
+     * Buffer of the records appended since the last commit
+     */
+    private static final class Batch extends ByteArrayOutputStream {
+
+        /**
+         * Constructs an empty {@code Batch}
+         */
+        Batch() {
+            super(4096);
+        }
+
+        /**
+         * Drops the records at the start of the buffer once they have been committed
+         *
+         * @param length number of bytes committed
+         */
+        void discard(int length) {
+            System.arraycopy(buf, length, buf, 0, count - length);
+            count -= length;
+        }
+    }
+}
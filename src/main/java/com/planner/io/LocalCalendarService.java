@@ -0,0 +1,266 @@
+package com.planner.io;
+
+import com.google.api.client.util.DateTime;
+import com.google.api.services.calendar.model.Event;
+import com.google.api.services.calendar.model.Events;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process stand-in for Google Calendar, which keeps events in memory and behaves like the real service where it
+ * matters to a sync: every request costs a round trip of fixed latency, batches are capped at
+ * {@link CalendarService#MAX_BATCH_SIZE}, listings are paged, and calls beyond a rate limit are rejected with
+ * {@code 403 rateLimitExceeded}.
+ * <p>
+ * It also counts the requests it serves, so tests can check how a sync used the service and benchmarks can measure
+ * its throughput without a network.
+ *
+ * @author Andrew Roe
+ */
+public class LocalCalendarService implements CalendarService {
+
+    /** Orders events by their start, then by their ID */
+    private static final Comparator<Event> START_ORDER = Comparator
+            .comparingLong((Event e) -> e.getStart().getDateTime().getValue())
+            .thenComparing(Event::getId);
+
+    /** Events by ID */
+    private final Map<String, Event> events;
+    /** Round trip of every request, in milliseconds */
+    private final long latencyMillis;
+    /** Calls allowed per second, or 0 if unlimited */
+    private final int callsPerSecond;
+    /** Calls that may still be made before the rate limit applies, guarded by this */
+    private double tokens;
+    /** Time at which tokens were last added, guarded by this */
+    private long refilledNanos;
+    private final AtomicLong nextId;
+    private final AtomicInteger inFlight;
+    private final AtomicInteger maxInFlight;
+    private final AtomicLong numRequests;
+    private final AtomicLong numCalls;
+    private final AtomicLong numRejected;
+
+    /**
+     * Constructs a {@code LocalCalendarService} without latency or a rate limit
+     */
+    public LocalCalendarService() {
+        this(0, 0);
+    }
+
+    /**
+     * Constructs a {@code LocalCalendarService}
+     *
+     * @param latencyMillis round trip of every request, in milliseconds
+     * @param callsPerSecond calls allowed per second (with bursts of up to as many calls), or 0 if unlimited
+     * @throws IllegalArgumentException when the latency or rate limit are negative
+     */
+    public LocalCalendarService(long latencyMillis, int callsPerSecond) {
+        if (latencyMillis < 0 || callsPerSecond < 0) {
+            throw new IllegalArgumentException("Latency and rate limit cannot be negative.");
+        }
+        this.events = new ConcurrentHashMap<>();
+        this.latencyMillis = latencyMillis;
+        this.callsPerSecond = callsPerSecond;
+        this.tokens = callsPerSecond;
+        this.refilledNanos = System.nanoTime();
+        this.nextId = new AtomicLong();
+        this.inFlight = new AtomicInteger();
+        this.maxInFlight = new AtomicInteger();
+        this.numRequests = new AtomicLong();
+        this.numCalls = new AtomicLong();
+        this.numRejected = new AtomicLong();
+    }
+
+    @Override
+    public void executeBatch(List<Call> calls) throws IOException {
+        if (calls.size() > MAX_BATCH_SIZE) {
+            throw new ServiceException(400, "batchSizeTooLarge", "Batch of " + calls.size() + " calls exceeds "
+                    + MAX_BATCH_SIZE);
+        }
+        beginRequest();
+        try {
+            for (Call call : calls) {
+                numCalls.incrementAndGet();
+                if (!tryAcquire()) {
+                    numRejected.incrementAndGet();
+                    call.complete(403, "rateLimitExceeded", null);
+                    continue;
+                }
+                switch (call.getMethod()) {
+                    case INSERT:
+                        Event event = copyOf(call.getEvent()).setId("local" + nextId.incrementAndGet());
+                        events.put(event.getId(), event);
+                        call.complete(200, null, copyOf(event));
+                        break;
+                    case UPDATE:
+                        Event updated = copyOf(call.getEvent()).setId(call.getEventId());
+                        if (events.replace(updated.getId(), updated) != null) {
+                            call.complete(200, null, copyOf(updated));
+                        } else {
+                            call.complete(404, "notFound", null);
+                        }
+                        break;
+                    case DELETE:
+                        if (events.remove(call.getEventId()) != null) {
+                            call.complete(204, null, null);
+                        } else {
+                            call.complete(404, "notFound", null);
+                        }
+                        break;
+                }
+            }
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    @Override
+    public Events listEvents(DateTime timeMin, String pageToken, int maxResults) throws IOException {
+        beginRequest();
+        try {
+            numCalls.incrementAndGet();
+            if (!tryAcquire()) {
+                numRejected.incrementAndGet();
+                throw new ServiceException(403, "rateLimitExceeded", "Rate Limit Exceeded");
+            }
+            List<Event> matches = new ArrayList<>();
+            for (Event event : events.values()) {
+                if (event.getEnd().getDateTime().getValue() > timeMin.getValue()) {
+                    matches.add(event);
+                }
+            }
+            matches.sort(START_ORDER);
+            int from = pageToken == null ? 0 : Integer.parseInt(pageToken);
+            int to = Math.min(matches.size(), from + Math.min(maxResults, MAX_PAGE_SIZE));
+            List<Event> items = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                items.add(copyOf(matches.get(i)));
+            }
+            return new Events().setItems(items).setNextPageToken(to < matches.size() ? String.valueOf(to) : null);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    /**
+     * Gets a stored event
+     *
+     * @param eventId ID of the event
+     * @return copy of the event, or <code>null</code> if there is none with the ID
+     */
+    public Event getEvent(String eventId) {
+        Event event = events.get(eventId);
+        return event == null ? null : copyOf(event);
+    }
+
+    /**
+     * Gets the number of stored events
+     *
+     * @return number of events
+     */
+    public int size() {
+        return events.size();
+    }
+
+    /**
+     * Gets the number of requests served, where a batch is one request
+     *
+     * @return number of batches and page listings
+     */
+    public long getNumRequests() {
+        return numRequests.get();
+    }
+
+    /**
+     * Gets the number of calls received, including those rejected by the rate limit
+     *
+     * @return number of batched calls and page listings
+     */
+    public long getNumCalls() {
+        return numCalls.get();
+    }
+
+    /**
+     * Gets the number of calls rejected by the rate limit
+     *
+     * @return number of rejected calls
+     */
+    public long getNumRejected() {
+        return numRejected.get();
+    }
+
+    /**
+     * Gets the largest number of requests that were being served at the same time
+     *
+     * @return peak number of concurrent requests
+     */
+    public int getMaxInFlight() {
+        return maxInFlight.get();
+    }
+
+    /**
+     * Counts a new request and waits out its round trip
+     *
+     * @throws InterruptedIOException when the thread is interrupted while waiting
+     */
+    private void beginRequest() throws InterruptedIOException {
+        numRequests.incrementAndGet();
+        int current = inFlight.incrementAndGet();
+        maxInFlight.accumulateAndGet(current, Math::max);
+        if (latencyMillis > 0) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                inFlight.decrementAndGet();
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the calendar");
+            }
+        }
+    }
+
+    /**
+     * Takes a token for a call from the bucket of the rate limit, after adding the tokens earned since the last call
+     *
+     * @return boolean value for whether the call is within the rate limit
+     */
+    private synchronized boolean tryAcquire() {
+        if (callsPerSecond == 0) return true;
+        long now = System.nanoTime();
+        tokens = Math.min(callsPerSecond, tokens + (now - refilledNanos) * callsPerSecond / 1e9);
+        refilledNanos = now;
+        if (tokens < 1) return false;
+        tokens--;
+        return true;
+    }
+
+    /**
+     * Copies the fields of an event stored by the service, so that callers never share its state
+     *
+     * @param event event being copied
+     * @return copy of the event
+     */
+    private static Event copyOf(Event event) {
+        Event copy = new Event()
+                .setId(event.getId())
+                .setSummary(event.getSummary())
+                .setDescription(event.getDescription())
+                .setColorId(event.getColorId())
+                .setStart(event.getStart())
+                .setEnd(event.getEnd());
+        if (event.getExtendedProperties() != null && event.getExtendedProperties().getPrivate() != null) {
+            copy.setExtendedProperties(new Event.ExtendedProperties()
+                    .setPrivate(new HashMap<>(event.getExtendedProperties().getPrivate())));
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,495 @@
+package com.planner.io;
+
+import com.planner.manager.ScheduleManager;
+import com.planner.models.Card;
+import com.planner.models.Event;
+import com.planner.models.Task;
+import com.planner.schedule.day.Day;
+import com.planner.util.Time;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads and writes binary snapshots of the full planner state of a {@link ScheduleManager}: Cards, Tasks, Events
+ * and the generated schedule with all of its SubTasks. Resuming a snapshot restores the schedule as it was built,
+ * so a session can display it right away instead of re-running {@link ScheduleManager#buildSchedule()}.
+ * <p>
+ * A snapshot starts with a magic number and a format version, followed by records. Each record is a type byte and
+ * the length of its payload, so readers skip record types (and trailing fields) they do not know. Names are interned
+ * in STRING records and referred to by their index, times are local epoch-minutes, and Cards, Tasks and Events are
+ * always written before the Days referring to them. Only the Days which are still valid are written, so Days
+ * invalidated by edits since the last build are regenerated after resuming.
+ * <p>
+ * Snapshots are read onto the heap in a single read and written to a temporary file that is forced to disk, then
+ * atomically replaces the previous snapshot. They are not memory-mapped, since a mapped file cannot be replaced on every platform while the
+ * mapping is alive.
+ *
+ * @author Andrew Roe
+ */
+public class Snapshot {
+
+    /** Identifies snapshot files ("APSN") */
+    private static final int MAGIC = 0x4150534E;
+    /** Current version of the format */
+    private static final short VERSION = 1;
+
+    /** Record holding the next interned String */
+    private static final byte STRING = 1;
+    /** Record holding a Card */
+    private static final byte CARD = 2;
+    /** Record holding a Task */
+    private static final byte TASK = 3;
+    /** Record holding an Event */
+    private static final byte EVENT = 4;
+    /** Record holding the time of the build and the number of Days that follow */
+    private static final byte SCHEDULE = 5;
+    /** Record holding a Day with its SubTasks */
+    private static final byte DAY = 6;
+    /** Record holding the sequence number of the last {@link Journal} record included in the snapshot */
+    private static final byte JOURNAL = 7;
+
+    /** SubTask flag for overflowing its Day */
+    private static final byte OVERFLOW = 1;
+    /** SubTask flag for having a time interval */
+    private static final byte TIMED = 2;
+
+    /**
+     * Writes a snapshot of a {@link ScheduleManager}. The snapshot is on disk once this returns, so that the journal
+     * it includes can be emptied without losing edits to a power loss.
+     *
+     * @param path path of the snapshot, which is replaced if it exists
+     * @param scheduleManager manager being saved
+     * @throws IOException when the snapshot cannot be written
+     */
+    public static void writeSnapshot(Path path, ScheduleManager scheduleManager) throws IOException {
+        writeDurably(path, out -> writeSnapshot(out, scheduleManager));
+    }
+
+    /**
+     * Writes a snapshot that was already serialized by {@link #toByteArray(ScheduleManager)}. The snapshot is on disk
+     * once this returns.
+     *
+     * @param path path of the snapshot, which is replaced if it exists
+     * @param snapshot serialized snapshot
+     * @throws IOException when the snapshot cannot be written
+     */
+    public static void writeSnapshot(Path path, byte[] snapshot) throws IOException {
+        writeDurably(path, out -> out.write(snapshot));
+    }
+
+    /**
+     * Serializes a snapshot of a {@link ScheduleManager} in memory, so that it can be written by another thread while
+     * the manager keeps changing
+     *
+     * @param scheduleManager manager being saved
+     * @return serialized snapshot
+     */
+    public static byte[] toByteArray(ScheduleManager scheduleManager) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+        try {
+            writeSnapshot(out, scheduleManager);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Writes a file to a temporary file which is forced to disk, then atomically replaces the file with it
+     *
+     * @param path path of the file, which is replaced if it exists
+     * @param content writes the content of the file
+     * @throws IOException when the file cannot be written
+     */
+    private static void writeDurably(Path path, Content content) throws IOException {
+        Path dir = path.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, path.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE);
+                 OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel))) {
+                content.writeTo(out);
+                out.flush();
+                // the new file must be on disk before it replaces the previous one
+                channel.force(true);
+            }
+            Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            forceDirectory(dir);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Forces the entries of a directory to disk, so that a file moved into it is not lost to a power loss. Windows
+     * does not allow opening a directory, in which case nothing is forced.
+     *
+     * @param dir directory holding the file
+     * @throws IOException when the directory cannot be forced
+     */
+    static void forceDirectory(Path dir) throws IOException {
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(dir, StandardOpenOption.READ);
+        } catch (IOException e) {
+            return;
+        }
+        try (channel) {
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Writes a snapshot of a {@link ScheduleManager} to a stream
+     *
+     * @param out stream receiving the snapshot
+     * @param scheduleManager manager being saved
+     * @throws IOException when the snapshot cannot be written
+     */
+    public static void writeSnapshot(OutputStream out, ScheduleManager scheduleManager) throws IOException {
+        RecordWriter writer = new RecordWriter(out);
+
+        if (scheduleManager.getJournalSequence() > 0) {
+            DataOutputStream record = writer.begin();
+            record.writeLong(scheduleManager.getJournalSequence());
+            writer.end(JOURNAL);
+        }
+
+        for (Card card : scheduleManager.getCards()) {
+            int name = writer.intern(card.getName());
+            DataOutputStream record = writer.begin();
+            record.writeInt(card.getId());
+            record.writeByte(card.getColor().ordinal());
+            record.writeInt(name);
+            writer.end(CARD);
+        }
+
+        List<Task> tasks = new ArrayList<>(scheduleManager.getArchivedTasks());
+        int numArchived = tasks.size();
+        tasks.addAll(scheduleManager.getTaskManager());
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            int name = writer.intern(task.getName());
+            DataOutputStream record = writer.begin();
+            record.writeInt(task.getId());
+            record.writeInt(task.getCard() != null ? task.getCard().getId() : -1);
+            record.writeDouble(task.getTotalHours());
+            record.writeLong(Time.toEpochMinute(task.getDueDate()));
+            record.writeInt(name);
+            record.writeBoolean(i < numArchived);
+            writer.end(TASK);
+        }
+
+        // recurring Events are listed under every day they take place on
+        Set<Event> events = new LinkedHashSet<>(scheduleManager.getIndivEvents());
+        for (List<Event> dayEvents : scheduleManager.getRecurEvents()) {
+            events.addAll(dayEvents);
+        }
+        List<Event> sortedEvents = new ArrayList<>(events);
+        sortedEvents.sort(Comparator.comparingInt(Event::getId));
+        for (Event event : sortedEvents) {
+            int name = writer.intern(event.getName());
+            DataOutputStream record = writer.begin();
+            record.writeInt(event.getId());
+            record.writeInt(event.getCard() != null ? event.getCard().getId() : -1);
+            record.writeLong(event.getTimeStamp().getStartMinute());
+            record.writeLong(event.getTimeStamp().getEndMinute());
+            int days = 0;
+            if (event.isRecurring()) {
+                for (Event.DayOfWeek day : event.getDays()) {
+                    days |= 1 << day.ordinal();
+                }
+            }
+            record.writeByte(days);
+            record.writeInt(name);
+            writer.end(EVENT);
+        }
+
+        // Days invalidated by edits since the last build are left out, so they are regenerated on the next one
+        List<Day> schedule = scheduleManager.getSchedule();
+        int numDays = scheduleManager.getNumReusableDays();
+        if (numDays > 0) {
+            DataOutputStream record = writer.begin();
+            record.writeLong(scheduleManager.getScheduleMinute());
+            record.writeInt(numDays);
+            record.writeInt(scheduleManager.getErrorCount(numDays));
+            writer.end(SCHEDULE);
+
+            for (int i = 0; i < numDays; i++) {
+                Day day = schedule.get(i);
+                record = writer.begin();
+                record.writeInt(day.getId());
+                record.writeDouble(day.getCapacity());
+                record.writeLong(day.getStartOfDay());
+                record.writeInt(scheduleManager.getErrorCount(i));
+                record.writeInt(day.getNumSubTasks());
+                for (Task.SubTask subTask : day.getSubTaskList()) {
+                    record.writeInt(subTask.getParentTask().getId());
+                    record.writeDouble(subTask.getSubTaskHours());
+                    Time.TimeStamp timeStamp = subTask.getTimeStamp();
+                    record.writeByte((subTask.isOverflow() ? OVERFLOW : 0) | (timeStamp != null ? TIMED : 0));
+                    if (timeStamp != null) {
+                        record.writeLong(timeStamp.getStartMinute());
+                        record.writeLong(timeStamp.getEndMinute());
+                    }
+                }
+                writer.end(DAY);
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Reads a snapshot into a {@link ScheduleManager}
+     *
+     * @param path path of the snapshot
+     * @param scheduleManager manager without any Cards, Tasks or Events receiving the planner state
+     * @throws IOException when the snapshot cannot be read
+     * @throws IllegalArgumentException when the file is not a valid snapshot, or the manager already holds an ID
+     * within the snapshot
+     */
+    public static void readSnapshot(Path path, ScheduleManager scheduleManager) throws IOException {
+        readSnapshot(ByteBuffer.wrap(Files.readAllBytes(path)), scheduleManager);
+    }
+
+    /**
+     * Reads a snapshot from a buffer into a {@link ScheduleManager}
+     *
+     * @param buffer buffer positioned at the start of the snapshot
+     * @param scheduleManager manager without any Cards, Tasks or Events receiving the planner state
+     * @throws IllegalArgumentException when the buffer does not hold a valid snapshot, or the manager already holds
+     * an ID within the snapshot
+     */
+    public static void readSnapshot(ByteBuffer buffer, ScheduleManager scheduleManager) {
+        try {
+            if (buffer.getInt() != MAGIC) {
+                throw new IllegalArgumentException("Not a planner snapshot");
+            }
+            short version = buffer.getShort();
+            if (version > VERSION) {
+                throw new IllegalArgumentException("Unsupported snapshot version " + version);
+            }
+
+            List<String> strings = new ArrayList<>();
+            List<Task> archived = new ArrayList<>();
+            List<Day> days = new ArrayList<>();
+            int[] dayErrors = null;
+            long scheduleMinute = 0;
+            while (buffer.hasRemaining()) {
+                byte type = buffer.get();
+                int length = buffer.getInt();
+                int end = buffer.position() + length;
+                if (length < 0 || end > buffer.limit()) {
+                    throw new IllegalArgumentException("Snapshot is truncated");
+                }
+                if (type == STRING) {
+                    byte[] bytes = new byte[length];
+                    buffer.get(bytes);
+                    strings.add(new String(bytes, StandardCharsets.UTF_8));
+                } else if (type == CARD) {
+                    int id = buffer.getInt();
+                    Card.Color color = Card.Color.values()[buffer.get()];
+                    scheduleManager.restoreCard(id, strings.get(buffer.getInt()), color);
+                } else if (type == TASK) {
+                    int id = buffer.getInt();
+                    int cardId = buffer.getInt();
+                    double hours = buffer.getDouble();
+                    long due = buffer.getLong();
+                    String name = strings.get(buffer.getInt());
+                    Task task = scheduleManager.restoreTask(id, name, hours, Time.toCalendar(due), cardId);
+                    if (buffer.get() != 0) archived.add(task);
+                } else if (type == EVENT) {
+                    readEvent(buffer, strings, scheduleManager);
+                } else if (type == SCHEDULE) {
+                    scheduleMinute = buffer.getLong();
+                    int numDays = buffer.getInt();
+                    dayErrors = new int[numDays + 1];
+                    dayErrors[numDays] = buffer.getInt();
+                } else if (type == DAY) {
+                    if (dayErrors == null || days.size() + 1 >= dayErrors.length) {
+                        throw new IllegalArgumentException("Snapshot holds a Day outside of its schedule");
+                    }
+                    dayErrors[days.size()] = readDay(buffer, days, scheduleManager);
+                } else if (type == JOURNAL) {
+                    scheduleManager.setJournalSequence(buffer.getLong());
+                }
+                buffer.position(end);
+            }
+
+            for (Task task : archived) {
+                scheduleManager.archiveTask(task.getId());
+            }
+            if (dayErrors != null) {
+                if (days.size() + 1 != dayErrors.length) {
+                    throw new IllegalArgumentException("Snapshot is missing Days of its schedule");
+                }
+                scheduleManager.restoreSchedule(scheduleMinute, days, dayErrors);
+            }
+        } catch (RuntimeException e) {
+            if (e instanceof IllegalArgumentException) throw e;
+            // buffer underflows and out-of-range indices
+            throw new IllegalArgumentException("Snapshot is corrupted", e);
+        }
+    }
+
+    /**
+     * Reads an EVENT record and restores the Event
+     *
+     * @param buffer buffer positioned at the payload of the record
+     * @param strings interned Strings read so far
+     * @param scheduleManager manager receiving the Event
+     */
+    private static void readEvent(ByteBuffer buffer, List<String> strings, ScheduleManager scheduleManager) {
+        int id = buffer.getInt();
+        int cardId = buffer.getInt();
+        Time.TimeStamp timeStamp = new Time.TimeStamp(buffer.getLong(), buffer.getLong());
+        int days = buffer.get();
+        String name = strings.get(buffer.getInt());
+
+        Event.DayOfWeek[] daysOfWeek = null;
+        if (days != 0) {
+            daysOfWeek = new Event.DayOfWeek[Integer.bitCount(days)];
+            int idx = 0;
+            for (Event.DayOfWeek day : Event.DayOfWeek.values()) {
+                if ((days & 1 << day.ordinal()) != 0) daysOfWeek[idx++] = day;
+            }
+        }
+        scheduleManager.restoreEvent(id, name, cardId, timeStamp, daysOfWeek);
+    }
+
+    /**
+     * Reads a DAY record and restores the Day with its SubTasks
+     *
+     * @param buffer buffer positioned at the payload of the record
+     * @param days Days read so far, which receive the Day
+     * @param scheduleManager manager holding the Tasks of the SubTasks
+     * @return number of scheduling errors that occurred before the Day
+     */
+    private static int readDay(ByteBuffer buffer, List<Day> days, ScheduleManager scheduleManager) {
+        int id = buffer.getInt();
+        double capacity = buffer.getDouble();
+        Day day = new Day(id, capacity, Time.toCalendar(buffer.getLong()));
+        int errors = buffer.getInt();
+        int numSubTasks = buffer.getInt();
+        for (int i = 0; i < numSubTasks; i++) {
+            Task task = scheduleManager.getTask(buffer.getInt());
+            double hours = buffer.getDouble();
+            byte flags = buffer.get();
+            Time.TimeStamp timeStamp = null;
+            if ((flags & TIMED) != 0) {
+                timeStamp = new Time.TimeStamp(buffer.getLong(), buffer.getLong());
+            }
+            if (task == null) {
+                throw new IllegalArgumentException("Snapshot holds a SubTask of an unknown Task");
+            }
+            day.restoreSubTask(task, hours, (flags & OVERFLOW) != 0, timeStamp);
+        }
+        days.add(day);
+        return errors;
+    }
+
+    /**
+     * Writes the content of a file
+     */
+    private interface Content {
+
+        /**
+         * Writes the content to a stream
+         *
+         * @param out stream of the file
+         * @throws IOException when the content cannot be written
+         */
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    /**
+     * Writes length-prefixed records and interns the Strings they refer to
+     *
+     * @author Andrew Roe
+     */
+    private static class RecordWriter {
+
+        /** Stream receiving the snapshot */
+        private final DataOutputStream out;
+        /** Payload of the current record */
+        private final ByteArrayOutputStream payload;
+        /** Stream writing into the payload */
+        private final DataOutputStream record;
+        /** Index of every interned String */
+        private final Map<String, Integer> strings;
+
+        /**
+         * Constructs a new RecordWriter and writes the header of the snapshot
+         *
+         * @param out stream receiving the snapshot
+         * @throws IOException when the header cannot be written
+         */
+        private RecordWriter(OutputStream out) throws IOException {
+            this.out = new DataOutputStream(out);
+            this.payload = new ByteArrayOutputStream(64);
+            this.record = new DataOutputStream(payload);
+            this.strings = new HashMap<>();
+            this.out.writeInt(MAGIC);
+            this.out.writeShort(VERSION);
+        }
+
+        /**
+         * Gets the index of a String, writing a STRING record the first time it is seen
+         *
+         * @param str String being interned
+         * @return index of the String
+         * @throws IOException when the record cannot be written
+         */
+        private int intern(String str) throws IOException {
+            Integer idx = strings.get(str);
+            if (idx != null) return idx;
+            payload.write(str.getBytes(StandardCharsets.UTF_8));
+            end(STRING);
+            strings.put(str, strings.size());
+            return strings.size() - 1;
+        }
+
+        /**
+         * Begins a new record
+         *
+         * @return stream receiving the payload of the record
+         */
+        private DataOutputStream begin() {
+            payload.reset();
+            return record;
+        }
+
+        /**
+         * Writes the current record
+         *
+         * @param type type of the record
+         * @throws IOException when the record cannot be written
+         */
+        private void end(byte type) throws IOException {
+            out.writeByte(type);
+            out.writeInt(payload.size());
+            payload.writeTo(out);
+            payload.reset();
+        }
+    }
+}
@@ -14,9 +14,8 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.security.GeneralSecurityException;
+import java.util.Collection;
 import java.util.List;
-import java.util.PriorityQueue;
 
 /**
  * Class to handle operations related to spreadsheet files.
@@ -33,7 +32,7 @@ public class SpreadsheetIO {
      * @param eventLog Global event log object. Logs events of value during function execution in the
      *                 {@code SpreadsheetIO} class.
      */
-    public SpreadsheetIO(EventLog eventLog) throws GeneralSecurityException, IOException {
+    public SpreadsheetIO(EventLog eventLog) {
         this.eventLog = eventLog;
     }
 
@@ -77,11 +76,12 @@ public class SpreadsheetIO {
      *                     when populating the {@code Boards} Worksheet.
      * @param userConfig User configuration settings that will be checked to determine whether
      *                   coloring will be enabled when populating the {@code Schedule} Worksheet.
+     * @throws IOException when the Excel file cannot be written.
      */
     public void exportScheduleToExcel(
             List<Day> schedule,
             List<Card> cards,
-            PriorityQueue<Task> archivedTasks,
+            Collection<Task> archivedTasks,
             UserConfig userConfig
     ) throws IOException {
         if (schedule.isEmpty())
@@ -101,10 +101,13 @@ public class SpreadsheetIO {
                 OutputStream os = Files.newOutputStream(Paths.get(path.toURI()));
                 Workbook wb = new Workbook(os, "AgilePlannerApplication", "1.0")
         ) {
+            // sheets are created up front so that they keep their order in the Workbook
             Worksheet scheduleSheet = SpreadsheetUtil.createScheduleSheet(wb, schedule);
             Worksheet eventSheet = SpreadsheetUtil.createEventSheet(wb, schedule);
             Worksheet taskSheet = SpreadsheetUtil.createTaskSheet(wb, schedule);
 
+            // sheets are populated one at a time, since a sheet keeps its zip entry open from its first flush until it
+            // is finished, and fastexcel fails or hangs when another sheet is flushed in the meantime
             SpreadsheetUtil.populateScheduleSheet(scheduleSheet, schedule, userConfig);
             SpreadsheetUtil.populateEventSheet(eventSheet, schedule);
             SpreadsheetUtil.populateTaskSheet(taskSheet, schedule);
@@ -115,4 +118,4 @@ public class SpreadsheetIO {
             eventLog.reportExcelExportSchedule();
         }
     }
-}
\ No newline at end of file
+}
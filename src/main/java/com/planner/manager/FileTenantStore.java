@@ -0,0 +1,114 @@
+package com.planner.manager;
+
+import com.planner.io.Snapshot;
+import com.planner.models.UserConfig;
+import com.planner.util.JsonHandler;
+import com.planner.util.Serializer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.regex.Pattern;
+
+/**
+ * Stores each tenant in its own directory below a root directory, holding the tenant's user settings in
+ * {@code profile.json} and its planner state in the {@link Snapshot} {@code state.bin}. Tenants without a
+ * {@code profile.json} receive a copy of the default user settings.
+ * <p>
+ * Tenants saved before snapshots were used hold their Cards, Tasks and Events in {@code state.txt} (see
+ * {@link Serializer}), which is read when there is no {@code state.bin} and removed once the tenant is saved again.
+ *
+ * @author Andrew Roe
+ */
+public class FileTenantStore implements TenantStore {
+
+    /** Tenant IDs double as directory names, so they are restricted to a safe set of characters */
+    private static final Pattern TENANT_ID = Pattern.compile("[A-Za-z0-9_.-]{1,64}");
+    /** Name of the file holding the user settings of a tenant */
+    private static final String PROFILE_FILE = "profile.json";
+    /** Name of the file holding the planner state of a tenant */
+    private static final String STATE_FILE = "state.bin";
+    /** Name of the file holding the planner state of a tenant saved before snapshots were used */
+    private static final String LEGACY_STATE_FILE = "state.txt";
+
+    /** Directory holding a directory for each tenant */
+    private final Path root;
+    /** User settings of tenants that have none of their own, stored as JSON so that each tenant gets a copy */
+    private final String defaultConfig;
+
+    /**
+     * Constructs a new {@code FileTenantStore}
+     *
+     * @param root directory holding a directory for each tenant
+     * @param defaultConfig user settings of tenants that have none of their own
+     */
+    public FileTenantStore(Path root, UserConfig defaultConfig) {
+        this.root = root;
+        this.defaultConfig = JsonHandler.createUserConfig(defaultConfig);
+    }
+
+    @Override
+    public ScheduleManager load(String tenantId) throws IOException {
+        Path dir = getTenantDirectory(tenantId);
+        Path profile = dir.resolve(PROFILE_FILE);
+        String configStr = Files.exists(profile) ? Files.readString(profile, StandardCharsets.UTF_8) : defaultConfig;
+
+        ScheduleManager scheduleManager = new ScheduleManager(JsonHandler.readUserConfig(configStr));
+        Path state = dir.resolve(STATE_FILE);
+        Path legacyState = dir.resolve(LEGACY_STATE_FILE);
+        if (Files.exists(state)) {
+            try {
+                Snapshot.readSnapshot(state, scheduleManager);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Invalid state of tenant " + tenantId + ": " + e.getMessage(), e);
+            }
+        } else if (Files.exists(legacyState)) {
+            // a partially restored tenant would be saved over its complete state, so it is not loaded at all
+            int numErrors = Serializer.deserializeSchedule(Files.readString(legacyState, StandardCharsets.UTF_8),
+                    scheduleManager);
+            if (numErrors > 0) {
+                throw new IOException("Invalid state of tenant " + tenantId + ": " + numErrors
+                        + " records could not be restored");
+            }
+        }
+        return scheduleManager;
+    }
+
+    @Override
+    public void save(String tenantId, ScheduleManager scheduleManager) throws IOException {
+        Path dir = getTenantDirectory(tenantId);
+        Files.createDirectories(dir);
+        write(dir.resolve(PROFILE_FILE), JsonHandler.createUserConfig(scheduleManager.getUserConfig()));
+        Snapshot.writeSnapshot(dir.resolve(STATE_FILE), scheduleManager);
+        Files.deleteIfExists(dir.resolve(LEGACY_STATE_FILE));
+    }
+
+    /**
+     * Gets the directory of a tenant
+     *
+     * @param tenantId ID of the tenant
+     * @return directory of the tenant
+     * @throws IllegalArgumentException when the tenant ID contains characters unfit for a directory name
+     */
+    private Path getTenantDirectory(String tenantId) {
+        if (tenantId == null || !TENANT_ID.matcher(tenantId).matches() || tenantId.startsWith(".")) {
+            throw new IllegalArgumentException("Invalid tenant ID: " + tenantId);
+        }
+        return root.resolve(tenantId);
+    }
+
+    /**
+     * Replaces the contents of a file, so that a crash while writing never leaves a partially written file behind
+     *
+     * @param file file being written
+     * @param contents new contents of the file
+     * @throws IOException when the file cannot be written
+     */
+    private static void write(Path file, String contents) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.writeString(tmp, contents, StandardCharsets.UTF_8);
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -3,17 +3,29 @@ package com.planner.manager;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.GeneralSecurityException;
 import java.util.*;
-
-import com.planner.io.IOProcessing;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+import com.planner.io.JBin;
+import com.planner.io.Journal;
+import com.planner.io.Snapshot;
 import com.planner.io.SpreadsheetIO;
 import com.planner.models.*;
 import com.planner.io.GoogleCalendarIO;
 import com.planner.schedule.Scheduler;
+import com.planner.schedule.SchedulingContext;
+import com.planner.schedule.TaskQueue;
 import com.planner.schedule.day.Day;
 import com.planner.util.*;
 import com.planner.ui.tables.TableFormatter;
+import com.planner.ui.tables.TableView;
 
 /**
  * Handles the generation and management of the overall schedule
@@ -23,18 +35,41 @@ import com.planner.ui.tables.TableFormatter;
  */
 public class ScheduleManager {
 
+    /** Minimum number of journal records before the journal is compacted into its snapshot */
+    private static final int COMPACTION_THRESHOLD = 1024;
+    /** Latency of building the schedule */
+    private static final Metrics.Histogram BUILD_LATENCY = Metrics.histogram("schedule.build_ns");
+    /** Bytes allocated while building the schedule */
+    private static final Metrics.Histogram BUILD_ALLOCATION = Metrics.histogram("schedule.build.allocated_bytes");
+    /** Latency of assigning Tasks to a single Day */
+    private static final Metrics.Histogram ASSIGN_DAY_LATENCY = Metrics.histogram("schedule.assign_day_ns");
+    /** Latency of loading the user config */
+    private static final Metrics.Histogram CONFIG_LATENCY = Metrics.histogram("config.load_ns");
+    /** Latency of exporting the schedule to Excel */
+    private static final Metrics.Histogram EXCEL_LATENCY = Metrics.histogram("export.excel_ns");
+    /** Latency of exporting the schedule to Google Calendar */
+    private static final Metrics.Histogram GOOGLE_LATENCY = Metrics.histogram("export.google_ns");
+
     /** List of Cards holding Tasks */
     private List<Card> cards;
     /** LinkedList of Days representing a single schedule */
     private List<Day> schedule;
-    /** PriorityQueue of all archived Tasks in sorted order */
-    private PriorityQueue<Task> archivedTasks;
-    /** PriorityQueue of all Tasks in sorted order */
-    private PriorityQueue<Task> taskManager;
+    /** TaskQueue of all archived Tasks in sorted order */
+    private TaskQueue archivedTasks;
+    /** TaskQueue of all Tasks in sorted order */
+    private TaskQueue taskManager;
     /** Mapping of all Tasks via their unique IDs */
-    private Map<Integer, Task> taskMap;
+    private IntMap<Task> taskMap;
+    /** Mapping of all Cards via their unique IDs */
+    private IntMap<Card> cardMap;
+    /** Mapping of every Card ID to the Tasks on that Card, keyed by Task ID */
+    private IntMap<IntMap<Task>> cardTasks;
+    /** Mapping of all individual and recurring Events via their unique IDs */
+    private final IntMap<Event> eventMap;
     /** Performs all scheduling operations for each day */
     private Scheduler scheduler;
+    /** Scheduling algorithm the Scheduler was chosen by (see {@link UserConfig#getSchedulingAlgorithm()}) */
+    private int schedulingAlgorithm;
     /** Holds all user settings for scheduling purposes */
     private UserConfig userConfig;
     /** Logs all actions performed by user */
@@ -63,39 +98,68 @@ public class ScheduleManager {
     private final List<List<Event>> recurringEvents;
     /** ID for event */
     private int eventId;
+    /** Index of the earliest Day that has to be regenerated on the next build */
+    private int dirtyDay;
+    /** Number of scheduling errors that occurred before each Day of the schedule (and after the last one) */
+    private int[] dayErrors;
+    /** Local epoch-minute at which the schedule was last generated */
+    private long scheduleMinute;
+    /** Whether full rebuilds plan partitions of the schedule concurrently */
+    private boolean parallelPlanning;
+    /** Pool planning the partitions, or <code>null</code> for the common {@link ForkJoinPool} */
+    private ForkJoinPool planningPool;
+    /** Number of partitions planned concurrently that the last build merged into the schedule */
+    private int numMergedPartitions;
+    /** Journal recording every mutation since the last snapshot (<code>null</code> unless opened) */
+    private Journal journal;
+    /** Snapshot file the journal is compacted into */
+    private String snapshotFile;
+    /** Last compaction of the journal, which may still be running in the background */
+    private CompletableFuture<Void> compaction;
+    /** Sequence number of the last journal record whose mutation is part of the planner state */
+    private long journalSequence;
+    /** Rows of the schedule, SubTask and Task tables kept between displays */
+    private final TableFormatter.RowCache rowCache = new TableFormatter.RowCache();
 
     /**
      * Private constructor of ScheduleManager
      * Initially performs task processing as well as schedule generation
      */
     public ScheduleManager() {
-        try {
-            eventLog = EventLog.getEventLog();
-        } catch (FileNotFoundException e) {
-            throw new IllegalArgumentException("Could not locate logging file");
-        }
+        this(null);
+    }
+
+    /**
+     * Constructs a ScheduleManager with the given user settings instead of those in {@code settings/profile.json},
+     * which allows several independent managers to be hosted in one process (see {@link ScheduleService})
+     *
+     * @param userConfig user settings, or <code>null</code> to read them from {@code settings/profile.json}
+     */
+    public ScheduleManager(UserConfig userConfig) {
+        eventLog = new EventLog();
         eventLog.reportUserLogin();
-        processUserConfigFile();
+        if (userConfig == null) {
+            processUserConfigFile();
+        } else {
+            this.userConfig = userConfig;
+            eventLog.reportUserConfigAttr(userConfig);
+        }
 
-        taskManager = new PriorityQueue<>();
-//        try {
-//            googleCalendarIO = new GoogleCalendarIO(eventLog);
-//            spreadsheetIO = new SpreadsheetIO(eventLog);
-//        }
-//        catch (GeneralSecurityException | IOException e) {
-//            throw new IllegalArgumentException();
-//        }
+        taskManager = new TaskQueue();
+        // Google Calendar and Excel IO are created on first use, since authorizing Google alone takes seconds
 
-        scheduler = Scheduler.getInstance(userConfig, eventLog, 1);
-        // in situations where ScheduleManager is run multiple times after updates to config, this ensures options are set up properly
-        scheduler.updateConfig(userConfig);
+        schedulingAlgorithm = this.userConfig.getSchedulingAlgorithm();
+        scheduler = Scheduler.getInstance(schedulingAlgorithm);
 
         schedule = new LinkedList<>();
         customHours = new HashMap<>();
-        taskMap = new HashMap<>();
+        taskMap = new IntMap<>();
+        cardMap = new IntMap<>();
+        cardTasks = new IntMap<>();
         cards = new ArrayList<>();
-        archivedTasks = new PriorityQueue<>();
+        archivedTasks = new TaskQueue();
         indivEvents = new ArrayList<>();
+        eventMap = new IntMap<>();
 
         // Gotta initialize all the lists lol
         recurringEvents = new ArrayList<>(7);
@@ -115,11 +179,13 @@ public class ScheduleManager {
      * Processes all settings configurations to be used
      */
     private void processUserConfigFile() {
+        long start = System.nanoTime();
         try {
             eventLog.reportProcessConfig("profile.json");
             String configStr = Files.readString(Paths.get("settings/profile.json"));
             userConfig = JsonHandler.readUserConfig(configStr);
             eventLog.reportUserConfigAttr(userConfig);
+            CONFIG_LATENCY.recordSince(start);
         } catch (FileNotFoundException e) {
             eventLog.reportException(e);
             throw new IllegalArgumentException("Could not locate settings file");
@@ -133,57 +199,226 @@ public class ScheduleManager {
      * Imports JBin file to generate cards and possible schedule
      *
      * @param filename jbin filename
+     * @throws IllegalArgumentException when the file cannot be read or is not a valid JBin file
      */
     public void importJBinFile(String filename) {
-//        String binStr = IOProcessing.readJBinFile(filename);
-//        if(binStr != null) {
-//            eventLog.reportReadJBinFile(filename);
-//            List<Event> eventList = new ArrayList<>();
-//            JBin.processJBin(binStr, taskManager, eventList, eventId, cards, schedule, userConfig.getArchiveDays());
-//            eventLog.reportProcessJBin();
-//
-//            Calendar currDate = Time.getFormattedCalendarInstance(0);
-//            while (!taskManager.isEmpty()) {
-//                Task task = taskManager.remove();
-//                if (task.getDueDate().compareTo(currDate) < 0) {
-//                    archivedTasks.add(task);
-//                    // eventlog needs to report the archiving of a task
-//                    eventLog.reportTaskAction(task, 3);
-//                }
-//                else {
-//                    taskManager.add(task);
-//                    break;
-//                }
-//            }
-//            taskId = taskManager.size();
-//
-//            for (Event e : eventList) {
-//                if (e.isRecurring()) {
-//                    for (Event.DayOfWeek dayOfWeek : e.getDays()) {
-//                        recurringEvents.get(dayOfWeek.ordinal()).add(e);
-//                    }
-//                } else indivEvents.add(e);
-//            }
-//            eventId = eventList.get(eventList.size() - 1).getId() + 1;
-//        }
+        try {
+            eventLog.reportReadJBinFile(filename);
+            JBin.importJBin(Paths.get(filename), this);
+            eventLog.reportProcessJBin();
+        } catch (IOException e) {
+            eventLog.reportException(e);
+            throw new IllegalArgumentException("Was unable to read JBin file " + filename);
+        }
     }
 
+    /**
+     * Exports all cards, tasks and events to a JBin file
+     *
+     * @param filename jbin filename
+     * @throws IllegalArgumentException when the file cannot be written
+     */
     public void exportJBinFile(String filename) {
-//        eventLog.reportCreateJBin();
-//        IOProcessing.writeJBinFile(
-//                filename,
-//                JBin.createJBin(
-//                        cards,
-//                        schedule,
-//                        indivEvents,
-//                        recurringEvents
-//                )
-//        );
-//        eventLog.reportWriteJBinFile(filename);
+        try {
+            eventLog.reportCreateJBin();
+            JBin.exportJBin(Paths.get(filename), this);
+            eventLog.reportWriteJBinFile(filename);
+        } catch (IOException e) {
+            eventLog.reportException(e);
+            throw new IllegalArgumentException("Was unable to write JBin file " + filename);
+        }
+    }
+
+    /**
+     * Resumes the planner state and schedule from a snapshot file, if it exists
+     *
+     * @param filename snapshot filename
+     * @return boolean value for whether a snapshot was loaded
+     * @throws IllegalArgumentException when the file cannot be read or is not a valid snapshot
+     */
+    public boolean loadSnapshot(String filename) {
+        Path path = Paths.get(filename);
+        if (!Files.exists(path)) return false;
+        try {
+            Snapshot.readSnapshot(path, this);
+            eventLog.reportReadSnapshot(filename);
+            return true;
+        } catch (IOException e) {
+            eventLog.reportException(e);
+            throw new IllegalArgumentException("Was unable to read snapshot " + filename);
+        }
+    }
+
+    /**
+     * Saves the planner state and schedule to a snapshot file. While the journal is open, the snapshot includes
+     * every mutation journaled so far.
+     *
+     * @param filename snapshot filename
+     * @throws IllegalArgumentException when the file cannot be written
+     */
+    public void saveSnapshot(String filename) {
+        try {
+            Snapshot.writeSnapshot(Paths.get(filename), this);
+            eventLog.reportWriteSnapshot(filename);
+        } catch (IOException e) {
+            eventLog.reportException(e);
+            throw new IllegalArgumentException("Was unable to write snapshot " + filename);
+        }
+    }
+
+    /**
+     * Opens the journal of planner mutations and replays the mutations it holds beyond the loaded snapshot (see
+     * {@link #loadSnapshot(String)}). From then on, every added, modified or deleted Task, Card and Event is
+     * appended to the journal, which is compacted into the snapshot file once it holds more records than the
+     * planner holds Tasks, Cards and Events (and at least {@value #COMPACTION_THRESHOLD}), so that replaying it
+     * never takes longer than resuming the snapshot.
+     *
+     * @param journalFile journal filename, which is created if it does not exist
+     * @param snapshotFile snapshot filename the journal is compacted into
+     * @throws IllegalArgumentException when the journal cannot be read, is not a valid journal, or is already open
+     */
+    public void openJournal(String journalFile, String snapshotFile) {
+        if (journal != null) {
+            throw new IllegalArgumentException("Journal is already open");
+        }
+        try {
+            // the journal is only attached afterwards, so the replayed mutations are not journaled again
+            Journal opened = Journal.open(Paths.get(journalFile), this, journalSequence);
+            eventLog.reportReplayJournal(journalFile, opened.getNumRecords());
+            this.snapshotFile = snapshotFile;
+            this.journal = opened;
+        } catch (IOException e) {
+            eventLog.reportException(e);
+            throw new IllegalArgumentException("Was unable to open journal " + journalFile);
+        }
+    }
+
+    /**
+     * Compacts the journal by saving a snapshot that includes all of its records, then emptying it once the snapshot
+     * is on disk, and waits for any compaction still running in the background. A crash in between is safe, since
+     * records included in the snapshot are skipped when the journal is replayed.
+     *
+     * @throws IllegalArgumentException when the journal is not open, or the snapshot or journal cannot be written
+     */
+    public void compactJournal() {
+        if (journal == null) {
+            throw new IllegalArgumentException("Journal is not open");
+        }
+        try {
+            startCompaction().join();
+        } catch (CompletionException e) {
+            throw new IllegalArgumentException("Was unable to compact journal into " + snapshotFile);
+        }
+    }
+
+    /**
+     * Compacts the journal into its snapshot and closes it, after which mutations are no longer journaled
+     *
+     * @throws IllegalArgumentException when the journal is not open, or the snapshot or journal cannot be written
+     */
+    public void closeJournal() {
+        compactJournal();
+        try {
+            journalSequence = journal.getSequence();
+            journal.close();
+        } catch (IOException e) {
+            eventLog.reportException(e);
+            throw new IllegalArgumentException("Was unable to close journal");
+        } finally {
+            journal = null;
+        }
+    }
+
+    /**
+     * Commits every journaled mutation right away rather than with the next group commit
+     *
+     * @throws IllegalArgumentException when the journal is not open or cannot be written
+     */
+    public void syncJournal() {
+        if (journal == null) {
+            throw new IllegalArgumentException("Journal is not open");
+        }
+        try {
+            journal.sync();
+        } catch (IOException e) {
+            eventLog.reportException(e);
+            throw new IllegalArgumentException("Was unable to write journal");
+        }
+    }
+
+    /**
+     * Gets the sequence number of the last journal record whose mutation is part of the planner state
+     *
+     * @return sequence number, or 0 if no mutation was ever journaled
+     */
+    public long getJournalSequence() {
+        return journal != null ? journal.getSequence() : journalSequence;
+    }
+
+    /**
+     * Sets the sequence number of the last journal record whose mutation is part of the planner state, such as
+     * one read back from a snapshot
+     *
+     * @param journalSequence sequence number
+     */
+    public void setJournalSequence(long journalSequence) {
+        this.journalSequence = journalSequence;
+    }
+
+    /**
+     * Appends a mutation to the journal, if it is open, and starts compacting the journal in the background once it
+     * outgrows the planner
+     *
+     * @param entry appends the record of the mutation
+     * @throws IllegalArgumentException when the journal could not be written, in which case the mutation is still
+     *                                  made but is only saved once the journal recovers
+     */
+    private void journal(Consumer<Journal> entry) {
+        if (journal == null) return;
+        boolean appended = true;
+        try {
+            entry.accept(journal);
+        } catch (IllegalStateException e) {
+            // a torn record stops records from being appended, so the mutation is saved by compacting the journal
+            eventLog.reportException(e);
+            appended = false;
+        }
+        int limit = Math.max(COMPACTION_THRESHOLD, taskMap.size() + cardMap.size() + eventMap.size());
+        if (!appended || (journal.getNumRecords() >= limit && (compaction == null || compaction.isDone()))) {
+            // the mutation is journaled either way, and a failed compaction is retried on the next one
+            startCompaction();
+        }
+        IOException failure = journal.getFailure();
+        if (failure != null) {
+            eventLog.reportException(failure);
+            throw new IllegalArgumentException("Was unable to write journal, so recent edits are not saved yet");
+        }
+    }
+
+    /**
+     * Starts compacting the journal into the snapshot file. The snapshot is taken right away, since the planner is
+     * only ever read by the thread mutating it, while writing it and rewriting the journal happen on the journal's
+     * background thread. Either outcome is reported to the event log.
+     *
+     * @return completes once the journal is compacted, or exceptionally with the reason it could not be
+     */
+    private CompletableFuture<Void> startCompaction() {
+        String filename = snapshotFile;
+        long sequence = journal.getSequence();
+        compaction = journal.compact(Paths.get(filename), Snapshot.toByteArray(this)).whenComplete((v, e) -> {
+            if (e == null) {
+                eventLog.reportWriteSnapshot(filename);
+                eventLog.reportCompactJournal(sequence);
+            } else {
+                // the journal only fails a compaction with an IOException or RuntimeException
+                eventLog.reportException((Exception) e);
+            }
+        });
+        return compaction;
     }
 
 //    public void setScheduleOption(int idx) {
-//        scheduler = Scheduler.getInstance(userConfig, eventLog, idx);
+//        scheduler = Scheduler.getInstance(idx);
 //    }
 
     /**
@@ -236,7 +471,7 @@ public class ScheduleManager {
      *
      * @return Priority queue storing all non-archived tasks in sorted order
      */
-    public PriorityQueue<Task> getTaskManager() {
+    public TaskQueue getTaskManager() {
         return taskManager;
     }
 
@@ -245,7 +480,7 @@ public class ScheduleManager {
      *
      * @return Priority queue storing all archived tasks in sorted order
      */
-    public PriorityQueue<Task> getArchivedTasks() { return archivedTasks; }
+    public TaskQueue getArchivedTasks() { return archivedTasks; }
 
     /**
      * Gets last ID for Task
@@ -288,10 +523,13 @@ public class ScheduleManager {
             e = new Event(eventId, name, getCardById(cardId), timeStamp);
             indivEvents.add(e);
         }
+        eventMap.put(e.getId(), e);
 
         eventLog.reportEventAction(e, 0);
+        markEventDirty(e);
 
         eventId++;
+        journal(j -> j.appendAddEvent(e));
 
         return e;
     }
@@ -307,9 +545,11 @@ public class ScheduleManager {
         Card card = new Card(cardId, title, color);
 
         cards.add(card);
+        cardMap.put(card.getId(), card);
         eventLog.reportCardAction(card, 0);
 
         cardId++;
+        journal(j -> j.appendAddCard(card));
 
         return card;
     }
@@ -328,11 +568,95 @@ public class ScheduleManager {
 
         taskManager.add(task);
         taskMap.put(taskId, task);
+        linkCard(task);
+        markTaskDirty(task);
         taskId++;
+        journal(j -> j.appendAddTask(task));
 
         return task;
     }
 
+    /**
+     * Restores a card with a previously assigned ID, such as one read back from a saved planner state
+     *
+     * @param id ID of the card
+     * @param title Title of the card
+     * @param color Color of the card
+     * @return The restored card
+     * @throws IllegalArgumentException when a card with the same ID already exists
+     */
+    public Card restoreCard(int id, String title, Card.Color color) {
+        if (getCardById(id) != null) {
+            throw new IllegalArgumentException("Card ID " + id + " already exists");
+        }
+        Card card = new Card(id, title, color);
+
+        cards.add(card);
+        cardMap.put(id, card);
+        cardId = Math.max(cardId, id + 1);
+
+        return card;
+    }
+
+    /**
+     * Restores a task with a previously assigned ID, such as one read back from a saved planner state
+     *
+     * @param id ID of the task
+     * @param name Name of the task
+     * @param hours Number of hours of the task
+     * @param due Due date of the task
+     * @param cardId ID for card
+     * @return The restored task
+     * @throws IllegalArgumentException when a task with the same ID already exists
+     */
+    public Task restoreTask(int id, String name, double hours, Calendar due, int cardId) {
+        if (taskMap.containsKey(id)) {
+            throw new IllegalArgumentException("Task ID " + id + " already exists");
+        }
+        Task task = new Task(id, name, hours, due, getCardById(cardId));
+
+        taskManager.add(task);
+        taskMap.put(id, task);
+        linkCard(task);
+        markTaskDirty(task);
+        taskId = Math.max(taskId, id + 1);
+
+        return task;
+    }
+
+    /**
+     * Restores an event with a previously assigned ID, such as one read back from a saved planner state
+     *
+     * @param id ID of the event
+     * @param name name of event
+     * @param cardId id for card
+     * @param timeStamp event duration
+     * @param days days of the week the event reoccurs on, or <code>null</code> for an individual event
+     * @return The restored event
+     * @throws IllegalArgumentException when an event with the same ID already exists
+     */
+    public Event restoreEvent(int id, String name, int cardId, Time.TimeStamp timeStamp, Event.DayOfWeek[] days) {
+        if (findEvent(id) != null) {
+            throw new IllegalArgumentException("Event ID " + id + " already exists");
+        }
+        Event e;
+
+        if (days != null) {
+            e = new Event(id, name, getCardById(cardId), timeStamp, days);
+            for (Event.DayOfWeek day : e.getDays()) {
+                recurringEvents.get(day.ordinal()).add(e);
+            }
+        } else {
+            e = new Event(id, name, getCardById(cardId), timeStamp);
+            indivEvents.add(e);
+        }
+        eventMap.put(id, e);
+        markEventDirty(e);
+        eventId = Math.max(eventId, id + 1);
+
+        return e;
+    }
+
     /**
      * Modifies a task
      *
@@ -349,6 +673,8 @@ public class ScheduleManager {
         if (task == null) {
             return null;
         }
+        // both the previous and the updated version of the Task can shift the schedule
+        markTaskDirty(task);
 
         if (name != null) {
             task.setName(name);
@@ -360,18 +686,24 @@ public class ScheduleManager {
             task.setDueDate(due);
         }
         if (cardId != -1) {
+            unlinkCard(task);
             task.setCard(getCardById(cardId));
+            linkCard(task);
         }
+        // the new due date or hours may move the Task within its queue
+        if (!taskManager.update(task)) {
+            archivedTasks.update(task);
+        }
+        markTaskDirty(task);
+        journal(j -> j.appendModTask(id, name, hours, due, cardId));
 
         return task;
     }
 
     public Card modCard(int id, String name, Card.Color colorId) {
-        Card card;
+        Card card = getCardById(id);
 
-        if (id >= 0 && id < cards.size()) {
-            card = cards.get(id);
-        } else {
+        if (card == null) {
             return null;
         }
 
@@ -381,20 +713,47 @@ public class ScheduleManager {
         if (colorId != null) {
             card.setColor(colorId);
         }
+        journal(j -> j.appendModCard(id, name, colorId));
 
         return card;
     }
 
     public Event modEvent(int id, String name, int cardId, Time.TimeStamp timeStamp, List<Calendar> dates) {
+        Event.DayOfWeek[] days = null;
+
+        if (dates != null) {
+            days = new Event.DayOfWeek[dates.size()];
+            Event.DayOfWeek[] dayOfWeekValues = Event.DayOfWeek.values();
+
+            for (int i = 0; i < dates.size(); i++) {
+                days[i] = dayOfWeekValues[dates.get(i).get(Calendar.DAY_OF_WEEK) - 1];
+            }
+        }
+        return modEventDays(id, name, cardId, timeStamp, days);
+    }
+
+    /**
+     * Modifies an event, giving the days a recurring event reoccurs on as days of the week rather than dates
+     *
+     * @param id ID of the event to be modified
+     * @param name new name of the event, or <code>null</code> if unchanged
+     * @param cardId ID for card, or -1 if unchanged
+     * @param timeStamp new event duration, or <code>null</code> if unchanged
+     * @param days new days of the week a recurring event reoccurs on, or <code>null</code> if unchanged
+     * @return Event after it's modified
+     * @throws IllegalArgumentException when days are given for an individual event
+     */
+    public Event modEventDays(int id, String name, int cardId, Time.TimeStamp timeStamp, Event.DayOfWeek[] days) {
         Event event = findEvent(id);
 
         if (event == null) {
             return null;
         }
 
-        if (dates != null && !event.isRecurring()) {
+        if (days != null && !event.isRecurring()) {
             throw new IllegalArgumentException("Error: Individual event can't be assigned to multiple days");
         }
+        markEventDirty(event);
 
         if (name != null) {
             event.setName(name);
@@ -405,112 +764,130 @@ public class ScheduleManager {
         if (timeStamp != null) {
             event.setTimeStamp(timeStamp);
         }
-        if (dates != null) {
-            Event.DayOfWeek[] days = new Event.DayOfWeek[dates.size()];
-            Event.DayOfWeek[] dayOfWeekValues = Event.DayOfWeek.values();
-
-            for (int i = 0; i < dates.size(); i++) {
-                days[i] = dayOfWeekValues[dates.get(i).get(Calendar.DAY_OF_WEEK) - 1];
+        if (days != null) {
+            for (Event.DayOfWeek day : event.getDays()) {
+                recurringEvents.get(day.ordinal()).remove(event);
             }
-
             event.setDays(days);
+            for (Event.DayOfWeek day : event.getDays()) {
+                recurringEvents.get(day.ordinal()).add(event);
+            }
         }
+        markEventDirty(event);
+        journal(j -> j.appendModEvent(id, name, cardId, timeStamp, days != null ? event.getDays() : null));
 
         return event;
     }
 
     public boolean deleteTask(int id) {
-        Task task;
+        Task task = taskMap.remove(id);
 
-        if (taskMap.containsKey(id)) {
-            task = taskMap.get(id);
-            taskMap.remove(id);
-        } else {
+        if (task == null) {
             return false;
         }
+        markTaskDirty(task);
+        unlinkCard(task);
 
         boolean taskRemoved = taskManager.remove(task);
 
         if (!taskRemoved) {
             taskRemoved = archivedTasks.remove(task);
         }
+        journal(j -> j.appendDeleteTask(id));
 
         return taskRemoved;
     }
 
-    public boolean deleteCard(int id) {
-        for (int i = 0; i < cards.size(); i++) {
-            if (cards.get(i).getId() == id) {
-                Card card = cards.get(i);
+    /**
+     * Moves an active Task to the archived Tasks, such as one read back from a saved planner state
+     *
+     * @param id ID of the task
+     * @return boolean value for whether an active Task was archived
+     */
+    public boolean archiveTask(int id) {
+        Task task = taskMap.get(id);
 
-                cards.remove(i);
+        if (task == null || !taskManager.remove(task)) {
+            return false;
+        }
+        markTaskDirty(task);
+        archivedTasks.add(task);
 
-                removeTasksWithCard(card);
+        return true;
+    }
 
-                return true;
-            }
+    public boolean deleteCard(int id) {
+        Card card = cardMap.remove(id);
+
+        if (card == null) {
+            return false;
         }
+        cards.remove(card);
+        removeTasksWithCard(card);
+        journal(j -> j.appendDeleteCard(id));
 
-        return false;
+        return true;
     }
 
     public boolean deleteEvent(int id) {
-        for (int i = 0; i < indivEvents.size(); i++) {
-            if (indivEvents.get(i).getId() == id) {
-                indivEvents.remove(i);
-                return true;
-            }
-        }
+        Event event = eventMap.remove(id);
 
-        boolean eventRemoved = false;
+        if (event == null) {
+            return false;
+        }
+        markEventDirty(event);
 
-        for (List<Event> events : recurringEvents)
-        {
-            for (int i = 0; i < events.size(); i++) {
-                if (events.get(i).getId() == id) {
-                    events.remove(i);
-                    eventRemoved = true;
-                }
+        if (event.isRecurring()) {
+            for (Event.DayOfWeek day : event.getDays()) {
+                recurringEvents.get(day.ordinal()).remove(event);
             }
+        } else {
+            indivEvents.remove(event);
         }
+        journal(j -> j.appendDeleteEvent(id));
 
-        return eventRemoved;
+        return true;
     }
 
     private void removeTasksWithCard(Card card) {
-        for (Task task : taskManager) {
-            if (task.getCard() != null && task.getCard().getId() == card.getId()) {
-                task.setCard(null);
-            }
-        }
+        IntMap<Task> tasks = cardTasks.remove(card.getId());
 
-        for (Task task : archivedTasks) {
-            if (task.getCard() != null && task.getCard().getId() == card.getId()) {
-                task.setCard(null);
-            }
+        if (tasks != null) {
+            tasks.forEachValue(task -> task.setCard(null));
         }
     }
 
-    private Event findEvent(int id)
-    {
-        Event event = null;
-
-        for (Event indivEvent : indivEvents) {
-            if (indivEvent.getId() == id) {
-                return indivEvent;
-            }
+    /**
+     * Adds a Task to the index of Tasks on its Card
+     *
+     * @param task Task whose Card was set
+     */
+    private void linkCard(Task task) {
+        if (task.getCard() == null) return;
+        IntMap<Task> tasks = cardTasks.get(task.getCard().getId());
+        if (tasks == null) {
+            tasks = new IntMap<>();
+            cardTasks.put(task.getCard().getId(), tasks);
         }
+        tasks.put(task.getId(), task);
+    }
 
-        for (List<Event> events : recurringEvents)
-        {
-            for (Event recurringEvent : events) {
-                if (recurringEvent.getId() == id) {
-                    return recurringEvent;
-                }
-            }
+    /**
+     * Removes a Task from the index of Tasks on its Card
+     *
+     * @param task Task whose Card is about to change
+     */
+    private void unlinkCard(Task task) {
+        if (task.getCard() == null) return;
+        IntMap<Task> tasks = cardTasks.get(task.getCard().getId());
+        if (tasks != null) {
+            tasks.remove(task.getId());
+            if (tasks.isEmpty()) cardTasks.remove(task.getCard().getId());
         }
+    }
 
-        return null;
+    private Event findEvent(int id) {
+        return eventMap.get(id);
     }
 
     public int getNumActiveTasks() {
@@ -524,10 +901,7 @@ public class ScheduleManager {
      * @return Card with matching ID
      */
     public Card getCardById(int id) {
-        for (Card c : cards) {
-            if (c.getId() == id) return c;
-        }
-        return null;
+        return cardMap.get(id);
     }
 
     /**
@@ -541,19 +915,43 @@ public class ScheduleManager {
     }
 
     /**
-     * Generates an entire schedule following a distributive approach
+     * Generates the schedule following a distributive approach.
+     * <p>
+     * Only the Days from the earliest one marked dirty (by adding, modifying or deleting Tasks and Events) onward
+     * are regenerated, while the untouched prefix of the schedule is reused. The entire schedule is regenerated
+     * when the date or the current quarter of an hour has changed since the last build, since both determine
+     * how the first Day is laid out.
+     * <p>
+     * When parallel planning is enabled, full rebuilds first plan partitions of the horizon concurrently
+     * (see {@link #setParallelPlanning(boolean)}).
      */
     public void buildSchedule() {
+        long start = System.nanoTime();
+        long allocated = Metrics.allocatedBytes();
         eventLog.reportSchedulingStart();
-        resetSchedule();
+        Calendar time = Calendar.getInstance();
+        long now = Time.toEpochMinute(time);
+        boolean reusable = dayErrors != null && dayErrors.length == userConfig.getMaxDays() + 1
+                && isSamePlanningWindow(scheduleMinute, now)
+                && schedulingAlgorithm == userConfig.getSchedulingAlgorithm();
+        if (schedulingAlgorithm != userConfig.getSchedulingAlgorithm()) {
+            schedulingAlgorithm = userConfig.getSchedulingAlgorithm();
+            scheduler = Scheduler.getInstance(schedulingAlgorithm);
+        }
+        int startIdx = reusable ? Math.min(dirtyDay, schedule.size()) : 0;
+        scheduleTime = time;
+        scheduleMinute = now;
+        SchedulingContext context = new SchedulingContext(userConfig, eventLog, now);
         //Tasks that are "finished scheduling" are added here
-        PriorityQueue<Task> complete = new PriorityQueue<>();
+        TaskQueue complete = new TaskQueue();
 
-        schedule = new ArrayList<>(userConfig.getMaxDays());
-        scheduleTime = Calendar.getInstance();
-        int idx = scheduleTime.get(Calendar.DAY_OF_WEEK) - 1;
-        int dayCount = 0;
-        Day currDay;
+        if (startIdx == 0) {
+            resetSchedule();
+            schedule = new ArrayList<>(userConfig.getMaxDays());
+            dayErrors = new int[userConfig.getMaxDays() + 1];
+        } else {
+            rewindSchedule(startIdx, complete);
+        }
 
         // need to archive tasks that are 'past due' (this is to handle edge case where we started at 11PM, and now it's 1AM)
         Task head = taskManager.peek();
@@ -563,31 +961,292 @@ public class ScheduleManager {
             head = taskManager.peek();
         }
 
+        numMergedPartitions = 0;
+        if (parallelPlanning && scheduler.isDueDateOrdered() && dayId == 0 && !taskManager.isEmpty()) {
+            planPartitions(complete, context);
+        }
+        int idx = scheduleTime.get(Calendar.DAY_OF_WEEK) - 1 + dayId;
+        int dayCount = dayId;
+        Day currDay;
+
         int eventIdx = 0;
+        Scheduler.DayAssigner assigner = scheduler.newDayAssigner(context);
         while(!taskManager.isEmpty() && dayId < userConfig.getMaxDays()) {
             currDay = new Day(dayId++, userConfig.getHoursPerDayOfWeek()[idx++ % 7], dayCount++);
             schedule.add(currDay);
+            eventIdx = addEvents(currDay, eventIdx);
 
-            if (!recurringEvents.get(currDay.getDate().get(Calendar.DAY_OF_WEEK) - 1).isEmpty()) {
-                for (Event e1 : recurringEvents.get(currDay.getDate().get(Calendar.DAY_OF_WEEK) - 1)) {
-                    currDay.addEvent(e1);
-                }
+            // don't need incomplete as argument (should be local to schedulers)
+            long assignStart = System.nanoTime();
+            errorCount = assigner.assignDay(currDay, errorCount, complete, taskManager);
+            ASSIGN_DAY_LATENCY.recordSince(assignStart);
+            dayErrors[dayId] = errorCount;
+        }
+        // Tasks that did not fit within the horizon remain active
+        complete.addAll(taskManager);
+        this.taskManager = complete;
+        dirtyDay = Integer.MAX_VALUE;
+        eventLog.reportSchedulingFinish();
+        BUILD_LATENCY.recordSince(start);
+        if (allocated >= 0) {
+            BUILD_ALLOCATION.record(Metrics.allocatedBytes() - allocated);
+        }
+    }
+
+    /**
+     * Adds all recurring and individual Events taking place on a Day
+     *
+     * @param day Day receiving its Events
+     * @param eventIdx index of the first individual Event that has not been placed yet
+     * @return index of the first individual Event after the Day
+     */
+    private int addEvents(Day day, int eventIdx) {
+        for (Event e1 : recurringEvents.get(day.getDate().get(Calendar.DAY_OF_WEEK) - 1)) {
+            day.addEvent(e1);
+        }
+
+        while (eventIdx < indivEvents.size()) {
+            long eventDay = Time.getStartOfDay(indivEvents.get(eventIdx).getTimeStamp().getStartMinute());
+            if (eventDay < day.getStartOfDay()) {
+                // events before the current Day were already placed (or are in the past)
+                eventIdx++;
+            } else if (eventDay == day.getStartOfDay()) {
+                day.addEvent(indivEvents.get(eventIdx));
+                eventIdx++;
+            } else break;
+        }
+        return eventIdx;
+    }
+
+    /**
+     * Plans the schedule in partitions of consecutive Days on the planning pool, with one partition per thread of
+     * the pool.
+     * <p>
+     * The horizon is split at due dates so that each partition holds about the same number of Tasks, and each
+     * partition only schedules the Tasks due within it. Since a Task is always finished scheduling by its due
+     * date, a partition is laid out exactly as in a sequential build as long as none of its Days ran out of
+     * Tasks while still having spare hours (which sequentially would be filled by Tasks of later partitions).
+     * Valid partitions are merged in order, and the sequential planner resumes at the first invalid one.
+     *
+     * @param complete Tasks that are "finished scheduling" are added here
+     * @param context user settings, EventLog and time of the current build
+     */
+    private void planPartitions(TaskQueue complete, SchedulingContext context) {
+        int maxDays = userConfig.getMaxDays();
+        ForkJoinPool pool = planningPool != null ? planningPool : ForkJoinPool.commonPool();
+        int numPartitions = Math.min(pool.getParallelism(), maxDays);
+        if (numPartitions < 2) return;
+
+        List<Task> tasks = new ArrayList<>(taskManager);
+        Collections.sort(tasks);
+        List<Integer> bounds = new ArrayList<>();
+        bounds.add(0);
+        for (int i = 1; i < numPartitions; i++) {
+            int dueDay = getDueDayIndex(tasks.get(i * tasks.size() / numPartitions));
+            if (dueDay > bounds.get(bounds.size() - 1) && dueDay < maxDays) bounds.add(dueDay);
+        }
+        bounds.add(maxDays);
+        if (bounds.size() < 3) return;
+
+        List<Partition> partitions = new ArrayList<>();
+        List<ForkJoinTask<Partition>> jobs = new ArrayList<>();
+        int taskIdx = 0;
+        for (int i = 0; i + 1 < bounds.size(); i++) {
+            boolean last = i + 2 == bounds.size();
+            List<Task> partitionTasks = new ArrayList<>();
+            while (taskIdx < tasks.size() && (last || getDueDayIndex(tasks.get(taskIdx)) < bounds.get(i + 1))) {
+                partitionTasks.add(tasks.get(taskIdx++));
             }
+            Partition partition = new Partition(bounds.get(i), bounds.get(i + 1), last, partitionTasks,
+                    (Calendar) scheduleTime.clone());
+            partitions.add(partition);
+            jobs.add(ForkJoinTask.adapt(() -> planPartition(partition, context)));
+        }
+        for (ForkJoinTask<Partition> job : jobs) {
+            pool.execute(job);
+        }
+        for (ForkJoinTask<Partition> job : jobs) {
+            job.join();
+        }
 
-            while (eventIdx < indivEvents.size()) {
-                Calendar eventDate = indivEvents.get(eventIdx).getTimeStamp().getStart();
-                Calendar dayDate = currDay.getDate();
-                if (Time.doDatesMatch(eventDate, dayDate)) {
-                    currDay.addEvent(indivEvents.get(eventIdx));
-                    eventIdx++;
-                } else break;
+        int errors = 0;
+        for (Partition partition : partitions) {
+            if (!partition.valid) break;
+            for (int i = 0; i < partition.days.size(); i++) {
+                dayErrors[partition.firstDay + i] = errors + partition.dayErrors[i];
+                schedule.add(partition.days.get(i));
             }
+            errors += partition.errorCount;
+            dayErrors[schedule.size()] = errors;
+            numMergedPartitions++;
+        }
+        if (!schedule.isEmpty()) {
+            rewindSchedule(schedule.size(), complete);
+        } else {
+            // the partitions still scheduled their Tasks, so they start over
+            for (Task task : tasks) {
+                task.reset();
+            }
+            taskManager = new TaskQueue(tasks);
+        }
+    }
 
-            // don't need incomplete as argument (should be local to schedulers)
-            errorCount = scheduler.assignDay(currDay, errorCount, complete, taskManager, scheduleTime);
+    /**
+     * Schedules the Tasks of a single partition over its Days
+     *
+     * @param partition partition being planned
+     * @param context user settings, EventLog and time of the current build
+     * @return the planned partition
+     */
+    private Partition planPartition(Partition partition, SchedulingContext context) {
+        int idx = partition.time.get(Calendar.DAY_OF_WEEK) - 1 + partition.firstDay;
+        int eventIdx = 0;
+        Scheduler.DayAssigner assigner = scheduler.newDayAssigner(context);
+        for (int dayIdx = partition.firstDay; dayIdx < partition.lastDay && !partition.queue.isEmpty(); dayIdx++) {
+            Day day = new Day(dayIdx, userConfig.getHoursPerDayOfWeek()[idx++ % 7], dayIdx);
+            eventIdx = addEvents(day, eventIdx);
+
+            partition.dayErrors[partition.days.size()] = partition.errorCount;
+            partition.queue.drained = false;
+            long assignStart = System.nanoTime();
+            partition.errorCount = assigner.assignDay(day, partition.errorCount, partition.complete,
+                    partition.queue);
+            ASSIGN_DAY_LATENCY.recordSince(assignStart);
+            partition.days.add(day);
+            if (!partition.last && partition.queue.drained && day.hasSpareHours()) {
+                return partition;
+            }
         }
-        this.taskManager = complete;
-        eventLog.reportSchedulingFinish();
+        partition.valid = partition.last || partition.days.size() == partition.lastDay - partition.firstDay;
+        return partition;
+    }
+
+    /**
+     * Gets the index of the Day a Task is due on, relative to the current schedule time
+     *
+     * @param task Task being checked
+     * @return number of days from today until the Task is due
+     */
+    private int getDueDayIndex(Task task) {
+        long days = Math.floorDiv(Time.toEpochMinute(task.getDueDate()) - Time.getStartOfDay(scheduleMinute),
+                Time.MINUTES_PER_DAY);
+        return (int) Math.min(days, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Enables or disables parallel planning for full rebuilds of the schedule. Parallel planning produces
+     * the same schedule as sequential planning, but only speeds it up when Days are filled by the Tasks due
+     * around them (e.g. large team-level schedules), since otherwise most partitions have to be re-planned.
+     *
+     * @param parallelPlanning whether partitions are planned in parallel
+     */
+    public void setParallelPlanning(boolean parallelPlanning) {
+        this.parallelPlanning = parallelPlanning;
+    }
+
+    /**
+     * Enables parallel planning on a pool other than the common {@link ForkJoinPool}, such as one with more threads
+     * than the machine has cores, so that the partitions are planned even on a single core
+     *
+     * @param planningPool pool planning the partitions, whose parallelism is the number of partitions
+     */
+    void setParallelPlanning(ForkJoinPool planningPool) {
+        this.planningPool = planningPool;
+        this.parallelPlanning = true;
+    }
+
+    /**
+     * Gets the number of partitions planned concurrently that the last build merged into the schedule, rather than
+     * planning their Days again
+     *
+     * @return number of merged partitions, or 0 if the last build was sequential
+     */
+    int getNumMergedPartitions() {
+        return numMergedPartitions;
+    }
+
+    /**
+     * Determines whether parallel planning is enabled
+     *
+     * @return boolean value for parallel planning
+     */
+    public boolean isParallelPlanning() {
+        return parallelPlanning;
+    }
+
+    /**
+     * Resumes a previously generated schedule, such as one read back from a snapshot, instead of regenerating it.
+     * The Days must already hold their SubTasks, while their Events are placed here. The next call to
+     * {@link #buildSchedule()} reuses the Days as long as it falls within the same planning window as the
+     * original build.
+     *
+     * @param scheduleMinute local epoch-minute at which the schedule was generated
+     * @param days Days of the schedule in order
+     * @param dayErrors number of scheduling errors that occurred before each Day (and after the last one)
+     * @throws IllegalArgumentException when there is not an error count for each Day plus the last one
+     */
+    public void restoreSchedule(long scheduleMinute, List<Day> days, int[] dayErrors) {
+        if (dayErrors.length != days.size() + 1) {
+            throw new IllegalArgumentException("Expected " + (days.size() + 1) + " error counts for the schedule");
+        }
+        Collections.sort(indivEvents);
+        int eventIdx = 0;
+        for (Day day : days) {
+            eventIdx = addEvents(day, eventIdx);
+            // the restored SubTasks changed the remaining hours of their Tasks
+            for (Task.SubTask subTask : day.getSubTaskList()) {
+                Task task = subTask.getParentTask();
+                if (!taskManager.update(task)) {
+                    archivedTasks.update(task);
+                }
+            }
+        }
+        schedule = new ArrayList<>(days);
+        // a schedule longer than the current horizon cannot be reused
+        int numErrors = days.size() <= userConfig.getMaxDays() ? userConfig.getMaxDays() + 1 : dayErrors.length;
+        this.dayErrors = Arrays.copyOf(dayErrors, numErrors);
+        errorCount = dayErrors[days.size()];
+        dayId = days.size();
+        this.scheduleMinute = scheduleMinute;
+        scheduleTime = Time.toCalendar(scheduleMinute);
+        dirtyDay = Integer.MAX_VALUE;
+    }
+
+    /**
+     * Gets the number of Days at the start of the schedule that are not invalidated by edits since the last build,
+     * which the next build reuses as long as it falls within the same planning window
+     *
+     * @return number of reusable Days
+     */
+    public int getNumReusableDays() {
+        return Math.min(dirtyDay, schedule.size());
+    }
+
+    /**
+     * Gets the local epoch-minute at which the schedule was last generated
+     *
+     * @return epoch-minute of the last build
+     */
+    public long getScheduleMinute() {
+        return scheduleMinute;
+    }
+
+    /**
+     * Gets the number of scheduling errors that occurred before a Day of the schedule
+     *
+     * @param dayIdx index of the Day, or the number of Days for the total of the schedule
+     * @return number of errors before the Day
+     */
+    public int getErrorCount(int dayIdx) {
+        return dayErrors[dayIdx];
+    }
+
+    /**
+     * Forces the next call to {@link #buildSchedule()} to regenerate every Day. This must be called after the
+     * {@link UserConfig} is modified.
+     */
+    public void invalidateSchedule() {
+        dirtyDay = 0;
     }
 
     /**
@@ -604,7 +1263,7 @@ public class ScheduleManager {
      */
     private void resetSchedule() {
         schedule = new LinkedList<>();
-        PriorityQueue<Task> copy = new PriorityQueue<>();
+        TaskQueue copy = new TaskQueue();
         while(!taskManager.isEmpty()) {
             Task task = taskManager.remove();
             task.reset();
@@ -616,13 +1275,142 @@ public class ScheduleManager {
         Collections.sort(indivEvents);
     }
 
+    /**
+     * Drops every Day from the given index onward and restores all Tasks to the state they were in
+     * right before that Day was originally scheduled
+     *
+     * @param startIdx index of the first Day to regenerate
+     * @param complete Tasks that were already finished scheduling before the Day are added here
+     */
+    private void rewindSchedule(int startIdx, TaskQueue complete) {
+        schedule.subList(startIdx, schedule.size()).clear();
+        long startOfDay = schedule.get(0).getStartOfDay() + startIdx * Time.MINUTES_PER_DAY;
+
+        List<Task> tasks = new ArrayList<>(taskManager);
+        for (Task task : tasks) {
+            task.reset();
+        }
+        for (Day day : schedule) {
+            for (Task.SubTask subTask : day.getSubTaskList()) {
+                subTask.getParentTask().restoreSubTask(subTask);
+            }
+        }
+
+        List<Task> incomplete = new ArrayList<>();
+        for (Task task : tasks) {
+            // Tasks are finished scheduling once they run out of hours or their due date has been processed
+            if (task.getSubTotalHoursRemaining() == 0 || Time.toEpochMinute(task.getDueDate()) < startOfDay) {
+                complete.add(task);
+            } else {
+                incomplete.add(task);
+            }
+        }
+        taskManager = new TaskQueue(incomplete);
+        errorCount = dayErrors[startIdx];
+        dayId = startIdx;
+        Collections.sort(indivEvents);
+    }
+
+    /**
+     * Determines whether a schedule generated at one epoch-minute would lay out its first Day
+     * the same way as one generated at another epoch-minute
+     *
+     * @param prev epoch-minute of the previous build
+     * @param curr epoch-minute of the current build
+     * @return boolean value for whether both builds share the same planning window
+     */
+    private static boolean isSamePlanningWindow(long prev, long curr) {
+        // the first Day depends on the current hour, half hour, and the quarter of an hour tasks start at
+        return Math.floorDiv(prev, 30) == Math.floorDiv(curr, 30)
+                && Time.getNearestQuarterOfHour(prev, true) == Time.getNearestQuarterOfHour(curr, true);
+    }
+
+    /**
+     * Marks the Days which could be affected by a Task as dirty. A Day is unaffected when it is filled only by
+     * Tasks due strictly before the given Task, since those always take priority over it. This only holds for
+     * Schedulers placing Tasks earliest-due-first, so all Days are marked dirty otherwise.
+     *
+     * @param task Task being added, modified or deleted
+     */
+    private void markTaskDirty(Task task) {
+        if (!scheduler.isDueDateOrdered()) {
+            // every Day may hold a share of the Task
+            dirtyDay = 0;
+            return;
+        }
+        int dirty = getDayIndex(Time.toEpochMinute(task.getDueDate()));
+        for (int i = 0; i < dirty; i++) {
+            Day day = schedule.get(i);
+            if (day.hasSpareHours()) {
+                dirty = i;
+                break;
+            }
+            for (Task.SubTask subTask : day.getSubTaskList()) {
+                if (subTask.getParentTask().getDueDate().compareTo(task.getDueDate()) >= 0) {
+                    dirty = i;
+                    break;
+                }
+            }
+        }
+        dirtyDay = Math.min(dirtyDay, dirty);
+    }
+
+    /**
+     * Marks the first Day on which an Event takes place as dirty
+     *
+     * @param event Event being added, modified or deleted
+     */
+    private void markEventDirty(Event event) {
+        if (!event.isRecurring()) {
+            dirtyDay = Math.min(dirtyDay, getDayIndex(event.getTimeStamp().getStartMinute()));
+        } else if (!schedule.isEmpty()) {
+            int firstDayOfWeek = schedule.get(0).getDate().get(Calendar.DAY_OF_WEEK) - 1;
+            for (Event.DayOfWeek dayOfWeek : event.getDays()) {
+                dirtyDay = Math.min(dirtyDay, (dayOfWeek.ordinal() - firstDayOfWeek + 7) % 7);
+            }
+        }
+    }
+
+    /**
+     * Gets the index of the Day containing the given epoch-minute, bounded by the current schedule
+     *
+     * @param epochMinute local epoch-minute
+     * @return index of the Day within the schedule
+     */
+    private int getDayIndex(long epochMinute) {
+        if (schedule.isEmpty()) return 0;
+        long days = Math.floorDiv(epochMinute - schedule.get(0).getStartOfDay(), Time.MINUTES_PER_DAY);
+        return (int) Math.max(0, Math.min(days, schedule.size()));
+    }
+
     /**
      * Builds a schedule in String format
      *
      * @return Schedule table as a String
      */
     public String buildScheduleStr() {
-        return TableFormatter.formatScheduleTable(schedule, true);
+        return TableFormatter.formatScheduleTable(schedule, true, rowCache);
+    }
+
+    /**
+     * Writes the schedule table, only rendering the Days that changed since it was last displayed
+     *
+     * @param out destination of the table
+     * @throws IOException when the table cannot be written
+     */
+    public void writeScheduleStr(Appendable out) throws IOException {
+        writeScheduleStr(out, TableView.ALL);
+    }
+
+    /**
+     * Writes the Days of the schedule table within a date range and page, without rendering any other Day
+     *
+     * @param out destination of the table
+     * @param view date range and page being displayed
+     * @throws IOException when the table cannot be written
+     */
+    public void writeScheduleStr(Appendable out, TableView view) throws IOException {
+        TableFormatter.appendScheduleTable(out, schedule, view, true, rowCache);
     }
 
     /**
@@ -649,7 +1437,28 @@ public class ScheduleManager {
      * @return Tasks table as a String
      */
     public String buildTaskStr() {
-        return TableFormatter.formatTaskTable(taskManager, archivedTasks, true);
+        return TableFormatter.formatTaskTable(taskManager, archivedTasks, true, rowCache);
+    }
+
+    /**
+     * Writes the Task table, only rendering the Tasks that changed since it was last displayed
+     *
+     * @param out destination of the table
+     * @throws IOException when the table cannot be written
+     */
+    public void writeTaskStr(Appendable out) throws IOException {
+        writeTaskStr(out, TableView.ALL);
+    }
+
+    /**
+     * Writes the Tasks of the Task table due within a date range and page, without rendering any other Task
+     *
+     * @param out destination of the table
+     * @param view due date range and page being displayed
+     * @throws IOException when the table cannot be written
+     */
+    public void writeTaskStr(Appendable out, TableView view) throws IOException {
+        TableFormatter.appendTaskTable(out, taskManager, archivedTasks, view, true, rowCache);
     }
 
     /**
@@ -658,7 +1467,29 @@ public class ScheduleManager {
      * @return Subtasks table as a String
      */
     public String buildSubTaskStr() {
-        return TableFormatter.formatSubTaskTable(schedule, userConfig);
+        return TableFormatter.formatSubTaskTable(schedule, userConfig, rowCache);
+    }
+
+    /**
+     * Writes the SubTask table, only rendering the Days that changed since it was last displayed
+     *
+     * @param out destination of the table
+     * @throws IOException when the table cannot be written
+     */
+    public void writeSubTaskStr(Appendable out) throws IOException {
+        writeSubTaskStr(out, TableView.ALL);
+    }
+
+    /**
+     * Writes the SubTasks of the SubTask table within a date range and page, without rendering any Day outside
+     * of them
+     *
+     * @param out destination of the table
+     * @param view date range and page being displayed
+     * @throws IOException when the table cannot be written
+     */
+    public void writeSubTaskStr(Appendable out, TableView view) throws IOException {
+        TableFormatter.appendSubTaskTable(out, schedule, userConfig, view, rowCache);
     }
 
     /**
@@ -670,12 +1501,40 @@ public class ScheduleManager {
         return ReportLog.buildReportLog(this);
     }
 
+    /**
+     * Writes the session log
+     *
+     * @param out destination of the log
+     * @throws IOException when the log cannot be written
+     */
+    public void writeReportStr(Appendable out) throws IOException {
+        ReportLog.appendReportLog(out, this);
+    }
+
+    /**
+     * Gets the rows of the tables kept between displays
+     *
+     * @return cache of rendered rows
+     */
+    public TableFormatter.RowCache getRowCache() {
+        return rowCache;
+    }
+
+    /**
+     * Ends the session, writing out the remaining records of the event log
+     *
+     * @throws IOException when the log file cannot be written
+     */
+    public void close() throws IOException {
+        eventLog.reportExitSession();
+        eventLog.close();
+    }
+
     /**
      * Shuts down the system
      */
     public void quit() throws IOException {
-        eventLog.reportExitSession();
-        IOProcessing.writeSysLogToFile(eventLog.toString());
+        close();
         System.exit(0);
     }
 
@@ -698,20 +1557,54 @@ public class ScheduleManager {
     }
 
     public void exportScheduleToExcel(String filename) throws IOException {
+        long start = System.nanoTime();
+        if (spreadsheetIO == null) {
+            spreadsheetIO = new SpreadsheetIO(eventLog);
+        }
         spreadsheetIO.setFilename(filename);
         spreadsheetIO.exportScheduleToExcel(schedule, cards, archivedTasks, userConfig);
+        EXCEL_LATENCY.recordSince(start);
     }
 
     public void exportScheduleToGoogle() throws IOException {
-        googleCalendarIO.exportScheduleToGoogle(userConfig, schedule);
+        long start = System.nanoTime();
+        getGoogleCalendarIO().exportScheduleToGoogle(userConfig, schedule);
+        GOOGLE_LATENCY.recordSince(start);
     }
 
     public void cleanGoogleSchedule() throws IOException {
-        googleCalendarIO.cleanGoogleSchedule();
+        getGoogleCalendarIO().cleanGoogleSchedule();
     }
 
     public void importScheduleFromGoogle() throws IOException {
-        googleCalendarIO.importScheduleFromGoogle();
+        getGoogleCalendarIO().importScheduleFromGoogle();
+    }
+
+    /**
+     * Sets the calendar that the schedule is synced with in place of the user's Google Calendar, such as a
+     * {@link com.planner.io.LocalCalendarService} when working offline
+     *
+     * @param googleCalendarIO calendar IO being used
+     */
+    public void setGoogleCalendarIO(GoogleCalendarIO googleCalendarIO) {
+        this.googleCalendarIO = googleCalendarIO;
+    }
+
+    /**
+     * Gets the Google Calendar IO, authorizing the user's account on first use
+     *
+     * @return Google Calendar IO
+     * @throws IOException when the account cannot be authorized
+     */
+    private GoogleCalendarIO getGoogleCalendarIO() throws IOException {
+        if (googleCalendarIO == null) {
+            try {
+                googleCalendarIO = new GoogleCalendarIO(eventLog);
+            } catch (GeneralSecurityException e) {
+                throw new IOException("Google Calendar could not be authorized", e);
+            }
+        }
+        return googleCalendarIO;
     }
 
     public static void main(String[] args) {
@@ -735,4 +1628,80 @@ public class ScheduleManager {
 
 //        sm.addEvent("holiday", Card.Color.BLUE, timeStamp, true, dates);
     }
+
+    /**
+     * Range of consecutive Days planned independently of the rest of the schedule
+     *
+     * @author Andrew Roe
+     */
+    private static class Partition {
+
+        /** Index of the first Day */
+        private final int firstDay;
+        /** Index after the last Day */
+        private final int lastDay;
+        /** Whether the partition ends at the horizon */
+        private final boolean last;
+        /** Tasks due within the partition */
+        private final PartitionQueue queue;
+        /** Tasks that are "finished scheduling" */
+        private final TaskQueue complete;
+        /** Planned Days */
+        private final List<Day> days;
+        /** Number of scheduling errors within the partition before each Day */
+        private final int[] dayErrors;
+        /** Copy of the schedule time owned by the partition */
+        private final Calendar time;
+        /** Number of scheduling errors within the partition */
+        private int errorCount;
+        /** Whether the Days match those of a sequential build */
+        private boolean valid;
+
+        /**
+         * Constructs a new Partition
+         *
+         * @param firstDay index of the first Day
+         * @param lastDay index after the last Day
+         * @param last whether the partition ends at the horizon
+         * @param tasks Tasks due within the partition
+         * @param time copy of the schedule time
+         */
+        private Partition(int firstDay, int lastDay, boolean last, List<Task> tasks, Calendar time) {
+            this.firstDay = firstDay;
+            this.lastDay = lastDay;
+            this.last = last;
+            this.queue = new PartitionQueue(tasks);
+            this.complete = new TaskQueue();
+            this.days = new ArrayList<>(lastDay - firstDay);
+            this.dayErrors = new int[lastDay - firstDay];
+            this.time = time;
+        }
+    }
+
+    /**
+     * TaskQueue of a partition's Tasks which records whether it was emptied while assigning a Day
+     *
+     * @author Andrew Roe
+     */
+    private static class PartitionQueue extends TaskQueue {
+
+        /** Whether the last Task was removed */
+        private boolean drained;
+
+        /**
+         * Constructs a new PartitionQueue
+         *
+         * @param tasks Tasks of the partition
+         */
+        private PartitionQueue(Collection<Task> tasks) {
+            super(tasks);
+        }
+
+        @Override
+        public Task poll() {
+            Task task = super.poll();
+            if (isEmpty()) drained = true;
+            return task;
+        }
+    }
 }
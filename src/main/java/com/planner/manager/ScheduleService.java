@@ -0,0 +1,254 @@
+package com.planner.manager;
+
+import com.planner.schedule.day.Day;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Hosts the isolated {@link ScheduleManager} of many tenants (e.g. every user of a department) within one process.
+ * <p>
+ * Tenants are loaded lazily from a {@link TenantStore} on their first request, and at most a fixed number of them are
+ * kept in memory. When that number is exceeded, the least recently used tenants that are not currently in use are
+ * saved back to the store and evicted. Requests of a single tenant are executed one at a time, while requests of
+ * different tenants run concurrently. Schedule builds run on a bounded pool of worker threads with a bounded queue,
+ * so that a burst of requests cannot exhaust the process.
+ *
+ * @author Andrew Roe
+ */
+public class ScheduleService implements AutoCloseable {
+
+    /** Persists the state of evicted tenants */
+    private final TenantStore store;
+    /** Maximum number of tenants kept in memory */
+    private final int maxResidentTenants;
+    /** Worker threads performing schedule builds */
+    private final ThreadPoolExecutor workers;
+    /** Tenants kept in memory, ordered from least to most recently used */
+    private final LinkedHashMap<String, Tenant> resident;
+    /** Tenants that were evicted but whose state is still being saved */
+    private final Map<String, Tenant> evicting;
+
+    /**
+     * Constructs a new {@code ScheduleService}
+     *
+     * @param store persists the state of evicted tenants
+     * @param maxResidentTenants maximum number of tenants kept in memory
+     * @param numWorkers number of worker threads performing schedule builds
+     * @param maxQueuedBuilds maximum number of schedule builds waiting for a worker
+     * @throws IllegalArgumentException when any of the limits is less than <code>1</code>
+     */
+    public ScheduleService(TenantStore store, int maxResidentTenants, int numWorkers, int maxQueuedBuilds) {
+        if (maxResidentTenants < 1 || numWorkers < 1 || maxQueuedBuilds < 1) {
+            throw new IllegalArgumentException("Schedule service limits must be at least 1");
+        }
+        this.store = store;
+        this.maxResidentTenants = maxResidentTenants;
+        this.resident = new LinkedHashMap<>(16, 0.75f, true);
+        this.evicting = new HashMap<>();
+
+        AtomicInteger threadId = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(numWorkers, numWorkers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxQueuedBuilds), r -> {
+                    Thread thread = new Thread(r, "schedule-worker-" + threadId.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Performs an action on the ScheduleManager of a tenant on the calling thread, loading the tenant if needed.
+     * No other action on the same tenant runs at the same time, and the ScheduleManager must not be used after
+     * the action returns.
+     *
+     * @param tenantId ID of the tenant
+     * @param action action performed on the tenant's ScheduleManager
+     * @param <T> type of the action's result
+     * @return result of the action
+     * @throws IOException when the tenant cannot be loaded
+     */
+    public <T> T execute(String tenantId, Function<ScheduleManager, T> action) throws IOException {
+        Tenant tenant = acquire(tenantId);
+        try {
+            synchronized (tenant) {
+                if (tenant.scheduleManager == null) {
+                    tenant.scheduleManager = store.load(tenantId);
+                }
+                return action.apply(tenant.scheduleManager);
+            }
+        } finally {
+            release(tenant);
+        }
+    }
+
+    /**
+     * Performs an action on the ScheduleManager of a tenant on one of the worker threads
+     *
+     * @param tenantId ID of the tenant
+     * @param action action performed on the tenant's ScheduleManager
+     * @param <T> type of the action's result
+     * @return pending result of the action
+     * @throws RejectedExecutionException when the queue of waiting requests is full or the service is closed
+     */
+    public <T> Future<T> submit(String tenantId, Function<ScheduleManager, T> action) {
+        return workers.submit(() -> execute(tenantId, action));
+    }
+
+    /**
+     * Builds the schedule of a tenant on one of the worker threads
+     *
+     * @param tenantId ID of the tenant
+     * @return pending list of the tenant's scheduled Days
+     * @throws RejectedExecutionException when the queue of waiting requests is full or the service is closed
+     */
+    public Future<List<Day>> buildSchedule(String tenantId) {
+        return submit(tenantId, scheduleManager -> {
+            scheduleManager.buildSchedule();
+            // rebuilds replace Days rather than modifying them, so a copy of the list stays valid
+            return new ArrayList<>(scheduleManager.getSchedule());
+        });
+    }
+
+    /**
+     * Gets the number of tenants currently kept in memory
+     *
+     * @return number of resident tenants
+     */
+    public synchronized int getResidentCount() {
+        return resident.size();
+    }
+
+    /**
+     * Saves the state of every tenant kept in memory to the store
+     *
+     * @throws IOException when the state of a tenant cannot be written
+     */
+    public void flush() throws IOException {
+        List<Map.Entry<String, Tenant>> tenants;
+        synchronized (this) {
+            tenants = new ArrayList<>(resident.entrySet());
+        }
+        for (Map.Entry<String, Tenant> entry : tenants) {
+            Tenant tenant = entry.getValue();
+            synchronized (tenant) {
+                if (tenant.scheduleManager != null) {
+                    store.save(entry.getKey(), tenant.scheduleManager);
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops accepting requests, waits for all pending schedule builds and saves every tenant kept in memory
+     *
+     * @throws IOException when the state of a tenant cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        workers.shutdown();
+        try {
+            while (!workers.awaitTermination(1, TimeUnit.MINUTES)) {
+                // keep waiting for builds that are still running
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    /**
+     * Marks a tenant as in use, registering it as the most recently used tenant
+     *
+     * @param tenantId ID of the tenant
+     * @return the tenant, which is not loaded yet if it was not kept in memory
+     */
+    private synchronized Tenant acquire(String tenantId) {
+        Tenant tenant = resident.get(tenantId);
+        if (tenant == null) {
+            // a tenant which is still being saved is taken back as is
+            tenant = evicting.remove(tenantId);
+            if (tenant == null) {
+                tenant = new Tenant();
+            }
+            resident.put(tenantId, tenant);
+        }
+        tenant.users++;
+        return tenant;
+    }
+
+    /**
+     * Marks a tenant as no longer in use by the caller, and evicts the least recently used tenants not in use
+     * while there are too many tenants in memory
+     *
+     * @param tenant tenant being released
+     */
+    private void release(Tenant tenant) {
+        List<Map.Entry<String, Tenant>> victims = new ArrayList<>();
+        synchronized (this) {
+            tenant.users--;
+            Iterator<Map.Entry<String, Tenant>> it = resident.entrySet().iterator();
+            while (resident.size() > maxResidentTenants && it.hasNext()) {
+                Map.Entry<String, Tenant> entry = it.next();
+                if (entry.getValue().users == 0) {
+                    it.remove();
+                    evicting.put(entry.getKey(), entry.getValue());
+                    victims.add(entry);
+                }
+            }
+        }
+        // saving happens outside the lock so that requests of other tenants are not held up
+        for (Map.Entry<String, Tenant> victim : victims) {
+            evict(victim.getKey(), victim.getValue());
+        }
+    }
+
+    /**
+     * Saves an evicted tenant to the store. Should the save fail, the tenant is kept in memory.
+     *
+     * @param tenantId ID of the tenant
+     * @param tenant tenant being evicted
+     */
+    private void evict(String tenantId, Tenant tenant) {
+        boolean saved = true;
+        synchronized (tenant) {
+            if (tenant.scheduleManager != null) {
+                try {
+                    store.save(tenantId, tenant.scheduleManager);
+                } catch (IOException e) {
+                    tenant.scheduleManager.getEventLog().reportException(e);
+                    saved = false;
+                }
+            }
+        }
+        synchronized (this) {
+            if (evicting.remove(tenantId, tenant) && !saved) {
+                resident.put(tenantId, tenant);
+            }
+        }
+    }
+
+    /**
+     * Tenant hosted by the service
+     *
+     * @author Andrew Roe
+     */
+    private static class Tenant {
+
+        /** ScheduleManager of the tenant, or <code>null</code> until it is loaded */
+        private ScheduleManager scheduleManager;
+        /** Number of requests currently using the tenant (guarded by the service) */
+        private int users;
+    }
+}
@@ -0,0 +1,30 @@
+package com.planner.manager;
+
+import java.io.IOException;
+
+/**
+ * Persists the {@link ScheduleManager} of each tenant hosted by a {@link ScheduleService}, so that idle tenants can be
+ * evicted from memory and loaded again on their next request
+ *
+ * @author Andrew Roe
+ */
+public interface TenantStore {
+
+    /**
+     * Loads the ScheduleManager of a tenant, creating an empty one for tenants that were never saved
+     *
+     * @param tenantId ID of the tenant
+     * @return ScheduleManager of the tenant
+     * @throws IOException when the stored state of the tenant cannot be read
+     */
+    ScheduleManager load(String tenantId) throws IOException;
+
+    /**
+     * Saves the ScheduleManager of a tenant
+     *
+     * @param tenantId ID of the tenant
+     * @param scheduleManager ScheduleManager of the tenant
+     * @throws IOException when the state of the tenant cannot be written
+     */
+    void save(String tenantId, ScheduleManager scheduleManager) throws IOException;
+}
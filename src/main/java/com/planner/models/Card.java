@@ -16,6 +16,8 @@ public class Card {
     private String name;
     /** Color for Card */
     private Color colorId;
+    /** Version stamp of the last change to the Card */
+    private transient long version;
 
     /**
      * Primary constructor for Card
@@ -56,6 +58,7 @@ public class Card {
     public void setName(String name) {
         if (name == null || name.isBlank()) throw new IllegalArgumentException("Name for Card cannot be empty or whitespace");
         this.name = name;
+        this.version = ModelVersion.next();
     }
 
     /**
@@ -67,6 +70,16 @@ public class Card {
     public void setColor(Color colorId) {
         if (colorId == null) throw new IllegalArgumentException("Card color cannot be null");
         this.colorId = colorId;
+        this.version = ModelVersion.next();
+    }
+
+    /**
+     * Gets the version stamp of the Card, which changes whenever its name or color is modified
+     *
+     * @return version stamp of the Card
+     */
+    public long getVersion() {
+        return version;
     }
 
     /**
@@ -27,6 +27,8 @@ public class Event implements Comparable<Event> {
     private boolean recurring;
     /** Days of the Event */
     private DayOfWeek[] days;
+    /** Version stamp of the last change to the Event */
+    private transient long version;
 
     // this constructor is for individual events (second one is for recurring)
 
@@ -106,6 +108,7 @@ public class Event implements Comparable<Event> {
     public void setName(String name) {
         if (name == null || name.isEmpty()) throw new IllegalArgumentException("Name for Event cannot be empty or null");
         this.name = name;
+        this.version = ModelVersion.next();
     }
 
     /**
@@ -124,6 +127,17 @@ public class Event implements Comparable<Event> {
      */
     public void setCard(Card card) {
         this.card = card;
+        this.version = ModelVersion.next();
+    }
+
+    /**
+     * Gets the version stamp of everything shown for the Event, which changes whenever the Event or its Card is
+     * modified
+     *
+     * @return version stamp of the Event
+     */
+    public long getVersion() {
+        return card != null ? Math.max(version, card.getVersion()) : version;
     }
 
     /**
@@ -143,13 +157,10 @@ public class Event implements Comparable<Event> {
     public String get24HourTimeStampString() {
         StringBuilder output = new StringBuilder();
 
-        Calendar start = timeStamp.getStart();
-        Calendar end = timeStamp.getEnd();
-
-        int startHour = start.get(Calendar.HOUR_OF_DAY);
-        int startMinute = start.get(Calendar.MINUTE);
-        int endHour = end.get(Calendar.HOUR_OF_DAY);
-        int endMinute = end.get(Calendar.MINUTE);
+        int startHour = timeStamp.getStartHour();
+        int startMinute = timeStamp.getStartMin();
+        int endHour = timeStamp.getEndHour();
+        int endMinute = timeStamp.getEndMin();
 
         appendTime(output, startHour);
 
@@ -187,14 +198,12 @@ public class Event implements Comparable<Event> {
      * @throws IllegalArgumentException if the timestamp's start and end don't share the same date
      */
     public void setTimeStamp(TimeStamp timeStamp) {
-        Calendar start = timeStamp.getStart();
-        Calendar end = timeStamp.getEnd();
-
-        if (!Time.doDatesMatch(start, end)) {
+        if (Time.getEpochDay(timeStamp.getStartMinute()) != Time.getEpochDay(timeStamp.getEndMinute())) {
             throw new IllegalArgumentException("Start and end times for timestamp don't share same date");
         }
 
         this.timeStamp = timeStamp;
+        this.version = ModelVersion.next();
     }
 
     /**
@@ -278,6 +287,7 @@ public class Event implements Comparable<Event> {
         Arrays.sort(days);
 
         this.days = days;
+        this.version = ModelVersion.next();
     }
 
     /**
@@ -288,8 +298,6 @@ public class Event implements Comparable<Event> {
      */
     @Override
     public int compareTo(Event anotherEvent) {
-        return this.timeStamp
-                .getStart()
-                .compareTo(anotherEvent.getTimeStamp().getStart());
+        return Long.compare(this.timeStamp.getStartMinute(), anotherEvent.getTimeStamp().getStartMinute());
     }
 }
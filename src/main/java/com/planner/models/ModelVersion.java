@@ -0,0 +1,28 @@
+package com.planner.models;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Source of version stamps for models. Every change to a model stamps it with a value greater than all stamps handed
+ * out before, so the highest stamp of a group of models only grows when one of them changes, which lets rendered
+ * tables tell whether their rows are stale.
+ *
+ * @author Andrew Roe
+ */
+final class ModelVersion {
+
+    /** Last stamp handed out */
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private ModelVersion() {
+    }
+
+    /**
+     * Gets a new version stamp
+     *
+     * @return stamp greater than every previous one
+     */
+    static long next() {
+        return LAST.incrementAndGet();
+    }
+}
@@ -26,6 +26,8 @@ public class Task implements Comparable<Task> {
     private double subTotalHours;
     /** Card of the task */
     private Card card;
+    /** Version stamp of the last change to the Task */
+    private transient long version;
 
     /**
      * Primary constructor for Task
@@ -99,6 +101,7 @@ public class Task implements Comparable<Task> {
             throw new IllegalArgumentException("Task name cannot be null or empty.");
         }
         this.name = name;
+        this.version = ModelVersion.next();
     }
 
     /**
@@ -125,6 +128,7 @@ public class Task implements Comparable<Task> {
         dueDate.set(Calendar.SECOND, 0);
         dueDate.set(Calendar.MILLISECOND, 0);
         this.dueDate = dueDate;
+        this.version = ModelVersion.next();
     }
 
     /**
@@ -167,6 +171,17 @@ public class Task implements Comparable<Task> {
      */
     public void setCard(Card card) {
         this.card = card;
+        this.version = ModelVersion.next();
+    }
+
+    /**
+     * Gets the version stamp of everything shown for the Task, which changes whenever the Task or its Card is
+     * modified
+     *
+     * @return version stamp of the Task
+     */
+    public long getVersion() {
+        return card != null ? Math.max(version, card.getVersion()) : version;
     }
 
     /**
@@ -213,6 +228,22 @@ public class Task implements Comparable<Task> {
         subTotalHours = 0;
     }
 
+    /**
+     * Restores the hours of a SubTask kept from a previous schedule after the Task has been reset
+     *
+     * @param subTask SubTask belonging to this Task
+     * @throws IllegalArgumentException when the SubTask belongs to another Task or exceeds the remaining hours
+     */
+    public void restoreSubTask(SubTask subTask) {
+        if (subTask.getParentTask() != this) {
+            throw new IllegalArgumentException("SubTask does not belong to this Task.");
+        }
+        if (subTotalHours + subTask.getSubTaskHours() > totalHours) {
+            throw new IllegalArgumentException("SubTask hours exceed the Task's remaining hours.");
+        }
+        subTotalHours += subTask.getSubTaskHours();
+    }
+
     /**
      * Gets the number of SubTask hour slots currently unfilled, calculated as the difference
      * between <code>totalHours</code> and <code>subTotalHours</code>
@@ -224,10 +255,12 @@ public class Task implements Comparable<Task> {
     }
 
     /**
-     * Compares two Task objects based on their due date
+     * Compares two Task objects based on their due date, breaking ties by their remaining hours and then their IDs
+     * so that Tasks are always scheduled in the same order
      *
      * @param anotherTask the Task to be compared.
-     * @return <code>0</code> if there is no time difference between the due dates and the subtasks total hours are equal;
+     * @return <code>0</code> if there is no time difference between the due dates, the subtasks total hours are equal,
+     * and the IDs are equal;
      * and <code>1</code> if the due date of this Task is after the argument Task or when the argument Task has more remaining subtasks hours;
      * and <code>-1</code> if the due date of this Task is before the argument Task or when the argument Task has less remaining subtasks hours
      */
@@ -239,7 +272,7 @@ public class Task implements Comparable<Task> {
         } else if(timeDiff > 0 || this.getSubTotalHoursRemaining() < anotherTask.getSubTotalHoursRemaining()) {
             return 1;
         } else {
-            return 0;
+            return Integer.compare(this.id, anotherTask.id);
         }
     }
 
@@ -264,6 +297,7 @@ public class Task implements Comparable<Task> {
         double dec = total % 1;
         if (dec != 0 && dec != 0.5) throw new IllegalArgumentException("Task hours cannot have a decimal besides 0.5");
         this.totalHours = total;
+        this.version = ModelVersion.next();
     }
 
     /**
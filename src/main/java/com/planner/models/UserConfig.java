@@ -135,12 +135,12 @@ public class UserConfig {
     }
 
     /**
-     * Sets maximum number of days to display
+     * Sets maximum number of days to display (up to a full year)
      *
      * @param maxDays max days to display
      */
     public void setMaxDays(int maxDays) {
-        validateRange(maxDays, 1, 30, "Max day is outside of valid set for UserConfig");
+        validateRange(maxDays, 1, 365, "Max day is outside of valid set for UserConfig");
         this.maxDays = maxDays;
     }
 
@@ -3,10 +3,8 @@ package com.planner.schedule;
 import com.planner.schedule.day.Day;
 import com.planner.models.Task;
 import com.planner.models.UserConfig;
-import com.planner.util.EventLog;
 import com.planner.util.Time;
 
-import java.util.Calendar;
 import java.util.List;
 import java.util.PriorityQueue;
 
@@ -22,57 +20,30 @@ import java.util.PriorityQueue;
  */
 public class CompactScheduler implements Scheduler {
 
-    /** Singleton for CompactScheduler */
-    private static CompactScheduler singleton;
-    /** Holds relevant data for user settings in scheduling */
-    private UserConfig userConfig;
-    /** EventLog for logging data on Day actions */
-    private final EventLog eventLog;
-    /** Boolean value for whether we are scheduling a Day that is in fact today */
-    private boolean isToday;
-
     /**
-     * Constructs a new {@code CompactScheduler} with a given {@link UserConfig} and {@link EventLog}
-     *
-     * @param userConfig user settings for scheduling purposes
-     * @param eventLog EventLog for logging data on Day actions
+     * Constructs a new {@code CompactScheduler}
      */
-    private CompactScheduler(UserConfig userConfig, EventLog eventLog) {
-        this.userConfig = userConfig;
-        this.eventLog = eventLog;
-
-    }
-
-    /**
-     * Retrieves a singleton of {@code CompactScheduler} for scheduling purposes
-     *
-     * @param userConfig user settings for scheduling purposes
-     * @param eventLog EventLog for logging data on Day actions
-     * @return instance of {@code CompactScheduler}
-     */
-    protected static CompactScheduler getSingleton(UserConfig userConfig, EventLog eventLog) {
-        if(singleton == null) {
-            singleton = new CompactScheduler(userConfig, eventLog);
-        }
-        return singleton;
+    public CompactScheduler() {
     }
 
     @Override
-    public int assignDay(Day day, int errorCount, PriorityQueue<Task> complete, PriorityQueue<Task> taskManager, Calendar date) {
+    public int assignDay(Day day, int errorCount, TaskQueue complete, TaskQueue taskManager,
+                         SchedulingContext context) {
         PriorityQueue<Task> incomplete = new PriorityQueue<>();
         int numErrors = errorCount;
+        boolean isToday = context.isToday(day.getStartOfDay());
         while ((!taskManager.isEmpty() && day.hasSpareHours()) ||
                 (!taskManager.isEmpty() && Time.doDatesMatch(taskManager.peek().getDueDate(), day.getDate()))) {
             // gets first task from heap and finds max possible hours available
             Task task = taskManager.remove();
-            double maxHours = getMaxHours(day, task, date);
+            double maxHours = getMaxHours(day, task, context, isToday);
             // status of task creation
-            boolean validTaskStatus = day.addPlainSubTask(task, maxHours, userConfig, date, isToday);
+            boolean validTaskStatus = day.addPlainSubTask(task, maxHours, context.getUserConfig(), context.getTime(), isToday);
             // adds task to relevant completion heap
             if (Time.doDatesMatch(task.getDueDate(), day.getDate()) || task.getSubTotalHoursRemaining() == 0) complete.add(task);
             else incomplete.add(task);
             // reports scheduling action
-            eventLog.reportDayAction(day, task, validTaskStatus);
+            context.getEventLog().reportDayAction(day, task, validTaskStatus);
             // updates number of errors
             numErrors += validTaskStatus ? 0 : 1;
 
@@ -87,12 +58,10 @@ public class CompactScheduler implements Scheduler {
         return numErrors;
     }
 
-    private double getMaxHours(Day day, Task task, Calendar date) {
-        // sets up the starting hour for the day based on the given time from 'date'
-        int startingHour = getStartingHour(day, date);
-
-        // resets startingHour to beginning of day
-        if (userConfig.isDefaultAtStart()) startingHour = userConfig.getDailyHoursRange()[0];
+    private double getMaxHours(Day day, Task task, SchedulingContext context, boolean isToday) {
+        UserConfig userConfig = context.getUserConfig();
+        // sets up the starting hour for the day based on the time of the build
+        int startingHour = context.getStartingHour(isToday);
 
         double maxHours = 0.0;
         if (Time.doDatesMatch(task.getDueDate(), day.getDate())) {
@@ -100,7 +69,7 @@ public class CompactScheduler implements Scheduler {
                 double remainingHours = 24.0 - (startingHour + day.getHoursFilled());
                 maxHours = Math.min(remainingHours, task.getSubTotalHoursRemaining());
                 // this chops off 30 minutes at the end of the day when it's past midnight
-                if (remainingHours - maxHours == 0.0 && date.get(Calendar.MINUTE) >= 30) {
+                if (remainingHours - maxHours == 0.0 && context.getMinuteOfHour() >= 30) {
                     maxHours -= 0.5;
                 }
             } else {
@@ -122,16 +91,9 @@ public class CompactScheduler implements Scheduler {
         return maxHours;
     }
 
-    private int getStartingHour(Day day, Calendar date) {
-        int startingHour = date.get(Calendar.HOUR_OF_DAY);
-        isToday = false;
-        if (Time.doDatesMatch(date, day.getDate())) {
-            startingHour = Math.max(userConfig.getDailyHoursRange()[0], startingHour);
-            isToday = true;
-        } else {
-            startingHour = userConfig.getDailyHoursRange()[0];
-        }
-        return startingHour;
+    @Override
+    public boolean isDueDateOrdered() {
+        return true;
     }
 
     @Override
@@ -144,9 +106,4 @@ public class CompactScheduler implements Scheduler {
 
         return 0;
     }
-
-    @Override
-    public void updateConfig(UserConfig userConfig) {
-        this.userConfig = userConfig;
-    }
 }
@@ -3,11 +3,12 @@ package com.planner.schedule;
 import com.planner.schedule.day.Day;
 import com.planner.models.Task;
 import com.planner.models.UserConfig;
-import com.planner.util.EventLog;
+import com.planner.util.IndexedHeap;
+import com.planner.util.Time;
 
-import java.util.Calendar;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.PriorityQueue;
 
 /**
  * The class {@code DynamicScheduler} implements the interface {@link Scheduler} for more complex scheduling actions.
@@ -17,6 +18,11 @@ import java.util.PriorityQueue;
  * <p>
  * Schedule corrections occur when overflows happen and are properly handled in accordance with the algorithm type. In {@code DynamicScheduler},
  * this involves maintaining that distributive mindset when reallocating the tasks across the given week.
+ * <p>
+ * Each Day first receives every remaining hour of the Tasks due on it. Its spare hours are then handed out in rounds,
+ * where every Task that is not due yet receives one quantum (of at least the configured minimum hours) in order of
+ * the longest remaining time, until the Day is full. Tasks are kept in an {@link IndexedHeap} for the whole build, so
+ * a Day only costs O(k log n) for the k Tasks it receives rather than re-sorting every unfinished Task.
  *
  * @author Andrew Roe
  * @author Lucia Langaney
@@ -24,81 +30,33 @@ import java.util.PriorityQueue;
  */
 public class DynamicScheduler implements Scheduler {
 
-    /** Singleton for DynamicScheduler */
-    private static DynamicScheduler singleton;
-    /** Holds relevant data for user settings in scheduling */
-    private UserConfig userConfig;
-    /** EventLog for logging data on Day actions */
-    private final EventLog eventLog;
+    /** Orders Tasks by their longest remaining time, then by their due date and ID */
+    private static final Comparator<Task> LONGEST_REMAINING_FIRST =
+            Comparator.comparingDouble(Task::getSubTotalHoursRemaining).reversed()
+                    .thenComparing(Task::getDueDate)
+                    .thenComparingInt(Task::getId);
 
     /**
-     * Constructs a new {@code DynamicScheduler} with a given {@link UserConfig} and {@link EventLog}
-     *
-     * @param userConfig user settings for scheduling purposes
-     * @param eventLog EventLog for logging data on Day actions
+     * Constructs a new {@code DynamicScheduler}
      */
-    private DynamicScheduler(UserConfig userConfig, EventLog eventLog) {
-        this.userConfig = userConfig;
-        this.eventLog = eventLog;
+    public DynamicScheduler() {
     }
 
     /**
-     * Retrieves a singleton of {@code DynamicScheduler} for scheduling purposes
-     *
-     * @param userConfig user settings for scheduling purposes
-     * @param eventLog EventLog for logging data on Day actions
-     * @return instance of {@code DynamicScheduler}
+     * {@inheritDoc}
+     * <p>
+     * This collects the unfinished Tasks for the single Day, so consecutive Days should be assigned through
+     * {@link #newDayAssigner(SchedulingContext)}.
      */
-    protected static DynamicScheduler getSingleton(UserConfig userConfig, EventLog eventLog) {
-        if(singleton == null) {
-            singleton = new DynamicScheduler(userConfig, eventLog);
-        }
-        return singleton;
+    @Override
+    public int assignDay(Day day, int errorCount, TaskQueue complete, TaskQueue taskManager,
+                         SchedulingContext context) {
+        return newDayAssigner(context).assignDay(day, errorCount, complete, taskManager);
     }
 
     @Override
-    public int assignDay(Day day, int errorCount, PriorityQueue<Task> complete, PriorityQueue<Task> taskManager, Calendar date) {
-//        PriorityQueue<Task> incomplete = new PriorityQueue<>();
-//        int numErrors = errorCount;
-//        while(day.hasSpareHours() && !taskManager.isEmpty()) {
-//            Task task = taskManager.remove();
-//            boolean validTaskStatus = true;
-//            if(day.getDate().equals(task.getDueDate())) {
-//                validTaskStatus = addTaskSameDay(task, day);
-//            } else {
-//                if(task.getAverageNumHours() == 0) {
-//                    task.setAverageNumHours(day.getDate());
-//                }
-//                int hours = task.getAverageNumHours();
-//                //Handles the case where we actually have fewer hours available due to scheduling
-//                hours = Math.min(hours, task.getSubTotalHoursRemaining());
-//                //Fixes the number of hours according to what the Day has available
-//                hours = hours + day.getSize() > day.getCapacity() ? day.getCapacity() - day.getSize() : hours;
-//                day.addSubTask(task, hours, false);
-//            }
-//            if(task.getSubTotalHoursRemaining() > 0) {
-//                eventLog.reportDayAction(day, task, validTaskStatus);
-//                incomplete.add(task);
-//            } else {
-//                complete.add(task);
-//                eventLog.reportDayAction(day, task, validTaskStatus);
-//                numErrors += validTaskStatus ? 0 : 1;
-//                if(!day.hasSpareHours()) {
-//                    while(!taskManager.isEmpty() && taskManager.peek().getDueDate().equals(day.getDate())) {
-//                        Task dueTask = taskManager.remove();
-//                        complete.add(dueTask);
-//                        validTaskStatus = addTaskSameDay(dueTask, day);
-//                        eventLog.reportDayAction(day, dueTask, validTaskStatus);
-//                        numErrors++;
-//                    }
-//                }
-//            }
-//        }
-//        while(!incomplete.isEmpty()) {
-//            taskManager.add(incomplete.remove());
-//        }
-//        return numErrors;
-        return -1;
+    public DayAssigner newDayAssigner(SchedulingContext context) {
+        return new RoundRobinAssigner(context);
     }
 
     @Override
@@ -106,23 +64,127 @@ public class DynamicScheduler implements Scheduler {
         return 0;
     }
 
-    @Override
-    public void updateConfig(UserConfig userConfig) {
-        this.userConfig = userConfig;
-    }
-
     /**
-     * Handles adding a Task when it is due the same day
+     * Assigns consecutive Days of a build while keeping the unfinished Tasks ordered by their remaining time
      *
-     * @param task Task being added
-     * @param day Day being modified
-     * @return boolean status for whether Task was added without overflow
+     * @author Andrew Roe
      */
-    private boolean addTaskSameDay(Task task, Day day) {
-//        boolean overflow = task.getSubTotalHoursRemaining() > day.getSpareHours();
-//        int hours = task.getSubTotalHoursRemaining();
-//        day.addSubTask(task, hours, overflow);
-//        return !overflow;
-        return false;
+    private static class RoundRobinAssigner implements DayAssigner {
+
+        /** User settings, EventLog and time of the build */
+        private final SchedulingContext context;
+        /** Number of hours a Task receives per round */
+        private final double quantum;
+        /** Unfinished Tasks that are not due yet, with the longest remaining time first */
+        private final IndexedHeap<Task> longestFirst;
+        /** Whether the Tasks of the build were collected yet */
+        private boolean collected;
+
+        /**
+         * Constructs a new RoundRobinAssigner
+         *
+         * @param context user settings, EventLog and time of the build
+         */
+        private RoundRobinAssigner(SchedulingContext context) {
+            this.context = context;
+            // SubTasks are made up of half hours
+            this.quantum = Math.max(0.5, Math.floor(context.getUserConfig().getMinHours() * 2) / 2);
+            this.longestFirst = new IndexedHeap<>(LONGEST_REMAINING_FIRST, Task::getId);
+        }
+
+        @Override
+        public int assignDay(Day day, int errorCount, TaskQueue complete, TaskQueue taskManager) {
+            if (!collected) {
+                for (Task task : taskManager) {
+                    longestFirst.add(task);
+                }
+                collected = true;
+            }
+            int numErrors = errorCount;
+            boolean isToday = context.isToday(day.getStartOfDay());
+
+            // Tasks due on this Day are finished on it regardless of its capacity
+            while (!taskManager.isEmpty() && Time.toEpochMinute(taskManager.peek().getDueDate()) <= day.getStartOfDay()) {
+                Task task = taskManager.remove();
+                longestFirst.remove(task);
+                double hours = getDueDayHours(day, task, isToday);
+                boolean validTaskStatus = day.addPlainSubTask(task, hours, context.getUserConfig(), context.getTime(), isToday)
+                        && task.getSubTotalHoursRemaining() == 0;
+                complete.add(task);
+                context.getEventLog().reportDayAction(day, task, validTaskStatus);
+                numErrors += validTaskStatus ? 0 : 1;
+            }
+
+            // the spare hours are handed out in rounds of one quantum per Task
+            List<Task> served = new ArrayList<>();
+            double availableHours = getAvailableHours(day, isToday);
+            while (availableHours > 0 && (!longestFirst.isEmpty() || !served.isEmpty())) {
+                if (longestFirst.isEmpty()) {
+                    // every Task received a quantum, so the next round begins
+                    for (Task task : served) {
+                        longestFirst.add(task);
+                    }
+                    served.clear();
+                }
+                Task task = longestFirst.remove();
+                double hours = Math.min(quantum, Math.min(task.getSubTotalHoursRemaining(), availableHours));
+                boolean validTaskStatus = day.addPlainSubTask(task, hours, context.getUserConfig(), context.getTime(), isToday);
+                context.getEventLog().reportDayAction(day, task, validTaskStatus);
+                numErrors += validTaskStatus ? 0 : 1;
+
+                if (task.getSubTotalHoursRemaining() == 0) {
+                    taskManager.remove(task);
+                    complete.add(task);
+                } else {
+                    // fewer remaining hours move the Task behind others due on the same date
+                    taskManager.update(task);
+                    served.add(task);
+                }
+                availableHours = getAvailableHours(day, isToday);
+            }
+            for (Task task : served) {
+                longestFirst.add(task);
+            }
+            return numErrors;
+        }
+
+        /**
+         * Gets the number of hours a Task due on a Day receives, which are all of its remaining hours unless they
+         * would run past midnight while the user has the 'fitDay' config option set
+         *
+         * @param day Day the Task is due on
+         * @param task Task being scheduled
+         * @param isToday whether the Day is today
+         * @return number of hours for the Task
+         */
+        private double getDueDayHours(Day day, Task task, boolean isToday) {
+            double hours = task.getSubTotalHoursRemaining();
+            if (context.getUserConfig().isFitDay()) {
+                double remainingHours = 24.0 - (context.getStartingHour(isToday) + day.getHoursFilled());
+                hours = Math.min(remainingHours, hours);
+                // this chops off 30 minutes at the end of the day when it's past midnight
+                if (remainingHours - hours == 0.0 && isToday && context.getMinuteOfHour() >= 30) {
+                    hours -= 0.5;
+                }
+            }
+            return Math.max(0.0, hours);
+        }
+
+        /**
+         * Gets the number of hours of a Day which can still be handed out to Tasks that are not due on it
+         *
+         * @param day Day being processed
+         * @param isToday whether the Day is today
+         * @return number of available hours
+         */
+        private double getAvailableHours(Day day, boolean isToday) {
+            double availableHours = day.getSpareHours();
+            if (isToday) {
+                int endOfRange = context.getUserConfig().getDailyHoursRange()[1];
+                availableHours = Math.min(availableHours,
+                        endOfRange - (context.getStartingHour(true) + day.getHoursFilled()));
+            }
+            return availableHours;
+        }
     }
 }
@@ -3,23 +3,27 @@ package com.planner.schedule;
 import com.planner.manager.ScheduleManager;
 import com.planner.schedule.day.Day;
 import com.planner.models.Task;
-import com.planner.models.UserConfig;
-import com.planner.util.EventLog;
-
-import java.util.Calendar;
-import java.util.List;
-import java.util.PriorityQueue;
 
 /**
  * The interface {@code Scheduler} is for all scheduling implementations to sort out tasks via the {@link ScheduleManager}
+ * <p>
+ * Implementations hold no state between calls, as everything specific to a build of the schedule is passed in through
+ * an immutable {@link SchedulingContext}. A single instance can therefore be shared by any number of schedules being
+ * built concurrently.
  *
  * @author Andrew Roe
  */
 public interface Scheduler {
 
-    static Scheduler getInstance(UserConfig userConfig, EventLog eventLog, int idx) {
-        if (idx == 0) return DynamicScheduler.getSingleton(userConfig, eventLog);
-        return CompactScheduler.getSingleton(userConfig, eventLog);
+    /**
+     * Gets a scheduling implementation
+     *
+     * @param idx <code>0</code> for {@link DynamicScheduler}, otherwise {@link CompactScheduler}
+     * @return Scheduler instance
+     */
+    static Scheduler getInstance(int idx) {
+        if (idx == 0) return new DynamicScheduler();
+        return new CompactScheduler();
     }
 
     /**
@@ -28,10 +32,35 @@ public interface Scheduler {
      * @param day Day being processed
      * @param errorCount number of errors in current schedule
      * @param complete Tasks that are "finished scheduling" are added here
-     * @param taskManager PriorityQueue of all Tasks in sorted order
+     * @param taskManager TaskQueue of all Tasks in sorted order
+     * @param context user settings, EventLog and time of the current build
      * @return number of errors in scheduling Day
      */
-    int assignDay(Day day, int errorCount, PriorityQueue<Task> complete, PriorityQueue<Task> taskManager, Calendar date);
+    int assignDay(Day day, int errorCount, TaskQueue complete, TaskQueue taskManager,
+                  SchedulingContext context);
+
+    /**
+     * Creates a {@link DayAssigner} for assigning consecutive Days within a single build of the schedule.
+     * Implementations that carry state from one Day to the next keep it in the returned object, so that the
+     * {@code Scheduler} itself stays stateless.
+     *
+     * @param context user settings, EventLog and time of the current build
+     * @return DayAssigner for the build
+     */
+    default DayAssigner newDayAssigner(SchedulingContext context) {
+        return (day, errorCount, complete, taskManager) -> assignDay(day, errorCount, complete, taskManager, context);
+    }
+
+    /**
+     * Determines whether Tasks are placed in order of their due dates, in which case Days only depend on the Tasks
+     * due on or before them (besides the spare hours left over), and the schedule can be partially regenerated
+     * or planned in partitions
+     *
+     * @return boolean value for whether Tasks are placed earliest-due-first
+     */
+    default boolean isDueDateOrdered() {
+        return false;
+    }
 
     /**
      * Optimizes a {@link Day}'s set of {@link com.planner.models.Task.SubTask} around {@link com.planner.models.Event}
@@ -45,5 +74,24 @@ public interface Scheduler {
      */
     int optimizeDay(Day day);
 
-    void updateConfig(UserConfig userConfig);
+    /**
+     * Assigns consecutive {@link Day}s of a single build of the schedule. The same TaskQueue of Tasks has to be passed
+     * for every Day, and it must not be modified in between.
+     *
+     * @author Andrew Roe
+     */
+    @FunctionalInterface
+    interface DayAssigner {
+
+        /**
+         * Assigns the next {@link Day} a set of {@link Task.SubTask}
+         *
+         * @param day Day being processed
+         * @param errorCount number of errors in current schedule
+         * @param complete Tasks that are "finished scheduling" are added here
+         * @param taskManager TaskQueue of all Tasks in sorted order
+         * @return number of errors in scheduling Day
+         */
+        int assignDay(Day day, int errorCount, TaskQueue complete, TaskQueue taskManager);
+    }
 }
@@ -0,0 +1,115 @@
+package com.planner.schedule;
+
+import com.planner.models.UserConfig;
+import com.planner.util.EventLog;
+import com.planner.util.Time;
+
+import java.util.Calendar;
+
+/**
+ * The class {@code SchedulingContext} holds everything a {@link Scheduler} needs for a single build of a schedule:
+ * the user settings, the log receiving Day actions, and the time at which the schedule is generated.
+ * <p>
+ * A context is immutable, which keeps {@link Scheduler} implementations free of per-call state so that a single
+ * instance can serve any number of schedules (and threads) at once. The time is captured as a local epoch-minute
+ * rather than as a {@link Calendar}, since Calendars cannot be safely read from several threads.
+ *
+ * @author Andrew Roe
+ */
+public final class SchedulingContext {
+
+    /** Holds relevant data for user settings in scheduling */
+    private final UserConfig userConfig;
+    /** EventLog for logging data on Day actions */
+    private final EventLog eventLog;
+    /** Local epoch-minute at which the schedule is generated */
+    private final long time;
+    /** Local epoch-minute at which the day of generation started */
+    private final long startOfToday;
+
+    /**
+     * Constructs a new {@code SchedulingContext}
+     *
+     * @param userConfig user settings for scheduling purposes
+     * @param eventLog EventLog for logging data on Day actions
+     * @param time local epoch-minute at which the schedule is generated
+     * @throws IllegalArgumentException when the user settings or the EventLog are <code>null</code>
+     */
+    public SchedulingContext(UserConfig userConfig, EventLog eventLog, long time) {
+        if (userConfig == null || eventLog == null) {
+            throw new IllegalArgumentException("Scheduling context requires user settings and an event log.");
+        }
+        this.userConfig = userConfig;
+        this.eventLog = eventLog;
+        this.time = time;
+        this.startOfToday = Time.getStartOfDay(time);
+    }
+
+    /**
+     * Gets the user settings for scheduling
+     *
+     * @return user settings
+     */
+    public UserConfig getUserConfig() {
+        return userConfig;
+    }
+
+    /**
+     * Gets the EventLog receiving Day actions
+     *
+     * @return EventLog of the schedule
+     */
+    public EventLog getEventLog() {
+        return eventLog;
+    }
+
+    /**
+     * Gets the time at which the schedule is generated
+     *
+     * @return local epoch-minute
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * Gets the hour of the day at which the schedule is generated
+     *
+     * @return hour of the day (0-23)
+     */
+    public int getHourOfDay() {
+        return Time.getMinuteOfDay(time) / 60;
+    }
+
+    /**
+     * Gets the minute within the hour at which the schedule is generated
+     *
+     * @return minute of the hour (0-59)
+     */
+    public int getMinuteOfHour() {
+        return Time.getMinuteOfDay(time) % 60;
+    }
+
+    /**
+     * Gets the hour at which scheduling starts on a day, which is the start of the daily hours range unless the day
+     * is today and the range has already begun (and the user has not chosen to always start at the beginning)
+     *
+     * @param isToday whether the day is today
+     * @return starting hour of the day
+     */
+    public int getStartingHour(boolean isToday) {
+        int startOfRange = userConfig.getDailyHoursRange()[0];
+        if (!isToday || userConfig.isDefaultAtStart()) return startOfRange;
+        return Math.max(startOfRange, getHourOfDay());
+    }
+
+    /**
+     * Determines whether a day is the day on which the schedule is generated
+     *
+     * @param startOfDay local epoch-minute at which the day starts
+     * @return boolean value for whether the day is today
+     */
+    public boolean isToday(long startOfDay) {
+        return startOfDay == startOfToday;
+    }
+}
@@ -0,0 +1,148 @@
+package com.planner.schedule;
+
+import com.planner.models.Task;
+import com.planner.util.IndexedHeap;
+
+import java.util.AbstractQueue;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * The class {@code TaskQueue} is a priority queue of {@link Task}s in their natural order (earliest due date first,
+ * then most remaining hours). It is backed by an {@link IndexedHeap} keyed by Task ID, so removing any Task and
+ * restoring the order of a Task whose due date or hours changed take O(log n) rather than the O(n) search of a
+ * {@link java.util.PriorityQueue}.
+ * <p>
+ * A Task whose due date or remaining hours change while it is queued has to be passed to {@link #update(Task)}
+ * before the queue is used again, since its position would otherwise no longer match its order.
+ *
+ * @author Andrew Roe
+ */
+public class TaskQueue extends AbstractQueue<Task> {
+
+    /** Tasks ordered by their due date, then their remaining hours */
+    private final IndexedHeap<Task> heap;
+
+    /**
+     * Constructs an empty {@code TaskQueue}
+     */
+    public TaskQueue() {
+        this.heap = new IndexedHeap<>(Comparator.naturalOrder(), Task::getId);
+    }
+
+    /**
+     * Constructs a {@code TaskQueue} holding the given Tasks
+     *
+     * @param tasks Tasks being queued
+     * @throws IllegalArgumentException when two Tasks share an ID
+     */
+    public TaskQueue(Collection<Task> tasks) {
+        this();
+        addAll(tasks);
+    }
+
+    /**
+     * Adds a Task to the queue
+     *
+     * @param task Task being added
+     * @return <code>true</code>, since the queue is unbounded
+     * @throws IllegalArgumentException when a Task with the same ID is already queued
+     * @throws NullPointerException when the Task is <code>null</code>
+     */
+    @Override
+    public boolean offer(Task task) {
+        if (task == null) {
+            throw new NullPointerException("Task cannot be null");
+        }
+        heap.add(task);
+        return true;
+    }
+
+    @Override
+    public Task poll() {
+        return heap.poll();
+    }
+
+    @Override
+    public Task peek() {
+        return heap.peek();
+    }
+
+    @Override
+    public int size() {
+        return heap.size();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Task && heap.contains((Task) o);
+    }
+
+    /**
+     * Removes a Task from the queue in O(log n)
+     *
+     * @param o Task being removed
+     * @return boolean value for whether the Task was queued
+     */
+    @Override
+    public boolean remove(Object o) {
+        return o instanceof Task && heap.remove((Task) o);
+    }
+
+    /**
+     * Removes each of the given Tasks from the queue in O(log n)
+     *
+     * @param c Tasks being removed
+     * @return boolean value for whether any Task was queued
+     */
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        boolean modified = false;
+        for (Object o : c) {
+            modified |= remove(o);
+        }
+        return modified;
+    }
+
+    /**
+     * Restores the order of a queued Task after its due date or remaining hours changed
+     *
+     * @param task Task whose priority changed
+     * @return boolean value for whether the Task was queued
+     */
+    public boolean update(Task task) {
+        return heap.update(task);
+    }
+
+    @Override
+    public void clear() {
+        heap.clear();
+    }
+
+    /**
+     * Gets an iterator over the queued Tasks in no particular order. The iterator does not support removal.
+     *
+     * @return iterator over the Tasks
+     */
+    @Override
+    public Iterator<Task> iterator() {
+        return new Iterator<>() {
+            private int idx;
+
+            @Override
+            public boolean hasNext() {
+                return idx < heap.size();
+            }
+
+            @Override
+            public Task next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return heap.get(idx++);
+            }
+        };
+    }
+}
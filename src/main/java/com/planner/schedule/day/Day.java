@@ -7,6 +7,7 @@ import com.planner.models.Event;
 import com.planner.models.Task;
 import com.planner.models.Task.SubTask;
 import com.planner.models.UserConfig;
+import com.planner.util.Metrics;
 import com.planner.util.Time;
 import com.planner.util.Time.TimeStamp;
 
@@ -18,8 +19,14 @@ import com.planner.util.Time.TimeStamp;
  */
 public class Day {
 
+    /** Minimum number of free minutes between Events for a SubTask to be placed there */
+    private static final long MIN_SLOT_MINUTES = 30;
+    /** Latency of placing a SubTask on a Day */
+    private static final Metrics.Histogram ADD_SUBTASK_LATENCY = Metrics.histogram("day.add_subtask_ns");
     /** Holds the date and time of the particular Day */
     private Calendar date;
+    /** Local epoch-minute for 12:00am of the Day */
+    private long startOfDay;
     /** Number of hours possible for a given Day */
     private double capacity;
     /** Number of hours filled for a given Day */
@@ -30,8 +37,10 @@ public class Day {
     private final List<TimeStamp> taskTimeStamps;
     /** Map by starting hour and the associated event */
     private final List<Event> eventList;
-
+    /** List of time stamps for all events */
     private final List<TimeStamp> eventTimeStamps;
+    /** Sorted index of all event intervals for conflict and free slot lookups */
+    private final IntervalIndex eventIntervals;
     /** ID for the specific Day */
     private int id;
 
@@ -50,6 +59,7 @@ public class Day {
         taskTimeStamps = new ArrayList<>();
         eventList = new ArrayList<>();
         eventTimeStamps = new ArrayList<>();
+        eventIntervals = new IntervalIndex();
     }
 
     /**
@@ -63,10 +73,12 @@ public class Day {
         setId(id);
         setCapacity(capacity);
         this.date = date;
+        this.startOfDay = Time.getStartOfDay(Time.toEpochMinute(date));
         subTaskList = new ArrayList<>();
         taskTimeStamps = new ArrayList<>();
         eventList = new ArrayList<>();
         eventTimeStamps = new ArrayList<>();
+        eventIntervals = new IntervalIndex();
     }
 
     private void setId(int id) {
@@ -105,6 +117,7 @@ public class Day {
      */
     private void setDate(int incrementation) {
         this.date = Time.getFormattedCalendarInstance(incrementation);
+        this.startOfDay = Time.toEpochMinute(date);
     }
 
     /**
@@ -116,6 +129,15 @@ public class Day {
         return date;
     }
 
+    /**
+     * Gets the local epoch-minute for 12:00am of the Day
+     *
+     * @return epoch-minute for the start of the Day
+     */
+    public long getStartOfDay() {
+        return startOfDay;
+    }
+
     /**
      * Number of hours filled for a given Day
      *
@@ -138,31 +160,54 @@ public class Day {
         this.size += hours;
     }
 
+    /**
+     * Restores a SubTask of a previously generated schedule, such as one read back from a snapshot, at its
+     * original time interval
+     *
+     * @param task Task the SubTask belongs to
+     * @param hours number of hours for the SubTask
+     * @param overflow boolean status for whether the SubTask overflowed the Day
+     * @param timeStamp time interval of the SubTask, or <code>null</code> if it has none
+     * @throws IllegalArgumentException when the hours exceed the remaining hours of the Task
+     */
+    public void restoreSubTask(Task task, double hours, boolean overflow, TimeStamp timeStamp) {
+        SubTask subTask = task.addSubTask(hours, overflow, timeStamp);
+        if (subTask == null) {
+            throw new IllegalArgumentException("SubTask hours exceed the Task's remaining hours.");
+        }
+        if (timeStamp != null) {
+            taskTimeStamps.add(timeStamp);
+        }
+        subTaskList.add(subTask);
+        this.size += hours;
+    }
+
     /**
      * Adds a SubTask manually to the Day
      *
      * @param task  Task to be added
      * @param hours number of hours for the SubTask
+     * @param userConfig user settings for the daily hours range
+     * @param time local epoch-minute at which the schedule is generated
+     * @param isToday whether the Day is today
      * @return boolean status for success of adding SubTask manually
      */
-    public boolean addPlainSubTask(Task task, double hours, UserConfig userConfig, Calendar time, boolean isToday) {
+    public boolean addPlainSubTask(Task task, double hours, UserConfig userConfig, long time, boolean isToday) {
         if (hours <= 0) return false;
+        long start = System.nanoTime();
         boolean overflow = this.size + hours > this.capacity;
-//        SubTask subtask = task.addSubTask(hours, overflow); // todo need to rearrange this here
-
-//        subtaskManager.add(subtask);
-//        this.size += hours;
+        long now = isToday ? time : startOfDay;
 
         // nothing changes here (thank God)
         if (eventList.isEmpty()) {
-            createNonEventTimeStamps(hours, userConfig, time, isToday);
+            createNonEventTimeStamps(hours, userConfig, now, isToday);
             SubTask subTask = task.addSubTask(hours, overflow, taskTimeStamps.get(taskTimeStamps.size() - 1));
             subTaskList.add(subTask);
             this.size += hours;
         } else {
             while (hours > 0) {
                 double prevHours = hours;
-                hours -= createEventTimeStamps(hours, userConfig, time, isToday);
+                hours -= createEventTimeStamps(hours, userConfig, now, isToday);
                 // add subtask to subtaskManager
                 SubTask subTask = task.addSubTask(prevHours - hours, overflow, taskTimeStamps.get(taskTimeStamps.size() - 1));
                 subTaskList.add(subTask);
@@ -170,31 +215,18 @@ public class Day {
             }
         }
 
+        ADD_SUBTASK_LATENCY.recordSince(start);
         return this.size <= this.capacity;
     }
 
-    private void createNonEventTimeStamps(double hours, UserConfig userConfig, Calendar time, boolean isToday) {
+    private void createNonEventTimeStamps(double hours, UserConfig userConfig, long time, boolean isToday) {
         // handles the creation of timestamps for subtasks created
-        int taskHours = (int) hours;
-        int taskMin = hours % 1 == 0.5 ? 30 : 0;
-        Calendar temp;
-        if (isToday) {
-            temp = time;
-        } else {
-            temp = this.date;
-        }
-
-        Calendar startTime = Time.getFirstAvailableTimeInDay(taskTimeStamps, eventTimeStamps, userConfig, temp, isToday);
-
-        Calendar endTime = (Calendar) startTime.clone();
-        endTime.add(Calendar.HOUR_OF_DAY, taskHours);
-        endTime.add(Calendar.MINUTE, taskMin);
-
-        taskTimeStamps.add(new TimeStamp(startTime, endTime));
+        long startTime = getFirstAvailableTime(userConfig, time, isToday);
+        taskTimeStamps.add(new TimeStamp(startTime, startTime + toMinutes(hours)));
     }
 
     // [COMPLETE]
-    private double createEventTimeStamps(double hours, UserConfig userConfig, Calendar time, boolean isToday) {
+    private double createEventTimeStamps(double hours, UserConfig userConfig, long time, boolean isToday) {
         // todo we'll handle event edge case here (simply check whether it's within the bounds for the day)
         //  avoid 'clever' solutions
         /*
@@ -207,37 +239,52 @@ public class Day {
             d. Repeat until task is completed (remember, Day needs a method that tells the scheduler how many hours are AVAILABLE, so we can assume we have enough)
         3. Done
          */
-        Calendar temp;
-        if (isToday) {
-            temp = time;
-        } else {
-            temp = this.date;
-        }
-        Calendar startTime = Time.getFirstAvailableTimeInDay(taskTimeStamps, eventTimeStamps, userConfig, temp, isToday);
+        long startTime = getFirstAvailableTime(userConfig, time, isToday);
         // todo check whether startTime is within valid bounds (if it is, cap it at: Min(hours_remaining, hours_till_end_of_day) )
         //  once this is done (as well as handling 'eventTimeStamp'), return '0' (note: make sure to check whether 'fit_day' is true )
 
-        TimeStamp eventTimeStamp = null;
-        for (TimeStamp eTS : eventTimeStamps) { // this list needs to be sorted (given assumption below)
-            if (Time.isBefore(startTime, eTS.getStart())) {
-                eventTimeStamp = eTS;
-                break;
-            }
+        int nextEvent = eventIntervals.nextStartingAfter(startTime);
+        if (nextEvent < eventIntervals.size()) {
+            hours = Math.min(hours, Time.getTimeInterval(startTime, eventIntervals.getStart(nextEvent)));
         }
 
-        if (eventTimeStamp != null) {
-            hours = Math.min(hours, Time.getTimeInterval(startTime, eventTimeStamp.getStart()));
+        taskTimeStamps.add(new TimeStamp(startTime, startTime + toMinutes(hours)));
+        return hours;
+    }
+
+    /**
+     * Determines the first time a SubTask can be started at, which is after all previous SubTasks and
+     * leaves at least {@link #MIN_SLOT_MINUTES} before the next Event
+     *
+     * @param userConfig user settings for the daily hours range
+     * @param time current epoch-minute if the Day is today, otherwise the start of the Day
+     * @param isToday whether the Day is today
+     * @return epoch-minute to start the SubTask at
+     */
+    private long getFirstAvailableTime(UserConfig userConfig, long time, boolean isToday) {
+        long startTime;
+        if (isToday && Time.getMinuteOfDay(time) / 60 >= userConfig.getDailyHoursRange()[0] && taskTimeStamps.isEmpty() && !userConfig.isDefaultAtStart()) {
+            startTime = Time.getNearestQuarterOfHour(time, true);
+        } else if (taskTimeStamps.isEmpty()) {
+            startTime = startOfDay + userConfig.getDailyHoursRange()[0] * 60L;
+        } else {
+            startTime = taskTimeStamps.get(taskTimeStamps.size() - 1).getEndMinute();
         }
+        // todo need to think about whether we should have startTime configured with getNearestQuarterOfHour() (at most, we're losing 14 minutes, but that could theoretically cost us 30 min due to formatting)
+        // todo might need another config option to allow tasks to be scheduled with 'unclean' times around events (not an issue without events, at most you'd be losing is 14 minutes)
+        return eventIntervals.firstFreeSlot(startTime, MIN_SLOT_MINUTES);
+    }
 
+    /**
+     * Converts a number of hours (in half hour increments) to minutes
+     *
+     * @param hours number of hours
+     * @return number of minutes
+     */
+    private static long toMinutes(double hours) {
         int taskHours = (int) hours;
         int taskMin = hours % 1 == 0.5 ? 30 : 0;
-
-        Calendar endTime = (Calendar) startTime.clone();
-        endTime.add(Calendar.HOUR_OF_DAY, taskHours);
-        endTime.add(Calendar.MINUTE, taskMin);
-
-        taskTimeStamps.add(new TimeStamp(startTime, endTime));
-        return hours;
+        return taskHours * 60L + taskMin;
     }
 
     /**
@@ -267,38 +314,19 @@ public class Day {
      */
     public boolean addEvent(Event event) {
         if (event.isRecurring()) { // this fixes issue for recurring events since they can happen on any day
-            Calendar start = (Calendar) date.clone();
-            start.set(Calendar.HOUR_OF_DAY, event.getTimeStamp().getStartHour());
-            start.set(Calendar.MINUTE, event.getTimeStamp().getStartMin());
-
-            Calendar end = (Calendar) start.clone();
-            end.set(Calendar.HOUR_OF_DAY, event.getTimeStamp().getEndHour());
-            end.set(Calendar.MINUTE, event.getTimeStamp().getEndMin());
+            TimeStamp ts = event.getTimeStamp();
+            long start = startOfDay + Time.getMinuteOfDay(ts.getStartMinute());
+            long end = startOfDay + Time.getMinuteOfDay(ts.getEndMinute());
 
             event = new Event(event.getId(), event.getName(), event.getCard(), new TimeStamp(start, end), event.getDays());
         }
-        int idx = 0;
-        boolean idxFound = false;
-        for (Event e1 : eventList) {
-            if (Time.isConflictingEvent(event, e1))
-                return false;
-            else {
-                if (Time.isBefore(event.getTimeStamp().getStart(), e1.getTimeStamp().getStart())) {
-                    idxFound = true;
-                    break; // this prevents the search from incrementing idx past its correct spot
-                } else {
-                    idx++;
-                }
-            }
-        }
-
-        if (idxFound) {
-            eventList.add(idx, event);
-            eventTimeStamps.add(idx, event.getTimeStamp());
-        } else {
-            eventList.add(event);
-            eventTimeStamps.add(event.getTimeStamp());
+        TimeStamp timeStamp = event.getTimeStamp();
+        if (eventIntervals.conflicts(timeStamp.getStartMinute(), timeStamp.getEndMinute())) {
+            return false;
         }
+        int idx = eventIntervals.add(timeStamp.getStartMinute(), timeStamp.getEndMinute());
+        eventList.add(idx, event);
+        eventTimeStamps.add(idx, timeStamp);
 
         // todo will need to add config option here that tallies event hours just the same as tasks (used with counting hours left in day)
 
@@ -0,0 +1,217 @@
+package com.planner.schedule.day;
+
+import java.util.Arrays;
+
+/**
+ * Sorted set of non-overlapping busy intervals (in local epoch-minutes) for a single {@link Day}.
+ * <p>
+ * Intervals are kept in parallel primitive arrays ordered by their starting minute, so conflict checks and
+ * lookups of the next interval are binary searches. The gaps between consecutive intervals are additionally
+ * indexed by a max segment tree, which allows finding the first free slot of a minimum length after a given
+ * time in O(log n) rather than walking over every back-to-back interval.
+ *
+ * @author Andrew Roe
+ */
+class IntervalIndex {
+
+    /** Initial number of intervals the index can hold before growing */
+    private static final int INITIAL_CAPACITY = 8;
+
+    /** Starting minutes of each interval in sorted order */
+    private long[] starts;
+    /** Ending minutes of each interval, sorted as a result of the intervals not overlapping */
+    private long[] ends;
+    /** Segment tree holding the largest gap after each interval (1-indexed, leaves start at {@code leaves}) */
+    private long[] maxGap;
+    /** Number of leaves in the segment tree */
+    private int leaves;
+    /** Number of intervals in the index */
+    private int size;
+
+    /**
+     * Constructs an empty {@code IntervalIndex}
+     */
+    IntervalIndex() {
+        starts = new long[INITIAL_CAPACITY];
+        ends = new long[INITIAL_CAPACITY];
+        leaves = INITIAL_CAPACITY;
+        maxGap = new long[2 * leaves];
+    }
+
+    /**
+     * Gets the number of intervals in the index
+     *
+     * @return number of intervals
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Gets the starting minute of an interval
+     *
+     * @param idx index of interval
+     * @return starting epoch-minute
+     */
+    long getStart(int idx) {
+        return starts[idx];
+    }
+
+    /**
+     * Gets the ending minute of an interval
+     *
+     * @param idx index of interval
+     * @return ending epoch-minute
+     */
+    long getEnd(int idx) {
+        return ends[idx];
+    }
+
+    /**
+     * Determines whether the given interval overlaps any interval within the index
+     *
+     * @param start starting epoch-minute
+     * @param end ending epoch-minute
+     * @return boolean value for whether there is a conflict
+     */
+    boolean conflicts(long start, long end) {
+        // of all intervals starting before 'end', the last one also ends the latest
+        int idx = firstStartingAtOrAfter(end);
+        return idx > 0 && ends[idx - 1] > start;
+    }
+
+    /**
+     * Adds an interval to the index, keeping the intervals in sorted order
+     *
+     * @param start starting epoch-minute
+     * @param end ending epoch-minute
+     * @return index at which the interval was inserted
+     * @throws IllegalArgumentException when the interval overlaps another interval
+     */
+    int add(long start, long end) {
+        if (conflicts(start, end)) {
+            throw new IllegalArgumentException("Interval overlaps an existing interval");
+        }
+        if (size == starts.length) {
+            starts = Arrays.copyOf(starts, size * 2);
+            ends = Arrays.copyOf(ends, size * 2);
+            leaves = size * 2;
+            maxGap = new long[2 * leaves];
+        }
+        // empty intervals go before any interval with the same start so that the ends stay sorted as well
+        int idx = start == end ? firstStartingAtOrAfter(start) : nextStartingAfter(start);
+        System.arraycopy(starts, idx, starts, idx + 1, size - idx);
+        System.arraycopy(ends, idx, ends, idx + 1, size - idx);
+        starts[idx] = start;
+        ends[idx] = end;
+        size++;
+        rebuildGaps();
+        return idx;
+    }
+
+    /**
+     * Gets the index of the first interval starting strictly after the given time
+     *
+     * @param time epoch-minute
+     * @return index of interval, or {@link #size()} if there is none
+     */
+    int nextStartingAfter(long time) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (starts[mid] <= time) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /**
+     * Finds the earliest time at or after the given time which is outside every interval and is followed by
+     * at least the given number of free minutes (the slot after the last interval is unbounded)
+     *
+     * @param time earliest possible epoch-minute
+     * @param minutes minimum length of the free slot
+     * @return starting epoch-minute of the free slot
+     * @throws IllegalArgumentException when the length of the free slot is not positive
+     */
+    long firstFreeSlot(long time, long minutes) {
+        if (minutes <= 0) {
+            throw new IllegalArgumentException("Free slot must be at least one minute long");
+        }
+        int idx = firstEndingAfter(time);
+        if (idx == size || starts[idx] - time >= minutes) {
+            return time;
+        }
+        // the slot has to begin at the end of an interval whose following gap is large enough
+        return ends[firstGapAtLeast(1, 0, leaves - 1, idx, minutes)];
+    }
+
+    /**
+     * Gets the index of the first interval starting at or after the given time
+     *
+     * @param time epoch-minute
+     * @return index of interval, or {@link #size()} if there is none
+     */
+    private int firstStartingAtOrAfter(long time) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (starts[mid] < time) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /**
+     * Gets the index of the first interval ending strictly after the given time
+     *
+     * @param time epoch-minute
+     * @return index of interval, or {@link #size()} if there is none
+     */
+    private int firstEndingAfter(long time) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (ends[mid] <= time) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /**
+     * Recomputes the segment tree of gaps following each interval
+     */
+    private void rebuildGaps() {
+        for (int i = 0; i < leaves; i++) {
+            long gap;
+            if (i < size - 1) gap = starts[i + 1] - ends[i];
+            else if (i == size - 1) gap = Long.MAX_VALUE;
+            else gap = Long.MIN_VALUE;
+            maxGap[leaves + i] = gap;
+        }
+        for (int node = leaves - 1; node > 0; node--) {
+            maxGap[node] = Math.max(maxGap[2 * node], maxGap[2 * node + 1]);
+        }
+    }
+
+    /**
+     * Finds the first interval at or after an index whose following gap spans at least the given minutes
+     *
+     * @param node current node of the segment tree
+     * @param lo first interval index covered by the node
+     * @param hi last interval index covered by the node
+     * @param from first interval index to consider
+     * @param minutes minimum length of the gap
+     * @return index of interval, or <code>-1</code> if the node holds none
+     */
+    private int firstGapAtLeast(int node, int lo, int hi, int from, long minutes) {
+        if (hi < from || maxGap[node] < minutes) return -1;
+        if (lo == hi) return lo;
+        int mid = (lo + hi) >>> 1;
+        int idx = firstGapAtLeast(2 * node, lo, mid, from, minutes);
+        return idx != -1 ? idx : firstGapAtLeast(2 * node + 1, mid + 1, hi, from, minutes);
+    }
+}
@@ -0,0 +1,460 @@
+package com.planner.script;
+
+import com.planner.manager.ScheduleManager;
+import com.planner.models.Card;
+import com.planner.models.Event;
+import com.planner.models.Task;
+import com.planner.models.UserConfig;
+import com.planner.util.CommandLine;
+import com.planner.util.Parser;
+import com.planner.util.Time;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Functions built into planner scripts, which give them console input and output and the operations of the
+ * {@link ScheduleManager}. Builtins are resolved to an ID while compiling, and their arguments are read straight from
+ * the value stack of the {@link Interpreter}.
+ *
+ * @author Andrew Roe
+ */
+final class Builtins {
+
+    /** Directory of JBin files named without a directory, as with the {@code jbin} command */
+    private static final String JBIN_DIR = "data/jbin/";
+    /** Name of the Excel file written by {@code export_excel()} */
+    private static final String EXCEL_FILE = "schedule";
+
+    static final int PRINT = 0;
+    static final int PRINTLN = 1;
+    static final int INPUT_INT = 2;
+    static final int INPUT_WORD = 3;
+    static final int INPUT_LINE = 4;
+    static final int INPUT_BOOL = 5;
+    static final int AVG = 6;
+    static final int PAUSE = 7;
+    static final int DISPLAY_STACK = 8;
+    static final int INJECT_CODE = 9;
+    static final int IMPORT_SCHEDULE = 10;
+    static final int EXPORT_SCHEDULE = 11;
+    static final int BUILD = 12;
+    static final int DISPLAY_BOARD = 13;
+    static final int DISPLAY_TASKS = 14;
+    static final int DISPLAY_EVENTS = 15;
+    static final int DISPLAY_SCHEDULE = 16;
+    static final int DISPLAY_SUBTASKS = 17;
+    static final int DISPLAY_REPORT = 18;
+    static final int EXPORT_EXCEL = 19;
+    static final int EXPORT_GOOGLE = 20;
+    static final int TASK = 21;
+    static final int CARD = 22;
+    static final int GET_TASK = 23;
+    static final int GET_CARD = 24;
+    static final int ADD_TASK_CARD = 25;
+    static final int NUM_TASKS = 26;
+    static final int INPUT_TASKS = 27;
+    static final int CREATE_EVENT = 28;
+    static final int SET_CONFIG_ATTR = 29;
+
+    private static final String[] NAMES = {"print", "println", "input_int", "input_word", "input_line", "input_bool",
+            "avg", "pause", "display_stack", "inject_code", "import_schedule", "export_schedule", "build",
+            "display_board", "display_tasks", "display_events", "display_schedule", "display_subtasks",
+            "display_report", "export_excel", "export_google", "task", "card", "get_task", "get_card",
+            "add_task_card", "num_tasks", "input_tasks", "create_event", "set_config_attr"};
+    private static final int[] MIN_ARGS = {0, 0, 0, 0, 0, 0, 2, 0, 0, 0, 1, 1, 0, 0, 0, 0, 0, 0, 0, 0, 0, 3, 2, 1, 1,
+            2, 0, 1, 0, 2};
+    private static final int[] MAX_ARGS = {Integer.MAX_VALUE, Integer.MAX_VALUE, 1, 1, 1, 1, 2, 0, 0, 0, 1, 1, 0, 0,
+            0, 0, 0, 0, 0, 1, 0, 4, 2, 1, 1, 2, 0, 1, 0, 8};
+    /** ID of every builtin by name, including older names */
+    private static final Map<String, Integer> IDS = new HashMap<>();
+
+    static {
+        for (int id = 0; id < NAMES.length; id++) {
+            IDS.put(NAMES[id], id);
+        }
+        IDS.put("import_jbin", IMPORT_SCHEDULE);
+    }
+
+    private final ScriptEngine engine;
+    private final ScheduleManager sm;
+    /** Tokens of the Tasks and Events read by the script */
+    private final CommandLine command = new CommandLine();
+    private Interpreter interpreter;
+
+    Builtins(ScriptEngine engine, ScheduleManager sm) {
+        this.engine = engine;
+        this.sm = sm;
+    }
+
+    void attach(Interpreter interpreter) {
+        this.interpreter = interpreter;
+    }
+
+    /**
+     * Gets the ID of a builtin
+     *
+     * @param name name of the builtin
+     * @return ID of the builtin, or -1 if there is none with the name
+     */
+    static int idOf(String name) {
+        Integer id = IDS.get(name);
+        return id == null ? -1 : id;
+    }
+
+    static int minArgs(int id) {
+        return MIN_ARGS[id];
+    }
+
+    static int maxArgs(int id) {
+        return MAX_ARGS[id];
+    }
+
+    /**
+     * Describes the number of arguments a builtin takes, for errors
+     *
+     * @param id ID of the builtin
+     * @return description such as {@code 1 to 2 arguments}
+     */
+    static String describeArgs(int id) {
+        if (MAX_ARGS[id] == Integer.MAX_VALUE) return "any number of arguments";
+        if (MIN_ARGS[id] == MAX_ARGS[id]) return MIN_ARGS[id] + " arguments";
+        return MIN_ARGS[id] + " to " + MAX_ARGS[id] + " arguments";
+    }
+
+    /**
+     * Calls a builtin
+     *
+     * @param id ID of the builtin
+     * @param stack value stack holding the arguments
+     * @param from position of the first argument
+     * @param argc number of arguments
+     * @return value returned by the builtin, or <code>null</code>
+     * @throws IOException when input cannot be read or a file cannot be written
+     * @throws IllegalArgumentException when an argument is not valid
+     */
+    Object call(int id, Object[] stack, int from, int argc) throws IOException {
+        switch (id) {
+            case PRINT:
+            case PRINTLN: {
+                StringBuilder sb = new StringBuilder();
+                for (int i = from; i < from + argc; i++) {
+                    sb.append(stack[i]);
+                }
+                if (id == PRINTLN) {
+                    sb.append('\n');
+                }
+                engine.write(sb);
+                return null;
+            }
+            case INPUT_INT: {
+                String line = readLine(stack, from, argc).trim();
+                try {
+                    return Integer.valueOf(line);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("Expected an integer but read '" + line + "'");
+                }
+            }
+            case INPUT_WORD: {
+                String line = readLine(stack, from, argc).trim();
+                if (line.isEmpty()) {
+                    throw new IllegalArgumentException("Expected a word but read an empty line");
+                }
+                return line.split("\\s+", 2)[0];
+            }
+            case INPUT_LINE:
+                return readLine(stack, from, argc);
+            case INPUT_BOOL: {
+                String line = readLine(stack, from, argc).trim().toLowerCase(Locale.ROOT);
+                switch (line) {
+                    case "t":
+                    case "true":
+                    case "y":
+                    case "yes":
+                        return Boolean.TRUE;
+                    case "f":
+                    case "false":
+                    case "n":
+                    case "no":
+                        return Boolean.FALSE;
+                    default:
+                        throw new IllegalArgumentException("Expected T or F but read '" + line + "'");
+                }
+            }
+            case AVG:
+                if (stack[from] instanceof Integer && stack[from + 1] instanceof Integer) {
+                    return ((Integer) stack[from] + (Integer) stack[from + 1]) / 2;
+                }
+                return (number(stack[from], "avg") + number(stack[from + 1], "avg")) / 2;
+            case PAUSE:
+                // the end of the input does not stop the script
+                engine.readLine("Press ENTER to continue...");
+                return null;
+            case DISPLAY_STACK:
+                engine.write(interpreter.describeStack());
+                return null;
+            case INJECT_CODE:
+                injectCode();
+                return null;
+            case IMPORT_SCHEDULE:
+                sm.importJBinFile(jbinPath(stack[from]));
+                return null;
+            case EXPORT_SCHEDULE:
+                sm.exportJBinFile(jbinPath(stack[from]));
+                return null;
+            case BUILD:
+                if (sm.getNumActiveTasks() > 0) {
+                    sm.buildSchedule();
+                }
+                return null;
+            case DISPLAY_BOARD:
+                engine.write(sm.buildCardStr() + "\n" + sm.buildTaskStr() + "\n");
+                return null;
+            case DISPLAY_TASKS:
+                engine.write(sm.buildTaskStr() + "\n");
+                return null;
+            case DISPLAY_EVENTS:
+                engine.write(sm.buildEventStr() + "\n");
+                return null;
+            case DISPLAY_SCHEDULE:
+                engine.write(sm.scheduleIsEmpty() ? "Schedule is empty...\n" : sm.buildScheduleStr() + "\n");
+                return null;
+            case DISPLAY_SUBTASKS:
+                engine.write(sm.buildSubTaskStr() + "\n");
+                return null;
+            case DISPLAY_REPORT:
+                engine.write(sm.buildReportStr() + "\n");
+                return null;
+            case EXPORT_EXCEL:
+                sm.exportScheduleToExcel(argc == 0 ? EXCEL_FILE : string(stack[from], "file name"));
+                return null;
+            case EXPORT_GOOGLE:
+                sm.exportScheduleToGoogle();
+                return null;
+            case TASK:
+                return sm.addTask(string(stack[from], "Task name"), number(stack[from + 1], "hours"),
+                        Time.getFormattedCalendarInstance(integer(stack[from + 2], "days")),
+                        argc == 4 ? cardId(stack[from + 3]) : -1);
+            case CARD:
+                return sm.addCard(string(stack[from], "Card name"), color(stack[from + 1]));
+            case GET_TASK: {
+                Task task = sm.getTask(integer(stack[from], "Task ID"));
+                if (task == null) {
+                    throw new IllegalArgumentException("No Task with ID " + stack[from]);
+                }
+                return task;
+            }
+            case GET_CARD:
+                return sm.getCardById(cardId(stack[from]));
+            case ADD_TASK_CARD: {
+                Task task = sm.modTask(taskId(stack[from]), null, -1, null, cardId(stack[from + 1]));
+                if (task == null) {
+                    throw new IllegalArgumentException("No Task with ID " + taskId(stack[from]));
+                }
+                return task;
+            }
+            case NUM_TASKS:
+                return sm.getNumActiveTasks();
+            case INPUT_TASKS:
+                return inputTasks(integer(stack[from], "number of Tasks"));
+            case CREATE_EVENT:
+                return createEvent();
+            case SET_CONFIG_ATTR:
+                setConfigAttr(stack, from, argc);
+                return null;
+            default:
+                throw new IllegalStateException("Invalid builtin " + id);
+        }
+    }
+
+    /**
+     * Reads a line of input, after writing the prompt given as the optional argument
+     */
+    private String readLine(Object[] stack, int from, int argc) throws IOException {
+        String line = engine.readLine(argc == 0 ? "" : String.valueOf(stack[from]));
+        if (line == null) {
+            throw new IllegalArgumentException("No more input");
+        }
+        return line;
+    }
+
+    /**
+     * Reads statements until an empty line and runs them within the script, reporting their errors without
+     * stopping it
+     */
+    private void injectCode() throws IOException {
+        engine.write("Enter code, followed by an empty line:\n");
+        StringBuilder source = new StringBuilder();
+        String line;
+        while ((line = engine.readLine("")) != null && !line.isBlank()) {
+            source.append(line).append('\n');
+        }
+        try {
+            interpreter.inject(source.toString());
+        } catch (ScriptException e) {
+            engine.write("Error: " + e.getMessage() + "\n");
+        }
+    }
+
+    /**
+     * Reads Tasks in the syntax of the {@code task} command, such as {@code "Essay" 4 @ 01-06-2025 +C0}
+     *
+     * @return number of Tasks added
+     */
+    private Object inputTasks(int numTasks) throws IOException {
+        for (int i = 0; i < numTasks; i++) {
+            String line = engine.readLine("Task -> ");
+            if (line == null) {
+                throw new IllegalArgumentException("No more input");
+            }
+            Parser.TaskInfo ti = Parser.parseTask(command.scan("task " + line));
+            sm.addTask(ti.getDesc(), ti.getHours(), ti.getDue(), ti.getCardId());
+        }
+        return numTasks;
+    }
+
+    /**
+     * Reads an Event in the syntax of the {@code event} command, such as {@code false "Standup" @ 9-10 01-06-2025}
+     *
+     * @return Event added
+     */
+    private Event createEvent() throws IOException {
+        String line = engine.readLine("Event -> ");
+        if (line == null) {
+            throw new IllegalArgumentException("No more input");
+        }
+        Parser.EventInfo ei = Parser.parseEvent(command.scan("event " + line));
+        // a single Event takes place on its date rather than today
+        long day = !ei.isRecurring() && ei.getDateMinutes() != null ? ei.getDateMinutes()[0]
+                : LocalDate.now().toEpochDay() * Time.MINUTES_PER_DAY;
+        return sm.addEvent(ei.getName(), ei.getCardId(), ei.getTimeStamp(day), ei.isRecurring(),
+                ei.isRecurring() ? ei.getDates() : null);
+    }
+
+    /**
+     * Changes an attribute of the config for the rest of the session, without writing it to the profile
+     */
+    private void setConfigAttr(Object[] stack, int from, int argc) {
+        UserConfig config = sm.getUserConfig();
+        String attr = string(stack[from], "config attribute");
+        int numValues = argc - 1;
+        switch (attr) {
+            case "RANGE":
+                config.setDailyHoursRange(integers(stack, from + 1, numValues, 2, attr));
+                break;
+            case "WEEK":
+                config.setHoursPerDayOfWeek(integers(stack, from + 1, numValues, 7, attr));
+                break;
+            case "MAX_DAYS":
+                config.setMaxDays(integers(stack, from + 1, numValues, 1, attr)[0]);
+                break;
+            case "ARCHIVE_DAYS":
+                config.setArchiveDays(integers(stack, from + 1, numValues, 1, attr)[0]);
+                break;
+            case "ALGORITHM":
+                config.setSchedulingAlgorithm(integers(stack, from + 1, numValues, 1, attr)[0]);
+                break;
+            case "MIN_HOURS":
+                expectValues(attr, numValues, 1);
+                config.setMinHours(number(stack[from + 1], attr));
+                break;
+            case "PRIORITY":
+                config.setPriority(bool(stack, from + 1, numValues, attr));
+                break;
+            case "OVERFLOW":
+                config.setOverflow(bool(stack, from + 1, numValues, attr));
+                break;
+            case "FIT_DAY":
+                config.setFitDay(bool(stack, from + 1, numValues, attr));
+                break;
+            case "PRETTY_TIME":
+            case "PRETTY_TABLE_FORMAT":
+                config.setFormatPrettyTime(bool(stack, from + 1, numValues, attr));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown config attribute " + attr);
+        }
+        sm.invalidateSchedule();
+    }
+
+    private static void expectValues(String attr, int numValues, int expected) {
+        if (numValues != expected) {
+            throw new IllegalArgumentException(attr + " takes " + expected + " values but was given " + numValues);
+        }
+    }
+
+    private static int[] integers(Object[] stack, int from, int numValues, int expected, String attr) {
+        expectValues(attr, numValues, expected);
+        int[] values = new int[numValues];
+        for (int i = 0; i < numValues; i++) {
+            values[i] = integer(stack[from + i], attr);
+        }
+        return values;
+    }
+
+    private static boolean bool(Object[] stack, int from, int numValues, String attr) {
+        expectValues(attr, numValues, 1);
+        if (!(stack[from] instanceof Boolean)) {
+            throw new IllegalArgumentException("Expected true or false for " + attr + " but was given "
+                    + Interpreter.describe(stack[from]));
+        }
+        return (Boolean) stack[from];
+    }
+
+    private static String string(Object value, String what) {
+        if (value instanceof String) return (String) value;
+        throw new IllegalArgumentException("Expected a String for " + what + " but was given "
+                + Interpreter.describe(value));
+    }
+
+    private static int integer(Object value, String what) {
+        if (value instanceof Integer) return (Integer) value;
+        throw new IllegalArgumentException("Expected an integer for " + what + " but was given "
+                + Interpreter.describe(value));
+    }
+
+    private static double number(Object value, String what) {
+        if (value instanceof Number) return ((Number) value).doubleValue();
+        throw new IllegalArgumentException("Expected a number for " + what + " but was given "
+                + Interpreter.describe(value));
+    }
+
+    private int cardId(Object value) {
+        if (value instanceof Card) return ((Card) value).getId();
+        int id = integer(value, "Card");
+        if (sm.getCardById(id) == null) {
+            throw new IllegalArgumentException("No Card with ID " + id);
+        }
+        return id;
+    }
+
+    private static int taskId(Object value) {
+        if (value instanceof Task) return ((Task) value).getId();
+        return integer(value, "Task");
+    }
+
+    private static Card.Color color(Object value) {
+        String name = string(value, "Card color");
+        try {
+            return Card.Color.valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid color " + name);
+        }
+    }
+
+    /**
+     * Resolves a JBin file named in a script, which is looked up in {@value #JBIN_DIR} unless it exists as given
+     */
+    private static String jbinPath(Object value) {
+        String filename = string(value, "JBin file");
+        if (filename.contains("/") || Files.exists(Paths.get(filename))) {
+            return filename;
+        }
+        return JBIN_DIR + filename;
+    }
+}
@@ -0,0 +1,49 @@
+package com.planner.script;
+
+/**
+ * Bytecode of a function of a script, or of the top-level statements of a script. Its code is set once the
+ * compiler reaches its body, which may be after calls to it were compiled.
+ *
+ * @author Andrew Roe
+ */
+final class CompiledFunction {
+
+    /** Name of the function, or {@code <main>} for the top level */
+    final String name;
+    /** Number of parameters, which take the first local slots */
+    final int arity;
+    /** Names of the local variables by slot, for {@code display_stack()} */
+    String[] localNames;
+    /** Instructions and their operands */
+    int[] code;
+    /** Line of the script of each position in the code, for errors */
+    int[] lines;
+    /** Values referenced by {@link Opcode#CONST} and {@link Opcode#CALL} */
+    Object[] constants;
+    /** Largest number of values on the operand stack at once */
+    int maxStack;
+
+    CompiledFunction(String name, int arity) {
+        this.name = name;
+        this.arity = arity;
+    }
+
+    /**
+     * Gets the number of local variables, including the parameters
+     *
+     * @return number of local slots
+     */
+    int numLocals() {
+        return localNames.length;
+    }
+
+    /**
+     * Gets the line of the script of an instruction
+     *
+     * @param pc position of the instruction
+     * @return line of the instruction, or 0 if unknown
+     */
+    int lineAt(int pc) {
+        return pc >= 0 && pc < lines.length ? lines[pc] : 0;
+    }
+}
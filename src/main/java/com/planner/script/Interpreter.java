@@ -0,0 +1,438 @@
+package com.planner.script;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Runs the bytecode of a compiled {@link Script}. Calls between functions of the script push frames onto arrays
+ * rather than the Java stack, so a script may recurse over thousands of Tasks, and every frame keeps its local
+ * variables in slots of one shared value stack, below the operands of its instructions.
+ * <p>
+ * Values are Integers, Doubles, Strings, Booleans and the Tasks, Cards and Events returned by builtins. A function
+ * that returns nothing gives <code>null</code>.
+ *
+ * @author Andrew Roe
+ */
+final class Interpreter {
+
+    /** Largest number of nested calls, beyond which a script is assumed to recurse without end */
+    static final int MAX_DEPTH = 100_000;
+    /** Value of a variable that has not been assigned yet */
+    private static final Object UNSET = new Object();
+    private static final Integer ONE = 1;
+
+    private final Script script;
+    private final Builtins builtins;
+    private Object[] globals;
+    /** Locals and operands of every frame */
+    private Object[] stack;
+    /** Top of the stack, as of the last call of a builtin */
+    private int sp;
+    /** Function of each frame */
+    private CompiledFunction[] frameFunctions;
+    /** Start of the locals of each frame */
+    private int[] frameBases;
+    /** Position each frame continues at, as of its last call */
+    private int[] framePcs;
+    /** Number of frames */
+    private int depth;
+
+    Interpreter(Script script, Builtins builtins) {
+        this.script = script;
+        this.builtins = builtins;
+        this.globals = new Object[0];
+        this.stack = new Object[256];
+        this.frameFunctions = new CompiledFunction[64];
+        this.frameBases = new int[64];
+        this.framePcs = new int[64];
+        builtins.attach(this);
+    }
+
+    /**
+     * Runs the top-level statements of the script
+     *
+     * @return <code>null</code> once the script ends
+     * @throws IOException when a builtin cannot read input or write a file
+     * @throws ScriptException when a statement fails
+     */
+    Object run() throws IOException {
+        return execute(script.getMain());
+    }
+
+    /**
+     * Compiles and runs code against the globals and functions of the running script, as read by
+     * {@code inject_code()}
+     *
+     * @param source statements being injected
+     * @throws IOException when a builtin cannot read input or write a file
+     * @throws ScriptException when the code is not valid or fails
+     */
+    void inject(String source) throws IOException {
+        execute(script.compileMore(source));
+    }
+
+    /**
+     * Describes the frames of the running script and their variables, innermost first, followed by the globals
+     *
+     * @return lines of the stack
+     */
+    String describeStack() {
+        StringBuilder sb = new StringBuilder();
+        for (int f = depth - 1; f >= 0; f--) {
+            CompiledFunction fn = frameFunctions[f];
+            sb.append("  at ").append(fn.name).append(" (line ").append(fn.lineAt(framePcs[f] - 1)).append(")");
+            for (int slot = 0; slot < fn.numLocals(); slot++) {
+                sb.append(slot == 0 ? ": " : ", ").append(fn.localNames[slot]).append('=');
+                appendValue(sb, stack[frameBases[f] + slot]);
+            }
+            sb.append('\n');
+        }
+        String[] names = script.globalNames();
+        sb.append("  globals");
+        for (int slot = 0; slot < names.length && slot < globals.length; slot++) {
+            sb.append(slot == 0 ? ": " : ", ").append(names[slot]).append('=');
+            appendValue(sb, globals[slot]);
+        }
+        return sb.append('\n').toString();
+    }
+
+    private static void appendValue(StringBuilder sb, Object value) {
+        if (value == UNSET) {
+            sb.append('-');
+        } else if (value instanceof String) {
+            sb.append('"').append(value).append('"');
+        } else {
+            sb.append(value);
+        }
+    }
+
+    /**
+     * Runs a function without arguments until it returns. Builtins may run further code while it is running, which
+     * is stacked above the frames of the caller.
+     *
+     * @param entry function being run
+     * @return value returned by the function
+     */
+    private Object execute(CompiledFunction entry) throws IOException {
+        if (globals.length < script.numGlobals()) {
+            int from = globals.length;
+            globals = Arrays.copyOf(globals, script.numGlobals());
+            Arrays.fill(globals, from, globals.length, UNSET);
+        }
+        final int floor = depth;
+        final int entryBase = this.sp;
+        CompiledFunction fn = entry;
+        int base = entryBase;
+        int sp = base + fn.numLocals();
+        Object[] s = ensureCapacity(sp + fn.maxStack);
+        Arrays.fill(s, base, sp, UNSET);
+        pushFrame(fn, base);
+        int[] code = fn.code;
+        Object[] constants = fn.constants;
+        int pc = 0;
+        int at = 0;
+        try {
+            while (true) {
+                at = pc;
+                switch (code[pc++]) {
+                    case Opcode.CONST:
+                        s[sp++] = constants[code[pc++]];
+                        break;
+                    case Opcode.LOAD_LOCAL: {
+                        int slot = code[pc++];
+                        Object value = s[base + slot];
+                        if (value == UNSET) throw unset(fn.localNames[slot]);
+                        s[sp++] = value;
+                        break;
+                    }
+                    case Opcode.STORE_LOCAL:
+                        s[base + code[pc++]] = s[--sp];
+                        s[sp] = null;
+                        break;
+                    case Opcode.LOAD_GLOBAL: {
+                        int slot = code[pc++];
+                        Object value = globals[slot];
+                        if (value == UNSET) throw unset(script.globalNames()[slot]);
+                        s[sp++] = value;
+                        break;
+                    }
+                    case Opcode.STORE_GLOBAL:
+                        globals[code[pc++]] = s[--sp];
+                        s[sp] = null;
+                        break;
+                    case Opcode.INC_LOCAL:
+                    case Opcode.DEC_LOCAL: {
+                        int slot = base + code[at + 1];
+                        if (s[slot] == UNSET) throw unset(fn.localNames[code[at + 1]]);
+                        Object value = code[at] == Opcode.INC_LOCAL ? add(s[slot], ONE) : subtract(s[slot], ONE);
+                        s[slot] = value;
+                        s[sp++] = value;
+                        pc++;
+                        break;
+                    }
+                    case Opcode.INC_GLOBAL:
+                    case Opcode.DEC_GLOBAL: {
+                        int slot = code[pc++];
+                        if (globals[slot] == UNSET) throw unset(script.globalNames()[slot]);
+                        Object value = code[at] == Opcode.INC_GLOBAL
+                                ? add(globals[slot], ONE) : subtract(globals[slot], ONE);
+                        globals[slot] = value;
+                        s[sp++] = value;
+                        break;
+                    }
+                    case Opcode.POP:
+                        s[--sp] = null;
+                        break;
+                    case Opcode.JUMP:
+                        pc = code[pc];
+                        break;
+                    case Opcode.JUMP_IF_FALSE: {
+                        boolean condition = isTrue(s[--sp]);
+                        s[sp] = null;
+                        pc = condition ? pc + 1 : code[pc];
+                        break;
+                    }
+                    case Opcode.CALL: {
+                        CompiledFunction callee = (CompiledFunction) constants[code[pc++]];
+                        if (depth == floor + MAX_DEPTH) {
+                            throw new IllegalArgumentException("More than " + MAX_DEPTH + " nested calls of '"
+                                    + callee.name + "'");
+                        }
+                        framePcs[depth - 1] = pc;
+                        base = sp - callee.arity;
+                        sp = base + callee.numLocals();
+                        if (sp + callee.maxStack > s.length) {
+                            s = ensureCapacity(sp + callee.maxStack);
+                        }
+                        Arrays.fill(s, base + callee.arity, sp, UNSET);
+                        pushFrame(callee, base);
+                        fn = callee;
+                        code = fn.code;
+                        constants = fn.constants;
+                        pc = 0;
+                        break;
+                    }
+                    case Opcode.BUILTIN: {
+                        int id = code[pc++];
+                        int argc = code[pc++];
+                        framePcs[depth - 1] = pc;
+                        this.sp = sp;
+                        Object result = builtins.call(id, s, sp - argc, argc);
+                        // code run by the builtin may have grown the stack
+                        s = stack;
+                        sp -= argc;
+                        Arrays.fill(s, sp, sp + argc, null);
+                        s[sp++] = result;
+                        break;
+                    }
+                    case Opcode.RETURN: {
+                        Object result = s[--sp];
+                        Arrays.fill(s, base, sp + 1, null);
+                        sp = base;
+                        depth--;
+                        if (depth == floor) {
+                            this.sp = entryBase;
+                            return result;
+                        }
+                        s[sp++] = result;
+                        fn = frameFunctions[depth - 1];
+                        base = frameBases[depth - 1];
+                        pc = framePcs[depth - 1];
+                        code = fn.code;
+                        constants = fn.constants;
+                        break;
+                    }
+                    case Opcode.ADD:
+                        sp--;
+                        s[sp - 1] = add(s[sp - 1], s[sp]);
+                        s[sp] = null;
+                        break;
+                    case Opcode.SUB:
+                        sp--;
+                        s[sp - 1] = subtract(s[sp - 1], s[sp]);
+                        s[sp] = null;
+                        break;
+                    case Opcode.MUL:
+                    case Opcode.DIV:
+                    case Opcode.MOD:
+                        sp--;
+                        s[sp - 1] = arithmetic(code[at], s[sp - 1], s[sp]);
+                        s[sp] = null;
+                        break;
+                    case Opcode.EQ:
+                        sp--;
+                        s[sp - 1] = isEqual(s[sp - 1], s[sp]);
+                        s[sp] = null;
+                        break;
+                    case Opcode.NE:
+                        sp--;
+                        s[sp - 1] = !isEqual(s[sp - 1], s[sp]);
+                        s[sp] = null;
+                        break;
+                    case Opcode.LT:
+                        sp--;
+                        s[sp - 1] = compare(s[sp - 1], s[sp]) < 0;
+                        s[sp] = null;
+                        break;
+                    case Opcode.LE:
+                        sp--;
+                        s[sp - 1] = compare(s[sp - 1], s[sp]) <= 0;
+                        s[sp] = null;
+                        break;
+                    case Opcode.GT:
+                        sp--;
+                        s[sp - 1] = compare(s[sp - 1], s[sp]) > 0;
+                        s[sp] = null;
+                        break;
+                    case Opcode.GE:
+                        sp--;
+                        s[sp - 1] = compare(s[sp - 1], s[sp]) >= 0;
+                        s[sp] = null;
+                        break;
+                    case Opcode.NOT:
+                        s[sp - 1] = !isTrue(s[sp - 1]);
+                        break;
+                    default:
+                        throw new IllegalStateException("Invalid opcode " + code[at] + " in " + fn.name);
+                }
+            }
+        } catch (ScriptException e) {
+            // raised by code that a builtin ran, which already gave its line
+            unwind(floor, entryBase);
+            throw e;
+        } catch (RuntimeException e) {
+            int line = fn.lineAt(at);
+            unwind(floor, entryBase);
+            throw new ScriptException(script.getName(), line, messageOf(e), e);
+        } catch (IOException e) {
+            int line = fn.lineAt(at);
+            unwind(floor, entryBase);
+            throw new IOException(script.getName() + ":" + line + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static String messageOf(RuntimeException e) {
+        return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+    }
+
+    private static IllegalArgumentException unset(String name) {
+        return new IllegalArgumentException("Variable '" + name + "' is used before it is set");
+    }
+
+    private void pushFrame(CompiledFunction fn, int base) {
+        if (depth == frameFunctions.length) {
+            frameFunctions = Arrays.copyOf(frameFunctions, depth * 2);
+            frameBases = Arrays.copyOf(frameBases, depth * 2);
+            framePcs = Arrays.copyOf(framePcs, depth * 2);
+        }
+        frameFunctions[depth] = fn;
+        frameBases[depth] = base;
+        depth++;
+    }
+
+    /**
+     * Drops the frames of a failed run, so that the frames below it can continue
+     */
+    private void unwind(int floor, int entryBase) {
+        Arrays.fill(frameFunctions, floor, depth, null);
+        Arrays.fill(stack, entryBase, stack.length, null);
+        depth = floor;
+        sp = entryBase;
+    }
+
+    private Object[] ensureCapacity(int size) {
+        if (size > stack.length) {
+            stack = Arrays.copyOf(stack, Math.max(size, stack.length * 2));
+        }
+        return stack;
+    }
+
+    /*
+     * Operations on values
+     */
+
+    /**
+     * Determines whether a value counts as true in a condition
+     *
+     * @param value value of the condition
+     * @return <code>false</code> for false, <code>null</code>, zero and the empty String, otherwise <code>true</code>
+     */
+    static boolean isTrue(Object value) {
+        if (value instanceof Boolean) return (Boolean) value;
+        if (value == null) return false;
+        if (value instanceof Integer) return (Integer) value != 0;
+        if (value instanceof Double) return (Double) value != 0;
+        if (value instanceof String) return !((String) value).isEmpty();
+        return true;
+    }
+
+    static Object add(Object a, Object b) {
+        if (a instanceof Integer && b instanceof Integer) {
+            return (Integer) a + (Integer) b;
+        } else if (a instanceof String || b instanceof String) {
+            return String.valueOf(a) + b;
+        }
+        return toDouble(a, "add") + toDouble(b, "add");
+    }
+
+    static Object subtract(Object a, Object b) {
+        if (a instanceof Integer && b instanceof Integer) {
+            return (Integer) a - (Integer) b;
+        }
+        return toDouble(a, "subtract") - toDouble(b, "subtract");
+    }
+
+    private static Object arithmetic(int opcode, Object a, Object b) {
+        if (a instanceof Integer && b instanceof Integer) {
+            int x = (Integer) a;
+            int y = (Integer) b;
+            if (opcode == Opcode.MUL) return x * y;
+            if (y == 0) throw new IllegalArgumentException("Division by zero");
+            return opcode == Opcode.DIV ? x / y : x % y;
+        }
+        double x = toDouble(a, "divide");
+        double y = toDouble(b, "divide");
+        if (opcode == Opcode.MUL) return x * y;
+        return opcode == Opcode.DIV ? x / y : x % y;
+    }
+
+    private static boolean isEqual(Object a, Object b) {
+        if (a instanceof Integer && b instanceof Integer) {
+            return ((Integer) a).intValue() == (Integer) b;
+        } else if (a instanceof Number && b instanceof Number) {
+            return ((Number) a).doubleValue() == ((Number) b).doubleValue();
+        }
+        return a == null ? b == null : a.equals(b);
+    }
+
+    private static int compare(Object a, Object b) {
+        if (a instanceof Integer && b instanceof Integer) {
+            return Integer.compare((Integer) a, (Integer) b);
+        } else if (a instanceof Number && b instanceof Number) {
+            return Double.compare(((Number) a).doubleValue(), ((Number) b).doubleValue());
+        } else if (a instanceof String && b instanceof String) {
+            return ((String) a).compareTo((String) b);
+        }
+        throw new IllegalArgumentException("Cannot compare " + describe(a) + " with " + describe(b));
+    }
+
+    private static double toDouble(Object value, String operation) {
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        throw new IllegalArgumentException("Cannot " + operation + " " + describe(value));
+    }
+
+    /**
+     * Describes a value for errors, such as {@code "abc"} or {@code Task}
+     *
+     * @param value value being described
+     * @return description of the value
+     */
+    static String describe(Object value) {
+        if (value == null) return "nothing";
+        if (value instanceof String) return "\"" + value + "\"";
+        if (value instanceof Number || value instanceof Boolean) return value.toString();
+        return value.getClass().getSimpleName();
+    }
+}
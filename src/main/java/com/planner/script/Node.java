@@ -0,0 +1,159 @@
+package com.planner.script;
+
+import java.util.List;
+
+/**
+ * Node of the syntax tree of a planner script, as read by {@link ScriptParser}. The tree only lives until the script
+ * is compiled by {@link ScriptCompiler}; scripts are never run by walking it.
+ *
+ * @author Andrew Roe
+ */
+abstract class Node {
+
+    /** Line of the script holding the node, starting at 1 */
+    final int line;
+
+    Node(int line) {
+        this.line = line;
+    }
+
+    /**
+     * Number, String or boolean written in the script
+     */
+    static final class Literal extends Node {
+        final Object value;
+
+        Literal(int line, Object value) {
+            super(line);
+            this.value = value;
+        }
+    }
+
+    /**
+     * Read of a variable, or of a constant such as {@code RANGE} when the name is in capitals
+     */
+    static final class Name extends Node {
+        final String name;
+
+        Name(int line, String name) {
+            super(line);
+            this.name = name;
+        }
+    }
+
+    /**
+     * Call of a function of the script or of a builtin, such as {@code build()}
+     */
+    static final class Call extends Node {
+        final String name;
+        final List<Node> args;
+
+        Call(int line, String name, List<Node> args) {
+            super(line);
+            this.name = name;
+            this.args = args;
+        }
+    }
+
+    /**
+     * Operation on a value, such as {@code x.==(0)} or {@code x.--()}
+     */
+    static final class MethodCall extends Node {
+        final Node receiver;
+        final String method;
+        final List<Node> args;
+
+        MethodCall(int line, Node receiver, String method, List<Node> args) {
+            super(line);
+            this.receiver = receiver;
+            this.method = method;
+            this.args = args;
+        }
+    }
+
+    /**
+     * Assignment of a variable, such as {@code x: 5}
+     */
+    static final class Assign extends Node {
+        final String name;
+        final Node value;
+
+        Assign(int line, String name, Node value) {
+            super(line);
+            this.name = name;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Expression whose value is discarded, such as a call on a line of its own
+     */
+    static final class ExprStmt extends Node {
+        final Node expr;
+
+        ExprStmt(int line, Node expr) {
+            super(line);
+            this.expr = expr;
+        }
+    }
+
+    /**
+     * Chain of {@code if}, {@code elif} and {@code else} blocks
+     */
+    static final class If extends Node {
+        /** Conditions of the {@code if} and each {@code elif} */
+        final List<Node> conditions;
+        /** Block of each condition */
+        final List<List<Node>> blocks;
+        /** Block of the {@code else}, or <code>null</code> if there is none */
+        final List<Node> elseBlock;
+
+        If(int line, List<Node> conditions, List<List<Node>> blocks, List<Node> elseBlock) {
+            super(line);
+            this.conditions = conditions;
+            this.blocks = blocks;
+            this.elseBlock = elseBlock;
+        }
+    }
+
+    /**
+     * Return from a function, with or without a value
+     */
+    static final class Return extends Node {
+        /** Returned value, or <code>null</code> if none is given */
+        final Node value;
+
+        Return(int line, Node value) {
+            super(line);
+            this.value = value;
+        }
+    }
+
+    /**
+     * Definition of a function, which may only appear at the top level of a script
+     */
+    static final class Func extends Node {
+        final String name;
+        final List<String> params;
+        final List<Node> body;
+
+        Func(int line, String name, List<String> params, List<Node> body) {
+            super(line);
+            this.name = name;
+            this.params = params;
+            this.body = body;
+        }
+    }
+
+    /**
+     * Options of the script, such as {@code include: __CURR_CONFIG__, __LOG__}
+     */
+    static final class Include extends Node {
+        final List<String> options;
+
+        Include(int line, List<String> options) {
+            super(line);
+            this.options = options;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.planner.script;
+
+/**
+ * Instructions of the bytecode run by {@link Interpreter}. Each instruction is an int, followed in the code array by
+ * its operands, if any. Values are passed on an operand stack above the local variables of the running function.
+ *
+ * @author Andrew Roe
+ */
+final class Opcode {
+
+    /** Pushes constant {@code k}: {@code CONST k} */
+    static final int CONST = 0;
+    /** Pushes local variable {@code s}: {@code LOAD_LOCAL s} */
+    static final int LOAD_LOCAL = 1;
+    /** Pops into local variable {@code s}: {@code STORE_LOCAL s} */
+    static final int STORE_LOCAL = 2;
+    /** Pushes global variable {@code s}: {@code LOAD_GLOBAL s} */
+    static final int LOAD_GLOBAL = 3;
+    /** Pops into global variable {@code s}: {@code STORE_GLOBAL s} */
+    static final int STORE_GLOBAL = 4;
+    /** Adds 1 to local variable {@code s} and pushes the result: {@code INC_LOCAL s} */
+    static final int INC_LOCAL = 5;
+    /** Subtracts 1 from local variable {@code s} and pushes the result: {@code DEC_LOCAL s} */
+    static final int DEC_LOCAL = 6;
+    /** Adds 1 to global variable {@code s} and pushes the result: {@code INC_GLOBAL s} */
+    static final int INC_GLOBAL = 7;
+    /** Subtracts 1 from global variable {@code s} and pushes the result: {@code DEC_GLOBAL s} */
+    static final int DEC_GLOBAL = 8;
+    /** Discards the top of the stack */
+    static final int POP = 9;
+    /** Continues at {@code t}: {@code JUMP t} */
+    static final int JUMP = 10;
+    /** Pops a condition and continues at {@code t} if it is false: {@code JUMP_IF_FALSE t} */
+    static final int JUMP_IF_FALSE = 11;
+    /** Calls the function held by constant {@code k} with its arguments on the stack: {@code CALL k} */
+    static final int CALL = 12;
+    /** Calls builtin {@code b} with {@code n} arguments on the stack: {@code BUILTIN b n} */
+    static final int BUILTIN = 13;
+    /** Returns the top of the stack to the caller */
+    static final int RETURN = 14;
+    static final int ADD = 15;
+    static final int SUB = 16;
+    static final int MUL = 17;
+    static final int DIV = 18;
+    static final int MOD = 19;
+    static final int EQ = 20;
+    static final int NE = 21;
+    static final int LT = 22;
+    static final int LE = 23;
+    static final int GT = 24;
+    static final int GE = 25;
+    static final int NOT = 26;
+
+    private Opcode() {
+    }
+}
@@ -0,0 +1,94 @@
+package com.planner.script;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Planner script ({@code .smpl}) compiled to bytecode, which may be run any number of times by a
+ * {@link ScriptEngine} without being parsed again
+ *
+ * @author Andrew Roe
+ */
+public final class Script {
+
+    /** Extension of script files */
+    public static final String EXTENSION = ".smpl";
+
+    private final String name;
+    private final ScriptCompiler compiler;
+    private final CompiledFunction main;
+
+    private Script(String name, ScriptCompiler compiler, CompiledFunction main) {
+        this.name = name;
+        this.compiler = compiler;
+        this.main = main;
+    }
+
+    /**
+     * Compiles the source of a script
+     *
+     * @param source source of the script
+     * @param name name of the script, used in errors and for the files written by its {@code include} options
+     * @return compiled script
+     * @throws ScriptException when the script is not valid
+     */
+    public static Script compile(String source, String name) {
+        ScriptCompiler compiler = new ScriptCompiler(name);
+        return new Script(name, compiler, compiler.compile(ScriptParser.parse(source, name)));
+    }
+
+    /**
+     * Reads and compiles a script file
+     *
+     * @param file script file
+     * @return compiled script, named after the file without its extension
+     * @throws IOException when the file cannot be read
+     * @throws ScriptException when the script is not valid
+     */
+    public static Script read(Path file) throws IOException {
+        String name = file.getFileName().toString();
+        if (name.endsWith(EXTENSION)) {
+            name = name.substring(0, name.length() - EXTENSION.length());
+        }
+        return compile(Files.readString(file), name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the options included by the script, such as {@code __LOG__}
+     *
+     * @return included options
+     */
+    public Set<String> getOptions() {
+        return Collections.unmodifiableSet(compiler.getOptions());
+    }
+
+    CompiledFunction getMain() {
+        return main;
+    }
+
+    int numGlobals() {
+        return compiler.numGlobals();
+    }
+
+    String[] globalNames() {
+        return compiler.globalNames();
+    }
+
+    /**
+     * Compiles further statements against the globals and functions of the script, which remain part of it
+     *
+     * @param source statements being added
+     * @return function running the statements
+     * @throws ScriptException when the statements are not valid
+     */
+    CompiledFunction compileMore(String source) {
+        return compiler.compile(ScriptParser.parse(source, name));
+    }
+}
@@ -0,0 +1,458 @@
+package com.planner.script;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compiles the syntax tree of a planner script into bytecode for {@link Interpreter}. Every variable is resolved to
+ * a slot while compiling, so the interpreter never looks a name up:
+ * <ul>
+ *     <li>Variables assigned at the top level of the script are globals, which functions may read and assign.</li>
+ *     <li>Any other variable assigned in a function, and every parameter, is local to each call of the function.</li>
+ *     <li>A name in capitals that is not a variable, such as {@code RANGE}, is a constant String.</li>
+ * </ul>
+ * Functions may be called before they are defined, and calls, builtins and methods are checked for their number of
+ * arguments. The compiler keeps its globals and functions, so code injected into a running script with
+ * {@code inject_code()} is compiled against the same slots.
+ *
+ * @author Andrew Roe
+ */
+final class ScriptCompiler {
+
+    /** Options that a script may include */
+    static final Set<String> OPTIONS = Set.of("__CURR_CONFIG__", "__LOG__", "__HTML__");
+
+    /** Name of the script, for errors */
+    private final String scriptName;
+    /** Slot of every global variable, in order of their slots */
+    private final Map<String, Integer> globals;
+    /** Functions of the script by name */
+    private final Map<String, CompiledFunction> functions;
+    /** Options included by the script */
+    private final Set<String> options;
+
+    ScriptCompiler(String scriptName) {
+        this.scriptName = scriptName;
+        this.globals = new LinkedHashMap<>();
+        this.functions = new HashMap<>();
+        this.options = new LinkedHashSet<>();
+    }
+
+    /**
+     * Compiles top-level statements, along with the functions they define
+     *
+     * @param statements top-level statements, as parsed by {@link ScriptParser}
+     * @return function running the statements
+     * @throws ScriptException when a name is unknown or a call has the wrong number of arguments
+     */
+    CompiledFunction compile(List<Node> statements) {
+        List<Node.Func> defined = new ArrayList<>();
+        for (Node statement : statements) {
+            if (statement instanceof Node.Func) {
+                Node.Func func = (Node.Func) statement;
+                if (functions.containsKey(func.name)) {
+                    throw error(func, "Function '" + func.name + "' is already defined");
+                } else if (Builtins.idOf(func.name) >= 0) {
+                    throw error(func, "'" + func.name + "' is a builtin function");
+                }
+                functions.put(func.name, new CompiledFunction(func.name, func.params.size()));
+                defined.add(func);
+            } else if (statement instanceof Node.Include) {
+                for (String option : ((Node.Include) statement).options) {
+                    if (!OPTIONS.contains(option)) {
+                        throw error(statement, "Unknown include option " + option);
+                    }
+                    options.add(option);
+                }
+            } else {
+                declareGlobals(statement);
+            }
+        }
+
+        CompiledFunction main = new CompiledFunction("<main>", 0);
+        try {
+            Emitter emitter = new Emitter(main, null);
+            for (Node statement : statements) {
+                if (!(statement instanceof Node.Func) && !(statement instanceof Node.Include)) {
+                    emitter.statement(statement);
+                }
+            }
+            emitter.finish(statements.isEmpty() ? 0 : statements.get(statements.size() - 1).line);
+
+            for (Node.Func func : defined) {
+                Emitter body = new Emitter(functions.get(func.name), func.params);
+                body.block(func.body);
+                body.finish(func.body.get(func.body.size() - 1).line);
+            }
+        } catch (ScriptException e) {
+            // functions without code must not remain callable by later injected code
+            for (Node.Func func : defined) {
+                functions.remove(func.name);
+            }
+            throw e;
+        }
+        return main;
+    }
+
+    /**
+     * Gets the number of global variables declared so far
+     *
+     * @return number of global slots
+     */
+    int numGlobals() {
+        return globals.size();
+    }
+
+    /**
+     * Gets the names of the global variables
+     *
+     * @return names by slot
+     */
+    String[] globalNames() {
+        return globals.keySet().toArray(new String[0]);
+    }
+
+    /**
+     * Gets the options included by the script
+     *
+     * @return options such as {@code __LOG__}
+     */
+    Set<String> getOptions() {
+        return options;
+    }
+
+    /**
+     * Gives a slot to every variable assigned by a top-level statement, including within its {@code if} blocks
+     */
+    private void declareGlobals(Node statement) {
+        if (statement instanceof Node.Assign) {
+            globals.putIfAbsent(((Node.Assign) statement).name, globals.size());
+        } else if (statement instanceof Node.If) {
+            Node.If chain = (Node.If) statement;
+            for (List<Node> block : chain.blocks) {
+                block.forEach(this::declareGlobals);
+            }
+            if (chain.elseBlock != null) {
+                chain.elseBlock.forEach(this::declareGlobals);
+            }
+        }
+    }
+
+    private ScriptException error(Node at, String message) {
+        return new ScriptException(scriptName, at.line, message, null);
+    }
+
+    private static boolean isConstantName(String name) {
+        boolean upper = false;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isLowerCase(c)) return false;
+            upper |= Character.isUpperCase(c);
+        }
+        return upper;
+    }
+
+    /**
+     * Writes the bytecode of one function
+     */
+    private final class Emitter {
+        private final CompiledFunction function;
+        /** Slots of the local variables, or <code>null</code> at the top level, where every variable is global */
+        private final Map<String, Integer> locals;
+        private final List<Object> constants;
+        private final Map<Object, Integer> constantSlots;
+        private int[] code;
+        private int[] lines;
+        private int size;
+        /** Number of values on the operand stack after the last instruction */
+        private int depth;
+        private int maxDepth;
+
+        private Emitter(CompiledFunction function, List<String> params) {
+            this.function = function;
+            this.locals = params == null ? null : new LinkedHashMap<>();
+            if (params != null) {
+                for (String param : params) {
+                    locals.put(param, locals.size());
+                }
+            }
+            this.constants = new ArrayList<>();
+            this.constantSlots = new HashMap<>();
+            this.code = new int[64];
+            this.lines = new int[64];
+        }
+
+        private void finish(int line) {
+            emit(Opcode.CONST, constant(null), line, 1);
+            emit(Opcode.RETURN, line, -1);
+            function.code = Arrays.copyOf(code, size);
+            function.lines = Arrays.copyOf(lines, size);
+            function.constants = constants.toArray();
+            function.localNames = locals == null ? new String[0] : locals.keySet().toArray(new String[0]);
+            function.maxStack = maxDepth;
+        }
+
+        private void block(List<Node> statements) {
+            for (Node statement : statements) {
+                statement(statement);
+            }
+        }
+
+        private void statement(Node node) {
+            if (node instanceof Node.Assign) {
+                Node.Assign assign = (Node.Assign) node;
+                expression(assign.value);
+                store(assign.name, node.line);
+            } else if (node instanceof Node.ExprStmt) {
+                expression(((Node.ExprStmt) node).expr);
+                emit(Opcode.POP, node.line, -1);
+            } else if (node instanceof Node.If) {
+                ifChain((Node.If) node);
+            } else if (node instanceof Node.Return) {
+                Node value = ((Node.Return) node).value;
+                if (value == null) {
+                    emit(Opcode.CONST, constant(null), node.line, 1);
+                } else {
+                    expression(value);
+                }
+                emit(Opcode.RETURN, node.line, -1);
+            } else if (node instanceof Node.Include) {
+                throw error(node, "'include' must be at the top level");
+            } else {
+                throw error(node, "Unexpected statement");
+            }
+        }
+
+        private void ifChain(Node.If chain) {
+            List<Integer> exits = new ArrayList<>();
+            for (int i = 0; i < chain.conditions.size(); i++) {
+                Node condition = chain.conditions.get(i);
+                expression(condition);
+                int skip = emit(Opcode.JUMP_IF_FALSE, -1, condition.line, -1);
+                block(chain.blocks.get(i));
+                if (i + 1 < chain.conditions.size() || chain.elseBlock != null) {
+                    exits.add(emit(Opcode.JUMP, -1, condition.line, 0));
+                }
+                code[skip + 1] = size;
+            }
+            if (chain.elseBlock != null) {
+                block(chain.elseBlock);
+            }
+            for (int exit : exits) {
+                code[exit + 1] = size;
+            }
+        }
+
+        private void expression(Node node) {
+            if (node instanceof Node.Literal) {
+                emit(Opcode.CONST, constant(((Node.Literal) node).value), node.line, 1);
+            } else if (node instanceof Node.Name) {
+                load((Node.Name) node);
+            } else if (node instanceof Node.Call) {
+                call((Node.Call) node);
+            } else if (node instanceof Node.MethodCall) {
+                method((Node.MethodCall) node);
+            } else {
+                throw error(node, "Expected a value");
+            }
+        }
+
+        private void load(Node.Name name) {
+            Integer local = locals == null ? null : locals.get(name.name);
+            if (local != null) {
+                emit(Opcode.LOAD_LOCAL, local, name.line, 1);
+            } else if (globals.containsKey(name.name)) {
+                emit(Opcode.LOAD_GLOBAL, globals.get(name.name), name.line, 1);
+            } else if (isConstantName(name.name)) {
+                emit(Opcode.CONST, constant(name.name), name.line, 1);
+            } else {
+                throw error(name, "Unknown variable '" + name.name + "'");
+            }
+        }
+
+        private void store(String name, int line) {
+            Integer local = locals == null ? null : locals.get(name);
+            if (local != null) {
+                emit(Opcode.STORE_LOCAL, local, line, -1);
+            } else if (globals.containsKey(name)) {
+                emit(Opcode.STORE_GLOBAL, globals.get(name), line, -1);
+            } else if (locals != null) {
+                int slot = locals.size();
+                locals.put(name, slot);
+                emit(Opcode.STORE_LOCAL, slot, line, -1);
+            } else {
+                // top-level variables were given their slots before compiling
+                throw error(new Node.Name(line, name), "Unknown variable '" + name + "'");
+            }
+        }
+
+        private void call(Node.Call call) {
+            CompiledFunction target = functions.get(call.name);
+            if (target != null) {
+                if (call.args.size() != target.arity) {
+                    throw error(call, "'" + call.name + "' takes " + target.arity + " arguments but was given "
+                            + call.args.size());
+                }
+                arguments(call.args);
+                emit(Opcode.CALL, constant(target), call.line, 1 - call.args.size());
+                return;
+            }
+            int id = Builtins.idOf(call.name);
+            if (id < 0) {
+                throw error(call, "Unknown function '" + call.name + "'");
+            }
+            if (call.args.size() < Builtins.minArgs(id) || call.args.size() > Builtins.maxArgs(id)) {
+                throw error(call, "'" + call.name + "' takes " + Builtins.describeArgs(id) + " but was given "
+                        + call.args.size());
+            }
+            arguments(call.args);
+            emit(Opcode.BUILTIN, id, call.args.size(), call.line, 1 - call.args.size());
+        }
+
+        private void arguments(List<Node> args) {
+            for (Node arg : args) {
+                expression(arg);
+            }
+        }
+
+        private void method(Node.MethodCall call) {
+            int opcode;
+            int numArgs = 1;
+            switch (call.method) {
+                case "++":
+                case "--":
+                    increment(call);
+                    return;
+                case "!":
+                case "not":
+                    opcode = Opcode.NOT;
+                    numArgs = 0;
+                    break;
+                case "+":
+                case "add":
+                    opcode = Opcode.ADD;
+                    break;
+                case "-":
+                case "sub":
+                    opcode = Opcode.SUB;
+                    break;
+                case "*":
+                case "mul":
+                    opcode = Opcode.MUL;
+                    break;
+                case "/":
+                case "div":
+                    opcode = Opcode.DIV;
+                    break;
+                case "%":
+                case "mod":
+                    opcode = Opcode.MOD;
+                    break;
+                case "==":
+                    opcode = Opcode.EQ;
+                    break;
+                case "!=":
+                    opcode = Opcode.NE;
+                    break;
+                case "<":
+                    opcode = Opcode.LT;
+                    break;
+                case "<=":
+                    opcode = Opcode.LE;
+                    break;
+                case ">":
+                    opcode = Opcode.GT;
+                    break;
+                case ">=":
+                    opcode = Opcode.GE;
+                    break;
+                default:
+                    throw error(call, "Unknown method '." + call.method + "()'");
+            }
+            if (call.args.size() != numArgs) {
+                throw error(call, "'." + call.method + "()' takes " + numArgs + " arguments but was given "
+                        + call.args.size());
+            }
+            expression(call.receiver);
+            arguments(call.args);
+            emit(opcode, call.line, -numArgs);
+        }
+
+        /**
+         * Compiles {@code x.++()} and {@code x.--()}, which change the variable they are called on and give its new
+         * value
+         */
+        private void increment(Node.MethodCall call) {
+            boolean up = call.method.equals("++");
+            if (!call.args.isEmpty()) {
+                throw error(call, "'." + call.method + "()' takes 0 arguments but was given " + call.args.size());
+            }
+            if (call.receiver instanceof Node.Name) {
+                String name = ((Node.Name) call.receiver).name;
+                Integer local = locals == null ? null : locals.get(name);
+                if (local != null) {
+                    emit(up ? Opcode.INC_LOCAL : Opcode.DEC_LOCAL, local, call.line, 1);
+                    return;
+                } else if (globals.containsKey(name)) {
+                    emit(up ? Opcode.INC_GLOBAL : Opcode.DEC_GLOBAL, globals.get(name), call.line, 1);
+                    return;
+                }
+            }
+            // a value that is not held by a variable is only added to
+            expression(call.receiver);
+            emit(Opcode.CONST, constant(1), call.line, 1);
+            emit(up ? Opcode.ADD : Opcode.SUB, call.line, -1);
+        }
+
+        private int constant(Object value) {
+            // functions are told apart by identity and literals by value, as 1 and 1.0 are not the same constant
+            Object key = value == null ? Void.TYPE : value instanceof CompiledFunction ? value
+                    : List.of(value.getClass(), value);
+            Integer slot = constantSlots.get(key);
+            if (slot == null) {
+                slot = constants.size();
+                constants.add(value);
+                constantSlots.put(key, slot);
+            }
+            return slot;
+        }
+
+        private int emit(int opcode, int line, int stackDelta) {
+            return emitCode(new int[]{opcode}, line, stackDelta);
+        }
+
+        private int emit(int opcode, int operand, int line, int stackDelta) {
+            return emitCode(new int[]{opcode, operand}, line, stackDelta);
+        }
+
+        private int emit(int opcode, int operand1, int operand2, int line, int stackDelta) {
+            return emitCode(new int[]{opcode, operand1, operand2}, line, stackDelta);
+        }
+
+        /**
+         * Appends an instruction with its operands
+         *
+         * @return position of the instruction
+         */
+        private int emitCode(int[] instruction, int line, int stackDelta) {
+            if (size + instruction.length > code.length) {
+                code = Arrays.copyOf(code, code.length * 2);
+                lines = Arrays.copyOf(lines, lines.length * 2);
+            }
+            int at = size;
+            for (int value : instruction) {
+                lines[size] = line;
+                code[size++] = value;
+            }
+            depth += stackDelta;
+            maxDepth = Math.max(maxDepth, depth);
+            return at;
+        }
+    }
+}
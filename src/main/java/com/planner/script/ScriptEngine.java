@@ -0,0 +1,134 @@
+package com.planner.script;
+
+import com.planner.io.IOProcessing;
+import com.planner.manager.ScheduleManager;
+import com.planner.util.Metrics;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Runs planner scripts ({@code .smpl}) against a {@link ScheduleManager}, reading the input of the script from a
+ * reader and writing its output to a stream. A script is parsed and compiled once by {@link Script}, after which
+ * its bytecode may be run any number of times, such as for a weekly planning run.
+ * <p>
+ * A script that includes {@code __LOG__} has its output written to {@code logs/scripter.log} once it ends, and one
+ * that includes {@code __HTML__} has it written to {@code data/html/<script>.html}. Scripts always run against the
+ * config of the session, which {@code set_config_attr()} changes without writing it to the profile, so
+ * {@code __CURR_CONFIG__} is accepted for older scripts but changes nothing.
+ *
+ * @author Andrew Roe
+ */
+public class ScriptEngine {
+
+    /** Directory of scripts named without a directory */
+    public static final String SCRIPTS_DIR = "data/scripts/";
+    /** Time taken by each run of a script */
+    private static final Metrics.Histogram SCRIPT_LATENCY = Metrics.histogram("script.run_ns");
+
+    private final ScheduleManager sm;
+    private final BufferedReader in;
+    private final PrintStream out;
+    /** Output of the running script, kept when it is logged */
+    private StringBuilder transcript;
+
+    /**
+     * Constructs a {@code ScriptEngine}
+     *
+     * @param sm planner the scripts operate on
+     * @param in input of the scripts, such as the console
+     * @param out output of the scripts
+     */
+    public ScriptEngine(ScheduleManager sm, BufferedReader in, PrintStream out) {
+        this.sm = sm;
+        this.in = in;
+        this.out = out;
+    }
+
+    /**
+     * Resolves the file of a script named by the user, which is looked up in {@value #SCRIPTS_DIR} unless it exists
+     * as given, and may omit its extension
+     *
+     * @param filename name of the script
+     * @return path of the script file
+     */
+    public static Path resolve(String filename) {
+        if (!filename.endsWith(Script.EXTENSION)) {
+            filename += Script.EXTENSION;
+        }
+        Path path = Paths.get(filename);
+        return Files.exists(path) ? path : Paths.get(SCRIPTS_DIR, filename);
+    }
+
+    /**
+     * Runs a compiled script to its end
+     *
+     * @param script script being run
+     * @throws IOException when the script cannot read input or write a file
+     * @throws ScriptException when a statement of the script fails, which stops the script
+     */
+    public void run(Script script) throws IOException {
+        long start = System.nanoTime();
+        boolean logged = script.getOptions().contains("__LOG__") || script.getOptions().contains("__HTML__");
+        transcript = logged ? new StringBuilder() : null;
+        try {
+            new Interpreter(script, new Builtins(this, sm)).run();
+        } finally {
+            out.flush();
+            SCRIPT_LATENCY.recordSince(start);
+            if (logged) {
+                writeTranscript(script);
+                transcript = null;
+            }
+        }
+    }
+
+    /**
+     * Writes the output of a script to the files of its {@code include} options
+     */
+    private void writeTranscript(Script script) throws IOException {
+        if (script.getOptions().contains("__LOG__")) {
+            IOProcessing.writeScripterLogToFile(transcript.toString());
+        }
+        if (script.getOptions().contains("__HTML__")) {
+            String text = transcript.toString().replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+            IOProcessing.writeScripterPage("<!DOCTYPE html>\n<html>\n<head><title>" + script.getName()
+                    + "</title></head>\n<body>\n<pre>\n" + text + "</pre>\n</body>\n</html>\n", script.getName());
+        }
+    }
+
+    /**
+     * Writes output of the running script
+     *
+     * @param text text being written
+     */
+    void write(CharSequence text) {
+        out.append(text);
+        if (transcript != null) {
+            transcript.append(text);
+        }
+    }
+
+    /**
+     * Reads a line of input for the running script, after writing a prompt
+     *
+     * @param prompt text written before reading, which may be empty
+     * @return line read, or <code>null</code> at the end of the input
+     * @throws IOException when the input cannot be read
+     */
+    String readLine(String prompt) throws IOException {
+        if (!prompt.isEmpty()) {
+            write(prompt);
+        }
+        out.flush();
+        String line = in.readLine();
+        if (transcript != null && line != null) {
+            transcript.append(line).append('\n');
+        }
+        return line;
+    }
+}
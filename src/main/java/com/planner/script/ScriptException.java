@@ -0,0 +1,48 @@
+package com.planner.script;
+
+/**
+ * Error of a planner script, while parsing, compiling or running it, located at a line of the script
+ *
+ * @author Andrew Roe
+ */
+public class ScriptException extends IllegalArgumentException {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Name of the script */
+    private final String scriptName;
+    /** Line of the error, starting at 1 */
+    private final int line;
+
+    /**
+     * Constructs a {@code ScriptException}
+     *
+     * @param scriptName name of the script
+     * @param line line of the error, starting at 1
+     * @param message description of the error
+     * @param cause error raised by the planner while running the line, or <code>null</code>
+     */
+    public ScriptException(String scriptName, int line, String message, Throwable cause) {
+        super(scriptName + ":" + line + ": " + message, cause);
+        this.scriptName = scriptName;
+        this.line = line;
+    }
+
+    /**
+     * Gets the name of the script that failed
+     *
+     * @return name of the script
+     */
+    public String getScriptName() {
+        return scriptName;
+    }
+
+    /**
+     * Gets the line of the script where the error occurred
+     *
+     * @return line of the error, starting at 1
+     */
+    public int getLine() {
+        return line;
+    }
+}
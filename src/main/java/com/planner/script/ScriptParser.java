@@ -0,0 +1,478 @@
+package com.planner.script;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the source of a planner script into a syntax tree. Statements are one per line and blocks are marked by
+ * indentation, as in:
+ * <pre>
+ * include: __CURR_CONFIG__, __LOG__
+ *
+ * # comment
+ * func count_down(x)
+ *   if (x.==(0))
+ *     return
+ *   println(x)
+ *   count_down(x.--())
+ *
+ * count_down(input_int("Start -> "))
+ * </pre>
+ * Lines may end with {@code \n}, {@code \r\n} or {@code \r}, and a tab indents to the next multiple of 4 columns.
+ *
+ * @author Andrew Roe
+ */
+final class ScriptParser {
+
+    /** Columns a tab indents to a multiple of */
+    private static final int TAB_WIDTH = 4;
+
+    /** Name of the script, for errors */
+    private final String scriptName;
+    /** Lines holding a statement */
+    private final List<Line> lines;
+    /** Index of the next line to be parsed */
+    private int pos;
+    /** Line being parsed by the expression reader */
+    private Line line;
+    /** Index of the next character of the line */
+    private int col;
+
+    private ScriptParser(String scriptName, List<Line> lines) {
+        this.scriptName = scriptName;
+        this.lines = lines;
+    }
+
+    /**
+     * Parses the statements of a script
+     *
+     * @param source source of the script
+     * @param scriptName name of the script, for errors
+     * @return top-level statements of the script
+     * @throws ScriptException when the script is not valid
+     */
+    static List<Node> parse(String source, String scriptName) {
+        ScriptParser parser = new ScriptParser(scriptName, splitLines(source, scriptName));
+        List<Node> statements = parser.parseBlock(0, false);
+        if (parser.pos < parser.lines.size()) {
+            throw parser.error(parser.lines.get(parser.pos), "Unexpected indentation");
+        }
+        return statements;
+    }
+
+    /**
+     * Splits a source into the lines holding a statement, without their comments and trailing whitespace
+     */
+    private static List<Line> splitLines(String source, String scriptName) {
+        List<Line> lines = new ArrayList<>();
+        int number = 1;
+        int start = 0;
+        int n = source.length();
+        while (start <= n) {
+            int end = start;
+            while (end < n && source.charAt(end) != '\n' && source.charAt(end) != '\r') {
+                end++;
+            }
+            String text = stripComment(source.substring(start, end), scriptName, number);
+            int indent = 0;
+            int i = 0;
+            while (i < text.length() && (text.charAt(i) == ' ' || text.charAt(i) == '\t')) {
+                indent = text.charAt(i) == '\t' ? (indent / TAB_WIDTH + 1) * TAB_WIDTH : indent + 1;
+                i++;
+            }
+            if (i < text.length()) {
+                lines.add(new Line(number, indent, text.substring(i)));
+            }
+            if (end < n && source.charAt(end) == '\r' && end + 1 < n && source.charAt(end + 1) == '\n') {
+                end++;
+            }
+            start = end + 1;
+            number++;
+        }
+        return lines;
+    }
+
+    /**
+     * Removes the comment and trailing whitespace of a line, where a comment starts with {@code #} outside a String
+     */
+    private static String stripComment(String text, String scriptName, int number) {
+        boolean inString = false;
+        int end = text.length();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (inString && c == '\\') {
+                i++;
+            } else if (c == '"') {
+                inString = !inString;
+            } else if (c == '#' && !inString) {
+                end = i;
+                break;
+            }
+        }
+        if (inString) {
+            throw new ScriptException(scriptName, number, "Strings must be closed by quotes.", null);
+        }
+        while (end > 0 && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        return text.substring(0, end);
+    }
+
+    /**
+     * Parses the statements indented by exactly a number of columns, until a line that is indented less
+     */
+    private List<Node> parseBlock(int indent, boolean inFunction) {
+        List<Node> statements = new ArrayList<>();
+        while (pos < lines.size() && lines.get(pos).indent >= indent) {
+            Line current = lines.get(pos);
+            if (current.indent > indent) {
+                throw error(current, "Unexpected indentation");
+            }
+            statements.add(parseStatement(current, inFunction));
+        }
+        return statements;
+    }
+
+    /**
+     * Parses the block following a {@code func}, {@code if}, {@code elif} or {@code else} line
+     */
+    private List<Node> parseBody(Line header, boolean inFunction) {
+        if (pos >= lines.size() || lines.get(pos).indent <= header.indent) {
+            throw error(header, "Expected an indented block");
+        }
+        return parseBlock(lines.get(pos).indent, inFunction);
+    }
+
+    private Node parseStatement(Line current, boolean inFunction) {
+        String text = current.text;
+        pos++;
+        if (startsWithWord(text, "func")) {
+            if (inFunction || current.indent > 0) {
+                throw error(current, "Functions can only be defined at the top level");
+            }
+            return parseFunc(current);
+        } else if (startsWithWord(text, "if")) {
+            return parseIf(current, inFunction);
+        } else if (startsWithWord(text, "elif") || startsWithWord(text, "else")) {
+            throw error(current, "'" + text.split("[ (]", 2)[0] + "' without a matching 'if'");
+        } else if (startsWithWord(text, "return")) {
+            if (!inFunction) {
+                throw error(current, "'return' outside of a function");
+            }
+            begin(current, "return".length());
+            Node value = atEnd() ? null : parseExpression();
+            end();
+            return new Node.Return(current.number, value);
+        } else if (text.startsWith("include:")) {
+            List<String> options = new ArrayList<>();
+            for (String option : text.substring("include:".length()).split(",")) {
+                if (!option.isBlank()) {
+                    options.add(option.trim());
+                }
+            }
+            return new Node.Include(current.number, options);
+        }
+        int colon = assignmentColon(text);
+        if (colon > 0) {
+            String name = text.substring(0, colon).trim();
+            begin(current, colon + 1);
+            Node value = parseExpression();
+            end();
+            return new Node.Assign(current.number, name, value);
+        }
+        begin(current, 0);
+        Node expr = parseExpression();
+        end();
+        return new Node.ExprStmt(current.number, expr);
+    }
+
+    private Node parseFunc(Line header) {
+        begin(header, "func".length());
+        skipSpaces();
+        String name = readIdentifier();
+        expect('(');
+        List<String> params = new ArrayList<>();
+        skipSpaces();
+        if (!tryConsume(')')) {
+            do {
+                skipSpaces();
+                String param = readIdentifier();
+                if (params.contains(param)) {
+                    throw error(header, "Duplicate parameter '" + param + "'");
+                }
+                params.add(param);
+                skipSpaces();
+            } while (tryConsume(','));
+            expect(')');
+        }
+        end();
+        return new Node.Func(header.number, name, params, parseBody(header, true));
+    }
+
+    private Node parseIf(Line header, boolean inFunction) {
+        List<Node> conditions = new ArrayList<>();
+        List<List<Node>> blocks = new ArrayList<>();
+        conditions.add(parseCondition(header, "if"));
+        blocks.add(parseBody(header, inFunction));
+        List<Node> elseBlock = null;
+        while (pos < lines.size() && lines.get(pos).indent == header.indent) {
+            Line next = lines.get(pos);
+            if (startsWithWord(next.text, "elif")) {
+                pos++;
+                conditions.add(parseCondition(next, "elif"));
+                blocks.add(parseBody(next, inFunction));
+            } else if (next.text.equals("else")) {
+                pos++;
+                elseBlock = parseBody(next, inFunction);
+                break;
+            } else {
+                break;
+            }
+        }
+        return new Node.If(header.number, conditions, blocks, elseBlock);
+    }
+
+    private Node parseCondition(Line header, String keyword) {
+        begin(header, keyword.length());
+        skipSpaces();
+        if (atEnd()) {
+            throw error(header, "Expected a condition after '" + keyword + "'");
+        }
+        Node condition = parseExpression();
+        end();
+        return condition;
+    }
+
+    /**
+     * Finds the colon of an assignment such as {@code name: value}
+     *
+     * @return index of the colon, or -1 if the line is not an assignment
+     */
+    private static int assignmentColon(String text) {
+        int i = 0;
+        if (text.isEmpty() || !isIdentifierStart(text.charAt(0))) return -1;
+        while (i < text.length() && isIdentifierPart(text.charAt(i))) {
+            i++;
+        }
+        while (i < text.length() && text.charAt(i) == ' ') {
+            i++;
+        }
+        return i < text.length() && text.charAt(i) == ':' ? i : -1;
+    }
+
+    private static boolean startsWithWord(String text, String word) {
+        return text.startsWith(word) && (text.length() == word.length() || !isIdentifierPart(text.charAt(word.length())));
+    }
+
+    /*
+     * Expressions, read character by character within a single line
+     */
+
+    private void begin(Line current, int from) {
+        line = current;
+        col = from;
+    }
+
+    private void end() {
+        skipSpaces();
+        if (!atEnd()) {
+            throw error(line, "Unexpected '" + line.text.substring(col) + "'");
+        }
+    }
+
+    private Node parseExpression() {
+        skipSpaces();
+        Node expr = parsePrimary();
+        while (true) {
+            skipSpaces();
+            if (!tryConsume('.')) {
+                return expr;
+            }
+            String method = readMethod();
+            expect('(');
+            expr = new Node.MethodCall(line.number, expr, method, parseArgs());
+        }
+    }
+
+    private Node parsePrimary() {
+        if (atEnd()) {
+            throw error(line, "Expected a value");
+        }
+        char c = line.text.charAt(col);
+        if (c == '"') {
+            return new Node.Literal(line.number, readString());
+        } else if (Character.isDigit(c) || (c == '-' && col + 1 < line.text.length()
+                && Character.isDigit(line.text.charAt(col + 1)))) {
+            return new Node.Literal(line.number, readNumber());
+        } else if (c == '(') {
+            col++;
+            Node inner = parseExpression();
+            skipSpaces();
+            expect(')');
+            return inner;
+        } else if (isIdentifierStart(c)) {
+            String name = readIdentifier();
+            if (name.equals("true") || name.equals("false")) {
+                return new Node.Literal(line.number, Boolean.valueOf(name));
+            }
+            skipSpaces();
+            if (tryConsume('(')) {
+                return new Node.Call(line.number, name, parseArgs());
+            }
+            return new Node.Name(line.number, name);
+        }
+        throw error(line, "Unexpected '" + c + "'");
+    }
+
+    /**
+     * Parses the arguments of a call, following its opening parenthesis
+     */
+    private List<Node> parseArgs() {
+        skipSpaces();
+        if (tryConsume(')')) {
+            return List.of();
+        }
+        List<Node> args = new ArrayList<>();
+        do {
+            args.add(parseExpression());
+            skipSpaces();
+        } while (tryConsume(','));
+        expect(')');
+        return args;
+    }
+
+    private String readString() {
+        StringBuilder sb = new StringBuilder();
+        col++;
+        while (col < line.text.length()) {
+            char c = line.text.charAt(col++);
+            if (c == '"') {
+                return sb.toString();
+            } else if (c == '\\' && col < line.text.length()) {
+                char escaped = line.text.charAt(col++);
+                switch (escaped) {
+                    case 'n':
+                        sb.append('\n');
+                        break;
+                    case 't':
+                        sb.append('\t');
+                        break;
+                    default:
+                        sb.append(escaped);
+                        break;
+                }
+            } else {
+                sb.append(c);
+            }
+        }
+        throw error(line, "Strings must be closed by quotes.");
+    }
+
+    private Object readNumber() {
+        int start = col;
+        if (line.text.charAt(col) == '-') {
+            col++;
+        }
+        while (col < line.text.length() && Character.isDigit(line.text.charAt(col))) {
+            col++;
+        }
+        // a '.' only continues the number when followed by a digit, as in 1.5 but not 1.++()
+        boolean decimal = col + 1 < line.text.length() && line.text.charAt(col) == '.'
+                && Character.isDigit(line.text.charAt(col + 1));
+        if (decimal) {
+            col++;
+            while (col < line.text.length() && Character.isDigit(line.text.charAt(col))) {
+                col++;
+            }
+        }
+        String number = line.text.substring(start, col);
+        try {
+            return decimal ? (Object) Double.valueOf(number) : (Object) Integer.valueOf(number);
+        } catch (NumberFormatException e) {
+            throw error(line, "Invalid number " + number);
+        }
+    }
+
+    private String readIdentifier() {
+        if (atEnd() || !isIdentifierStart(line.text.charAt(col))) {
+            throw error(line, "Expected a name");
+        }
+        int start = col;
+        while (col < line.text.length() && isIdentifierPart(line.text.charAt(col))) {
+            col++;
+        }
+        return line.text.substring(start, col);
+    }
+
+    /**
+     * Reads the name of a method, which is either an identifier or an operator such as {@code ==} or {@code ++}
+     */
+    private String readMethod() {
+        if (!atEnd() && isIdentifierStart(line.text.charAt(col))) {
+            return readIdentifier();
+        }
+        int start = col;
+        while (col < line.text.length() && "=!<>+-*/%".indexOf(line.text.charAt(col)) >= 0) {
+            col++;
+        }
+        if (start == col) {
+            throw error(line, "Expected a method after '.'");
+        }
+        return line.text.substring(start, col);
+    }
+
+    private void skipSpaces() {
+        while (col < line.text.length() && (line.text.charAt(col) == ' ' || line.text.charAt(col) == '\t')) {
+            col++;
+        }
+    }
+
+    private boolean atEnd() {
+        return col >= line.text.length();
+    }
+
+    private boolean tryConsume(char c) {
+        if (col < line.text.length() && line.text.charAt(col) == c) {
+            col++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char c) {
+        skipSpaces();
+        if (!tryConsume(c)) {
+            throw error(line, "Expected '" + c + "'");
+        }
+    }
+
+    private static boolean isIdentifierStart(char c) {
+        return Character.isLetter(c) || c == '_';
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    private ScriptException error(Line at, String message) {
+        return new ScriptException(scriptName, at.number, message, null);
+    }
+
+    /**
+     * Line of the script holding a statement
+     */
+    private static final class Line {
+        /** Number of the line, starting at 1 */
+        private final int number;
+        /** Columns of indentation */
+        private final int indent;
+        /** Text after the indentation, without its comment */
+        private final String text;
+
+        private Line(int number, int indent, String text) {
+            this.number = number;
+            this.indent = indent;
+            this.text = text;
+        }
+    }
+}
@@ -2,17 +2,109 @@ package com.planner.ui;
 
 import com.planner.manager.ScheduleManager;
 import com.planner.models.Card;
+import com.planner.models.UserConfig;
+import com.planner.script.Script;
+import com.planner.script.ScriptEngine;
+import com.planner.ui.tables.TableView;
+import com.planner.util.CommandLine;
+import com.planner.util.Metrics;
 import com.planner.util.Parser;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.IOException;
-import java.util.Scanner;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 
 public class CLI {
+    /** Snapshot of the planner state and schedule, resumed on startup and saved on quit */
+    private static final String SNAPSHOT_FILE = "data/snapshot.bin";
+    /** Journal of every edit since the snapshot, replayed on startup and compacted into the snapshot on quit */
+    private static final String JOURNAL_FILE = "data/journal.bin";
+    /** Rolling log file receiving the EventLog of the session */
+    private static final String LOG_FILE = "logs/system.log";
+    /** Machine-readable dump of all metrics, written next to the log file */
+    private static final String METRICS_FILE = "logs/metrics.json";
+    // buffers tables on their way to the console instead of building them as a single String first
+    private final Writer out = new BufferedWriter(new OutputStreamWriter(System.out), 1 << 16);
     // this will hold the ScheduleManager instance
     private ScheduleManager sm;
+    // whether edits are journaled (false when the session had to start empty)
+    private boolean journaled;
+    /** Whether an unreadable snapshot could not be moved aside, in which case the session is never saved over it */
+    private boolean saveBlocked;
+    // whether commands come from a file or pipe, which suppresses prompts and confirmations and defers builds
+    private final boolean batch;
+    // whether a build was requested during a batch and has not run yet
+    private boolean buildPending;
+    // reader of the commands, which scripts run by the 'script' command also read their input from
+    private BufferedReader in;
+    /** Tokens of the command being run, scanned in place and reused for every line */
+    private final CommandLine tokens = new CommandLine();
 
     public CLI() {
-        sm = new ScheduleManager();
+        this(false);
+    }
+
+    /**
+     * Constructs a CLI resuming the last session
+     *
+     * @param batch whether commands are read from a file or pipe by {@link #runBatch(BufferedReader)} instead of
+     *              typed at a prompt
+     */
+    public CLI(boolean batch) {
+        this(batch, null);
+    }
+
+    /**
+     * Constructs a CLI resuming the last session with settings that were already read, so that startup reads
+     * {@code settings/profile.json} only once
+     *
+     * @param batch whether commands are read from a file or pipe by {@link #runBatch(BufferedReader)} instead of
+     *              typed at a prompt
+     * @param userConfig user settings, or <code>null</code> to read them from {@code settings/profile.json}
+     */
+    public CLI(boolean batch, UserConfig userConfig) {
+        this.batch = batch;
+        sm = new ScheduleManager(userConfig);
+        try {
+            sm.loadSnapshot(SNAPSHOT_FILE);
+        } catch (IllegalArgumentException e) {
+            // the session starts empty, and the stale or corrupted snapshot is kept rather than replaced on quit
+            sm = new ScheduleManager(userConfig);
+            System.out.println("Error: " + e.getMessage());
+            saveBlocked = !setAside(SNAPSHOT_FILE);
+        }
+        if (!saveBlocked) {
+            try {
+                sm.openJournal(JOURNAL_FILE, SNAPSHOT_FILE);
+                journaled = true;
+            } catch (IllegalArgumentException e) {
+                System.out.println("Error: " + e.getMessage());
+                // resumes the snapshot again without the records replayed before the failure, and keeps the
+                // journal for recovery rather than failing on it at every startup
+                sm = new ScheduleManager(userConfig);
+                sm.loadSnapshot(SNAPSHOT_FILE);
+                if (setAside(JOURNAL_FILE)) {
+                    try {
+                        sm.openJournal(JOURNAL_FILE, SNAPSHOT_FILE);
+                        journaled = true;
+                    } catch (IllegalArgumentException f) {
+                        System.out.println("Error: " + f.getMessage());
+                    }
+                }
+            }
+        }
+        try {
+            sm.getEventLog().openFile(Paths.get(LOG_FILE));
+        } catch (IOException e) {
+            System.out.println("Error: Was unable to open " + LOG_FILE);
+        }
     }
     /*
     List of supported commands:
@@ -42,13 +134,13 @@ public class CLI {
      */
 
     public void loop() throws IOException {
-        Scanner scanner = new Scanner(System.in);
+        in = new BufferedReader(new InputStreamReader(System.in));
         System.out.print("> ");
-        while (scanner.hasNextLine()) {
-            String s = scanner.nextLine();
+        String s;
+        while ((s = in.readLine()) != null) {
             try {
-                String[] tokens = Parser.tokenize(s);
-                if (tokens.length > 0) {
+                tokens.scan(s);
+                if (tokens.size() > 0) {
                     // determine type of operation to compute
                     exeCmd(tokens);
                 }
@@ -59,52 +151,137 @@ public class CLI {
         }
     }
 
-    private void exeCmd(String[] tokens) throws IOException {
-        switch (tokens[0].toLowerCase()) {
+    /**
+     * Runs every command of a batch without prompts, such as a file generated by another system. Confirmations are
+     * not printed, the output of queries is buffered, and builds are deferred until the schedule is next read or the
+     * batch ends, so that loading many Tasks costs a single build. An error is reported with its line number and does
+     * not stop the batch. The session is saved once the input ends or a {@code quit} command is read.
+     *
+     * @param in reader of the commands, one per line
+     * @return number of commands that failed
+     * @throws IOException when the commands cannot be read or the output cannot be written
+     */
+    public int runBatch(BufferedReader in) throws IOException {
+        this.in = in;
+        long start = System.nanoTime();
+        int lineNum = 0;
+        int numCommands = 0;
+        int numErrors = 0;
+        String line;
+        while ((line = in.readLine()) != null) {
+            lineNum++;
+            try {
+                tokens.scan(line);
+                if (tokens.size() > 0) {
+                    if (tokens.is(0, "quit")) break;
+                    if (buildPending && !isEdit(tokens)) {
+                        runPendingBuild();
+                    }
+                    numCommands++;
+                    exeCmd(tokens);
+                }
+            } catch (Exception e) {
+                numErrors++;
+                System.err.println("Error: line " + lineNum + ": " + e.getMessage());
+            }
+            // shows the output so far whenever the input stalls, so a pipe fed by hand still answers each command
+            if (!in.ready()) {
+                out.flush();
+            }
+        }
+        try {
+            if (buildPending) {
+                runPendingBuild();
+            }
+        } catch (Exception e) {
+            numErrors++;
+            System.err.println("Error: build: " + e.getMessage());
+        }
+        out.flush();
+        System.err.printf("Ran %d commands with %d errors in %d ms%n", numCommands, numErrors,
+                (System.nanoTime() - start) / 1_000_000);
+        saveSession();
+        sm.close();
+        return numErrors;
+    }
+
+    /**
+     * Determines whether a command only edits the planner, and so can run before a deferred build
+     *
+     * @param tokens tokens of the command
+     * @return boolean value for whether the command neither reads nor exports the schedule
+     */
+    private static boolean isEdit(CommandLine tokens) {
+        switch (tokens.get(0).toLowerCase()) {
+            case "task":
+                return tokens.size() > 1 && !tokens.startsWith(1, "--");
+            case "card":
+            case "event":
+                return tokens.size() > 1;
+            case "mod":
+            case "build":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Runs the build deferred by a batch
+     */
+    private void runPendingBuild() {
+        buildPending = false;
+        if (sm.getNumActiveTasks() > 0) {
+            sm.buildSchedule();
+        }
+    }
+
+    private void exeCmd(CommandLine tokens) throws IOException {
+        switch (tokens.get(0).toLowerCase()) {
             case "clear":
-                if (tokens.length == 1) {
-                    Screen.clearScreen();
+                if (tokens.size() == 1) {
+                    if (!batch) {
+                        Screen.clearScreen();
+                    }
                 } else {
                     throw new IllegalArgumentException("'clear' has no args.");
                 }
                 break;
             case "task":
-                if (tokens.length > 1) {
+                if (tokens.size() > 1 && !tokens.startsWith(1, "--")) {
                     Parser.TaskInfo ti = Parser.parseTask(tokens);
                     sm.addTask(ti.getDesc(), ti.getHours(), ti.getDue(), ti.getCardId());
                 } else {
-                    System.out.println(sm.buildTaskStr());
+                    sm.writeTaskStr(out, Parser.parseView(tokens));
+                    flushLine();
                 }
                 break;
             case "subtask":
-                if (tokens.length == 1) {
-                    System.out.println(sm.buildSubTaskStr());
-                } else {
-                    throw new IllegalArgumentException("'subtask' has no args.");
-                }
+                sm.writeSubTaskStr(out, Parser.parseView(tokens));
+                flushLine();
                 break;
             case "event":
-                if (tokens.length > 1) {
+                if (tokens.size() > 1) {
                     // TODO
                 } else {
-                    System.out.println(sm.buildEventStr());
+                    println(sm.buildEventStr());
                 }
                 break;
             case "card":
-                if (tokens.length > 1) {
+                if (tokens.size() > 1) {
                     // need to add card
                     Parser.CardInfo ci = Parser.parseCard(tokens);
                     Card c = sm.addCard(ci.getName(), ci.getColor());
-                    System.out.println("Added Card " + c.getId() + ".");
+                    report("Added Card " + c.getId() + ".");
                 } else {
-                    System.out.println(sm.buildCardStr());
+                    println(sm.buildCardStr());
                 }
                 break;
             case "mod":
-                if (tokens.length < 4) {
+                if (tokens.size() < 4) {
                     throw new IllegalArgumentException("Invalid mod operation provided.");
                 }
-                switch (tokens[1]) {
+                switch (tokens.get(1)) {
                     case "card":
                         Parser.CardInfo ci = Parser.parseModCard(tokens);
                         sm.modCard(ci.getId(), ci.getName(), ci.getColor());
@@ -119,26 +296,28 @@ public class CLI {
                         throw new IllegalArgumentException("Invalid type provided for mod.");
                 }
             case "jbin":
-                if (tokens.length == 2) {
-                    if (tokens[1].contains(".jbin")) {
-                        sm.importJBinFile("data/jbin/" + tokens[1]);
-                        System.out.println("Imported " + tokens[1] + ".");
+                if (tokens.size() == 2) {
+                    if (tokens.get(1).contains(".jbin")) {
+                        sm.importJBinFile("data/jbin/" + tokens.get(1));
+                        report("Imported " + tokens.get(1) + ".");
                     } else {
                         throw new IllegalArgumentException("Argument must be a jbin file");
                     }
-                } else if (tokens.length == 1) {
+                } else if (tokens.size() == 1) {
 //                    System.out.println(sm.buildBoardString());
                 }
                 break;
             case "update":
-                if (tokens.length == 1) {
+                if (tokens.size() == 1) {
                     // TODO
                 } else {
                     throw new IllegalArgumentException("'update' has no args.");
                 }
                 break;
             case "config":
-                if (tokens.length == 1) {
+                if (batch) {
+                    throw new IllegalArgumentException("'config' is not available in batch mode.");
+                } else if (tokens.size() == 1) {
                     ConfigDialog configDialog = new ConfigDialog();
                     configDialog.setupAndDisplayPage();
                 } else {
@@ -146,53 +325,74 @@ public class CLI {
                 }
                 break;
             case "log":
-                if (tokens.length == 1) {
-                    System.out.println(sm.getEventLog().toString());
+                if (tokens.size() == 1) {
+                    println(sm.getEventLog().toString());
                 } else {
                     throw new IllegalArgumentException("'log' has no args.");
                 }
                 break;
+            case "stats":
+                if (tokens.size() == 1) {
+                    println(Metrics.buildMetricsStr());
+                    writeMetrics();
+                } else {
+                    throw new IllegalArgumentException("'stats' has no args.");
+                }
+                break;
             case "build":
-                if (tokens.length == 1) {
-                    // check the number of active tasks
-                    if (sm.getNumActiveTasks() > 0) {
+                if (tokens.size() == 1) {
+                    if (batch) {
+                        // runs once the schedule is next read, however many Tasks are added until then
+                        buildPending = true;
+                    } else if (sm.getNumActiveTasks() > 0) {
+                        // check the number of active tasks
                         sm.buildSchedule();
-                        System.out.println("Schedule built...");
+                        println("Schedule built...");
                     } else {
-                        System.out.println("No active Tasks to schedule");
+                        println("No active Tasks to schedule");
                     }
                 } else {
                     throw new IllegalArgumentException("'build' has no args.");
                 }
                 break;
             case "sched":
-                if (tokens.length != 1) {
-                    throw new IllegalArgumentException("'sched' has no args.");
-                } else if (sm.scheduleIsEmpty()) {
-                    System.out.println("Schedule is empty...");
+                TableView view = Parser.parseView(tokens);
+                if (sm.scheduleIsEmpty()) {
+                    println("Schedule is empty...");
                 } else {
-                    System.out.println(sm.buildScheduleStr());
+                    sm.writeScheduleStr(out, view);
+                    flushLine();
                 }
                 break;
             case "report":
-                if (tokens.length == 1) {
-                    System.out.println(sm.buildReportStr());
+                if (tokens.size() == 1) {
+                    sm.writeReportStr(out);
+                    flushLine();
                 } else {
                     throw new IllegalArgumentException("'report' has no args.");
                 }
                 break;
 //            case "google":
-//                if (tokens.length == 1) {
+//                if (tokens.size() == 1) {
 //                    sm.exportScheduleToGoogle();
 //                    System.out.println("Exported schedule to Google Calendar.");
 //                } else {
 //                    System.out.println("Error: 'google' has no args.");
 //                }
 //                break;
+            case "script":
+                if (tokens.size() == 2) {
+                    out.flush();
+                    Script script = Script.read(ScriptEngine.resolve(tokens.get(1)));
+                    new ScriptEngine(sm, in, System.out).run(script);
+                } else {
+                    throw new IllegalArgumentException("'script' takes the name of a script.");
+                }
+                break;
             case "excel":
             case "ls":
-                if (tokens.length == 1) {
-                    System.out.println("task\n" +
+                if (tokens.size() == 1) {
+                    println("task\n" +
                             "subtask\n" +
                             "card\n" +
                             "event\n" +
@@ -203,7 +403,9 @@ public class CLI {
                             "jbin\n" +
                             "update\n" +
                             "log\n" +
+                            "stats\n" +
                             "report\n" +
+                            "script\n" +
                             "google\n" +
                             "excel\n" +
                             "doc\n" +
@@ -211,74 +413,80 @@ public class CLI {
                 }
                 break;
             case "doc":
-                if (tokens.length > 2) {
+                if (tokens.size() > 2) {
                     throw new IllegalArgumentException("'report' can have only 1 or no args.");
-                } else if (tokens.length == 1) {
-                    System.out.println("\n" + Doc.getDoc() + "\n");
+                } else if (tokens.size() == 1) {
+                    println("\n" + Doc.getDoc() + "\n");
                 } else {
-                    switch (tokens[1].toLowerCase()) {
+                    switch (tokens.get(1).toLowerCase()) {
                         case "task":
-                            System.out.println("\n" + Doc.getTaskDoc() + "\n");
+                            println("\n" + Doc.getTaskDoc() + "\n");
                             break;
                         case "card":
-                            System.out.println("\n" + Doc.getCardDoc() + "\n");
+                            println("\n" + Doc.getCardDoc() + "\n");
                             break;
                         case "event":
-                            System.out.println("\n" + Doc.getEventDoc() + "\n");
+                            println("\n" + Doc.getEventDoc() + "\n");
                             break;
                         case "subtask":
-                            System.out.println("\n" + Doc.getSubtaskDoc() + "\n");
+                            println("\n" + Doc.getSubtaskDoc() + "\n");
                             break;
                         case "build":
-                            System.out.println("\n" + Doc.getBuildDoc() + "\n");
+                            println("\n" + Doc.getBuildDoc() + "\n");
                             break;
                         case "sched":
-                            System.out.println("\n" + Doc.getSchedDoc() + "\n");
+                            println("\n" + Doc.getSchedDoc() + "\n");
                             break;
                         case "config":
-                            System.out.println("\n" + Doc.getConfigDoc() + "\n");
+                            println("\n" + Doc.getConfigDoc() + "\n");
                             break;
                         case "log":
-                            System.out.println("\n" + Doc.getLogDoc() + "\n");
+                            println("\n" + Doc.getLogDoc() + "\n");
+                            break;
+                        case "stats":
+                            println("\n" + Doc.getStatsDoc() + "\n");
                             break;
                         case "quit":
-                            System.out.println("\n" + Doc.getQuitDoc() + "\n");
+                            println("\n" + Doc.getQuitDoc() + "\n");
                             break;
                         case "date":
-                            System.out.println("\n" + Doc.getDateDoc() + "\n");
+                            println("\n" + Doc.getDateDoc() + "\n");
                             break;
                         case "color":
-                            System.out.println("\n" + Doc.getColorDoc() + "\n");
+                            println("\n" + Doc.getColorDoc() + "\n");
                             break;
                         case "ts":
-                            System.out.println("\n" + Doc.getTimestampDoc() + "\n");
+                            println("\n" + Doc.getTimestampDoc() + "\n");
                             break;
                         case "google":
-                            System.out.println("\n" + Doc.getGoogleDoc() + "\n");
+                            println("\n" + Doc.getGoogleDoc() + "\n");
                             break;
                         case "excel":
-                            System.out.println("\n" + Doc.getExcelDoc() + "\n");
+                            println("\n" + Doc.getExcelDoc() + "\n");
                             break;
                         case "json":
-                            System.out.println("\n" + Doc.getJsonDoc() + "\n");
+                            println("\n" + Doc.getJsonDoc() + "\n");
                             break;
                         case "ls":
-                            System.out.println("\n" + Doc.getLsDoc() + "\n");
+                            println("\n" + Doc.getLsDoc() + "\n");
                             break;
                         case "read":
-                            System.out.println("\n" + Doc.getReadDoc() + "\n");
+                            println("\n" + Doc.getReadDoc() + "\n");
                             break;
                         case "save":
-                            System.out.println("\n" + Doc.getSaveDoc() + "\n");
+                            println("\n" + Doc.getSaveDoc() + "\n");
                             break;
                         case "mod":
-                            System.out.println("\n" + Doc.getModDoc() + "\n");
+                            println("\n" + Doc.getModDoc() + "\n");
                             break;
                         case "delete":
-                            System.out.println("\n" + Doc.getDeleteDoc() + "\n");
+                            println("\n" + Doc.getDeleteDoc() + "\n");
+                            break;
+                        case "script":
+                            println("\n" + Doc.getScriptDoc() + "\n");
                             break;
                         default:
-                            System.out.println("Unknown command. Use 'ls' to list all available commands.");
+                            println("Unknown command. Use 'ls' to list all available commands.");
                             break;
                     }
                 }
@@ -286,9 +494,94 @@ public class CLI {
             case "tutorial":
             case "quit":
                 // todo need to keep track of any changes (and if so, prompt user to update)
+                saveSession();
                 sm.quit();
             default:
                 throw new IllegalArgumentException("Unknown command entered.");
         }
     }
+
+    /**
+     * Ends the output written to the console buffer with a line break, and flushes it unless running a batch
+     *
+     * @throws IOException when the console cannot be written
+     */
+    private void flushLine() throws IOException {
+        out.write(System.lineSeparator());
+        if (!batch) {
+            out.flush();
+        }
+    }
+
+    /**
+     * Writes a line of output to the console buffer, and flushes it unless running a batch
+     *
+     * @param line output of a command
+     * @throws IOException when the console cannot be written
+     */
+    private void println(String line) throws IOException {
+        out.write(line);
+        flushLine();
+    }
+
+    /**
+     * Writes a confirmation that a command succeeded, which is left out of a batch
+     *
+     * @param line confirmation of a command
+     * @throws IOException when the console cannot be written
+     */
+    private void report(String line) throws IOException {
+        if (!batch) {
+            println(line);
+        }
+    }
+
+    /**
+     * Saves the session for the next startup, either by compacting the journal into the snapshot or by writing the
+     * snapshot when edits were not journaled
+     *
+     * @throws IOException when the console cannot be written
+     */
+    private void saveSession() throws IOException {
+        out.flush();
+        if (saveBlocked) {
+            System.out.println("Error: Session was not saved, since " + SNAPSHOT_FILE + " could not be read");
+        } else if (journaled) {
+            sm.closeJournal();
+        } else {
+            sm.saveSnapshot(SNAPSHOT_FILE);
+        }
+        writeMetrics();
+    }
+
+    /**
+     * Moves a file that could not be read to a {@code .corrupt} file next to it, so that it can still be recovered
+     * once the session replaces it
+     *
+     * @param filename file that could not be read
+     * @return boolean value for whether the file was moved
+     */
+    private static boolean setAside(String filename) {
+        Path path = Paths.get(filename);
+        Path aside = path.resolveSibling(path.getFileName() + ".corrupt");
+        try {
+            Files.move(path, aside, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Moved " + filename + " to " + aside);
+            return true;
+        } catch (IOException e) {
+            System.out.println("Error: Was unable to move " + filename + " aside");
+            return false;
+        }
+    }
+
+    /**
+     * Writes the dump of all metrics, reporting rather than throwing when the file cannot be written
+     */
+    private void writeMetrics() {
+        try {
+            Metrics.writeDump(Paths.get(METRICS_FILE));
+        } catch (IOException e) {
+            System.out.println("Error: Was unable to write " + METRICS_FILE);
+        }
+    }
 }
@@ -15,7 +15,8 @@ public class Doc {
                 "  - build     Builds a fresh schedule\n" +
                 "  - sched     Display user schedule\n" +
                 "  - subtask   Displays all scheduled SubTasks\n" +
-                "  - report    Produce a report of all schedule data\n\n" +
+                "  - report    Produce a report of all schedule data\n" +
+                "  - script    Run a planner script (.smpl)\n\n" +
                 "File Management:\n" +
                 "  - read      Display all serialization files or read in a file\n" +
                 "  - save      Update the stored db with new scheduling data\n" +
@@ -27,6 +28,7 @@ public class Doc {
                 "System and Configuration:\n" +
                 "  - config    View or modify user config settings\n" +
                 "  - log       Display the system log to console\n" +
+                "  - stats     Display performance metrics of the session\n" +
                 "  - quit      Exit application\n\n" +
                 "References:\n" +
                 "  - date      List of all valid date formats\n" +
@@ -38,6 +40,7 @@ public class Doc {
         return "Creates a new Task to be stored by the system or displays all previously created Task data if no arguments are provided. Tasks are assignments that can be broken up over a series of days until their deadline.\n\n" +
                 "Usage:\n" +
                 "  task\n" +
+                "  task [view options]\n" +
                 "  task [args]\n\n" +
                 "Required:\n" +
                 "  - name    Name for the created Task (whitespace only is not permitted, quotes required).\n" +
@@ -45,8 +48,14 @@ public class Doc {
                 "  - date    Due date so the scheduling platform can assign it appropriate days.\n\n" +
                 "Optional:\n" +
                 "  - cardId  Id referencing a Card for its tag and color.\n\n" +
+                "View Options:\n" +
+                "  --from [date]   First due date to display.\n" +
+                "  --to [date]     Last due date to display.\n" +
+                "  --page [num]    Page to display, starting at 1 (pages hold 20 Tasks unless a size is given).\n" +
+                "  --size [num]    Number of Tasks per page.\n\n" +
                 "Examples:\n" +
                 "  task\n" +
+                "  task --from tmrw --to eow\n" +
                 "  task \"finish hw3\" 3.5 @ eow\n" +
                 "  task +C2 @ 01-11-2024 6.0 \"prep for exam\"";
     }
@@ -54,9 +63,16 @@ public class Doc {
     public static String getSubtaskDoc() {
         return "Displays all generated SubTask data created by the 'build' command. SubTasks are subcomponents and reference their parent Tasks for name, hours, due date, and card for relevant info.\n\n" +
                 "Usage:\n" +
-                "  subtask\n\n" +
+                "  subtask\n" +
+                "  subtask [view options]\n\n" +
+                "View Options:\n" +
+                "  --from [date]   First scheduled date to display.\n" +
+                "  --to [date]     Last scheduled date to display.\n" +
+                "  --page [num]    Page to display, starting at 1 (pages hold 20 SubTasks unless a size is given).\n" +
+                "  --size [num]    Number of SubTasks per page.\n\n" +
                 "Examples:\n" +
-                "  subtask";
+                "  subtask\n" +
+                "  subtask --page 2 --size 50";
     }
 
     public static String getCardDoc() {
@@ -103,9 +119,17 @@ public class Doc {
     public static String getSchedDoc() {
         return "Displays a schedule chart of all scheduled SubTasks and Events throughout the upcoming weeks.\n\n" +
                 "Usage:\n" +
-                "  sched\n\n" +
+                "  sched\n" +
+                "  sched [view options]\n\n" +
+                "View Options:\n" +
+                "  --from [date]   First scheduled date to display.\n" +
+                "  --to [date]     Last scheduled date to display.\n" +
+                "  --page [num]    Page to display, starting at 1 (pages hold 20 days unless a size is given).\n" +
+                "  --size [num]    Number of days per page.\n\n" +
                 "Examples:\n" +
-                "  sched";
+                "  sched\n" +
+                "  sched --from 01-11-2024 --to 30-11-2024\n" +
+                "  sched --page 2 --size 7";
     }
 
     public static String getConfigDoc() {
@@ -124,8 +148,16 @@ public class Doc {
                 "  log";
     }
 
+    public static String getStatsDoc() {
+        return "Displays counters and latency percentiles of scheduling, config loading and exports recorded during the session, and writes them to logs/metrics.json.\n\n" +
+                "Usage:\n" +
+                "  stats\n\n" +
+                "Examples:\n" +
+                "  stats";
+    }
+
     public static String getQuitDoc() {
-        return "Exits the application, prompts to save if any changes were made, and stores the system.log.\n\n" +
+        return "Exits the application, prompts to save if any changes were made, and stores the system.log and metrics.json.\n\n" +
                 "Usage:\n" +
                 "  quit\n\n" +
                 "Examples:\n" +
@@ -271,4 +303,14 @@ public class Doc {
                 "  delete card 4 5\n" +
                 "  delete event 6";
     }
+
+    public static String getScriptDoc() {
+        return "Runs a planner script from the data/scripts folder, or from the path given. Scripts call functions " +
+                "such as import_schedule, task, build and display_schedule, and read their input from the console.\n\n" +
+                "Usage:\n" +
+                "  script [file]\n\n" +
+                "Examples:\n" +
+                "  script build\n" +
+                "  script data/scripts/task-mgmt.smpl";
+    }
 }
@@ -11,8 +11,10 @@ public class Screen {
                 // Windows
                 processBuilder = new ProcessBuilder("cmd", "/c", "cls");
             } else {
-                // Unix-based (Linux/macOS)
-                processBuilder = new ProcessBuilder("clear");
+                // Unix-based (Linux/macOS) terminals clear on an ANSI escape, which saves spawning 'clear'
+                System.out.print("\033[H\033[2J");
+                System.out.flush();
+                return;
             }
 
             // Start the process and wait for it to complete
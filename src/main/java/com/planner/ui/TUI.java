@@ -2,138 +2,201 @@ package com.planner.ui;
 
 import com.planner.models.UserConfig;
 import com.planner.util.JsonHandler;
+import com.planner.util.Metrics;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.reflect.Method;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.text.SimpleDateFormat;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Arrays;
 import java.util.Calendar;
-
-import static java.lang.Thread.sleep;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
 public class TUI {
 
-    private void sessionStartUp() throws InterruptedException {
+    /** User settings read at startup */
+    private static final String PROFILE_FILE = "settings/profile.json";
+    /** Time from the launch of the JVM until the first prompt */
+    private static final Metrics.Histogram STARTUP_LATENCY = Metrics.histogram("session.startup_ns");
+
+    private void sessionStartUp(UserConfig userConfig, String sysInfo) {
+        StringBuilder sb = new StringBuilder(2048);
         // Welcome and basic info
-        System.out.println("#############################################################\n" +
+        sb.append("#############################################################\n" +
                 "#             Welcome to Agile Planner 0.7.0!              #\n" +
                 "#                  Scheduling Made Simple                   #\n" +
-                "#############################################################\n");
+                "#############################################################\n\n");
 
         SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-        System.out.println("Application Version: 0.7.0");
-        sleep(1000);
-        System.out.println("Current Date and Time: " + sdf.format(Calendar.getInstance().getTime()));
+        sb.append("Application Version: 0.7.0\n");
+        sb.append("Current Date and Time: ").append(sdf.format(Calendar.getInstance().getTime())).append('\n');
 
         // Config and System Info
-        try {
-            // Get Java version
-            String javaVersionCommand = "java -version";
-            String javaVersion = executeCommand(javaVersionCommand);
-            UserConfig userConfig = JsonHandler.readUserConfig(Files.readString(Paths.get("settings/profile.json")));
-            String sysInfo = getSystemInfo();
-
-            System.out.println(
-                    "Configuration Details:\n" +
-                            "    - Config File: profile.json\n" +
-                            "    - Mode: Production\n" +
-                            "    - Range: " + Arrays.toString(userConfig.getDailyHoursRange()) + "\n" +
-                            "    - Week Hours: " + Arrays.toString(userConfig.getHoursPerDayOfWeek()) + "\n" +
-                            "    - Max Days: " + userConfig.getMaxDays() + "\n" +
-                            "    - Archive Days: " + userConfig.getArchiveDays() + "\n" +
-                            "    - Priority Scheduling: " + userConfig.isPriority() + "\n" +
-                            "    - Overflow Handling: " + userConfig.isOverflow() + "\n" +
-                            "    - Fit Day Schedule: " + userConfig.isFitDay() + "\n" +
-                            "    - Scheduling Algorithm: " + userConfig.getSchedulingAlgorithm() + "\n" +
-                            "    - Minimum Task Duration: " + userConfig.getMinHours() + "\n"
-            );
-        } catch (IOException | InterruptedException e) {
-            throw new IllegalArgumentException("Could not properly set up config for session");
-        }
-//        sleep(500);
+        sb.append("Configuration Details:\n" +
+                "    - Config File: profile.json\n" +
+                "    - Mode: Production\n" +
+                "    - Range: " + Arrays.toString(userConfig.getDailyHoursRange()) + "\n" +
+                "    - Week Hours: " + Arrays.toString(userConfig.getHoursPerDayOfWeek()) + "\n" +
+                "    - Max Days: " + userConfig.getMaxDays() + "\n" +
+                "    - Archive Days: " + userConfig.getArchiveDays() + "\n" +
+                "    - Priority Scheduling: " + userConfig.isPriority() + "\n" +
+                "    - Overflow Handling: " + userConfig.isOverflow() + "\n" +
+                "    - Fit Day Schedule: " + userConfig.isFitDay() + "\n" +
+                "    - Scheduling Algorithm: " + userConfig.getSchedulingAlgorithm() + "\n" +
+                "    - Minimum Task Duration: " + userConfig.getMinHours() + "\n\n");
+        sb.append(sysInfo).append('\n');
 
         // Logs and warnings/alerts
-        System.out.println(
-                "Logs:\n" +
-                        "    - System Log: logs/system.log\n" +
-                        "    - Scripter Log: logs/scripter.log\n" +
-                        "" +
-                        "Warnings or Alerts:\n" +
-                        "    - No alerts at this time. Check logs/system.log for future warnings.\n"
-        );
-        sleep(1000);
+        sb.append("Logs:\n" +
+                "    - System Log: logs/system.log\n" +
+                "    - Scripter Log: logs/scripter.log\n" +
+                "Warnings or Alerts:\n" +
+                "    - No alerts at this time. Check logs/system.log for future warnings.\n\n");
 
         // Repo & License
-        System.out.println(
-                        "GitHub Repo: https://github.com/AndrewRoe34/agile-planner\n" +
-                        "\n" +
-                        "License: MIT License\n" +
-                        "-------------------------------------------------------------"
-        );
-        sleep(2000);
+        sb.append("GitHub Repo: https://github.com/AndrewRoe34/agile-planner\n" +
+                "\n" +
+                "License: MIT License\n" +
+                "-------------------------------------------------------------\n");
+        System.out.print(sb);
     }
 
-    private String executeCommand(String command) throws IOException, InterruptedException {
-        ProcessBuilder processBuilder = new ProcessBuilder("cmd.exe", "/c", command);
-        processBuilder.redirectErrorStream(true);
-        Process process = processBuilder.start();
-        int exitCode = process.waitFor();
-
-        if (exitCode != 0) {
-            throw new IOException("Command execution failed with exit code: " + exitCode);
+    /**
+     * Reads the user settings once for the whole session
+     *
+     * @return settings of the user
+     * @throws IllegalArgumentException when the settings file cannot be read
+     */
+    private static UserConfig readUserConfig() {
+        try {
+            return JsonHandler.readUserConfig(Files.readString(Paths.get(PROFILE_FILE)));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Could not properly set up config for session");
         }
+    }
 
-        BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-        StringBuilder output = new StringBuilder();
-        String line;
-        while ((line = reader.readLine()) != null) {
-            output.append(line).append("\n");
+    /**
+     * Describes the system from within the JVM, which takes microseconds where probing it with {@code wmic}
+     * subprocesses took seconds (and only worked on Windows)
+     *
+     * @return lines of OS, Java, memory and CPU details
+     */
+    private String getSystemInfo() {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        Runtime runtime = Runtime.getRuntime();
+        long usedHeapInMB = (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024);
+        long maxHeapInMB = runtime.maxMemory() / (1024 * 1024);
+
+        StringBuilder sb = new StringBuilder();
+        sb.append("OS Name: ").append(os.getName()).append('\n')
+                .append("OS Version: ").append(os.getVersion()).append(" (").append(os.getArch()).append(")\n")
+                .append("Java Version: ").append(System.getProperty("java.version")).append('\n')
+                .append("Initial Resource Usage:\n");
+        long totalMemory = getMemorySize(os, "getTotalMemorySize", "getTotalPhysicalMemorySize");
+        long freeMemory = getMemorySize(os, "getFreeMemorySize", "getFreePhysicalMemorySize");
+        if (totalMemory >= 0 && freeMemory >= 0) {
+            long totalMemoryInMB = totalMemory / (1024 * 1024);
+            long usedMemoryInMB = totalMemoryInMB - freeMemory / (1024 * 1024);
+            sb.append("    - Memory: ").append(usedMemoryInMB).append("MB / ").append(totalMemoryInMB).append("MB\n");
         }
-        reader.close();
-
-        return output.toString().trim();
+        sb.append("    - Heap: ").append(usedHeapInMB).append("MB / ").append(maxHeapInMB).append("MB\n");
+        double load = os.getSystemLoadAverage();
+        sb.append("    - CPU: ");
+        if (load >= 0) {
+            sb.append(String.format("%.2f load average on ", load));
+        }
+        sb.append(os.getAvailableProcessors()).append(" cores\n");
+        return sb.toString();
     }
 
-    private String getSystemInfo() throws IOException, InterruptedException {
-        String osName = executeCommand("wmic os get name");
-        osName = osName.substring(osName.indexOf("Microsoft")).split("\\|")[0].trim();
-
-        String osVersion = executeCommand("wmic os get version");
-        osVersion = osVersion.replaceAll("[^\\d.]", "").trim();
-
-        // Get total and available memory
-        String totalMemory = executeCommand("wmic ComputerSystem get TotalPhysicalMemory");
-        totalMemory = totalMemory.replaceAll("[^\\d]", "").trim();
-        long totalMemoryInMB = Long.parseLong(totalMemory) / (1024 * 1024);
-
-        String availableMemory = executeCommand("wmic OS get FreePhysicalMemory");
-        availableMemory = availableMemory.replaceAll("[^\\d]", "").trim();
-        long availableMemoryInMB = Long.parseLong(availableMemory) / 1024;
-
-        // Calculate used memory
-        long usedMemoryInMB = totalMemoryInMB - availableMemoryInMB;
-
-        // Get CPU load
-        String cpuLoad = executeCommand("wmic cpu get loadpercentage");
-        cpuLoad = cpuLoad.replaceAll("[^\\d]", "").trim();
-
-        return "OS Name: " + osName + "\n" +
-                "OS Version: " + osVersion + "\n" +
-                "Initial Resource Usage:\n" +
-                "    - Memory: " + usedMemoryInMB + "MB / " + totalMemoryInMB + "MB\n" +
-                "    - CPU: " + cpuLoad + "% of 4 cores\n";
+    /**
+     * Gets a size in bytes from the {@code com.sun.management} OS bean. The getters replacing the deprecated
+     * {@code get...PhysicalMemorySize} ones were added in Java 14, so they are looked up by name and the deprecated
+     * getter is only called on Java 11.
+     *
+     * @param os OS bean of the JVM
+     * @param getter name of the getter since Java 14, such as {@code getTotalMemorySize}
+     * @param legacyGetter name of the getter it replaced
+     * @return size in bytes, or -1 if the bean does not report memory sizes
+     */
+    private static long getMemorySize(OperatingSystemMXBean os, String getter, String legacyGetter) {
+        if (!(os instanceof com.sun.management.OperatingSystemMXBean)) {
+            return -1;
+        }
+        Class<?> type = com.sun.management.OperatingSystemMXBean.class;
+        try {
+            Method method;
+            try {
+                method = type.getMethod(getter);
+            } catch (NoSuchMethodException e) {
+                method = type.getMethod(legacyGetter);
+            }
+            return (long) method.invoke(os);
+        } catch (ReflectiveOperationException e) {
+            return -1;
+        }
     }
 
+    /**
+     * Starts Agile Planner. Commands are read in batch mode when {@code --batch [file]} is given or when standard input
+     * is not a terminal, such as when input is piped from another program; {@code --interactive} always starts the
+     * console. A batch exits with status 1 if any of its commands failed.
+     *
+     * @param args command-line options
+     */
+    public static void main(String... args) throws IOException {
+        boolean batch = System.console() == null;
+        String batchFile = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--batch":
+                    batch = true;
+                    if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                        batchFile = args[++i];
+                    }
+                    break;
+                case "--interactive":
+                    batch = false;
+                    break;
+                default:
+                    System.err.println("Error: Unknown option " + args[i] + ". Use --batch [file] or --interactive.");
+                    System.exit(2);
+            }
+        }
+        if (batch) {
+            CLI cli = new CLI(true);
+            try (BufferedReader in = batchFile != null
+                    ? Files.newBufferedReader(Paths.get(batchFile))
+                    : new BufferedReader(new InputStreamReader(System.in), 1 << 16)) {
+                System.exit(cli.runBatch(in) == 0 ? 0 : 1);
+            }
+        }
 
-    public static void main(String... args) throws IOException, InterruptedException {
         TUI tui = new TUI();
+        // loading JMX for the system info overlaps with reading the config
+        FutureTask<String> sysInfo = new FutureTask<>(tui::getSystemInfo);
+        Thread probe = new Thread(sysInfo, "system-info");
+        probe.setDaemon(true);
+        probe.start();
+        UserConfig userConfig = readUserConfig();
         Screen.clearScreen();
-        tui.sessionStartUp();
+        try {
+            tui.sessionStartUp(userConfig, sysInfo.get());
+        } catch (InterruptedException | ExecutionException e) {
+            tui.sessionStartUp(userConfig, "");
+        }
 
-        CLI cli = new CLI();
+        CLI cli = new CLI(false, userConfig);
+        ProcessHandle.current().info().startInstant().ifPresent(launch ->
+                STARTUP_LATENCY.record(Duration.between(launch, Instant.now()).toNanos()));
         cli.loop();
     }
 }
@@ -8,6 +8,7 @@ import com.planner.schedule.day.Day;
 import com.planner.util.Time;
 
 import java.io.File;
+import java.io.IOException;
 import java.text.SimpleDateFormat;
 import java.util.*;
 
@@ -95,151 +96,281 @@ public class TableFormatter {
      * @return dotted schedule table
      */
     public static String formatScheduleTable(List<Day> schedule, boolean useColor) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("SCHEDULE:\n");
-        sb.append("ID     |NAME                |TAG            |HOURS     |TIME                |DUE         |\n");
-        sb.append("------------------------------------------------------------------------------------------\n");
+        return formatScheduleTable(schedule, useColor, new RowCache());
+    }
 
-        SimpleDateFormat sdf = new SimpleDateFormat("dd-MM-yyyy");
+    /**
+     * Creates a schedule table consisting of {@link Day}, reusing the rows of Days that have not changed since they
+     * were last rendered
+     *
+     * @param schedule list of scheduled days
+     * @param useColor whether rows are colored by their Card
+     * @param cache rows rendered by previous calls
+     * @return dotted schedule table
+     */
+    public static String formatScheduleTable(List<Day> schedule, boolean useColor, RowCache cache) {
+        return format(out -> appendScheduleTable(out, schedule, useColor, cache));
+    }
+
+    /**
+     * Writes a schedule table consisting of {@link Day}, reusing the rows of Days that have not changed since they
+     * were last rendered
+     *
+     * @param out destination of the table
+     * @param schedule list of scheduled days
+     * @param useColor whether rows are colored by their Card
+     * @param cache rows rendered by previous calls
+     * @throws IOException when the table cannot be written
+     */
+    public static void appendScheduleTable(Appendable out, List<Day> schedule, boolean useColor, RowCache cache)
+            throws IOException {
+        appendScheduleTable(out, schedule, TableView.ALL, useColor, cache);
+    }
+
+    /**
+     * Writes the window of a schedule table selected by a view, where each page holds a number of Days. Days
+     * outside the window are skipped without being rendered.
+     *
+     * @param out destination of the table
+     * @param schedule list of scheduled days
+     * @param view date range and page being displayed
+     * @param useColor whether rows are colored by their Card
+     * @param cache rows rendered by previous calls
+     * @throws IOException when the table cannot be written
+     */
+    public static void appendScheduleTable(Appendable out, List<Day> schedule, TableView view, boolean useColor,
+                                           RowCache cache) throws IOException {
+        out.append("SCHEDULE:\n");
+        out.append("ID     |NAME                |TAG            |HOURS     |TIME                |DUE         |\n");
+        out.append("------------------------------------------------------------------------------------------\n");
+
+        int first = findDay(schedule, view.getFromMinute());
+        int numDays = findDay(schedule, view.getToMinute()) - first;
+        int end = first + (int) view.getEndRow(numDays);
         boolean flag = false;
-        for (Day day : schedule) {
+        for (int i = first + (int) Math.min(numDays, view.getFirstRow()); i < end; i++) {
+            Day day = schedule.get(i);
             if (flag) {
-                sb.append("\n");
+                out.append("\n");
             } else flag = true;
 
-            String date = sdf.format(day.getDate().getTime());
-            // print out day here
-            sb.append(date).append("\n");
-
-            int taskIdx = 0;
-            int eventIdx = 0;
-            while (taskIdx < day.getNumSubTasks() || eventIdx < day.getNumEvents()) {
-                Card.Color color = null;
-                int id = 0;
-                String name = "";
-                String tag = "       -       ";
-                double hours = 0;
-                String timeStamp = "";
-                String due = "     -    ";
-                if (taskIdx >= day.getNumSubTasks() || eventIdx < day.getNumEvents() &&
-                        Time.isAfter(day.getSubTaskList().get(taskIdx).getTimeStamp().getStart(),
-                                day.getEventList().get(eventIdx).getTimeStamp().getStart())) {
-                    Event event = day.getEvent(eventIdx);
-
-                    color = event.getCard() != null ? event.getCard().getColor() : null;
-                    id = event.getId();
-                    name = event.getName();
-                    hours = Time.getTimeInterval(event.getTimeStamp().getStart(), event.getTimeStamp().getEnd());
-                    timeStamp = event.getTimeStamp().toString();
-                    eventIdx++;
+            DayRows rows = cache.getDayRows(day);
+            String block = useColor ? rows.coloredSchedule : rows.schedule;
+            if (block == null) {
+                block = renderScheduleRows(day, useColor, cache.row);
+                if (useColor) {
+                    rows.coloredSchedule = block;
                 } else {
-                    // handle Task data
-                    Task.SubTask subTask = day.getSubTask(taskIdx);
-                    Task task = subTask.getParentTask();
-
-                    color = task.getColor();
-                    id = task.getId();
-                    name = task.getName();
-                    tag = task.getTag() != null ? task.getTag() : tag;
-                    hours = subTask.getSubTaskHours();
-                    timeStamp = subTask.getTimeStamp().toString();
-                    due = task.getDateStamp();
-                    taskIdx++;
-                }
-
-                if (useColor && color != null) {
-                    sb.append(getColorANSICode(color));
+                    rows.schedule = block;
                 }
+            }
+            out.append(block);
+        }
+        cache.retainDays(schedule, view.isAll());
 
-                sb.append(id)
-                        .append(" ".repeat(7 - String.valueOf(id).length()))
-                        .append("|");
+        out.append("\n");
+        out.append(view.buildFooter(numDays, "days"));
+    }
 
-                if (name.length() > 20) {
-                    sb.append(name, 0, 20).append("|");
-                } else {
-                    sb.append(name)
-                            .append(" ".repeat(20 - name.length()))
-                            .append("|");
-                }
-                sb.append(tag)
-                        .append(" ".repeat(15 - tag.length()))
-                        .append("|");
-                sb.append(hours)
-                        .append(" ".repeat(10 - String.valueOf(hours).length()))
-                        .append("|");
-                sb.append(timeStamp)
-                        .append("     |");
-                sb.append(due)
-                        .append("  |\n");
-                if (useColor) {
-                    sb.append("\u001B[0m");
-                }
+    /**
+     * Finds the first Day of a schedule starting at or after a time
+     *
+     * @param schedule list of scheduled days in order of their dates
+     * @param epochMinute local epoch-minute being searched
+     * @return index of the first Day starting at or after the time, or the size of the schedule if there is none
+     */
+    private static int findDay(List<Day> schedule, long epochMinute) {
+        int low = 0;
+        int high = schedule.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (schedule.get(mid).getStartOfDay() < epochMinute) {
+                low = mid + 1;
+            } else {
+                high = mid;
             }
         }
+        return low;
+    }
 
+    /**
+     * Renders the date and the rows of all SubTasks and Events of a Day in the order they take place
+     *
+     * @param day Day being rendered
+     * @param useColor whether rows are colored by their Card
+     * @param sb buffer reused for rendering
+     * @return rendered rows of the Day
+     */
+    private static String renderScheduleRows(Day day, boolean useColor, StringBuilder sb) {
+        sb.setLength(0);
+        appendDate(sb, day.getDate());
         sb.append("\n");
 
-        return sb.toString();
-    }
-
-    public static String formatTaskTable(PriorityQueue<Task> currTasks, PriorityQueue<Task> archiveTasks, boolean useColor) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("TASKS:\n");
-        sb.append("ID     |NAME                |TAG            |HOURS     |DUE         |ARCHIVED |\n");
-        sb.append("-------------------------------------------------------------------------------\n");
-
-        SimpleDateFormat sdf = new SimpleDateFormat("dd-MM-yyyy");
-
-        List<Task> list = new ArrayList<>(archiveTasks);
-        int numArchived = list.size();
-        list.addAll(currTasks);
-
-        int idx = 0;
-        for (Task task : list) {
-            Card.Color color = task.getColor();
-            int id = task.getId();
-            String name = task.getName();
-            String tag = task.getTag() != null ? task.getTag() : "       -       ";
-            double hours = task.getTotalHours();
-            String due = task.getDateStamp();
+        int taskIdx = 0;
+        int eventIdx = 0;
+        while (taskIdx < day.getNumSubTasks() || eventIdx < day.getNumEvents()) {
+            Card.Color color = null;
+            int id = 0;
+            String name = "";
+            String tag = "       -       ";
+            double hours = 0;
+            String timeStamp = "";
+            String due = "     -    ";
+            if (taskIdx >= day.getNumSubTasks() || eventIdx < day.getNumEvents() &&
+                    day.getSubTaskList().get(taskIdx).getTimeStamp().getStartMinute()
+                            > day.getEventList().get(eventIdx).getTimeStamp().getStartMinute()) {
+                Event event = day.getEvent(eventIdx);
+
+                color = event.getCard() != null ? event.getCard().getColor() : null;
+                id = event.getId();
+                name = event.getName();
+                hours = Time.getTimeInterval(event.getTimeStamp().getStartMinute(), event.getTimeStamp().getEndMinute());
+                timeStamp = event.getTimeStamp().toString();
+                eventIdx++;
+            } else {
+                // handle Task data
+                Task.SubTask subTask = day.getSubTask(taskIdx);
+                Task task = subTask.getParentTask();
+
+                color = task.getColor();
+                id = task.getId();
+                name = task.getName();
+                tag = task.getTag() != null ? task.getTag() : tag;
+                hours = subTask.getSubTaskHours();
+                timeStamp = subTask.getTimeStamp().toString();
+                due = task.getDateStamp();
+                taskIdx++;
+            }
 
             if (useColor && color != null) {
                 sb.append(getColorANSICode(color));
             }
 
-            sb.append(id)
-                    .append(" ".repeat(7 - String.valueOf(id).length()))
-                    .append("|");
-
-            if (name.length() > 20) {
-                sb.append(name, 0, 20).append("|");
-            } else {
-                sb.append(name)
-                        .append(" ".repeat(20 - name.length()))
-                        .append("|");
-            }
-            sb.append(tag)
-                    .append(" ".repeat(15 - tag.length()))
-                    .append("|");
-            sb.append(hours)
-                    .append(" ".repeat(10 - String.valueOf(hours).length()))
-                    .append("|");
+            appendCells(sb, id, name, tag, hours);
+            sb.append(timeStamp)
+                    .append("     |");
             sb.append(due)
-                    .append("  |");
-            if (idx < numArchived) {
-                sb.append("TRUE     |\n");
-            } else {
-                sb.append("FALSE    |\n");
-            }
+                    .append("  |\n");
             if (useColor) {
                 sb.append("\u001B[0m");
             }
-            idx++;
         }
+        return sb.toString();
+    }
 
-        sb.append("\n");
+    public static String formatTaskTable(Collection<Task> currTasks, Collection<Task> archiveTasks, boolean useColor) {
+        return formatTaskTable(currTasks, archiveTasks, useColor, new RowCache());
+    }
+
+    /**
+     * Creates a table of all active and archived Tasks, reusing the rows of Tasks that have not changed since they
+     * were last rendered
+     *
+     * @param currTasks active Tasks
+     * @param archiveTasks archived Tasks
+     * @param useColor whether rows are colored by their Card
+     * @param cache rows rendered by previous calls
+     * @return Task table
+     */
+    public static String formatTaskTable(Collection<Task> currTasks, Collection<Task> archiveTasks, boolean useColor,
+                                         RowCache cache) {
+        return format(out -> appendTaskTable(out, currTasks, archiveTasks, useColor, cache));
+    }
+
+    /**
+     * Writes a table of all active and archived Tasks, reusing the rows of Tasks that have not changed since they
+     * were last rendered
+     *
+     * @param out destination of the table
+     * @param currTasks active Tasks
+     * @param archiveTasks archived Tasks
+     * @param useColor whether rows are colored by their Card
+     * @param cache rows rendered by previous calls
+     * @throws IOException when the table cannot be written
+     */
+    public static void appendTaskTable(Appendable out, Collection<Task> currTasks, Collection<Task> archiveTasks,
+                                       boolean useColor, RowCache cache) throws IOException {
+        appendTaskTable(out, currTasks, archiveTasks, TableView.ALL, useColor, cache);
+    }
+
+    /**
+     * Writes the window of a table of all active and archived Tasks selected by a view, where the date range
+     * applies to due dates. Tasks outside the window are skipped without being rendered.
+     *
+     * @param out destination of the table
+     * @param currTasks active Tasks
+     * @param archiveTasks archived Tasks
+     * @param view due date range and page being displayed
+     * @param useColor whether rows are colored by their Card
+     * @param cache rows rendered by previous calls
+     * @throws IOException when the table cannot be written
+     */
+    public static void appendTaskTable(Appendable out, Collection<Task> currTasks, Collection<Task> archiveTasks,
+                                       TableView view, boolean useColor, RowCache cache) throws IOException {
+        out.append("TASKS:\n");
+        out.append("ID     |NAME                |TAG            |HOURS     |DUE         |ARCHIVED |\n");
+        out.append("-------------------------------------------------------------------------------\n");
+
+        long numTasks = 0;
+        if (view.isAll()) {
+            numTasks = currTasks.size() + archiveTasks.size();
+        } else {
+            for (Task task : archiveTasks) {
+                if (view.includes(Time.toEpochMinute(task.getDueDate()))) numTasks++;
+            }
+            for (Task task : currTasks) {
+                if (view.includes(Time.toEpochMinute(task.getDueDate()))) numTasks++;
+            }
+        }
+        long first = view.getFirstRow();
+        long end = view.getEndRow(numTasks);
+        long idx = 0;
+        for (Task task : archiveTasks) {
+            if (idx >= end) break;
+            if (view.isAll() || view.includes(Time.toEpochMinute(task.getDueDate()))) {
+                if (idx++ >= first) out.append(cache.getTaskRow(task, true, useColor));
+            }
+        }
+        for (Task task : currTasks) {
+            if (idx >= end) break;
+            if (view.isAll() || view.includes(Time.toEpochMinute(task.getDueDate()))) {
+                if (idx++ >= first) out.append(cache.getTaskRow(task, false, useColor));
+            }
+        }
+        cache.retainTasks(currTasks, archiveTasks, view.isAll());
+
+        out.append("\n");
+        out.append(view.buildFooter(numTasks, "tasks"));
+    }
+
+    /**
+     * Renders the row of a Task
+     *
+     * @param task Task being rendered
+     * @param archived whether the Task is archived
+     * @param useColor whether the row is colored by its Card
+     * @param sb buffer reused for rendering
+     * @return rendered row of the Task
+     */
+    private static String renderTaskRow(Task task, boolean archived, boolean useColor, StringBuilder sb) {
+        sb.setLength(0);
+        Card.Color color = task.getColor();
+        if (useColor && color != null) {
+            sb.append(getColorANSICode(color));
+        }
 
+        appendCells(sb, task.getId(), task.getName(), task.getTag() != null ? task.getTag() : "       -       ",
+                task.getTotalHours());
+        sb.append(task.getDateStamp())
+                .append("  |");
+        if (archived) {
+            sb.append("TRUE     |\n");
+        } else {
+            sb.append("FALSE    |\n");
+        }
+        if (useColor) {
+            sb.append("\u001B[0m");
+        }
         return sb.toString();
     }
 
@@ -415,45 +546,196 @@ public class TableFormatter {
      * @return subtask table
      */
     public static String formatSubTaskTable(List<Day> schedule, UserConfig userConfig) {
-        StringBuilder sb = new StringBuilder();
+        return formatSubTaskTable(schedule, userConfig, new RowCache());
+    }
 
-        sb.append("SUBTASKS:\n");
+    /**
+     * Creates a {@link com.planner.models.Task.SubTask} table, reusing the rows of Days that have not changed since
+     * they were last rendered
+     *
+     * @param schedule list of days containing subtasks
+     * @param userConfig user settings for table format
+     * @param cache rows rendered by previous calls
+     * @return subtask table
+     */
+    public static String formatSubTaskTable(List<Day> schedule, UserConfig userConfig, RowCache cache) {
+        return format(out -> appendSubTaskTable(out, schedule, userConfig, cache));
+    }
 
-        sb.append("ID     |NAME                |TAG            |HOURS     |TIME                |DATE        |DUE         |\n");
+    /**
+     * Writes a {@link com.planner.models.Task.SubTask} table, reusing the rows of Days that have not changed since
+     * they were last rendered
+     *
+     * @param out destination of the table
+     * @param schedule list of days containing subtasks
+     * @param userConfig user settings for table format
+     * @param cache rows rendered by previous calls
+     * @throws IOException when the table cannot be written
+     */
+    public static void appendSubTaskTable(Appendable out, List<Day> schedule, UserConfig userConfig, RowCache cache)
+            throws IOException {
+        appendSubTaskTable(out, schedule, userConfig, TableView.ALL, cache);
+    }
 
-        sb.append("-------------------------------------------------------------------------------------------------------\n");
+    /**
+     * Writes the window of a {@link com.planner.models.Task.SubTask} table selected by a view, where each page
+     * holds a number of SubTasks. Days without any SubTask in the window are skipped without being rendered.
+     *
+     * @param out destination of the table
+     * @param schedule list of days containing subtasks
+     * @param userConfig user settings for table format
+     * @param view date range and page being displayed
+     * @param cache rows rendered by previous calls
+     * @throws IOException when the table cannot be written
+     */
+    public static void appendSubTaskTable(Appendable out, List<Day> schedule, UserConfig userConfig, TableView view,
+                                          RowCache cache) throws IOException {
+        out.append("SUBTASKS:\n");
 
-        for (Day day : schedule) {
-            for (Task.SubTask subTask : day.getSubTaskList()) {
-                String colorANSICode = getColorANSICode((subTask.getParentTask().getColor()));
-                sb.append(colorANSICode);
+        out.append("ID     |NAME                |TAG            |HOURS     |TIME                |DATE        |DUE         |\n");
 
-                sb.append(subTask.getParentTask().getId()).append(" ".repeat(7 - String.valueOf(subTask.getParentTask().getId()).length())).append("|");
+        out.append("-------------------------------------------------------------------------------------------------------\n");
 
-                if (subTask.getParentTask().getName().length() > 20)
-                    sb.append(subTask.getParentTask().getName(), 0, 20).append("|");
-                else
-                    sb.append(subTask.getParentTask().getName()).append(" ".repeat(20 - subTask.getParentTask().getName().length())).append("|");
+        int firstDay = findDay(schedule, view.getFromMinute());
+        int endDay = findDay(schedule, view.getToMinute());
+        long numSubTasks = 0;
+        for (int i = firstDay; i < endDay; i++) {
+            numSubTasks += schedule.get(i).getNumSubTasks();
+        }
+        long first = view.getFirstRow();
+        long end = view.getEndRow(numSubTasks);
+        long idx = 0;
+        for (int i = firstDay; i < endDay && idx < end; i++) {
+            Day day = schedule.get(i);
+            int numRows = day.getNumSubTasks();
+            if (idx + numRows <= first) {
+                idx += numRows;
+                continue;
+            }
+            DayRows rows = cache.getDayRows(day);
+            if (rows.subTasks == null) {
+                rows.subTasks = renderSubTaskRows(day, cache.row);
+            }
+            for (int j = 0; j < numRows && idx < end; j++, idx++) {
+                if (idx >= first) out.append(rows.subTasks[j]);
+            }
+        }
+        cache.retainDays(schedule, view.isAll());
 
-                String tag = "       -       ";
-                tag = subTask.getParentTask().getTag() != null ? subTask.getParentTask().getTag() : tag;
-                sb.append(tag).append(" ".repeat(15 - tag.length())).append("|");
+        out.append("\n");
+        out.append(view.buildFooter(numSubTasks, "subtasks"));
+    }
 
-                sb.append(subTask.getSubTaskHours()).append(" ".repeat(10 - String.valueOf(subTask.getSubTaskHours()).length())).append("|");
-                sb.append(subTask.getTimeStamp().toString()).append(" ".repeat(20 - subTask.getTimeStamp().toString().length())).append("|");
+    /**
+     * Renders the rows of all SubTasks of a Day
+     *
+     * @param day Day being rendered
+     * @param sb buffer reused for rendering
+     * @return rendered row of each SubTask of the Day
+     */
+    private static String[] renderSubTaskRows(Day day, StringBuilder sb) {
+        String[] rows = new String[day.getNumSubTasks()];
+        for (int i = 0; i < rows.length; i++) {
+            sb.setLength(0);
+            Task.SubTask subTask = day.getSubTask(i);
+            Task task = subTask.getParentTask();
+            sb.append(getColorANSICode(task.getColor()));
+
+            appendCells(sb, task.getId(), task.getName(), task.getTag() != null ? task.getTag() : "       -       ",
+                    subTask.getSubTaskHours());
+            String timeStamp = subTask.getTimeStamp().toString();
+            sb.append(timeStamp);
+            pad(sb, 20 - timeStamp.length());
+            sb.append("|");
+
+            int start = sb.length();
+            appendDate(sb, subTask.getTimeStamp().getStart());
+            pad(sb, 12 - (sb.length() - start));
+            sb.append("|");
+            String due = task.getDateStamp();
+            sb.append(due);
+            pad(sb, 12 - due.length());
+            sb.append("|");
 
-                SimpleDateFormat sdf = new SimpleDateFormat("dd-MM-yyyy");
-                String date = sdf.format(subTask.getTimeStamp().getStart().getTime());
-                sb.append(date).append(" ".repeat(12 - date.length())).append("|");
-                sb.append(subTask.getParentTask().getDateStamp()).append(" ".repeat(12 - subTask.getParentTask().getDateStamp().length())).append("|");
+            sb.append("\u001B[0m");
+            sb.append("\n");
+            rows[i] = sb.toString();
+        }
+        return rows;
+    }
 
-                sb.append("\u001B[0m");
-                sb.append("\n");
-            }
+    /**
+     * Appends the ID, name, tag and hours cells shared by the rows of the schedule, Task and SubTask tables
+     *
+     * @param sb buffer receiving the cells
+     * @param id ID of the item
+     * @param name name of the item, cut off after 20 characters
+     * @param tag tag of the item
+     * @param hours number of hours of the item
+     */
+    private static void appendCells(StringBuilder sb, int id, String name, String tag, double hours) {
+        int start = sb.length();
+        sb.append(id);
+        pad(sb, 7 - (sb.length() - start));
+        sb.append("|");
+
+        if (name.length() > 20) {
+            sb.append(name, 0, 20).append("|");
+        } else {
+            sb.append(name);
+            pad(sb, 20 - name.length());
+            sb.append("|");
         }
+        sb.append(tag);
+        pad(sb, 15 - tag.length());
+        sb.append("|");
+        start = sb.length();
+        sb.append(hours);
+        pad(sb, 10 - (sb.length() - start));
+        sb.append("|");
+    }
 
-        sb.append("\n");
+    /**
+     * Appends a date in the <code>dd-MM-yyyy</code> format
+     *
+     * @param sb buffer receiving the date
+     * @param date date being appended
+     */
+    private static void appendDate(StringBuilder sb, Calendar date) {
+        int day = date.get(Calendar.DAY_OF_MONTH);
+        int month = date.get(Calendar.MONTH) + 1;
+        if (day < 10) sb.append('0');
+        sb.append(day).append('-');
+        if (month < 10) sb.append('0');
+        sb.append(month).append('-').append(date.get(Calendar.YEAR));
+    }
+
+    /**
+     * Appends spaces to fill a cell
+     *
+     * @param sb buffer receiving the spaces
+     * @param count number of spaces, where nothing is appended if it is not positive
+     */
+    private static void pad(StringBuilder sb, int count) {
+        for (int i = 0; i < count; i++) {
+            sb.append(' ');
+        }
+    }
 
+    /**
+     * Renders a table into a String
+     *
+     * @param table writer of the table
+     * @return rendered table
+     */
+    private static String format(TableWriter table) {
+        StringBuilder sb = new StringBuilder();
+        try {
+            table.appendTo(sb);
+        } catch (IOException e) {
+            // appending to a StringBuilder never fails
+            throw new IllegalStateException(e);
+        }
         return sb.toString();
     }
 
@@ -487,4 +769,158 @@ public class TableFormatter {
                 return "\u001B[38;2;207;211;203m";
         }
     }
+
+    /**
+     * Writer of a table to an {@link Appendable}
+     */
+    private interface TableWriter {
+        void appendTo(Appendable out) throws IOException;
+    }
+
+    /**
+     * Rows rendered for the tables of a planner, kept between calls so that displaying a table only renders the
+     * rows of Days and Tasks that changed since it was last displayed. A Day's rows are reused as long as it holds
+     * the same SubTasks and Events and none of them (nor their Cards) were modified, which is tracked through the
+     * version stamps of the models. Rows of Days and Tasks that are no longer displayed are dropped.
+     * <p>
+     * A {@code RowCache} is not thread-safe.
+     *
+     * @author Andrew Roe
+     */
+    public static class RowCache {
+
+        /** Rows of every displayed Day */
+        private Map<Day, DayRows> days = new IdentityHashMap<>();
+        /** Rows of every displayed Task */
+        private Map<Task, TaskRow> tasks = new IdentityHashMap<>();
+        /** Buffer reused for rendering rows */
+        private final StringBuilder row = new StringBuilder();
+
+        /**
+         * Gets the rows of a Day, which are empty if it changed since it was last rendered
+         *
+         * @param day Day being rendered
+         * @return rows of the Day
+         */
+        private DayRows getDayRows(Day day) {
+            long version = 0;
+            for (Task.SubTask subTask : day.getSubTaskList()) {
+                version = Math.max(version, subTask.getParentTask().getVersion());
+            }
+            for (Event event : day.getEventList()) {
+                version = Math.max(version, event.getVersion());
+            }
+            DayRows rows = days.get(day);
+            if (rows == null || rows.version != version || rows.numSubTasks != day.getNumSubTasks()
+                    || rows.numEvents != day.getNumEvents()) {
+                rows = new DayRows(version, day.getNumSubTasks(), day.getNumEvents());
+                days.put(day, rows);
+            }
+            return rows;
+        }
+
+        /**
+         * Gets the row of a Task, rendering it if the Task changed since it was last rendered
+         *
+         * @param task Task being rendered
+         * @param archived whether the Task is archived
+         * @param useColor whether the row is colored by its Card
+         * @return rendered row of the Task
+         */
+        private String getTaskRow(Task task, boolean archived, boolean useColor) {
+            TaskRow taskRow = tasks.get(task);
+            if (taskRow == null || taskRow.version != task.getVersion() || taskRow.archived != archived) {
+                taskRow = new TaskRow(task.getVersion(), archived);
+                tasks.put(task, taskRow);
+            }
+            String row = useColor ? taskRow.colored : taskRow.plain;
+            if (row == null) {
+                row = renderTaskRow(task, archived, useColor, this.row);
+                if (useColor) {
+                    taskRow.colored = row;
+                } else {
+                    taskRow.plain = row;
+                }
+            }
+            return row;
+        }
+
+        /**
+         * Drops the rows of Days that are no longer scheduled, either after the whole schedule was displayed or
+         * once partial displays of rebuilt schedules left too many behind
+         *
+         * @param schedule list of scheduled days
+         * @param all whether the whole schedule was displayed
+         */
+        private void retainDays(List<Day> schedule, boolean all) {
+            if (!all && days.size() <= 2 * schedule.size()) return;
+            Map<Day, DayRows> retained = new IdentityHashMap<>(schedule.size() * 2);
+            for (Day day : schedule) {
+                DayRows rows = days.get(day);
+                if (rows != null) retained.put(day, rows);
+            }
+            days = retained;
+        }
+
+        /**
+         * Drops the rows of Tasks that were deleted, either after all Tasks were displayed or once partial
+         * displays left too many behind
+         *
+         * @param currTasks active Tasks
+         * @param archiveTasks archived Tasks
+         * @param all whether all Tasks were displayed
+         */
+        private void retainTasks(Collection<Task> currTasks, Collection<Task> archiveTasks, boolean all) {
+            int numTasks = currTasks.size() + archiveTasks.size();
+            if (!all && tasks.size() <= 2 * numTasks) return;
+            Map<Task, TaskRow> retained = new IdentityHashMap<>(numTasks * 2);
+            for (Task task : archiveTasks) {
+                TaskRow taskRow = tasks.get(task);
+                if (taskRow != null) retained.put(task, taskRow);
+            }
+            for (Task task : currTasks) {
+                TaskRow taskRow = tasks.get(task);
+                if (taskRow != null) retained.put(task, taskRow);
+            }
+            tasks = retained;
+        }
+    }
+
+    /**
+     * Rendered rows of a single Day
+     */
+    private static class DayRows {
+        /** Highest version stamp of the Day's SubTasks and Events when rendered */
+        private final long version;
+        private final int numSubTasks;
+        private final int numEvents;
+        /** Date and rows of the schedule table without and with color */
+        private String schedule;
+        private String coloredSchedule;
+        /** Row of each SubTask in the SubTask table */
+        private String[] subTasks;
+
+        private DayRows(long version, int numSubTasks, int numEvents) {
+            this.version = version;
+            this.numSubTasks = numSubTasks;
+            this.numEvents = numEvents;
+        }
+    }
+
+    /**
+     * Rendered row of a single Task
+     */
+    private static class TaskRow {
+        /** Version stamp of the Task when rendered */
+        private final long version;
+        private final boolean archived;
+        /** Row of the Task table without and with color */
+        private String plain;
+        private String colored;
+
+        private TaskRow(long version, boolean archived) {
+            this.version = version;
+            this.archived = archived;
+        }
+    }
 }
@@ -0,0 +1,133 @@
+package com.planner.ui.tables;
+
+import com.planner.util.Time;
+
+import java.util.Calendar;
+
+/**
+ * Window of a table to be displayed: the range of dates whose rows are included, and the page of those rows. Tables
+ * skip every row outside the window without formatting it, so viewing a single page of a large schedule only costs
+ * as much as the page itself.
+ *
+ * @author Andrew Roe
+ */
+public class TableView {
+
+    /** View of every row of a table */
+    public static final TableView ALL = new TableView(null, null, 1, 0);
+
+    /** Local epoch-minute of the start of the first included day */
+    private final long fromMinute;
+    /** Local epoch-minute of the start of the day after the last included day */
+    private final long toMinute;
+    /** Number of the displayed page, starting at 1 */
+    private final int page;
+    /** Number of rows per page, or 0 if all rows of the range are displayed */
+    private final int pageSize;
+
+    /**
+     * Constructs a {@code TableView}
+     *
+     * @param from first included date, or <code>null</code> if the range has no start
+     * @param to last included date, or <code>null</code> if the range has no end
+     * @param page number of the displayed page, starting at 1
+     * @param pageSize number of rows per page, or 0 to display all rows of the range
+     * @throws IllegalArgumentException when the page or page size are out of range, or the range ends before it
+     * starts
+     */
+    public TableView(Calendar from, Calendar to, int page, int pageSize) {
+        if (page < 1) {
+            throw new IllegalArgumentException("Page must be at least 1.");
+        } else if (pageSize < 0) {
+            throw new IllegalArgumentException("Page size cannot be negative.");
+        }
+        this.fromMinute = from != null ? Time.getStartOfDay(Time.toEpochMinute(from)) : Long.MIN_VALUE;
+        this.toMinute = to != null ? Time.getStartOfDay(Time.toEpochMinute(to)) + Time.MINUTES_PER_DAY
+                : Long.MAX_VALUE;
+        if (fromMinute >= toMinute) {
+            throw new IllegalArgumentException("Date range cannot end before it starts.");
+        }
+        this.page = page;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Determines whether the view displays every row of a table
+     *
+     * @return boolean value for whether the view has no date range and is not paged
+     */
+    public boolean isAll() {
+        return fromMinute == Long.MIN_VALUE && toMinute == Long.MAX_VALUE && pageSize == 0;
+    }
+
+    /**
+     * Determines whether the rows of the range are split into pages
+     *
+     * @return boolean value for whether the view is paged
+     */
+    public boolean isPaged() {
+        return pageSize > 0;
+    }
+
+    /**
+     * Determines whether a day is within the range of the view
+     *
+     * @param epochMinute local epoch-minute of any time of the day
+     * @return boolean value for whether the day is included
+     */
+    public boolean includes(long epochMinute) {
+        return epochMinute >= fromMinute && epochMinute < toMinute;
+    }
+
+    /**
+     * Gets the start of the range
+     *
+     * @return local epoch-minute of the start of the first included day
+     */
+    public long getFromMinute() {
+        return fromMinute;
+    }
+
+    /**
+     * Gets the end of the range
+     *
+     * @return local epoch-minute of the start of the day after the last included day
+     */
+    public long getToMinute() {
+        return toMinute;
+    }
+
+    /**
+     * Gets the index of the first displayed row among the rows of the range
+     *
+     * @return index of the first row of the page
+     */
+    public long getFirstRow() {
+        return isPaged() ? (long) (page - 1) * pageSize : 0;
+    }
+
+    /**
+     * Gets the index after the last displayed row among the rows of the range
+     *
+     * @param numRows number of rows in the range
+     * @return index after the last row of the page
+     */
+    public long getEndRow(long numRows) {
+        return isPaged() ? Math.min(numRows, getFirstRow() + pageSize) : numRows;
+    }
+
+    /**
+     * Builds the footer of a paged table
+     *
+     * @param numRows number of rows in the range
+     * @param rowName plural name of the rows
+     * @return footer naming the page and its rows, or an empty String if the view is not paged
+     */
+    public String buildFooter(long numRows, String rowName) {
+        if (!isPaged()) return "";
+        long numPages = Math.max(1, (numRows + pageSize - 1) / pageSize);
+        long first = Math.min(numRows, getFirstRow());
+        return "Page " + page + " of " + numPages + " (" + rowName + " " + (first < numRows ? first + 1 : first)
+                + "-" + getEndRow(numRows) + " of " + numRows + ")\n";
+    }
+}
@@ -0,0 +1,352 @@
+package com.planner.util;
+
+import java.util.Arrays;
+
+/**
+ * Tokens of a command, kept as offsets into the line they were scanned from. Tokens are separated by spaces or tabs,
+ * and a token starting with a quote runs to the next quote, so that names may contain spaces. No String is created
+ * for a token unless it is asked for, such as the name of a Task, and numbers are read straight from the line.
+ * <p>
+ * A {@code CommandLine} is meant to be reused by scanning each line into it, which allocates nothing once its offset
+ * arrays have grown to the longest command. It is not thread-safe: each thread parsing commands keeps its own.
+ *
+ * @author Andrew Roe
+ */
+public final class CommandLine {
+
+    /** Initial number of tokens held without growing */
+    private static final int INITIAL_CAPACITY = 16;
+    /** Powers of ten that are exact as doubles */
+    private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+    /** Largest integer below which every integer is exact as a double */
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    /** Line being scanned */
+    private CharSequence line = "";
+    /** Offset of the first char of each token */
+    private int[] starts = new int[INITIAL_CAPACITY];
+    /** Offset after the last char of each token */
+    private int[] ends = new int[INITIAL_CAPACITY];
+    /** Number of tokens */
+    private int size;
+
+    /**
+     * Creates a {@code CommandLine} holding tokens that were already split, such as the arguments of a command
+     * built in code
+     *
+     * @param tokens tokens of the command, with names in quotes
+     * @return command holding the tokens
+     */
+    public static CommandLine of(String... tokens) {
+        CommandLine cmd = new CommandLine();
+        StringBuilder sb = new StringBuilder();
+        for (String token : tokens) {
+            if (sb.length() > 0) {
+                sb.append(' ');
+            }
+            cmd.add(sb.length(), sb.length() + token.length());
+            sb.append(token);
+        }
+        cmd.line = sb;
+        return cmd;
+    }
+
+    /**
+     * Scans the tokens of a line, replacing those of the previous line
+     *
+     * @param line line being scanned, which must not change while its tokens are used
+     * @return this command
+     * @throws IllegalArgumentException when a quoted name is empty or not closed
+     */
+    public CommandLine scan(CharSequence line) {
+        this.line = line;
+        size = 0;
+        int length = line.length();
+        int start = 0;
+        while (start < length) {
+            char c = line.charAt(start);
+            if (c == ' ' || c == '\t') {
+                start++;
+            } else if (c == '"') {
+                int end = start + 1;
+                while (end < length && line.charAt(end) != '"') {
+                    end++;
+                }
+                if (end == length) {
+                    throw new IllegalArgumentException("Strings must be closed by quotes.");
+                } else if (start + 1 == end) {
+                    throw new IllegalArgumentException("Strings cannot be empty.");
+                }
+                add(start, ++end);
+                start = end;
+            } else {
+                int end = start + 1;
+                while (end < length && line.charAt(end) != ' ' && line.charAt(end) != '\t') {
+                    end++;
+                }
+                add(start, end);
+                start = end;
+            }
+        }
+        return this;
+    }
+
+    private void add(int start, int end) {
+        if (size == starts.length) {
+            starts = Arrays.copyOf(starts, size * 2);
+            ends = Arrays.copyOf(ends, size * 2);
+        }
+        starts[size] = start;
+        ends[size] = end;
+        size++;
+    }
+
+    /**
+     * Gets the number of tokens
+     *
+     * @return number of tokens
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the line the tokens were scanned from
+     *
+     * @return scanned line
+     */
+    public CharSequence line() {
+        return line;
+    }
+
+    /**
+     * Gets the offset of a token within the line
+     *
+     * @param i index of the token
+     * @return offset of its first char
+     */
+    public int start(int i) {
+        checkIndex(i);
+        return starts[i];
+    }
+
+    /**
+     * Gets the offset after a token within the line
+     *
+     * @param i index of the token
+     * @return offset after its last char
+     */
+    public int end(int i) {
+        checkIndex(i);
+        return ends[i];
+    }
+
+    /**
+     * Gets the number of chars of a token
+     *
+     * @param i index of the token
+     * @return length of the token
+     */
+    public int length(int i) {
+        checkIndex(i);
+        return ends[i] - starts[i];
+    }
+
+    /**
+     * Gets a char of a token
+     *
+     * @param i index of the token
+     * @param index index of the char within the token
+     * @return char of the token
+     */
+    public char charAt(int i, int index) {
+        checkIndex(i);
+        if (index < 0 || index >= ends[i] - starts[i]) {
+            throw new IndexOutOfBoundsException("Index " + index + " is outside of token " + i);
+        }
+        return line.charAt(starts[i] + index);
+    }
+
+    /**
+     * Determines whether a token is the given text, ignoring case
+     *
+     * @param i index of the token
+     * @param text text being compared
+     * @return boolean value for whether the token matches the text
+     */
+    public boolean is(int i, String text) {
+        checkIndex(i);
+        int start = starts[i];
+        if (ends[i] - start != text.length()) {
+            return false;
+        }
+        for (int k = 0; k < text.length(); k++) {
+            char a = line.charAt(start + k);
+            char b = text.charAt(k);
+            if (a != b && Character.toUpperCase(a) != Character.toUpperCase(b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Determines whether a token starts with the given text
+     *
+     * @param i index of the token
+     * @param prefix text being compared
+     * @return boolean value for whether the token starts with the text
+     */
+    public boolean startsWith(int i, String prefix) {
+        checkIndex(i);
+        int start = starts[i];
+        if (ends[i] - start < prefix.length()) {
+            return false;
+        }
+        for (int k = 0; k < prefix.length(); k++) {
+            if (line.charAt(start + k) != prefix.charAt(k)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Determines whether a token is a name in quotes
+     *
+     * @param i index of the token
+     * @return boolean value for whether the token starts with a quote
+     */
+    public boolean isQuoted(int i) {
+        checkIndex(i);
+        return line.charAt(starts[i]) == '"';
+    }
+
+    /**
+     * Gets a token as a String
+     *
+     * @param i index of the token
+     * @return text of the token
+     */
+    public String get(int i) {
+        checkIndex(i);
+        return line.subSequence(starts[i], ends[i]).toString();
+    }
+
+    /**
+     * Gets a name in quotes without its quotes
+     *
+     * @param i index of the token
+     * @return text between the quotes
+     */
+    public String getName(int i) {
+        checkIndex(i);
+        return line.subSequence(starts[i] + 1, ends[i] - 1).toString();
+    }
+
+    /**
+     * Reads a token as an integer, such as an ID
+     *
+     * @param i index of the token
+     * @param from index within the token of the first digit, which skips a prefix such as {@code +C}
+     * @return value of the token
+     * @throws NumberFormatException when the token is not an integer
+     */
+    public int getInt(int i, int from) {
+        checkIndex(i);
+        int pos = starts[i] + from;
+        int end = ends[i];
+        boolean negative = pos < end && line.charAt(pos) == '-';
+        if (negative || pos < end && line.charAt(pos) == '+') {
+            pos++;
+        }
+        if (pos >= end) {
+            throw new NumberFormatException("Expected an integer");
+        }
+        long value = 0;
+        for (; pos < end; pos++) {
+            int digit = line.charAt(pos) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("Expected an integer");
+            }
+            value = value * 10 + digit;
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                throw new NumberFormatException("Integer is out of range");
+            }
+        }
+        if (negative) {
+            value = -value;
+        }
+        if (value > Integer.MAX_VALUE) {
+            throw new NumberFormatException("Integer is out of range");
+        }
+        return (int) value;
+    }
+
+    /**
+     * Reads a token as a number, such as a number of hours. Plain decimals with up to 15 digits are read straight
+     * from the line, and any other number, such as one with an exponent, is read by {@link Double#parseDouble}.
+     *
+     * @param i index of the token
+     * @return value of the token
+     * @throws NumberFormatException when the token is not a number
+     */
+    public double getDouble(int i) {
+        checkIndex(i);
+        int pos = starts[i];
+        int end = ends[i];
+        boolean negative = pos < end && line.charAt(pos) == '-';
+        if (negative || pos < end && line.charAt(pos) == '+') {
+            pos++;
+        }
+        long mantissa = 0;
+        int numDigits = 0;
+        int numDecimals = -1;
+        for (; pos < end; pos++) {
+            char c = line.charAt(pos);
+            if (c >= '0' && c <= '9') {
+                mantissa = mantissa * 10 + (c - '0');
+                numDigits++;
+                if (numDecimals >= 0) {
+                    numDecimals++;
+                }
+            } else if (c == '.' && numDecimals < 0) {
+                numDecimals = 0;
+            } else {
+                break;
+            }
+        }
+        if (pos < end || numDigits == 0 || numDigits > 15 || numDecimals >= POWERS_OF_TEN.length
+                || mantissa >= MAX_EXACT_MANTISSA) {
+            return Double.parseDouble(get(i));
+        }
+        // both operands are exact, so the division is rounded once, just like parseDouble
+        double value = numDecimals > 0 ? mantissa / POWERS_OF_TEN[numDecimals] : mantissa;
+        return negative ? -value : value;
+    }
+
+    /**
+     * Gets every token as a String
+     *
+     * @return tokens of the command
+     */
+    public String[] toArray() {
+        String[] tokens = new String[size];
+        for (int i = 0; i < size; i++) {
+            tokens[i] = get(i);
+        }
+        return tokens;
+    }
+
+    private void checkIndex(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Token " + i + " is outside of a command with " + size + " tokens");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.join(" ", toArray());
+    }
+}
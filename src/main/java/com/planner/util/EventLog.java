@@ -3,14 +3,38 @@ package com.planner.util;
 import com.planner.models.*;
 import com.planner.schedule.day.Day;
 
-import java.io.FileNotFoundException;
-import java.text.SimpleDateFormat;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.InputMismatchException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
- * Creates a cumulative log of all actions performed during each session
+ * Creates a log of all actions performed during each session.
+ * Each {@link com.planner.manager.ScheduleManager} owns its own log, and reports may come from several threads
+ * when the schedule is planned in parallel.
+ * <p>
+ * Reports are turned into records holding their time, {@link Level} and message, which are queued in a lock-free
+ * {@link RingBuffer} rather than formatted in place, so reporting never blocks. Records below the level of the log
+ * are dropped before anything is allocated, which is how the per-SubTask {@link #reportDayAction} on the scheduling
+ * hot path is disabled by default. Queued records are drained into a bounded history of the latest lines (see
+ * {@link #toString()}) and, once {@link #openFile(Path)} is called, by a background thread into a rolling log file.
+ * When the buffer is full, the reporting thread drains it itself if no other thread is, and drops the record
+ * otherwise.
  *
  * @author Andrew Roe
  * @author Lucia Langaney
@@ -18,30 +42,196 @@ import java.util.InputMismatchException;
  */
 public class EventLog {
 
-    /** Singleton instance for EventLog */
-    private static EventLog instance;
+    /**
+     * Severity of a record
+     */
+    public enum Level {
+        /** Fine-grained records, such as each SubTask placed while scheduling */
+        DEBUG,
+        /** Actions performed by the user or the system */
+        INFO,
+        /** Failures */
+        ERROR
+    }
+
+    /** Maximum number of records waiting to be drained */
+    private static final int BUFFER_CAPACITY = 1 << 13;
+    /** Maximum number of lines kept in memory */
+    private static final int HISTORY_SIZE = 1000;
+    /** Default maximum size (in bytes) of the log file before it is rolled over */
+    public static final long DEFAULT_MAX_FILE_SIZE = 1 << 20;
+    /** Default number of rolled over log files kept next to the current one */
+    public static final int DEFAULT_MAX_FILES = 3;
+    /** Nanoseconds the background thread waits for new records at most */
+    private static final long DRAIN_INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+    /** Formats the time of each record */
+    private static final DateTimeFormatter TIME_FORMAT =
+            DateTimeFormatter.ofPattern("[HH:mm:ss]").withZone(ZoneId.systemDefault());
+    /** Formats the date of each session header */
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("[dd-MM-yyyy]");
+
+    /** Records waiting to be drained */
+    private final RingBuffer<Record> records;
+    /** Latest lines of the log, guarded by the drain lock */
+    private final ArrayDeque<String> history;
+    /** Serializes draining, so that the buffer only ever has a single consumer */
+    private final ReentrantLock drainLock;
+    /** Number of records dropped because the buffer was full */
+    private final AtomicLong dropped;
+    /** Minimum level of the records being kept */
+    private volatile Level level;
+    /** Header of the current session */
+    private String header;
+    /** Rolling log file receiving every line, guarded by the drain lock (<code>null</code> unless opened) */
+    private RollingFile file;
+    /** Background thread draining records into the file (<code>null</code> unless the file is open) */
+    private volatile Thread drainer;
+    /** Whether the background thread is waiting for new records */
+    private volatile boolean waiting;
+
+    /**
+     * Primary constructor for EventLog
+     */
+    public EventLog() {
+        this.records = new RingBuffer<>(BUFFER_CAPACITY);
+        this.history = new ArrayDeque<>();
+        this.drainLock = new ReentrantLock();
+        this.dropped = new AtomicLong();
+        this.level = Level.INFO;
+        clear();
+    }
+
+    /**
+     * Gets the minimum level of the records being kept
+     *
+     * @return level of the log
+     */
+    public Level getLevel() {
+        return level;
+    }
 
-    private StringBuilder sb = new StringBuilder();
+    /**
+     * Sets the minimum level of the records being kept, so that records below it are dropped before they are
+     * created
+     *
+     * @param level level of the log
+     * @throws IllegalArgumentException when the level is <code>null</code>
+     */
+    public void setLevel(Level level) {
+        if (level == null) {
+            throw new IllegalArgumentException("Log level cannot be null");
+        }
+        this.level = level;
+    }
 
     /**
-     * Primary private constructor for EventLog
+     * Determines whether records of a level are kept
+     *
+     * @param level level of the record
+     * @return boolean value for whether the record would be kept
      */
-    private EventLog() {
-        sb.append(new SimpleDateFormat("[dd-MM-yyyy]").format(Calendar.getInstance().getTime()))
-                .append(" Log of all activities from current session: \n\n");
+    public boolean isEnabled(Level level) {
+        return level.compareTo(this.level) >= 0;
     }
 
     /**
-     * Gets a singleton of EventLog with passed file
+     * Gets the number of records dropped because the buffer was full
      *
-     * @return singleton of EventLog
-     * @throws FileNotFoundException thrown if invalid file
+     * @return number of dropped records
+     */
+    public long getDroppedRecords() {
+        return dropped.get();
+    }
+
+    /**
+     * Appends every record of the session to a log file with the default rollover limits (see
+     * {@link #openFile(Path, long, int)})
+     *
+     * @param path path of the log file
+     * @throws IOException when the file cannot be opened
+     */
+    public void openFile(Path path) throws IOException {
+        openFile(path, DEFAULT_MAX_FILE_SIZE, DEFAULT_MAX_FILES);
+    }
+
+    /**
+     * Appends every record of the session to a log file from a background thread. Once the file exceeds its
+     * maximum size, it is renamed with the suffix {@code .1} (shifting older files to {@code .2} and so on) and a
+     * new file is started.
+     *
+     * @param path path of the log file
+     * @param maxFileSize maximum size of the file in bytes
+     * @param maxFiles number of rolled over files kept next to the current one
+     * @throws IOException when the file cannot be opened
+     * @throws IllegalArgumentException when a file is already open, or a limit is not positive
+     */
+    public void openFile(Path path, long maxFileSize, int maxFiles) throws IOException {
+        if (maxFileSize <= 0 || maxFiles <= 0) {
+            throw new IllegalArgumentException("Log file limits must be positive");
+        }
+        drainLock.lock();
+        try {
+            if (file != null) {
+                throw new IllegalArgumentException("Log file is already open");
+            }
+            file = new RollingFile(path, maxFileSize, maxFiles);
+            file.write(header);
+            // records logged before the file was opened belong to the session as well
+            for (String line : history) {
+                file.write(line);
+            }
+            drain();
+            file.flush();
+        } finally {
+            drainLock.unlock();
+        }
+        Thread thread = new Thread(this::drainLoop, "event-log");
+        thread.setDaemon(true);
+        drainer = thread;
+        thread.start();
+    }
+
+    /**
+     * Writes every queued record and closes the log file, if it is open
+     *
+     * @throws IOException when the file cannot be written
+     */
+    public void close() throws IOException {
+        Thread thread = drainer;
+        drainer = null;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        drainLock.lock();
+        try {
+            drain();
+            if (file != null) {
+                file.close();
+                file = null;
+            }
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    /**
+     * Writes every queued record to the history and the log file right away
      */
-    public static EventLog getEventLog() throws FileNotFoundException {
-        if(instance == null) {
-            instance = new EventLog();
+    public void flush() {
+        drainLock.lock();
+        try {
+            drain();
+            if (file != null) file.flush();
+        } catch (IOException e) {
+            // the history still holds the lines, and the next flush tries the file again
+        } finally {
+            drainLock.unlock();
         }
-        return instance;
     }
 
     /**
@@ -51,24 +241,23 @@ public class EventLog {
      * @param type Action type (0=Add, 1=Remove, 2=EDIT, 3=ARCHIVE)
      */
     public void reportTaskAction(Task task, int type) {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-        if(type == 0) {
-            sb.append(" ADD(TASK): ");
-        } else if(type == 1) {
-            sb.append(" REMOVE(TASK): ");
+        if (!isEnabled(Level.INFO)) return;
+        StringBuilder sb = new StringBuilder();
+        if (type == 0) {
+            sb.append("ADD(TASK):");
+        } else if (type == 1) {
+            sb.append("REMOVE(TASK):");
         } else if (type == 2) {
-            sb.append(" EDIT(TASK): ");
+            sb.append("EDIT(TASK):");
         } else {
-            sb.append(" ARCHIVE(TASK): ");
+            sb.append("ARCHIVE(TASK):");
         }
         sb.append(" ID=").append(task.getId());
         sb.append(", NAME=").append(task.getName());
         sb.append(", HOURS=").append(task.getTotalHours());
-
-        SimpleDateFormat sdf2 = new SimpleDateFormat("MM-dd-yyyy");
-        sb.append(", DUE_DATE=").append(sdf2.format(task.getDueDate().getTime())).append("\n");
+        sb.append(", DUE_DATE=");
+        appendDate(sb, task.getDueDate());
+        log(Level.INFO, sb.toString());
     }
 
     /**
@@ -78,31 +267,25 @@ public class EventLog {
      * @param type Action type (0=Add, 1=Remove, 2=EDIT)
      */
     public void reportEventAction(Event event, int type) {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-
-        if(type == 0)
-            sb.append(" ADD(EVENT): ");
-        else if(type == 1)
-            sb.append(" REMOVE(EVENT): ");
-        else if (type == 2)
-            sb.append(" EDIT(EVENT): ");
-
+        if (!isEnabled(Level.INFO)) return;
+        StringBuilder sb = new StringBuilder();
+        if (type == 0) {
+            sb.append("ADD(EVENT):");
+        } else if (type == 1) {
+            sb.append("REMOVE(EVENT):");
+        } else if (type == 2) {
+            sb.append("EDIT(EVENT):");
+        }
         sb.append(" ID=").append(event.getId());
         sb.append(", NAME=").append(event.getName());
         sb.append(", TIME_SLOT=").append(event.getTimeStamp().toString());
-
-        SimpleDateFormat sdf2 = new SimpleDateFormat("MM-dd-yyyy");
-        sb.append(", DATE=").append(sdf2.format(event.getTimeStamp().getStart().getTime()));
-
+        sb.append(", DATE=");
+        appendDate(sb, event.getTimeStamp().getStart());
         sb.append(", RECURRENCE=").append(event.isRecurring());
-
-        if (event.isRecurring())
+        if (event.isRecurring()) {
             sb.append(", DAYS=").append(Arrays.toString(event.getDays()));
-
-        sb.append("\n");
+        }
+        log(Level.INFO, sb.toString());
     }
 
     /**
@@ -112,21 +295,18 @@ public class EventLog {
      * @param type Action type (0=Card Created, 1=Task Added, 2=Task Removed)
      */
     public void reportCardAction(Card card, int type) {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-
-        if(type == 0) {
-            sb.append(" CREATE(CARD): ");
-        } else if(type == 1) {
-            sb.append(" ADD(TASK): ");
-        } else if(type == 2) {
-            sb.append(" REMOVE(TASK): ");
+        if (!isEnabled(Level.INFO)) return;
+        StringBuilder sb = new StringBuilder();
+        if (type == 0) {
+            sb.append("CREATE(CARD):");
+        } else if (type == 1) {
+            sb.append("ADD(TASK):");
+        } else if (type == 2) {
+            sb.append("REMOVE(TASK):");
         }
-
-        sb.append(" ID=" + card.getId()); //TODO: need to finish getId()
+        sb.append(" ID=").append(card.getId());
         sb.append(", TITLE=").append(card.getName());
-        sb.append("\n");
+        log(Level.INFO, sb.toString());
     }
 
     /**
@@ -137,50 +317,40 @@ public class EventLog {
      * @param global whether edit is standard or not
      */
     public void reportWeekEdit(Calendar date, int hours, boolean global) {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-        sb.append(" EDIT(DAY): GLOBAL=").append(global);
-        sb.append(", HOURS=").append(hours).append("\n");
+        if (!isEnabled(Level.INFO)) return;
+        log(Level.INFO, "EDIT(DAY): GLOBAL=" + global + ", HOURS=" + hours);
     }
 
     /**
-     * Reports actions for given Day
+     * Reports actions for given Day. This is reported for every SubTask placed while scheduling, so it is only
+     * kept at the {@link Level#DEBUG} level.
      *
      * @param day Day being utilized
      * @param task Task being added
      * @param nonOverflow overflow status for Day
      */
     public void reportDayAction(Day day, Task task, boolean nonOverflow) {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-        sb.append(" DAY_ID=").append(day.getId());
-        sb.append(", CAPACITY=").append(day.getCapacity());
-        sb.append(", HOURS_REMAINING=").append(day.getSpareHours());
-        sb.append(", HOURS_FILLED=").append(day.getHoursFilled());
-        sb.append(", TASK ADDED=").append(task.getId());
-        sb.append(", OVERFLOW=").append(!nonOverflow).append("\n");
+        if (!isEnabled(Level.DEBUG)) return;
+        log(Level.DEBUG, "DAY_ID=" + day.getId()
+                + ", CAPACITY=" + day.getCapacity()
+                + ", HOURS_REMAINING=" + day.getSpareHours()
+                + ", HOURS_FILLED=" + day.getHoursFilled()
+                + ", TASK ADDED=" + task.getId()
+                + ", OVERFLOW=" + !nonOverflow);
     }
 
     /**
      * Reports the start of scheduling
      */
     public void reportSchedulingStart() {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-        sb.append(" SCHEDULING HAS BEGUN...\n");
+        log(Level.INFO, "SCHEDULING HAS BEGUN...");
     }
 
     /**
      * Reports the end of scheduling
      */
     public void reportSchedulingFinish() {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-        sb.append(" SCHEDULING HAS FINISHED...\n");
+        log(Level.INFO, "SCHEDULING HAS FINISHED...");
     }
 
     /**
@@ -189,14 +359,10 @@ public class EventLog {
      * @param day Day being displayed to STDOUT
      */
     public void reportDisplayDaySchedule(Day day) {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-        sb.append(" Display Day_Schedule: ");
-        sb.append("CAPACITY=").append(day.getCapacity());
-        sb.append(", HOURS_FILLED=").append(day.getHoursFilled());
-        sb.append(", NUM_TASKS=").append(day.getNumSubTasks()).append("\n");
-
+        if (!isEnabled(Level.INFO)) return;
+        log(Level.INFO, "Display Day_Schedule: CAPACITY=" + day.getCapacity()
+                + ", HOURS_FILLED=" + day.getHoursFilled()
+                + ", NUM_TASKS=" + day.getNumSubTasks());
     }
 
     /**
@@ -207,12 +373,8 @@ public class EventLog {
      * @param status whether output is directed to STDOUT or not
      */
     public void reportDisplaySchedule(int days, int numTasks, boolean status) {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-        sb.append(" Display Schedule: DAYS=").append(days);
-        sb.append(", NUM_TASKS=").append(numTasks);
-        sb.append(", STDOUT=").append(status).append("\n");
+        if (!isEnabled(Level.INFO)) return;
+        log(Level.INFO, "Display Schedule: DAYS=" + days + ", NUM_TASKS=" + numTasks + ", STDOUT=" + status);
     }
 
     /**
@@ -221,9 +383,7 @@ public class EventLog {
      * @param e exception being reported
      */
     public void reportException(Exception e) {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [ERROR] ").append(e.getMessage()).append("\n");
+        log(Level.ERROR, String.valueOf(e.getMessage()));
     }
 
     /**
@@ -232,23 +392,16 @@ public class EventLog {
      * @param filename name of file that contains list of Tasks
      */
     public void reportProcessTasks(String filename) {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-        sb.append(" Reading Tasks: FILE=").append(filename).append("\n");
+        log(Level.INFO, "Reading Tasks: FILE=" + filename);
     }
 
-
     /**
      * Reports the processing of Config from a file
      *
      * @param filename name of Config file
      */
     public void reportProcessConfig(String filename) {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-        sb.append(" Reading Config: FILE=").append(filename).append("\n");
+        log(Level.INFO, "Reading Config: FILE=" + filename);
     }
 
     /**
@@ -270,70 +423,43 @@ public class EventLog {
      * @param value Object value now being utilized
      */
     public void reportConfigAction(int idx, Object value) {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-        if(idx == 0) {
-            if(value instanceof String) {
-                sb.append("EDIT(USER_CONFIG): USER_NAME=").append(value).append("\n");
-            } else {
-                throw new InputMismatchException("Expected <String> for <USER_NAME>");
-            }
-        } else if(idx == 1) {
-            if(value instanceof String) {
-                sb.append("EDIT(USER_CONFIG): EMAIL=").append(value).append("\n");
-            } else {
-                throw new InputMismatchException("Expected <String> for <EMAIL>");
-            }
-        } else if(idx == 2) {
-            if(value instanceof Integer) {
-                sb.append("EDIT(USER_CONFIG): DAY_HOURS=").append(value).append("\n");
-            } else {
-                throw new InputMismatchException("Expected <Integer> for <DAY_HOURS>");
-            }
-        } else if(idx == 3) {
-            if(value instanceof Integer) {
-                sb.append("EDIT(USER_CONFIG): MAX_DAYS=").append(value).append("\n");
-            } else {
-                throw new InputMismatchException("Expected <Integer> for <MAX_DAYS>");
-            }
-        } else if(idx == 4) {
-            if(value instanceof Integer) {
-                sb.append("EDIT(USER_CONFIG): ARCHIVE_DAYS=").append(value).append("\n");
-            } else {
-                throw new InputMismatchException("Expected <Integer> for <ARCHIVE_DAYS>");
-            }
-        } else if(idx == 5) {
-            if(value instanceof Boolean) {
-                sb.append("EDIT(USER_CONFIG): PRIORITY=").append(value).append("\n");
-            } else {
-                throw new InputMismatchException("Expected <Boolean> for <PRIORITY>");
-            }
-        } else if(idx == 6) {
-            if(value instanceof Boolean) {
-                sb.append("EDIT(USER_CONFIG): OVERFLOW=").append(value).append("\n");
-            } else {
-                throw new InputMismatchException("Expected <Boolean> for <OVERFLOW>");
-            }
-        } else if(idx == 7) {
-            if(value instanceof Boolean) {
-                sb.append("EDIT(USER_CONFIG): FIT_SCHEDULE=").append(value).append("\n");
-            } else {
-                throw new InputMismatchException("Expected <Boolean> for <FIT_SCHEDULE>");
-            }
-        } else if(idx == 8) {
-            if(value instanceof Integer) {
-                sb.append("EDIT(USER_CONFIG): SCHEDULE_ALG=").append(value).append("\n");
-            } else {
-                throw new InputMismatchException("Expected <Integer> for <SCHEDULE_ALG>");
-            }
+        String attr;
+        Class<?> type;
+        if (idx == 0) {
+            attr = "USER_NAME";
+            type = String.class;
+        } else if (idx == 1) {
+            attr = "EMAIL";
+            type = String.class;
+        } else if (idx == 2) {
+            attr = "DAY_HOURS";
+            type = Integer.class;
+        } else if (idx == 3) {
+            attr = "MAX_DAYS";
+            type = Integer.class;
+        } else if (idx == 4) {
+            attr = "ARCHIVE_DAYS";
+            type = Integer.class;
+        } else if (idx == 5) {
+            attr = "PRIORITY";
+            type = Boolean.class;
+        } else if (idx == 6) {
+            attr = "OVERFLOW";
+            type = Boolean.class;
+        } else if (idx == 7) {
+            attr = "FIT_SCHEDULE";
+            type = Boolean.class;
+        } else if (idx == 8) {
+            attr = "SCHEDULE_ALG";
+            type = Integer.class;
         } else {
-            if(value instanceof Integer) {
-                sb.append("EDIT(USER_CONFIG): MIN_HOURS=").append(value).append("\n");
-            } else {
-                throw new InputMismatchException("Expected <Integer> for <MIN_HOURS>");
-            }
+            attr = "MIN_HOURS";
+            type = Integer.class;
         }
+        if (!type.isInstance(value)) {
+            throw new InputMismatchException("Expected <" + type.getSimpleName() + "> for <" + attr + ">");
+        }
+        log(Level.INFO, "EDIT(USER_CONFIG): " + attr + "=" + value);
     }
 
     /**
@@ -342,10 +468,7 @@ public class EventLog {
      * @param filename name of input file
      */
     public void reportReadJBinFile(String filename) {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-        sb.append(" READ(JBIN): FILE=").append(filename).append("\n");
+        log(Level.INFO, "READ(JBIN): FILE=" + filename);
     }
 
     /**
@@ -354,40 +477,65 @@ public class EventLog {
      * @param filename name of output file
      */
     public void reportWriteJBinFile(String filename) {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-        sb.append(" WRITE(JBIN): FILE=").append(filename).append("\n");
+        log(Level.INFO, "WRITE(JBIN): FILE=" + filename);
+    }
+
+    /**
+     * Reads a snapshot of the planner state from file
+     *
+     * @param filename name of input file
+     */
+    public void reportReadSnapshot(String filename) {
+        log(Level.INFO, "READ(SNAPSHOT): FILE=" + filename);
+    }
+
+    /**
+     * Writes a snapshot of the planner state to file
+     *
+     * @param filename name of output file
+     */
+    public void reportWriteSnapshot(String filename) {
+        log(Level.INFO, "WRITE(SNAPSHOT): FILE=" + filename);
+    }
+
+    /**
+     * Replays the journal of planner mutations from file
+     *
+     * @param filename name of journal file
+     * @param numRecords number of mutations replayed
+     */
+    public void reportReplayJournal(String filename, int numRecords) {
+        log(Level.INFO, "READ(JOURNAL): FILE=" + filename + ", RECORDS=" + numRecords);
+    }
+
+    /**
+     * Reports the compaction of the journal into a snapshot
+     *
+     * @param sequence sequence number of the last record included in the snapshot
+     */
+    public void reportCompactJournal(long sequence) {
+        log(Level.INFO, "JOURNAL COMPACTED: SEQUENCE=" + sequence);
     }
 
     /**
      * Reports the creation of a JBin file
      */
     public void reportCreateJBin() {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-        sb.append(" JBIN FILE CREATED...\n");
+        log(Level.INFO, "JBIN FILE CREATED...");
     }
 
     /**
      * Reports the processing of a JBin file
      */
     public void reportProcessJBin() {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-        sb.append(" JBIN FILE PROCESSED...\n");
+        log(Level.INFO, "JBIN FILE PROCESSED...");
     }
 
     /**
      * Reports the User's most recent login
      */
     public void reportUserLogin() {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-        sb.append(" CURRENT SESSION HAS BEGUN...\n");
+        log(Level.INFO, "CURRENT SESSION HAS BEGUN...");
     }
 
     /**
@@ -396,20 +544,18 @@ public class EventLog {
      * @param userConfig UserConfig attributes
      */
     public void reportUserConfigAttr(UserConfig userConfig) {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-        sb.append(" RANGE=").append(Arrays.toString(userConfig.getDailyHoursRange()));
-        sb.append(", WEEK_HOURS=").append(Arrays.toString(userConfig.getHoursPerDayOfWeek()));
-        sb.append(", MAX_DAYS=").append(userConfig.getMaxDays());
-        sb.append(", ARCHIVE_DAYS=").append(userConfig.getArchiveDays());
-        sb.append(", PRIORITY=").append(userConfig.isPriority());
-        sb.append(", OVERFLOW=").append(userConfig.isOverflow());
-        sb.append(", FIT_SCHEDULE=").append(userConfig.isFitDay());
-        sb.append(", SCHEDULE_ALGO=").append(userConfig.getSchedulingAlgorithm());
-        sb.append(", MIN_HOURS=").append(userConfig.getMinHours());
-        sb.append(", OPTIMIZE_DAY=").append(userConfig.isOptimizeDay());
-        sb.append(", DEFAULT_AT_START=").append(userConfig.isDefaultAtStart()).append("\n");
+        if (!isEnabled(Level.INFO)) return;
+        log(Level.INFO, "RANGE=" + Arrays.toString(userConfig.getDailyHoursRange())
+                + ", WEEK_HOURS=" + Arrays.toString(userConfig.getHoursPerDayOfWeek())
+                + ", MAX_DAYS=" + userConfig.getMaxDays()
+                + ", ARCHIVE_DAYS=" + userConfig.getArchiveDays()
+                + ", PRIORITY=" + userConfig.isPriority()
+                + ", OVERFLOW=" + userConfig.isOverflow()
+                + ", FIT_SCHEDULE=" + userConfig.isFitDay()
+                + ", SCHEDULE_ALGO=" + userConfig.getSchedulingAlgorithm()
+                + ", MIN_HOURS=" + userConfig.getMinHours()
+                + ", OPTIMIZE_DAY=" + userConfig.isOptimizeDay()
+                + ", DEFAULT_AT_START=" + userConfig.isDefaultAtStart());
     }
 
     /**
@@ -419,12 +565,8 @@ public class EventLog {
      * @param isStartOfScript whether the script has begun or ended
      */
     public void reportScriptInstance(String filename, boolean isStartOfScript) {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-        sb.append(" SCRIPT_NAME=").append(filename);
-        if(isStartOfScript) sb.append(", SCRIPT INSTANCE HAS BEGUN...\n");
-        else sb.append(", SCRIPT INSTANCE HAS ENDED...\n");
+        log(Level.INFO, "SCRIPT_NAME=" + filename
+                + (isStartOfScript ? ", SCRIPT INSTANCE HAS BEGUN..." : ", SCRIPT INSTANCE HAS ENDED..."));
     }
 
     public void reportJsonActions() {
@@ -432,66 +574,295 @@ public class EventLog {
     }
 
     public void reportExcelFileNameChange(String newName) {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-        sb.append(" EXCEL FILE NAME HAS BEEN CHANGED TO '").append(newName).append(".xlsx'...\n");
+        log(Level.INFO, "EXCEL FILE NAME HAS BEEN CHANGED TO '" + newName + ".xlsx'...");
     }
 
     public void reportExcelFileCreation() {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-        sb.append(" EXCEL FILE CREATION PROCESSED...\n");
+        log(Level.INFO, "EXCEL FILE CREATION PROCESSED...");
     }
 
     public void reportExcelExportSchedule() {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-        sb.append(" SCHEDULE EXPORTED TO EXCEL FILE...\n");
+        log(Level.INFO, "SCHEDULE EXPORTED TO EXCEL FILE...");
     }
 
     public void reportGoogleCalendarAuthorization() {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-        sb.append(" GOOGLE CALENDAR AUTHORIZATION PROCESSED...\n");
+        log(Level.INFO, "GOOGLE CALENDAR AUTHORIZATION PROCESSED...");
     }
 
     public void reportGoogleCalendarCleanSchedule(int numTasksDeleted) {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-        sb.append(" ").append(numTasksDeleted).append(" TASKS REMOVED FROM GOOGLE CALENDAR...\n");
+        log(Level.INFO, numTasksDeleted + " TASKS REMOVED FROM GOOGLE CALENDAR...");
     }
 
     public void reportGoogleCalendarExportSchedule() {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-        sb.append(" SCHEDULE EXPORTED TO GOOGLE CALENDAR...\n");
+        log(Level.INFO, "SCHEDULE EXPORTED TO GOOGLE CALENDAR...");
     }
 
     public void reportGoogleCalendarImportSchedule() {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-        sb.append(" SCHEDULE IMPORTED FROM GOOGLE CALENDAR...\n");
+        log(Level.INFO, "SCHEDULE IMPORTED FROM GOOGLE CALENDAR...");
     }
 
     /**
      * Reports that current session has ended
      */
     public void reportExitSession() {
-        SimpleDateFormat sdf = new SimpleDateFormat("[HH:mm:ss]");
-        sb.append(sdf.format(Calendar.getInstance().getTime()));
-        sb.append(" [INFO]");
-        sb.append(" CURRENT SESSION HAS ENDED...\n");
+        log(Level.INFO, "CURRENT SESSION HAS ENDED...");
     }
 
+    /**
+     * Queues a record, unless its level is disabled
+     *
+     * @param level level of the record
+     * @param message message of the record
+     */
+    public void log(Level level, String message) {
+        if (!isEnabled(level)) return;
+        Record record = new Record(System.currentTimeMillis(), level, message);
+        if (!records.offer(record)) {
+            // the buffer is only drained by the thread holding the lock, which may be this one
+            if (drainLock.tryLock()) {
+                try {
+                    drain();
+                } finally {
+                    drainLock.unlock();
+                }
+            }
+            if (!records.offer(record)) {
+                dropped.incrementAndGet();
+                return;
+            }
+        }
+        if (waiting) {
+            waiting = false;
+            Thread thread = drainer;
+            if (thread != null) LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Discards all entries logged so far, keeping only a fresh session header.
+     * Long-running drivers (e.g. benchmarks) use this to keep the log from growing without bound.
+     */
+    public void clear() {
+        drainLock.lock();
+        try {
+            drain();
+            history.clear();
+            header = LocalDate.now().format(DATE_FORMAT) + " Log of all activities from current session: \n";
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    /**
+     * Gets the session header followed by the latest lines of the log
+     *
+     * @return latest lines of the log
+     */
     @Override
     public String toString() {
-        return sb.toString();
+        drainLock.lock();
+        try {
+            drain();
+            StringBuilder sb = new StringBuilder(header).append('\n');
+            for (String line : history) {
+                sb.append(line).append('\n');
+            }
+            return sb.toString();
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    /**
+     * Drains records into the log file until the file is closed
+     */
+    private void drainLoop() {
+        while (drainer == Thread.currentThread()) {
+            drainLock.lock();
+            try {
+                drain();
+                if (file != null) file.flush();
+            } catch (IOException e) {
+                // the history still holds the lines, and the next flush tries the file again
+            } finally {
+                drainLock.unlock();
+            }
+            waiting = true;
+            if (records.isEmpty() && drainer == Thread.currentThread()) {
+                LockSupport.parkNanos(this, DRAIN_INTERVAL);
+            }
+            waiting = false;
+        }
+    }
+
+    /**
+     * Formats every queued record into the history and the log file. The drain lock must be held.
+     */
+    private void drain() {
+        Record record;
+        while ((record = records.poll()) != null) {
+            String line = TIME_FORMAT.format(Instant.ofEpochMilli(record.time)) + " [" + record.level + "] "
+                    + record.message;
+            if (history.size() == HISTORY_SIZE) history.removeFirst();
+            history.addLast(line);
+            if (file != null) {
+                try {
+                    file.write(line);
+                } catch (IOException e) {
+                    // keeps draining, so that a failing file never fills the buffer
+                    dropped.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    /**
+     * Appends a date in the format {@code MM-dd-yyyy}
+     *
+     * @param sb builder receiving the date
+     * @param date date being appended
+     */
+    private static void appendDate(StringBuilder sb, Calendar date) {
+        int month = date.get(Calendar.MONTH) + 1;
+        int day = date.get(Calendar.DAY_OF_MONTH);
+        sb.append(month < 10 ? "0" : "").append(month).append('-');
+        sb.append(day < 10 ? "0" : "").append(day).append('-');
+        sb.append(date.get(Calendar.YEAR));
+    }
+
+    /**
+     * Single entry of the log
+     *
+     * @author Andrew Roe
+     */
+    private static final class Record {
+
+        /** Epoch-millisecond at which the record was reported */
+        private final long time;
+        /** Level of the record */
+        private final Level level;
+        /** Message of the record */
+        private final String message;
+
+        /**
+         * Constructs a new Record
+         *
+         * @param time epoch-millisecond at which the record was reported
+         * @param level level of the record
+         * @param message message of the record
+         */
+        private Record(long time, Level level, String message) {
+            this.time = time;
+            this.level = level;
+            this.message = message;
+        }
+    }
+
+    /**
+     * Log file which is rolled over once it exceeds its maximum size
+     *
+     * @author Andrew Roe
+     */
+    private static final class RollingFile {
+
+        /** Path of the current file */
+        private final Path path;
+        /** Maximum size of the file in bytes */
+        private final long maxFileSize;
+        /** Number of rolled over files kept */
+        private final int maxFiles;
+        /** Writer of the current file */
+        private Writer out;
+        /** Size of the current file in bytes */
+        private long size;
+
+        /**
+         * Opens a log file, appending to it if it exists
+         *
+         * @param path path of the file
+         * @param maxFileSize maximum size of the file in bytes
+         * @param maxFiles number of rolled over files kept
+         * @throws IOException when the file cannot be opened
+         */
+        private RollingFile(Path path, long maxFileSize, int maxFiles) throws IOException {
+            this.path = path;
+            this.maxFileSize = maxFileSize;
+            this.maxFiles = maxFiles;
+            Path dir = path.toAbsolutePath().getParent();
+            Files.createDirectories(dir);
+            open();
+        }
+
+        /**
+         * Writes a line, rolling the file over first if the line does not fit
+         *
+         * @param line line being written
+         * @throws IOException when the line cannot be written
+         */
+        private void write(String line) throws IOException {
+            byte[] bytes = (line + '\n').getBytes(StandardCharsets.UTF_8);
+            if (size > 0 && size + bytes.length > maxFileSize) {
+                roll();
+            }
+            out.write(line);
+            out.write('\n');
+            size += bytes.length;
+        }
+
+        /**
+         * Renames the current file with the suffix {@code .1}, shifting older ones, and starts a new one
+         *
+         * @throws IOException when the files cannot be renamed
+         */
+        private void roll() throws IOException {
+            out.close();
+            Files.deleteIfExists(sibling(maxFiles));
+            for (int i = maxFiles - 1; i >= 1; i--) {
+                if (Files.exists(sibling(i))) {
+                    Files.move(sibling(i), sibling(i + 1), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            Files.move(path, sibling(1), StandardCopyOption.REPLACE_EXISTING);
+            open();
+        }
+
+        /**
+         * Opens the current file for appending
+         *
+         * @throws IOException when the file cannot be opened
+         */
+        private void open() throws IOException {
+            out = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND);
+            size = Files.size(path);
+        }
+
+        /**
+         * Gets the path of a rolled over file
+         *
+         * @param idx index of the rolled over file
+         * @return path of the file
+         */
+        private Path sibling(int idx) {
+            return path.resolveSibling(path.getFileName() + "." + idx);
+        }
+
+        /**
+         * Flushes buffered lines to the file
+         *
+         * @throws IOException when the lines cannot be written
+         */
+        private void flush() throws IOException {
+            out.flush();
+        }
+
+        /**
+         * Closes the file
+         *
+         * @throws IOException when the file cannot be closed
+         */
+        private void close() throws IOException {
+            out.close();
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,261 @@
+package com.planner.util;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.NoSuchElementException;
+import java.util.function.ToIntFunction;
+
+/**
+ * Binary min-heap which tracks the position of every element by a non-negative integer key (such as the ID of a
+ * Task). Besides the usual heap operations, this allows removing an arbitrary element and restoring the order of an
+ * element whose priority changed in O(log n), rather than the O(n) search a {@link java.util.PriorityQueue} needs.
+ * <p>
+ * Keys are expected to be unique and reasonably dense, since positions are stored in an array indexed by key.
+ *
+ * @param <E> type of element
+ * @author Andrew Roe
+ */
+public class IndexedHeap<E> {
+
+    /** Initial number of elements the heap can hold before growing */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Determines the order of elements */
+    private final Comparator<? super E> comparator;
+    /** Extracts the key of an element */
+    private final ToIntFunction<? super E> keyExtractor;
+    /** Elements in heap order */
+    private Object[] heap;
+    /** Position of each element within the heap plus one, indexed by key (<code>0</code> if absent) */
+    private int[] positions;
+    /** Number of elements in the heap */
+    private int size;
+
+    /**
+     * Constructs an empty {@code IndexedHeap}
+     *
+     * @param comparator determines the order of elements, with the least element at the top
+     * @param keyExtractor extracts the unique, non-negative key of an element
+     */
+    public IndexedHeap(Comparator<? super E> comparator, ToIntFunction<? super E> keyExtractor) {
+        this.comparator = comparator;
+        this.keyExtractor = keyExtractor;
+        this.heap = new Object[INITIAL_CAPACITY];
+        this.positions = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Gets the number of elements in the heap
+     *
+     * @return number of elements
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Determines whether the heap is empty
+     *
+     * @return boolean value for whether there are no elements
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Determines whether an element with the same key as the given element is within the heap
+     *
+     * @param e element being checked
+     * @return boolean value for whether the element is within the heap
+     */
+    public boolean contains(E e) {
+        int key = keyExtractor.applyAsInt(e);
+        return key < positions.length && positions[key] != 0;
+    }
+
+    /**
+     * Adds an element to the heap
+     *
+     * @param e element being added
+     * @throws IllegalArgumentException when the key of the element is negative or already within the heap
+     */
+    public void add(E e) {
+        int key = keyExtractor.applyAsInt(e);
+        if (key < 0) {
+            throw new IllegalArgumentException("Heap keys cannot be negative");
+        }
+        if (key >= positions.length) {
+            positions = Arrays.copyOf(positions, Math.max(key + 1, positions.length * 2));
+        } else if (positions[key] != 0) {
+            throw new IllegalArgumentException("Heap already holds key " + key);
+        }
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+        }
+        siftUp(size++, e);
+    }
+
+    /**
+     * Gets the least element without removing it
+     *
+     * @return least element, or <code>null</code> if the heap is empty
+     */
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        return size == 0 ? null : (E) heap[0];
+    }
+
+    /**
+     * Removes the least element
+     *
+     * @return least element, or <code>null</code> if the heap is empty
+     */
+    public E poll() {
+        if (size == 0) return null;
+        E top = peek();
+        removeAt(0);
+        return top;
+    }
+
+    /**
+     * Removes the least element
+     *
+     * @return least element
+     * @throws NoSuchElementException when the heap is empty
+     */
+    public E remove() {
+        if (size == 0) {
+            throw new NoSuchElementException("Heap is empty");
+        }
+        return poll();
+    }
+
+    /**
+     * Removes the element with the same key as the given element
+     *
+     * @param e element being removed
+     * @return boolean value for whether the element was within the heap
+     */
+    public boolean remove(E e) {
+        if (!contains(e)) return false;
+        removeAt(positions[keyExtractor.applyAsInt(e)] - 1);
+        return true;
+    }
+
+    /**
+     * Restores the order of an element after its priority changed
+     *
+     * @param e element whose priority changed
+     * @return boolean value for whether the element was within the heap
+     */
+    @SuppressWarnings("unchecked")
+    public boolean update(E e) {
+        if (!contains(e)) return false;
+        int idx = positions[keyExtractor.applyAsInt(e)] - 1;
+        E element = (E) heap[idx];
+        siftUp(idx, element);
+        if (heap[idx] == element) {
+            siftDown(idx, element);
+        }
+        return true;
+    }
+
+    /**
+     * Removes all elements from the heap
+     */
+    @SuppressWarnings("unchecked")
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[keyExtractor.applyAsInt((E) heap[i])] = 0;
+            heap[i] = null;
+        }
+        size = 0;
+    }
+
+    /**
+     * Gets the element at a position in heap order (the order is unrelated to the order of the elements except for
+     * the first one)
+     *
+     * @param idx position within the heap
+     * @return element at the position
+     * @throws IndexOutOfBoundsException when the position is outside the heap
+     */
+    @SuppressWarnings("unchecked")
+    public E get(int idx) {
+        if (idx < 0 || idx >= size) {
+            throw new IndexOutOfBoundsException("Index " + idx + " out of bounds for size " + size);
+        }
+        return (E) heap[idx];
+    }
+
+    /**
+     * Removes the element at a position of the heap
+     *
+     * @param idx position of the element
+     */
+    @SuppressWarnings("unchecked")
+    private void removeAt(int idx) {
+        E removed = (E) heap[idx];
+        positions[keyExtractor.applyAsInt(removed)] = 0;
+        E last = (E) heap[--size];
+        heap[size] = null;
+        if (idx == size) return;
+        siftDown(idx, last);
+        if (heap[idx] == last) {
+            siftUp(idx, last);
+        }
+    }
+
+    /**
+     * Moves an element up from a position until its parent is not greater than it
+     *
+     * @param idx starting position
+     * @param e element being placed
+     */
+    @SuppressWarnings("unchecked")
+    private void siftUp(int idx, E e) {
+        while (idx > 0) {
+            int parentIdx = (idx - 1) >>> 1;
+            E parent = (E) heap[parentIdx];
+            if (comparator.compare(e, parent) >= 0) break;
+            place(idx, parent);
+            idx = parentIdx;
+        }
+        place(idx, e);
+    }
+
+    /**
+     * Moves an element down from a position until none of its children are less than it
+     *
+     * @param idx starting position
+     * @param e element being placed
+     */
+    @SuppressWarnings("unchecked")
+    private void siftDown(int idx, E e) {
+        int half = size >>> 1;
+        while (idx < half) {
+            int childIdx = 2 * idx + 1;
+            E child = (E) heap[childIdx];
+            int rightIdx = childIdx + 1;
+            if (rightIdx < size && comparator.compare((E) heap[rightIdx], child) < 0) {
+                childIdx = rightIdx;
+                child = (E) heap[childIdx];
+            }
+            if (comparator.compare(e, child) <= 0) break;
+            place(idx, child);
+            idx = childIdx;
+        }
+        place(idx, e);
+    }
+
+    /**
+     * Stores an element at a position and records the position
+     *
+     * @param idx position within the heap
+     * @param e element being stored
+     */
+    private void place(int idx, E e) {
+        heap[idx] = e;
+        positions[keyExtractor.applyAsInt(e)] = idx + 1;
+    }
+}
@@ -0,0 +1,196 @@
+package com.planner.util;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Hash map from primitive {@code int} keys to values, using open addressing with linear probing. Unlike a
+ * {@code HashMap<Integer, V>}, keys are never boxed and no entry objects are allocated, so lookups by ID stay cheap
+ * even for large planners.
+ * <p>
+ * The map does not accept <code>null</code> values, since <code>null</code> marks an empty slot.
+ *
+ * @param <V> type of value
+ * @author Andrew Roe
+ */
+public class IntMap<V> {
+
+    /** Initial number of slots, which is always a power of two */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** Keys of all slots */
+    private int[] keys;
+    /** Values of all slots (<code>null</code> if the slot is empty) */
+    private Object[] values;
+    /** Number of entries in the map */
+    private int size;
+
+    /**
+     * Constructs an empty {@code IntMap}
+     */
+    public IntMap() {
+        this.keys = new int[INITIAL_CAPACITY];
+        this.values = new Object[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Gets the number of entries in the map
+     *
+     * @return number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Determines whether the map is empty
+     *
+     * @return boolean value for whether there are no entries
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gets the value mapped to a key
+     *
+     * @param key key being looked up
+     * @return value of the key, or <code>null</code> if the key is absent
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int mask = keys.length - 1;
+        for (int idx = hash(key) & mask; values[idx] != null; idx = (idx + 1) & mask) {
+            if (keys[idx] == key) return (V) values[idx];
+        }
+        return null;
+    }
+
+    /**
+     * Determines whether a key is mapped to a value
+     *
+     * @param key key being checked
+     * @return boolean value for whether the key is present
+     */
+    public boolean containsKey(int key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Maps a key to a value, replacing any previous value
+     *
+     * @param key key of the entry
+     * @param value value of the entry
+     * @return previous value of the key, or <code>null</code> if the key was absent
+     * @throws IllegalArgumentException when the value is <code>null</code>
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("IntMap values cannot be null");
+        }
+        int mask = keys.length - 1;
+        int idx = hash(key) & mask;
+        while (values[idx] != null) {
+            if (keys[idx] == key) {
+                V prev = (V) values[idx];
+                values[idx] = value;
+                return prev;
+            }
+            idx = (idx + 1) & mask;
+        }
+        keys[idx] = key;
+        values[idx] = value;
+        // keeps the load factor at or below one half
+        if (++size * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+        return null;
+    }
+
+    /**
+     * Removes the entry of a key
+     *
+     * @param key key being removed
+     * @return value the key was mapped to, or <code>null</code> if the key was absent
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        int mask = keys.length - 1;
+        int idx = hash(key) & mask;
+        while (values[idx] != null && keys[idx] != key) {
+            idx = (idx + 1) & mask;
+        }
+        if (values[idx] == null) return null;
+        V removed = (V) values[idx];
+        size--;
+
+        // shifts later entries of the probe sequence back so that no lookup stops at the emptied slot
+        int gap = idx;
+        for (idx = (gap + 1) & mask; values[idx] != null; idx = (idx + 1) & mask) {
+            int home = hash(keys[idx]) & mask;
+            if (((idx - home) & mask) >= ((idx - gap) & mask)) {
+                keys[gap] = keys[idx];
+                values[gap] = values[idx];
+                gap = idx;
+            }
+        }
+        values[gap] = null;
+        return removed;
+    }
+
+    /**
+     * Removes all entries from the map
+     */
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * Performs an action for every value in the map, in no particular order. The map must not be modified by the
+     * action.
+     *
+     * @param action action performed for each value
+     */
+    @SuppressWarnings("unchecked")
+    public void forEachValue(Consumer<? super V> action) {
+        for (Object value : values) {
+            if (value != null) action.accept((V) value);
+        }
+    }
+
+    /**
+     * Rehashes all entries into a table with the given number of slots
+     *
+     * @param capacity new number of slots (a power of two)
+     */
+    @SuppressWarnings("unchecked")
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new int[capacity];
+        values = new Object[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] == null) continue;
+            int idx = hash(oldKeys[i]) & mask;
+            while (values[idx] != null) {
+                idx = (idx + 1) & mask;
+            }
+            keys[idx] = oldKeys[i];
+            values[idx] = oldValues[i];
+        }
+    }
+
+    /**
+     * Spreads the bits of a key, since IDs are mostly sequential
+     *
+     * @param key key being hashed
+     * @return hash of the key
+     */
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,390 @@
+package com.planner.util;
+
+import com.google.gson.GsonBuilder;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide registry of named counters and latency histograms, used to observe where time and memory go in a
+ * running session without attaching a profiler. Metrics are created on first use and live until the registry is
+ * reset, so hot paths should look them up once and keep them in a static field.
+ * <p>
+ * Recording never locks or allocates: counters are {@link LongAdder}s, and histograms bucket values on a log-linear
+ * scale (as HdrHistogram does) into a fixed array of atomic counts.
+ *
+ * @author Andrew Roe
+ */
+public final class Metrics {
+
+    /** Counters by name */
+    private static final Map<String, Counter> COUNTERS = new ConcurrentHashMap<>();
+    /** Histograms by name */
+    private static final Map<String, Histogram> HISTOGRAMS = new ConcurrentHashMap<>();
+    /** Percentiles reported for every histogram */
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+    /** Labels of the reported percentiles */
+    private static final String[] PERCENTILE_LABELS = {"p50", "p90", "p99", "p999"};
+
+    private Metrics() {
+    }
+
+    /**
+     * Gets the counter with a name, creating it if needed
+     *
+     * @param name name of the counter
+     * @return counter with the name
+     */
+    public static Counter counter(String name) {
+        return COUNTERS.computeIfAbsent(name, key -> new Counter());
+    }
+
+    /**
+     * Gets the histogram with a name, creating it if needed
+     *
+     * @param name name of the histogram
+     * @return histogram with the name
+     */
+    public static Histogram histogram(String name) {
+        return HISTOGRAMS.computeIfAbsent(name, key -> new Histogram());
+    }
+
+    /**
+     * Gets the total number of bytes allocated by the current thread so far, which is subtracted from a later
+     * reading to measure the allocations of an operation
+     *
+     * @return bytes allocated by the current thread, or -1 if the JVM does not track allocations
+     */
+    public static long allocatedBytes() {
+        com.sun.management.ThreadMXBean threadBean = ThreadBeanHolder.THREAD_BEAN;
+        if (threadBean == null) return -1;
+        return threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Sets all counters and histograms back to zero, such as at the start of a measured run
+     */
+    public static void reset() {
+        COUNTERS.values().forEach(Counter::reset);
+        HISTOGRAMS.values().forEach(Histogram::reset);
+    }
+
+    /**
+     * Builds a table of all metrics, where histograms of durations ending in {@code _ns} are shown in microseconds
+     *
+     * @return String of all counters and histograms
+     */
+    public static String buildMetricsStr() {
+        StringBuilder sb = new StringBuilder();
+        Map<String, Counter> counters = new TreeMap<>(COUNTERS);
+        if (!counters.isEmpty()) {
+            sb.append(String.format("%-32s %14s%n", "COUNTER", "VALUE"));
+            for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+                sb.append(String.format("%-32s %14d%n", entry.getKey(), entry.getValue().get()));
+            }
+        }
+        Map<String, Histogram> histograms = new TreeMap<>(HISTOGRAMS);
+        if (!histograms.isEmpty()) {
+            if (sb.length() > 0) sb.append('\n');
+            sb.append(String.format("%-32s %8s %12s", "HISTOGRAM", "COUNT", "MEAN"));
+            for (String label : PERCENTILE_LABELS) {
+                sb.append(String.format(" %12s", label.toUpperCase()));
+            }
+            sb.append(String.format(" %12s%n", "MAX"));
+            for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+                String name = entry.getKey();
+                Histogram histogram = entry.getValue();
+                // durations are recorded in nanoseconds but read best in microseconds
+                double scale = name.endsWith("_ns") ? 1000.0 : 1.0;
+                String label = scale == 1.0 ? name : name.substring(0, name.length() - 3) + "_us";
+                sb.append(String.format("%-32s %8d %12.1f", label, histogram.getCount(),
+                        histogram.getMean() / scale));
+                for (double percentile : PERCENTILES) {
+                    sb.append(String.format(" %12.1f", histogram.getPercentile(percentile) / scale));
+                }
+                sb.append(String.format(" %12.1f%n", histogram.getMax() / scale));
+            }
+        }
+        return sb.length() == 0 ? "No metrics have been recorded." : sb.toString();
+    }
+
+    /**
+     * Builds a JSON document of all metrics for tools that process them further
+     *
+     * @return JSON String of all counters and histograms
+     */
+    public static String toJson() {
+        Map<String, Long> counters = new TreeMap<>();
+        COUNTERS.forEach((name, counter) -> counters.put(name, counter.get()));
+        Map<String, Map<String, Object>> histograms = new TreeMap<>();
+        HISTOGRAMS.forEach((name, histogram) -> {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("count", histogram.getCount());
+            stats.put("sum", histogram.getSum());
+            stats.put("mean", histogram.getMean());
+            for (int i = 0; i < PERCENTILES.length; i++) {
+                stats.put(PERCENTILE_LABELS[i], histogram.getPercentile(PERCENTILES[i]));
+            }
+            stats.put("max", histogram.getMax());
+            histograms.put(name, stats);
+        });
+        Map<String, Object> dump = new LinkedHashMap<>();
+        dump.put("timestamp", System.currentTimeMillis());
+        dump.put("counters", counters);
+        dump.put("histograms", histograms);
+        return new GsonBuilder().setPrettyPrinting().create().toJson(dump);
+    }
+
+    /**
+     * Writes the JSON document of all metrics to a file, replacing any previous dump
+     *
+     * @param file file being written
+     * @throws IOException when the file cannot be written
+     */
+    public static void writeDump(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.write(file, toJson().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Gets the platform bean with per-thread allocation tracking enabled
+     *
+     * @return bean reporting allocated bytes, or <code>null</code> if it is unavailable
+     */
+    private static com.sun.management.ThreadMXBean initThreadBean() {
+        try {
+            java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (!(bean instanceof com.sun.management.ThreadMXBean)) return null;
+            com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+            if (!threadBean.isThreadAllocatedMemorySupported()) return null;
+            if (!threadBean.isThreadAllocatedMemoryEnabled()) {
+                threadBean.setThreadAllocatedMemoryEnabled(true);
+            }
+            return threadBean;
+        } catch (UnsupportedOperationException | SecurityException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Holder of the thread bean, so that JMX is only loaded once allocations are first measured rather than on
+     * startup
+     */
+    private static final class ThreadBeanHolder {
+        /** Bean reporting the bytes allocated per thread, or <code>null</code> if the JVM does not support it */
+        private static final com.sun.management.ThreadMXBean THREAD_BEAN = initThreadBean();
+    }
+
+    /**
+     * Monotonic count of occurrences
+     *
+     * @author Andrew Roe
+     */
+    public static final class Counter {
+
+        private final LongAdder value = new LongAdder();
+
+        private Counter() {
+        }
+
+        /**
+         * Adds one to the counter
+         */
+        public void increment() {
+            value.increment();
+        }
+
+        /**
+         * Adds an amount to the counter
+         *
+         * @param amount amount being added
+         */
+        public void add(long amount) {
+            value.add(amount);
+        }
+
+        /**
+         * Gets the current value
+         *
+         * @return sum of all additions
+         */
+        public long get() {
+            return value.sum();
+        }
+
+        /**
+         * Sets the counter back to zero
+         */
+        private void reset() {
+            value.reset();
+        }
+    }
+
+    /**
+     * Distribution of non-negative values, such as durations in nanoseconds or bytes allocated.
+     * <p>
+     * Values below 64 are counted exactly. Larger values share a bucket with the values having the same position
+     * of their highest bit and the same next five bits, so each power of two is split into 32 buckets and every
+     * reported percentile is within about 3% of the recorded value.
+     *
+     * @author Andrew Roe
+     */
+    public static final class Histogram {
+
+        /** Number of bits after the highest bit that select a bucket */
+        private static final int SUB_BITS = 5;
+        /** Number of buckets per power of two */
+        private static final int SUB_COUNT = 1 << SUB_BITS;
+        /** Number of buckets covering every positive long */
+        private static final int NUM_BUCKETS = (64 - SUB_BITS) * SUB_COUNT;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(NUM_BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+
+        private Histogram() {
+        }
+
+        /**
+         * Records a value, where negative values count as 0
+         *
+         * @param value value being recorded
+         */
+        public void record(long value) {
+            if (value < 0) value = 0;
+            buckets.incrementAndGet(bucketOf(value));
+            count.increment();
+            sum.add(value);
+            long prev = max.get();
+            while (value > prev && !max.compareAndSet(prev, value)) {
+                prev = max.get();
+            }
+        }
+
+        /**
+         * Removes all recorded values
+         */
+        private void reset() {
+            for (int i = 0; i < NUM_BUCKETS; i++) {
+                buckets.set(i, 0);
+            }
+            count.reset();
+            sum.reset();
+            max.set(0);
+        }
+
+        /**
+         * Records the time elapsed since a reading of {@link System#nanoTime()}
+         *
+         * @param startNanos reading taken when the measured operation started
+         */
+        public void recordSince(long startNanos) {
+            record(System.nanoTime() - startNanos);
+        }
+
+        /**
+         * Gets the number of recorded values
+         *
+         * @return number of values
+         */
+        public long getCount() {
+            return count.sum();
+        }
+
+        /**
+         * Gets the sum of all recorded values
+         *
+         * @return sum of values
+         */
+        public long getSum() {
+            return sum.sum();
+        }
+
+        /**
+         * Gets the largest recorded value
+         *
+         * @return largest value, or 0 if none were recorded
+         */
+        public long getMax() {
+            return max.get();
+        }
+
+        /**
+         * Gets the mean of all recorded values
+         *
+         * @return mean value, or 0 if none were recorded
+         */
+        public double getMean() {
+            long n = getCount();
+            return n == 0 ? 0 : (double) getSum() / n;
+        }
+
+        /**
+         * Gets the value below or at which a percentage of the recorded values fall
+         *
+         * @param percentile percentage between 0 and 100
+         * @return largest value of the bucket holding the percentile (capped at the maximum), or 0 if none were
+         * recorded
+         * @throws IllegalArgumentException when the percentage is out of range
+         */
+        public long getPercentile(double percentile) {
+            if (percentile < 0 || percentile > 100) {
+                throw new IllegalArgumentException("Invalid percentile " + percentile);
+            }
+            long total = 0;
+            long[] counts = new long[NUM_BUCKETS];
+            for (int i = 0; i < NUM_BUCKETS; i++) {
+                counts[i] = buckets.get(i);
+                total += counts[i];
+            }
+            if (total == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+            long seen = 0;
+            for (int i = 0; i < NUM_BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(upperBoundOf(i), getMax());
+                }
+            }
+            return getMax();
+        }
+
+        /**
+         * Gets the bucket holding a value
+         *
+         * @param value non-negative value
+         * @return index of the bucket
+         */
+        static int bucketOf(long value) {
+            if (value < 2 * SUB_COUNT) return (int) value;
+            int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+            return shift * SUB_COUNT + (int) (value >>> shift);
+        }
+
+        /**
+         * Gets the largest value held by a bucket
+         *
+         * @param bucket index of the bucket
+         * @return largest value of the bucket
+         */
+        static long upperBoundOf(int bucket) {
+            if (bucket < 2 * SUB_COUNT) return bucket;
+            int shift = bucket / SUB_COUNT - 1;
+            long sub = bucket % SUB_COUNT + SUB_COUNT;
+            return ((sub + 1) << shift) - 1;
+        }
+    }
+}
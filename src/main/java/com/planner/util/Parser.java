@@ -1,114 +1,157 @@
 package com.planner.util;
 
 import com.planner.models.Card;
+import com.planner.ui.tables.TableView;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.time.LocalDate;
 import java.util.*;
 
+/**
+ * Parses the arguments of commands. Commands are read from a {@link CommandLine} in place: dates and time ranges are
+ * read straight from its chars into local epoch-minutes, and only names are copied into Strings. The parser keeps no
+ * state of its own, so it may be used by any number of threads at once, each with its own {@code CommandLine}.
+ * <p>
+ * Dates are given as {@code dd-MM-yyyy}, {@code yyyy-MM-dd} or a keyword relative to today, such as {@code tmrw} or
+ * {@code fri}, and time ranges as {@code 9-11:30am}.
+ *
+ * @author Andrew Roe
+ */
 public class Parser {
 
-    private static final SimpleDateFormat DAY_MONTH_YEAR = new SimpleDateFormat("dd-MM-yyyy");
-    private static final SimpleDateFormat YEAR_MONTH_DAY = new SimpleDateFormat("yyyy-MM-dd");
-
+    /** Number of rows on a page of a table when only the page is given */
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    /** Local epoch-minute of a date that was not given */
+    public static final long NO_DATE = Long.MIN_VALUE;
+    /** Time range whose end is not after its start */
+    private static final int EMPTY_RANGE = -1;
+    /** Number of days from 0000-03-01 to 1970-01-01, counting from March so that leap days end each year */
+    private static final long DAYS_0000_TO_1970 = 719_468L;
+    private static final Card.Color[] COLORS = Card.Color.values();
+
+    /**
+     * Splits a line into tokens
+     *
+     * @param line line being split
+     * @return tokens of the line
+     * @throws IllegalArgumentException when a quoted name is empty or not closed
+     */
     public static String[] tokenize(String line) {
-        int start = 0;
-
-        List<String> tokens = new ArrayList<>();
-        while (start < line.length()) {
-            if (line.charAt(start) == ' ' || line.charAt(start) == '\t') {
-                start++;
-            } else if (line.charAt(start) == '"') {
-                int end = start + 1;
-                boolean closed = false;
-                while (end < line.length()) {
-                    if (line.charAt(end) == '"') {
-                        closed = true;
-                        break;
-                    }
-                    end++;
-                }
-                if (!closed) {
-                    throw new IllegalArgumentException("Strings must be closed by quotes.");
-                } else if (start + 1 == end) {
-                    throw new IllegalArgumentException("Strings cannot be empty.");
-                }
-                end++;
-                tokens.add(line.substring(start, end));
-                start = end;
-            } else {
-                int end = start + 1;
-                while (end < line.length()) {
-                    if (line.charAt(end) == ' ' || line.charAt(end) == '\t') {
-                        break;
-                    }
-                    end++;
-                }
-                tokens.add(line.substring(start, end));
-                start = end;
-            }
-        }
-        return tokens.toArray(new String[0]);
+        return new CommandLine().scan(line).toArray();
     }
 
     public static TaskInfo parseTask(String[] args) {
-        if (args.length < 3) {
+        return parseTask(CommandLine.of(args));
+    }
+
+    public static TaskInfo parseTask(CommandLine cmd) {
+        if (cmd.size() < 3) {
             throw new IllegalArgumentException("Invalid number of arguments provided for Task.");
         }
         String name = null;
-        Calendar due = null;
+        long due = NO_DATE;
         double hours = -1;
         int cardId = -1;
 
-        for (int i = 1; i < args.length; i++) {
-            if (args[i].charAt(0) == '"' && name == null) {
-                name = args[i].substring(1, args[i].length() - 1);
-            } else if (args[i].charAt(0) == '+' && cardId == -1 && args[i].length() > 2
-                    && (args[i].charAt(1) == 'c' || args[i].charAt(1) == 'C')) {
-                try {
-                    cardId = Integer.parseInt(args[i].substring(2));
-                } catch (NumberFormatException e) {
-                    throw new IllegalArgumentException("Invalid card id provided.");
-                }
-                if (cardId < 0) {
-                    throw new IllegalArgumentException("Invalid card id provided, cannot be negative.");
-                }
-            } else if ("@".equals(args[i]) && due == null) {
-                if (i + 1 >= args.length) {
+        for (int i = 1; i < cmd.size(); i++) {
+            if (cmd.isQuoted(i) && name == null) {
+                name = cmd.getName(i);
+            } else if (isCardId(cmd, i) && cardId == -1) {
+                cardId = parseCardId(cmd, i);
+            } else if (cmd.is(i, "@") && due == NO_DATE) {
+                if (i + 1 >= cmd.size()) {
                     throw new IllegalArgumentException("Due date not provided following '@'.");
                 }
                 i++;
-                due = parseDate(args[i]);
+                due = parseDate(cmd, i);
             } else {
-                try {
-                    hours = Double.parseDouble(args[i]);
-                } catch (NumberFormatException e) {
-                    throw new IllegalArgumentException("Invalid hours provided.");
-                }
+                hours = parseHours(cmd, i);
             }
         }
 
         return new TaskInfo(-1, name, due, hours, cardId);
     }
 
+    public static TableView parseView(String[] args) {
+        return parseView(CommandLine.of(args));
+    }
+
+    /**
+     * Parses the options selecting which rows of a table are displayed:
+     * <code>--from [date]</code>, <code>--to [date]</code>, <code>--page [number]</code> and
+     * <code>--size [rows]</code>. A page without a size holds {@link #DEFAULT_PAGE_SIZE} rows.
+     *
+     * @param cmd command followed by its options
+     * @return view of the table
+     * @throws IllegalArgumentException when an option is unknown, repeated or missing its value
+     */
+    public static TableView parseView(CommandLine cmd) {
+        long from = NO_DATE;
+        long to = NO_DATE;
+        int page = -1;
+        int size = -1;
+        for (int i = 1; i < cmd.size(); i++) {
+            if (i + 1 >= cmd.size()) {
+                throw new IllegalArgumentException("Value not provided following '" + cmd.get(i) + "'.");
+            }
+            if (cmd.is(i, "--from")) {
+                if (from != NO_DATE) throw new IllegalArgumentException("Cannot have multiple '--from' dates.");
+                from = parseDate(cmd, i + 1);
+            } else if (cmd.is(i, "--to")) {
+                if (to != NO_DATE) throw new IllegalArgumentException("Cannot have multiple '--to' dates.");
+                to = parseDate(cmd, i + 1);
+            } else if (cmd.is(i, "--page")) {
+                if (page != -1) throw new IllegalArgumentException("Cannot have multiple pages.");
+                page = parseCount(cmd, i + 1, "page");
+            } else if (cmd.is(i, "--size")) {
+                if (size != -1) throw new IllegalArgumentException("Cannot have multiple page sizes.");
+                size = parseCount(cmd, i + 1, "page size");
+            } else {
+                throw new IllegalArgumentException("Unknown option '" + cmd.get(i) + "'.");
+            }
+            i++;
+        }
+        if (page != -1 && size == -1) {
+            size = DEFAULT_PAGE_SIZE;
+        }
+        return new TableView(from != NO_DATE ? Time.toCalendar(from) : null, to != NO_DATE ? Time.toCalendar(to) : null,
+                page != -1 ? page : 1, size != -1 ? size : 0);
+    }
+
+    private static int parseCount(CommandLine cmd, int i, String name) {
+        int count;
+        try {
+            count = cmd.getInt(i, 0);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + name + " provided.");
+        }
+        if (count < 1) {
+            throw new IllegalArgumentException("Invalid " + name + " provided, must be at least 1.");
+        }
+        return count;
+    }
+
     public static CardInfo parseCard(String[] args) {
-        if (args.length != 3) {
+        return parseCard(CommandLine.of(args));
+    }
+
+    public static CardInfo parseCard(CommandLine cmd) {
+        if (cmd.size() != 3) {
             throw new IllegalArgumentException("Invalid number of arguments provided for Card.");
         }
 
         Card.Color color = null;
         String name = null;
-        for (int i = 1; i < args.length; i++) {
-            if (args[i].charAt(0) == '"') {
+        for (int i = 1; i < cmd.size(); i++) {
+            if (cmd.isQuoted(i)) {
                 if (name != null) {
                     throw new IllegalArgumentException("Cannot have multiple names for Card.");
                 }
-                name = args[i].substring(1, args[i].length() - 1);
+                name = cmd.getName(i);
             } else {
                 if (color != null) {
                     throw new IllegalArgumentException("Cannot have multiple colors for Card.");
                 }
-                color = parseColor(args[i]);
+                color = parseColor(cmd, i);
                 if (color == null) {
                     throw new IllegalArgumentException("Invalid color provided for Card.");
                 }
@@ -118,127 +161,131 @@ public class Parser {
     }
 
     public static EventInfo parseEvent(String[] args) {
-        if (args.length < 5) {
+        return parseEvent(CommandLine.of(args));
+    }
+
+    /**
+     * Parses an Event: whether it recurs, followed by its name, card, and {@code @} with its time range and dates in
+     * any order, such as {@code event true "Standup" @ mon wed 9-9:30am}
+     *
+     * @param cmd command of the Event
+     * @return parsed Event
+     * @throws IllegalArgumentException when an argument is not valid or the time range is missing or empty
+     */
+    public static EventInfo parseEvent(CommandLine cmd) {
+        if (cmd.size() < 5) {
             throw new IllegalArgumentException("Invalid number of arguments provided for Event.");
         }
         String name = null;
         int cardId = -1;
         boolean recurring = false;
-        List<Calendar> dates = null;
-        Calendar[] timestamp = null;
+        long[] dates = null;
+        int numDates = 0;
+        int range = -1;
+        boolean timed = false;
 
-        if ("true".equalsIgnoreCase(args[1])) {
+        if (cmd.is(1, "true")) {
             recurring = true;
-        } else if (!"false".equalsIgnoreCase(args[1])) {
+        } else if (!cmd.is(1, "false")) {
             throw new IllegalArgumentException("Expected bool as second arg for Event.");
         }
 
-        for (int i = 2; i < args.length; i++) {
-            if (args[i].charAt(0) == '"' && name == null) {
-                name = args[i];
-            } else if (args[i].charAt(0) == '+' && cardId == -1 && args[i].length() > 2
-                    && (args[i].charAt(1) == 'c' || args[i].charAt(1) == 'C')) {
-                try {
-                    cardId = Integer.parseInt(args[i].substring(2));
-                } catch (NumberFormatException e) {
-                    throw new IllegalArgumentException("Invalid card id provided.");
-                }
-            } else if ("@".equals(args[i]) && timestamp == null) {
-                if (i + 1 >= args.length) {
+        for (int i = 2; i < cmd.size(); i++) {
+            if (cmd.isQuoted(i) && name == null) {
+                name = cmd.getName(i);
+            } else if (isCardId(cmd, i) && cardId == -1) {
+                cardId = parseCardId(cmd, i);
+            } else if (cmd.is(i, "@") && !timed) {
+                if (i + 1 >= cmd.size()) {
                     throw new IllegalArgumentException("No time arguments after '@'.");
                 }
-                for (i = i + 1; i < args.length; i++) {
-                    try {
-                        Calendar d = parseDate(args[i]);
+                // dates and the time range run until the name or card
+                for (i = i + 1; i < cmd.size(); i++) {
+                    long date = parseDateOrNone(cmd, i);
+                    if (date != NO_DATE) {
                         if (dates == null) {
-                            dates = new ArrayList<>();
+                            dates = new long[4];
+                        } else if (numDates == dates.length) {
+                            dates = Arrays.copyOf(dates, numDates * 2);
                         }
-                        dates.add(d);
-                    } catch (IllegalArgumentException e) {
-                        try {
-                            Calendar[] ts = parseTimeStamp(args[i]);
-                            if (timestamp != null) {
-                                throw new IllegalArgumentException("Cannot have duplicate timestamps.");
-                            }
-                            timestamp = ts;
-                        } catch (IllegalArgumentException f) {
-                            if ("Cannot have duplicate timestamps.".equals(f.getMessage())) {
-                                throw new IllegalArgumentException(f.getMessage());
-                            }
-                            i = i - 1;
-                            break;
+                        dates[numDates++] = date * Time.MINUTES_PER_DAY;
+                    } else if (isDigit(cmd.charAt(i, 0))) {
+                        if (timed) {
+                            throw new IllegalArgumentException("Cannot have duplicate timestamps.");
                         }
+                        range = parseTimeRange(cmd, i);
+                        timed = true;
+                    } else {
+                        i--;
+                        break;
                     }
                 }
-                if (timestamp == null) {
+                if (!timed) {
                     throw new IllegalArgumentException("No timestamp was provided.");
+                } else if (range == EMPTY_RANGE) {
+                    throw new IllegalArgumentException("Event must end after it starts.");
+                } else if (getRangeEnd(range) == -1) {
+                    throw new IllegalArgumentException("Event must have an end time.");
                 }
             } else {
                 throw new IllegalArgumentException("Invalid argument provided.");
             }
         }
 
-        return new EventInfo(-1, name, recurring, dates, timestamp, cardId);
+        return new EventInfo(-1, name, recurring, dates == null ? null : Arrays.copyOf(dates, numDates),
+                getRangeStart(range), getRangeEnd(range), cardId);
     }
 
     public static DayInfo parseDay(String[] args) {
-        if (args.length == 0) {
+        return parseDay(CommandLine.of(args));
+    }
+
+    /**
+     * Parses a Day: its date followed by the Tasks and Events placed on it, such as
+     * {@code 10-09-2024 T0 10-12pm E0 T1 1-2pm}
+     *
+     * @param cmd date of the Day followed by its Tasks and Events
+     * @return parsed Day
+     * @throws IllegalArgumentException when an argument is not valid
+     */
+    public static DayInfo parseDay(CommandLine cmd) {
+        if (cmd.size() == 0) {
             throw new IllegalArgumentException("Error: Must at least have a date");
         }
 
-        String dateString = args[0];
-
-        Calendar date = Time.getFormattedCalendarInstance(0);
-        Date due = null;
-        try {
-            due = DAY_MONTH_YEAR.parse(dateString);
-        } catch (ParseException e) {
-            try {
-                due = YEAR_MONTH_DAY.parse(dateString);
-            } catch (ParseException ex) {
-                throw new IllegalArgumentException("Invalid date format provided.");
-            }
-        }
-        date.setTime(due);
+        long day = parseDate(cmd, 0);
 
         HashMap<Integer, Time.TimeStamp> taskTimeStampMap = new HashMap<>();
 
         List<Integer> eventIds = new ArrayList<>();
 
-        for (int i = 1; i < args.length; i++) {
-            if (args[i].charAt(0) == 'T') {
-                int id = -1;
+        for (int i = 1; i < cmd.size(); i++) {
+            if (cmd.charAt(i, 0) == 'T') {
+                int id;
                 try {
-                    id = Integer.parseInt(args[i].split("T")[1]);
-                }
-                catch (Exception e) {
+                    id = cmd.getInt(i, 1);
+                } catch (NumberFormatException e) {
                     throw new IllegalArgumentException("Error: T most be followed by task ID number");
                 }
+                if (i + 1 >= cmd.size()) {
+                    throw new IllegalArgumentException("Error: Tasks most be followed by a timestamp");
+                }
 
-                Calendar[] parsedTimestamp = parseTimeStamp(args[i + 1]);
-
-                parsedTimestamp[0].set(Calendar.DAY_OF_MONTH, date.get(Calendar.DAY_OF_MONTH));
-                parsedTimestamp[0].set(Calendar.MONTH, date.get(Calendar.MONTH));
-                parsedTimestamp[0].set(Calendar.YEAR, date.get(Calendar.YEAR));
-
-                parsedTimestamp[1].set(Calendar.DAY_OF_MONTH, date.get(Calendar.DAY_OF_MONTH));
-                parsedTimestamp[1].set(Calendar.MONTH, date.get(Calendar.MONTH));
-                parsedTimestamp[1].set(Calendar.YEAR, date.get(Calendar.YEAR));
-
-                Time.TimeStamp timestamp = new Time.TimeStamp(parsedTimestamp[0], parsedTimestamp[1]) ;
-
-                taskTimeStampMap.put(id, timestamp);
+                int range = parseTimeRange(cmd, i + 1);
+                if (range == EMPTY_RANGE || getRangeEnd(range) == -1) {
+                    throw new IllegalArgumentException("Error: Task timestamps must end after they start");
+                }
+                taskTimeStampMap.put(id, new Time.TimeStamp(day + getRangeStart(range), day + getRangeEnd(range)));
                 i++;
-            } else if (args[i].charAt(0) == 'E') {
-                if (i != args.length - 1 && !( args[i + 1].charAt(0) == 'T' || args[i + 1].charAt(0) == 'E' )) {
+            } else if (cmd.charAt(i, 0) == 'E') {
+                if (i != cmd.size() - 1 && !(cmd.charAt(i + 1, 0) == 'T' || cmd.charAt(i + 1, 0) == 'E')) {
                     throw new IllegalArgumentException("Error: Events most be followed by tasks or events");
                 }
 
-                int id = -1;
+                int id;
                 try {
-                    id = Integer.parseInt(args[i].split("E")[1]);
-                }
-                catch (Exception e) {
+                    id = cmd.getInt(i, 1);
+                } catch (NumberFormatException e) {
                     throw new IllegalArgumentException("Error: E most be followed by event ID number");
                 }
 
@@ -248,50 +295,42 @@ public class Parser {
             }
         }
 
-        return new DayInfo(date, taskTimeStampMap, eventIds);
+        return new DayInfo(Time.toCalendar(day), taskTimeStampMap, eventIds);
     }
 
     public static TaskInfo parseModTask(String[] args) {
-        if (args.length < 4) {
+        return parseModTask(CommandLine.of(args));
+    }
+
+    public static TaskInfo parseModTask(CommandLine cmd) {
+        if (cmd.size() < 4) {
             throw new IllegalArgumentException("Invalid number of arguments provided for Task.");
         }
-        int id = -1;
+        int id;
         String name = null;
-        Calendar due = null;
+        long due = NO_DATE;
         double hours = -1;
         int cardId = -1;
 
         try {
-            id = Integer.parseInt(args[2]);
-        } catch (Exception e) {
+            id = cmd.getInt(2, 0);
+        } catch (NumberFormatException e) {
             throw new IllegalArgumentException("Third argument must be a task ID");
         }
 
-        for (int i = 3; i < args.length; i++) {
-            if (args[i].charAt(0) == '"' && name == null) {
-                name = args[i].substring(1, args[i].length() - 1);
-            } else if (args[i].charAt(0) == '+' && cardId == -1 && args[i].length() > 2
-                    && (args[i].charAt(1) == 'c' || args[i].charAt(1) == 'C')) {
-                try {
-                    cardId = Integer.parseInt(args[i].substring(2));
-                } catch (NumberFormatException e) {
-                    throw new IllegalArgumentException("Invalid card id provided.");
-                }
-                if (cardId < 0) {
-                    throw new IllegalArgumentException("Invalid card id provided, cannot be negative.");
-                }
-            } else if ("@".equals(args[i]) && due == null) {
-                if (i + 1 >= args.length) {
+        for (int i = 3; i < cmd.size(); i++) {
+            if (cmd.isQuoted(i) && name == null) {
+                name = cmd.getName(i);
+            } else if (isCardId(cmd, i) && cardId == -1) {
+                cardId = parseCardId(cmd, i);
+            } else if (cmd.is(i, "@") && due == NO_DATE) {
+                if (i + 1 >= cmd.size()) {
                     throw new IllegalArgumentException("Due date not provided following '@'.");
                 }
                 i++;
-                due = parseDate(args[i]);
+                due = parseDate(cmd, i);
             } else {
-                try {
-                    hours = Double.parseDouble(args[i]);
-                } catch (NumberFormatException e) {
-                    throw new IllegalArgumentException("Invalid hours provided.");
-                }
+                hours = parseHours(cmd, i);
             }
         }
 
@@ -303,31 +342,35 @@ public class Parser {
     }
 
     public static CardInfo parseModCard(String[] args) {
-        if (args.length < 4) {
+        return parseModCard(CommandLine.of(args));
+    }
+
+    public static CardInfo parseModCard(CommandLine cmd) {
+        if (cmd.size() < 4) {
             throw new IllegalArgumentException("Invalid number of arguments provided for Card.");
         }
 
-        int id = -1;
+        int id;
         Card.Color color = null;
         String name = null;
 
         try {
-            id = Integer.parseInt(args[2]);
-        } catch (Exception e) {
+            id = cmd.getInt(2, 0);
+        } catch (NumberFormatException e) {
             throw new IllegalArgumentException("Third argument must be a Card ID");
         }
 
-        for (int i = 3; i < args.length; i++) {
-            if (args[i].charAt(0) == '"') {
+        for (int i = 3; i < cmd.size(); i++) {
+            if (cmd.isQuoted(i)) {
                 if (name != null) {
                     throw new IllegalArgumentException("Cannot have multiple names for Card.");
                 }
-                name = args[i].substring(1, args[i].length() - 1);
+                name = cmd.getName(i);
             } else {
                 if (color != null) {
                     throw new IllegalArgumentException("Cannot have multiple colors for Card.");
                 }
-                color = parseColor(args[i]);
+                color = parseColor(cmd, i);
                 if (color == null) {
                     throw new IllegalArgumentException("Invalid color provided for Card.");
                 }
@@ -340,90 +383,171 @@ public class Parser {
 
     }
 
-    private static Card.Color parseColor(String s) {
-        switch (s.toUpperCase()) {
-            case "RED":
-                return Card.Color.RED;
-            case "ORANGE":
-                return Card.Color.ORANGE;
-            case "YELLOW":
-                return Card.Color.YELLOW;
-            case "GREEN":
-                return Card.Color.GREEN;
-            case "BLUE":
-                return Card.Color.BLUE;
-            case "INDIGO":
-                return Card.Color.INDIGO;
-            case "VIOLET":
-                return Card.Color.VIOLET;
-            case "BLACK":
-                return Card.Color.BLACK;
-            case "LIGHT_CORAL":
-                return Card.Color.LIGHT_CORAL;
-            case "LIGHT_GREEN":
-                return Card.Color.LIGHT_GREEN;
-            case "LIGHT_BLUE":
-                return Card.Color.LIGHT_BLUE;
-            default:
-                return null;
+    private static boolean isCardId(CommandLine cmd, int i) {
+        return cmd.length(i) > 2 && cmd.charAt(i, 0) == '+' && (cmd.charAt(i, 1) == 'c' || cmd.charAt(i, 1) == 'C');
+    }
+
+    private static int parseCardId(CommandLine cmd, int i) {
+        int cardId;
+        try {
+            cardId = cmd.getInt(i, 2);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid card id provided.");
+        }
+        if (cardId < 0) {
+            throw new IllegalArgumentException("Invalid card id provided, cannot be negative.");
         }
+        return cardId;
     }
 
-    private static Calendar parseDate(String s) {
-        Calendar curr = Time.getFormattedCalendarInstance(0);
-        int day =  curr.get(Calendar.DAY_OF_WEEK) - 1;
-        int numDays = 0;
-        switch (s.toUpperCase()) {
-            case "EOD":
-                return curr;
-            case "TMRW":
-                return Time.getFormattedCalendarInstance(curr, 1);
-            case "EOW":
-            case "SAT":
-            case "SATURDAY":
-                numDays = (Calendar.SATURDAY - day + 7) % 7;
-                return Time.getFormattedCalendarInstance(curr, numDays);
-            case "SUN":
-            case "SUNDAY":
-                numDays = (Calendar.SUNDAY - day + 7) % 7;
-                return Time.getFormattedCalendarInstance(curr, numDays);
-            case "MON":
-            case "MONDAY":
-                numDays = (Calendar.MONDAY - day + 7) % 7;
-                return Time.getFormattedCalendarInstance(curr, numDays);
-            case "TUE":
-            case "TUESDAY":
-                numDays = (Calendar.TUESDAY - day + 7) % 7;
-                return Time.getFormattedCalendarInstance(curr, numDays);
-            case "WED":
-            case "WEDNESDAY":
-                numDays = (Calendar.WEDNESDAY - day + 7) % 7;
-                return Time.getFormattedCalendarInstance(curr, numDays);
-            case "THU":
-            case "THURSDAY":
-                numDays = (Calendar.THURSDAY - day + 7) % 7;
-                return Time.getFormattedCalendarInstance(curr, numDays);
-            case "FRI":
-            case "FRIDAY":
-                numDays = (Calendar.FRIDAY - day + 7) % 7;
-                return Time.getFormattedCalendarInstance(curr, numDays);
-            default:
-                Date due = null;
-                try {
-                    due = DAY_MONTH_YEAR.parse(s);
-                } catch (ParseException e) {
-                    try {
-                        due = YEAR_MONTH_DAY.parse(s);
-                    } catch (ParseException ex) {
-                        throw new IllegalArgumentException("Invalid date format provided.");
-                    }
+    private static double parseHours(CommandLine cmd, int i) {
+        try {
+            return cmd.getDouble(i);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid hours provided.");
+        }
+    }
+
+    private static Card.Color parseColor(CommandLine cmd, int i) {
+        for (Card.Color color : COLORS) {
+            if (cmd.is(i, color.name())) {
+                return color;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Parses a date
+     *
+     * @return local epoch-minute of the start of the date
+     */
+    private static long parseDate(CommandLine cmd, int i) {
+        long day = parseDateOrNone(cmd, i);
+        if (day == NO_DATE) {
+            throw new IllegalArgumentException("Invalid date format provided.");
+        }
+        return day * Time.MINUTES_PER_DAY;
+    }
+
+    /**
+     * Parses a date, which is only allowed to fail without an exception since Events list dates and a time range
+     * in any order
+     *
+     * @return local epoch-day of the date, or {@link #NO_DATE} if the token is not a date
+     */
+    private static long parseDateOrNone(CommandLine cmd, int i) {
+        if (isDigit(cmd.charAt(i, 0))) {
+            return parseNumericDate(cmd.line(), cmd.start(i), cmd.end(i));
+        }
+        int dayOfWeek;
+        if (cmd.is(i, "EOD")) {
+            return LocalDate.now().toEpochDay();
+        } else if (cmd.is(i, "TMRW")) {
+            return LocalDate.now().toEpochDay() + 1;
+        } else if (cmd.is(i, "EOW") || cmd.is(i, "SAT") || cmd.is(i, "SATURDAY")) {
+            dayOfWeek = Calendar.SATURDAY;
+        } else if (cmd.is(i, "SUN") || cmd.is(i, "SUNDAY")) {
+            dayOfWeek = Calendar.SUNDAY;
+        } else if (cmd.is(i, "MON") || cmd.is(i, "MONDAY")) {
+            dayOfWeek = Calendar.MONDAY;
+        } else if (cmd.is(i, "TUE") || cmd.is(i, "TUESDAY")) {
+            dayOfWeek = Calendar.TUESDAY;
+        } else if (cmd.is(i, "WED") || cmd.is(i, "WEDNESDAY")) {
+            dayOfWeek = Calendar.WEDNESDAY;
+        } else if (cmd.is(i, "THU") || cmd.is(i, "THURSDAY")) {
+            dayOfWeek = Calendar.THURSDAY;
+        } else if (cmd.is(i, "FRI") || cmd.is(i, "FRIDAY")) {
+            dayOfWeek = Calendar.FRIDAY;
+        } else {
+            return NO_DATE;
+        }
+        long today = LocalDate.now().toEpochDay();
+        // day of the week counted from Sunday = 0, as 1970-01-01 was a Thursday
+        int day = (int) Math.floorMod(today + 4, 7L);
+        return today + (dayOfWeek - day + 7) % 7;
+    }
+
+    /**
+     * Parses a date in the format {@code dd-MM-yyyy} or {@code yyyy-MM-dd}, where the day and month may have a
+     * single digit
+     *
+     * @return local epoch-day of the date, or {@link #NO_DATE} if the chars are not a valid date
+     */
+    private static long parseNumericDate(CharSequence s, int from, int to) {
+        int first = 0;
+        int second = 0;
+        int third = 0;
+        int firstDigits = 0;
+        int lastDigits = 0;
+        int numFields = 0;
+        int value = 0;
+        int numDigits = 0;
+        // the end of the token ends the last field just like a '-'
+        for (int pos = from; pos <= to; pos++) {
+            char c = pos < to ? s.charAt(pos) : '-';
+            if (isDigit(c) && numDigits < 4) {
+                value = value * 10 + (c - '0');
+                numDigits++;
+            } else if (c == '-' && numDigits > 0 && numFields < 3) {
+                if (numFields == 0) {
+                    first = value;
+                    firstDigits = numDigits;
+                } else if (numFields == 1) {
+                    second = value;
+                } else {
+                    third = value;
+                    lastDigits = numDigits;
                 }
-                curr.setTime(due);
+                numFields++;
+                value = 0;
+                numDigits = 0;
+            } else {
+                return NO_DATE;
+            }
         }
-        return curr;
+        if (numFields != 3) {
+            return NO_DATE;
+        } else if (firstDigits == 4 && lastDigits <= 2) {
+            return toEpochDay(first, second, third);
+        } else if (firstDigits <= 2 && lastDigits == 4) {
+            return toEpochDay(third, second, first);
+        }
+        return NO_DATE;
+    }
+
+    /**
+     * Counts the days from 1970-01-01 to a date, without creating a {@code LocalDate}
+     *
+     * @return local epoch-day of the date, or {@link #NO_DATE} if the month or day does not exist
+     */
+    private static long toEpochDay(int year, int month, int day) {
+        boolean leap = year % 4 == 0 && (year % 100 != 0 || year % 400 == 0);
+        int monthLength = month == 2 ? (leap ? 29 : 28) : month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+        if (month < 1 || month > 12 || day < 1 || day > monthLength) {
+            return NO_DATE;
+        }
+        // counts years from March, which puts the leap day at the end of the year
+        long y = month <= 2 ? year - 1 : year;
+        long dayOfYear = (153L * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        return y * 365 + y / 4 - y / 100 + y / 400 + dayOfYear - DAYS_0000_TO_1970;
     }
 
-    private static Calendar[] parseTimeStamp(String s) {
+    /**
+     * Parses a time range such as {@code 9-11:30am} or {@code 3pm}. An end without {@code am} or {@code pm} that is
+     * earlier than the start is taken to be in the afternoon.
+     *
+     * @return start and end as minutes of the day, read by {@link #getRangeStart} and {@link #getRangeEnd}, or
+     * {@link #EMPTY_RANGE} if the range does not end after it starts
+     * @throws IllegalArgumentException when the token is not a time range
+     */
+    private static int parseTimeRange(CommandLine cmd, int i) {
+        CharSequence s = cmd.line();
+        int to = cmd.end(i);
         boolean hour = false;
         boolean colon = false;
         boolean minute = false;
@@ -433,18 +557,19 @@ public class Parser {
         int endHr = -1;
         int startMin = 0;
         int endMin = 0;
-        String startFmt = "";
-        String endFmt = "";
+        // 'a' or 'p' when given, otherwise 0
+        char startFmt = 0;
+        char endFmt = 0;
 
-        for (int i = 0; i < s.length(); i++) {
-            switch (s.charAt(i)) {
+        for (int pos = cmd.start(i); pos < to; pos++) {
+            char c = s.charAt(pos);
+            switch (c) {
                 case ':':
                     if (!hour || minute) {
                         throw new IllegalArgumentException("Colon is expected after hour, not minute.");
                     } else if (am) {
                         throw new IllegalArgumentException("Colon can never occur after 'am' or 'pm'.");
-                    }
-                    else if (colon) {
+                    } else if (colon) {
                         throw new IllegalArgumentException("Colons cannot be duplicated for same hour, minute combination");
                     }
                     colon = true;
@@ -466,18 +591,18 @@ public class Parser {
                     if (!hour || am) {
                         throw new IllegalArgumentException("'am'/'pm' cannot occur without an hour nor can there be duplicates");
                     }
-                    if (i + 1 < s.length() && (s.charAt(i+1) == 'm' || s.charAt(i+1) == 'M')) {
-                        String temp = s.substring(i, i + 2);
+                    if (pos + 1 < to && (s.charAt(pos + 1) == 'm' || s.charAt(pos + 1) == 'M')) {
+                        char fmt = Character.toLowerCase(c);
                         if (!dash) {
-                            startFmt = temp;
+                            startFmt = fmt;
                         } else {
-                            endFmt = temp;
+                            endFmt = fmt;
                         }
                     } else {
                         throw new IllegalArgumentException("Provided time format besides valid 'am'/'pm'");
                     }
                     am = true;
-                    i++;
+                    pos++;
                     break;
                 case '0':
                 case '1':
@@ -489,6 +614,7 @@ public class Parser {
                 case '7':
                 case '8':
                 case '9':
+                    boolean twoDigits = pos + 1 < to && isDigit(s.charAt(pos + 1));
                     if (hour && !colon) {
                         throw new IllegalArgumentException("Minutes must be separated by colon from hours");
                     } else if (minute) {
@@ -497,48 +623,28 @@ public class Parser {
                         throw new IllegalArgumentException("Hours and minutes cannot come after 'am'/'pm' signature");
                     } else if (hour) {
                         minute = true;
-                        if (i+1 < s.length() && s.charAt(i + 1) >= '0' && s.charAt(i + 1) <= '9') {
-                            int x = Integer.parseInt(s.substring(i, i + 2));
-                            if (x > 59) {
-                                throw new IllegalArgumentException("Minutes cannot be greater than 59");
-                            }
-
-                            if (!dash) {
-                                startMin = x;
-                            } else {
-                                endMin = x;
-                            }
-                            i++;
-                        } else {
+                        if (!twoDigits) {
                             throw new IllegalArgumentException("Minutes require 2 digits");
                         }
+                        int x = (c - '0') * 10 + (s.charAt(++pos) - '0');
+                        if (x > 59) {
+                            throw new IllegalArgumentException("Minutes cannot be greater than 59");
+                        }
+                        if (!dash) {
+                            startMin = x;
+                        } else {
+                            endMin = x;
+                        }
                     } else {
                         hour = true;
-                        if (i+1 >= s.length() || s.charAt(i + 1) < '0' || s.charAt(i + 1) > '9') {
-                            int x = Integer.parseInt(s.substring(i, i + 1));
-                            if (x > 12) {
-                                throw new IllegalArgumentException("Hours cannot be greater than 12");
-                            }
-
-                            if (!dash) {
-                                startHr = x;
-                            } else {
-                                endHr = x;
-                            }
-                        } else if (i+1 < s.length() && s.charAt(i + 1) >= '0' && s.charAt(i + 1) <= '9') {
-                            int x = Integer.parseInt(s.substring(i, i + 2));
-                            if (x > 12) {
-                                throw new IllegalArgumentException("Hours cannot be greater than 12");
-                            }
-
-                            if (!dash) {
-                                startHr = x;
-                            } else {
-                                endHr = x;
-                            }
-                            i++;
+                        int x = twoDigits ? (c - '0') * 10 + (s.charAt(++pos) - '0') : c - '0';
+                        if (x > 12) {
+                            throw new IllegalArgumentException("Hours cannot be greater than 12");
+                        }
+                        if (!dash) {
+                            startHr = x;
                         } else {
-                            throw new IllegalArgumentException("Minutes require 2 digits");
+                            endHr = x;
                         }
                     }
                     break;
@@ -547,48 +653,53 @@ public class Parser {
             }
         }
 
-        if ((startFmt.equals("pm") || startFmt.equals("PM")) && startHr != 12) {
-            startHr += 12;
-        } else if ((startFmt.equals("pm") || startFmt.equals("PM")) && startHr == 12) {
-            startHr = 0;
-        }
-
-        Calendar[] calendars = new Calendar[2];
-
+        startHr = toHourOfDay(startHr, startFmt);
         if (endHr == -1) {
-            Calendar start = Calendar.getInstance();
-            start.set(Calendar.HOUR, startHr);
-            start.set(Calendar.MINUTE, startMin);
-
-            calendars[0] = start;
-
-            return calendars;
+            return (startHr * 60 + startMin) << 16;
         }
-
-        if ((endFmt.equals("pm") || endFmt.equals("PM")) && endHr != 12) {
-            endHr += 12;
-        } else if ((endFmt.equals("am") || endFmt.equals("AM")) && endHr == 12) {
-            endHr = 0;
-        } else if (endFmt.isEmpty() && endHr < startHr) {
+        if (endFmt == 0 && endHr < startHr) {
             endHr += 12;
+        } else {
+            endHr = toHourOfDay(endHr, endFmt);
         }
 
-        if (startHr > endHr || (startHr == endHr && startMin >= endMin)) {
-            return calendars;
+        int start = startHr * 60 + startMin;
+        int end = endHr * 60 + endMin;
+        if (start >= end) {
+            return EMPTY_RANGE;
         }
+        return (start << 16) | (end + 1);
+    }
 
-        Calendar start = Calendar.getInstance();
-        start.set(Calendar.HOUR, startHr);
-        start.set(Calendar.MINUTE, startMin);
-
-        Calendar end = Calendar.getInstance();
-        end.set(Calendar.HOUR, endHr);
-        end.set(Calendar.MINUTE, endMin);
+    /**
+     * Converts an hour on a 12-hour clock to the hour of the day, where {@code 12am} is midnight and {@code 12pm}
+     * is noon
+     */
+    private static int toHourOfDay(int hour, char fmt) {
+        if (fmt == 'p' && hour != 12) {
+            return hour + 12;
+        } else if (fmt == 'a' && hour == 12) {
+            return 0;
+        }
+        return hour;
+    }
 
-        calendars[0] = start;
-        calendars[1] = end;
+    /**
+     * Gets the start of a parsed time range
+     *
+     * @return minute of the day, or -1 if the range is empty
+     */
+    private static int getRangeStart(int range) {
+        return range == EMPTY_RANGE ? -1 : range >>> 16;
+    }
 
-        return calendars;
+    /**
+     * Gets the end of a parsed time range
+     *
+     * @return minute of the day, or -1 if the range is empty or has no end
+     */
+    private static int getRangeEnd(int range) {
+        return range == EMPTY_RANGE ? -1 : (range & 0xFFFF) - 1;
     }
 
     public static class CardInfo {
@@ -618,14 +729,15 @@ public class Parser {
     public static class TaskInfo {
         private final int taskId;
         private final String desc;
-        private final Calendar due;
+        /** Local epoch-minute of the due date, or {@link #NO_DATE} */
+        private final long dueMinute;
         private final double hours;
         private final int cardId;
 
-        public TaskInfo(int taskId, String desc, Calendar due, double hours, int cardId) {
+        public TaskInfo(int taskId, String desc, long dueMinute, double hours, int cardId) {
             this.taskId = taskId;
             this.desc = desc;
-            this.due = due;
+            this.dueMinute = dueMinute;
             this.hours = hours;
             this.cardId = cardId;
         }
@@ -634,7 +746,16 @@ public class Parser {
 
         public String getDesc() { return desc; }
 
-        public Calendar getDue() { return due; }
+        public long getDueMinute() { return dueMinute; }
+
+        /**
+         * Creates a Calendar for the due date
+         *
+         * @return new Calendar at the start of the due date, or <code>null</code> if no date was given
+         */
+        public Calendar getDue() {
+            return dueMinute == NO_DATE ? null : Time.toCalendar(dueMinute);
+        }
 
         public double getHours() {
             return hours;
@@ -649,16 +770,22 @@ public class Parser {
         private final int id;
         private final String name;
         private final boolean recurring;
-        private final List<Calendar> dates;
-        private final Calendar[] timestamp;
+        /** Local epoch-minutes of the start of each date, or <code>null</code> if no date was given */
+        private final long[] dates;
+        /** Minute of the day the Event starts */
+        private final int startMinute;
+        /** Minute of the day the Event ends */
+        private final int endMinute;
         private final int cardId;
 
-        public EventInfo(int id, String name, boolean recurring, List<Calendar> dates, Calendar[] timestamp, int cardId) {
+        public EventInfo(int id, String name, boolean recurring, long[] dates, int startMinute, int endMinute,
+                         int cardId) {
             this.id = id;
             this.name = name;
             this.recurring = recurring;
             this.dates = dates;
-            this.timestamp = timestamp;
+            this.startMinute = startMinute;
+            this.endMinute = endMinute;
             this.cardId = cardId;
         }
 
@@ -674,12 +801,42 @@ public class Parser {
             return recurring;
         }
 
-        public List<Calendar> getDates() {
+        public long[] getDateMinutes() {
             return dates;
         }
 
-        public Calendar[] getTimestamp() {
-            return timestamp;
+        /**
+         * Creates a Calendar for each date of the Event, such as the days of the week a recurring Event occurs on
+         *
+         * @return new Calendars at the start of each date, or <code>null</code> if no date was given
+         */
+        public List<Calendar> getDates() {
+            if (dates == null) {
+                return null;
+            }
+            List<Calendar> list = new ArrayList<>(dates.length);
+            for (long date : dates) {
+                list.add(Time.toCalendar(date));
+            }
+            return list;
+        }
+
+        public int getStartMinute() {
+            return startMinute;
+        }
+
+        public int getEndMinute() {
+            return endMinute;
+        }
+
+        /**
+         * Gets the time range of the Event on a day
+         *
+         * @param dayMinute local epoch-minute of the start of the day
+         * @return time range on the day
+         */
+        public Time.TimeStamp getTimeStamp(long dayMinute) {
+            return new Time.TimeStamp(dayMinute + startMinute, dayMinute + endMinute);
         }
 
         public int getCardId() {
@@ -4,44 +4,62 @@ import com.planner.manager.ScheduleManager;
 import com.planner.models.UserConfig;
 import com.planner.ui.tables.TableFormatter;
 
+import java.io.IOException;
 import java.util.Arrays;
 
 public class ReportLog {
 
     public static String buildReportLog(ScheduleManager scheduleManager) {
         StringBuilder sb = new StringBuilder();
+        try {
+            appendReportLog(sb, scheduleManager);
+        } catch (IOException e) {
+            // appending to a StringBuilder never fails
+            throw new IllegalStateException(e);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Writes the report of all schedule data, reusing the table rows the planner rendered before
+     *
+     * @param out destination of the report
+     * @param scheduleManager planner being reported
+     * @throws IOException when the report cannot be written
+     */
+    public static void appendReportLog(Appendable out, ScheduleManager scheduleManager) throws IOException {
         UserConfig userConfig = scheduleManager.getUserConfig();
-        sb.append("Configuration Details:\n" + "    - Config File: profile.json\n" + "    - Mode: Production\n" + "    - Range: ")
+        out.append("Configuration Details:\n" + "    - Config File: profile.json\n" + "    - Mode: Production\n" + "    - Range: ")
                 .append(Arrays.toString(userConfig.getDailyHoursRange())).append("\n")
                 .append("    - Week Hours: ").append(Arrays.toString(userConfig.getHoursPerDayOfWeek()))
-                .append("\n").append("    - Max Days: ").append(userConfig.getMaxDays()).append("\n")
-                .append("    - Archive Days: ").append(userConfig.getArchiveDays()).append("\n")
-                .append("    - Priority Scheduling: ").append(userConfig.isPriority()).append("\n")
-                .append("    - Overflow Handling: ").append(userConfig.isOverflow()).append("\n")
-                .append("    - Fit Day Schedule: ").append(userConfig.isFitDay()).append("\n")
-                .append("    - Scheduling Algorithm: ").append(userConfig.getSchedulingAlgorithm()).append("\n")
-                .append("    - Minimum Task Duration: ").append(userConfig.getMinHours()).append("\n");
+                .append("\n").append("    - Max Days: ").append(String.valueOf(userConfig.getMaxDays())).append("\n")
+                .append("    - Archive Days: ").append(String.valueOf(userConfig.getArchiveDays())).append("\n")
+                .append("    - Priority Scheduling: ").append(String.valueOf(userConfig.isPriority())).append("\n")
+                .append("    - Overflow Handling: ").append(String.valueOf(userConfig.isOverflow())).append("\n")
+                .append("    - Fit Day Schedule: ").append(String.valueOf(userConfig.isFitDay())).append("\n")
+                .append("    - Scheduling Algorithm: ").append(String.valueOf(userConfig.getSchedulingAlgorithm())).append("\n")
+                .append("    - Minimum Task Duration: ").append(String.valueOf(userConfig.getMinHours())).append("\n");
         if (!scheduleManager.getRecurEvents().isEmpty() || !scheduleManager.getIndivEvents().isEmpty()) {
-            sb.append(TableFormatter.formatEventSetTables(scheduleManager.getRecurEvents(), scheduleManager.getIndivEvents(), userConfig));
-            sb.append("\n\n");
+            out.append(TableFormatter.formatEventSetTables(scheduleManager.getRecurEvents(), scheduleManager.getIndivEvents(), userConfig));
+            out.append("\n\n");
         }
 
         if (!scheduleManager.getCards().isEmpty()) {
-            sb.append(TableFormatter.formatCardTable(scheduleManager.getCards(), false));
-            sb.append("\n\n");
+            out.append(TableFormatter.formatCardTable(scheduleManager.getCards(), false));
+            out.append("\n\n");
         }
 
+        TableFormatter.RowCache cache = scheduleManager.getRowCache();
         if (scheduleManager.getNumTasks() > 0) {
-            sb.append(TableFormatter.formatTaskTable(scheduleManager.getTaskManager(), scheduleManager.getArchivedTasks(), false));
-            sb.append("\n\n");
+            TableFormatter.appendTaskTable(out, scheduleManager.getTaskManager(), scheduleManager.getArchivedTasks(), false, cache);
+            out.append("\n\n");
         }
 
         if (!scheduleManager.getSchedule().isEmpty()) {
-            sb.append(TableFormatter.formatSubTaskTable(scheduleManager.getSchedule(), userConfig));
-            sb.append("\n\n");
-            sb.append(TableFormatter.formatScheduleTable(scheduleManager.getSchedule(), false));
-            sb.append("\n");
+            TableFormatter.appendSubTaskTable(out, scheduleManager.getSchedule(), userConfig, cache);
+            out.append("\n\n");
+            TableFormatter.appendScheduleTable(out, scheduleManager.getSchedule(), false, cache);
+            out.append("\n");
         }
-        return sb.toString();
     }
 }
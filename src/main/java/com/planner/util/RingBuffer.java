@@ -0,0 +1,128 @@
+package com.planner.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, lock-free queue backed by a ring of slots, which any number of threads may offer to and poll from
+ * concurrently. Each slot carries a sequence number telling whether it is ready to be written or read in the current
+ * lap around the ring, so producers and consumers only contend on a single compare-and-set of their own counter and
+ * never block each other.
+ * <p>
+ * Offering to a full buffer fails immediately rather than waiting for space, which keeps producers on hot paths
+ * from ever stalling on a slow consumer.
+ *
+ * @param <E> type of element
+ * @author Andrew Roe
+ */
+public class RingBuffer<E> {
+
+    /** Elements of all slots */
+    private final AtomicReferenceArray<E> elements;
+    /** Sequence number of each slot, which equals its write position once free and its read position plus one once
+     * filled */
+    private final AtomicLongArray sequences;
+    /** Mask of a position's slot index, since the capacity is a power of two */
+    private final int mask;
+    /** Position of the next element to be written */
+    private final AtomicLong tail;
+    /** Position of the next element to be read */
+    private final AtomicLong head;
+
+    /**
+     * Constructs an empty {@code RingBuffer}
+     *
+     * @param capacity maximum number of elements, rounded up to a power of two
+     * @throws IllegalArgumentException when the capacity is not positive or exceeds 2^30
+     */
+    public RingBuffer(int capacity) {
+        if (capacity <= 0 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Invalid ring buffer capacity " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) size <<= 1;
+        this.elements = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.mask = size - 1;
+        this.tail = new AtomicLong();
+        this.head = new AtomicLong();
+    }
+
+    /**
+     * Gets the maximum number of elements
+     *
+     * @return capacity of the buffer
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Adds an element unless the buffer is full
+     *
+     * @param element element being added
+     * @return boolean value for whether the element was added
+     * @throws NullPointerException when the element is <code>null</code>
+     */
+    public boolean offer(E element) {
+        if (element == null) {
+            throw new NullPointerException("RingBuffer elements cannot be null");
+        }
+        while (true) {
+            long pos = tail.get();
+            int idx = (int) pos & mask;
+            long diff = sequences.get(idx) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    elements.lazySet(idx, element);
+                    // publishes the element to consumers
+                    sequences.set(idx, pos + 1);
+                    return true;
+                }
+            } else if (diff < 0) {
+                // the slot still holds the element of the previous lap
+                return false;
+            }
+            // another producer claimed the slot first
+        }
+    }
+
+    /**
+     * Removes the oldest element
+     *
+     * @return oldest element, or <code>null</code> if the buffer is empty
+     */
+    public E poll() {
+        while (true) {
+            long pos = head.get();
+            int idx = (int) pos & mask;
+            long diff = sequences.get(idx) - (pos + 1);
+            if (diff == 0) {
+                if (head.compareAndSet(pos, pos + 1)) {
+                    E element = elements.get(idx);
+                    elements.lazySet(idx, null);
+                    // frees the slot for the next lap of producers
+                    sequences.set(idx, pos + mask + 1);
+                    return element;
+                }
+            } else if (diff < 0) {
+                // the slot has not been written yet
+                return null;
+            }
+            // another consumer took the element first
+        }
+    }
+
+    /**
+     * Determines whether the buffer is empty
+     *
+     * @return boolean value for whether there are no elements
+     */
+    public boolean isEmpty() {
+        return head.get() >= tail.get();
+    }
+}
@@ -4,23 +4,189 @@ import com.planner.manager.ScheduleManager;
 import com.planner.models.Card;
 import com.planner.models.Event;
 import com.planner.models.Task;
-import com.planner.schedule.day.Day;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
+/**
+ * Converts the planner state of a {@link ScheduleManager} (Cards, Tasks and Events) to and from a line-based text
+ * format. Each line holds a single record, starting with its type followed by its fields:
+ * <pre>
+ * CARD  id color name
+ * TASK  id cardId hours dueMinute name
+ * EVENT id cardId startMinute endMinute days name
+ * </pre>
+ * IDs are preserved, times are local epoch-minutes, and {@code days} is a comma-separated list of
+ * {@link Event.DayOfWeek} for recurring Events (or {@code -} for individual ones). Names come last so that they may
+ * contain spaces. The schedule itself is not stored, since it is regenerated from the restored state.
+ *
+ * @author Andrew Roe
+ */
 public class Serializer {
 
-    public static String serializeSchedule(List<Card> cards, List<Task> tasks, List<Event> events, List<Day> days) {
-        return null;
+    /**
+     * Serializes the planner state of a {@link ScheduleManager}
+     *
+     * @param scheduleManager manager being serialized
+     * @return planner state as a String
+     */
+    public static String serializeSchedule(ScheduleManager scheduleManager) {
+        List<Task> tasks = new ArrayList<>(scheduleManager.getArchivedTasks());
+        tasks.addAll(scheduleManager.getTaskManager());
+        tasks.sort(Comparator.comparingInt(Task::getId));
+
+        // recurring Events are listed under every day they take place on
+        Set<Event> events = new LinkedHashSet<>(scheduleManager.getIndivEvents());
+        for (List<Event> dayEvents : scheduleManager.getRecurEvents()) {
+            events.addAll(dayEvents);
+        }
+        return serializeSchedule(scheduleManager.getCards(), tasks, new ArrayList<>(events));
+    }
+
+    /**
+     * Serializes Cards, Tasks and Events in the given order
+     *
+     * @param cards Cards being serialized
+     * @param tasks Tasks being serialized
+     * @param events Events being serialized
+     * @return planner state as a String
+     */
+    public static String serializeSchedule(List<Card> cards, List<Task> tasks, List<Event> events) {
+        StringBuilder sb = new StringBuilder();
+        for (Card card : cards) {
+            sb.append("CARD ").append(card.getId())
+                    .append(' ').append(card.getColor());
+            appendName(sb, card.getName());
+        }
+        for (Task task : tasks) {
+            sb.append("TASK ").append(task.getId())
+                    .append(' ').append(task.getCard() != null ? task.getCard().getId() : -1)
+                    .append(' ').append(task.getTotalHours())
+                    .append(' ').append(Time.toEpochMinute(task.getDueDate()));
+            appendName(sb, task.getName());
+        }
+        for (Event event : events) {
+            sb.append("EVENT ").append(event.getId())
+                    .append(' ').append(event.getCard() != null ? event.getCard().getId() : -1)
+                    .append(' ').append(event.getTimeStamp().getStartMinute())
+                    .append(' ').append(event.getTimeStamp().getEndMinute())
+                    .append(' ');
+            if (event.isRecurring()) {
+                Event.DayOfWeek[] days = event.getDays();
+                for (int i = 0; i < days.length; i++) {
+                    if (i > 0) sb.append(',');
+                    sb.append(days[i]);
+                }
+            } else {
+                sb.append('-');
+            }
+            appendName(sb, event.getName());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Restores serialized planner state into a {@link ScheduleManager}. Malformed records are skipped.
+     *
+     * @param data planner state as a String
+     * @param scheduleManager manager receiving the Cards, Tasks and Events
+     * @return number of records that could not be restored
+     */
+    public static int deserializeSchedule(String data, ScheduleManager scheduleManager) {
+        int errors = 0;
+        for (String line : data.split("\n")) {
+            if (line.isBlank()) continue;
+            try {
+                restoreRecord(line, scheduleManager);
+            } catch (RuntimeException e) {
+                scheduleManager.getEventLog().reportException(e);
+                errors++;
+            }
+        }
+        return errors;
+    }
+
+    /**
+     * Restores a single record
+     *
+     * @param line record being restored
+     * @param scheduleManager manager receiving the record
+     * @throws IllegalArgumentException when the record is malformed
+     */
+    private static void restoreRecord(String line, ScheduleManager scheduleManager) {
+        String type = line.substring(0, Math.max(0, line.indexOf(' ')));
+        int numFields;
+        if (type.equals("CARD")) numFields = 3;
+        else if (type.equals("TASK")) numFields = 5;
+        else if (type.equals("EVENT")) numFields = 6;
+        else throw new IllegalArgumentException("Unknown record type: " + line);
+
+        // the name is the remainder of the line
+        String[] fields = line.split(" ", numFields + 1);
+        if (fields.length != numFields + 1) {
+            throw new IllegalArgumentException("Missing fields in record: " + line);
+        }
+        String name = unescape(fields[numFields]);
+        int id = Integer.parseInt(fields[1]);
+
+        if (type.equals("CARD")) {
+            scheduleManager.restoreCard(id, name, Card.Color.valueOf(fields[2]));
+        } else if (type.equals("TASK")) {
+            scheduleManager.restoreTask(id, name, Double.parseDouble(fields[3]),
+                    Time.toCalendar(Long.parseLong(fields[4])), Integer.parseInt(fields[2]));
+        } else {
+            Time.TimeStamp timeStamp = new Time.TimeStamp(Long.parseLong(fields[3]), Long.parseLong(fields[4]));
+            Event.DayOfWeek[] days = null;
+            if (!fields[5].equals("-")) {
+                String[] dayNames = fields[5].split(",");
+                days = new Event.DayOfWeek[dayNames.length];
+                for (int i = 0; i < dayNames.length; i++) {
+                    days[i] = Event.DayOfWeek.valueOf(dayNames[i]);
+                }
+            }
+            scheduleManager.restoreEvent(id, name, Integer.parseInt(fields[2]), timeStamp, days);
+        }
+    }
+
+    /**
+     * Appends a name as the last field of a record, escaping backslashes and line breaks
+     *
+     * @param sb StringBuilder holding the record
+     * @param name name being appended
+     */
+    private static void appendName(StringBuilder sb, String name) {
+        sb.append(' ');
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == '\\') sb.append("\\\\");
+            else if (c == '\n') sb.append("\\n");
+            else if (c == '\r') sb.append("\\r");
+            else sb.append(c);
+        }
+        sb.append('\n');
     }
 
-    public static void deserializeSchedule(String data, ScheduleManager scheduleManager) {
-        // 1. append the relevant identifier to each line (followed by a space)
-        // 2. tokenize the line
-        // 3. parse the relevant type
-        // 4. call scheduleManager's method to create that type
-        // 5. return info object that relates:
-        //    - how many cards, tasks, events, days read in
-        //    - how many errors you encountered (remember, we skip past these)
+    /**
+     * Reverts the escaping of a name
+     *
+     * @param name escaped name
+     * @return original name
+     */
+    private static String unescape(String name) {
+        if (name.indexOf('\\') == -1) return name;
+        StringBuilder sb = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == '\\' && i + 1 < name.length()) {
+                char next = name.charAt(++i);
+                sb.append(next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
     }
 }
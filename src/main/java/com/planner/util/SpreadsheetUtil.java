@@ -8,8 +8,8 @@ import com.planner.schedule.day.Day;
 import org.dhatim.fastexcel.Workbook;
 import org.dhatim.fastexcel.Worksheet;
 
+import java.io.IOException;
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -20,6 +20,9 @@ import java.util.List;
  * @author Andrew Roe
  */
 public class SpreadsheetUtil {
+    /** Number of rows after which a Worksheet streams its rows to the Workbook */
+    private static final int FLUSH_ROWS = 1024;
+
     /**
      * Creates an event Worksheet if there are any events in the schedule.
      *
@@ -124,12 +127,13 @@ public class SpreadsheetUtil {
     }
 
     /**
-     * Populates an event Worksheet if it exists.
+     * Populates an event Worksheet if it exists, streaming its rows to the Workbook and finishing it.
      *
      * @param eventSheet The nullable {@code Events} Worksheet.
      * @param schedule Schedule that will be used to populate the Worksheet.
+     * @throws IOException when the rows cannot be written to the Workbook.
      */
-    public static void populateEventSheet(Worksheet eventSheet, List<Day> schedule) {
+    public static void populateEventSheet(Worksheet eventSheet, List<Day> schedule) throws IOException {
         if (eventSheet == null)
             return;
 
@@ -151,22 +155,28 @@ public class SpreadsheetUtil {
                 eventSheet.value(eventCount, 3, time);
                 eventSheet.value(eventCount, 4, date);
                 eventSheet.value(eventCount, 5, days);
+                if (eventCount % FLUSH_ROWS == 0)
+                    eventSheet.flush();
             }
         }
+        eventSheet.finish();
     }
 
     /**
-     * Populates a task Worksheet if it exists.
+     * Populates a task Worksheet if it exists, streaming its rows to the Workbook and finishing it.
      *
      * @param taskSheet The nullable {@code Tasks} Worksheet.
      * @param schedule Schedule that will be used to populate the Worksheet.
+     * @throws IOException when the rows cannot be written to the Workbook.
      */
-    public static void populateTaskSheet(Worksheet taskSheet, List<Day> schedule) {
+    public static void populateTaskSheet(Worksheet taskSheet, List<Day> schedule) throws IOException {
         if (taskSheet == null)
             return;
 
+        SimpleDateFormat sdf = new SimpleDateFormat("dd-MM-yyyy");
         int taskCount = 0;
         for (Day day : schedule) {
+            String date = null;
             for (Task.SubTask subTask : day.getSubTaskList()) {
 
                 Task parentTask = subTask.getParentTask();
@@ -177,8 +187,9 @@ public class SpreadsheetUtil {
                 double hours = subTask.getSubTaskHours();
                 String time = subTask.getTimeStamp().toString();
 
-                SimpleDateFormat sdf = new SimpleDateFormat("dd-MM-yyyy");
-                String date = sdf.format(subTask.getTimeStamp().getStart().getTime());
+                // every SubTask of a Day starts on its date
+                if (date == null)
+                    date = sdf.format(subTask.getTimeStamp().getStart().getTime());
                 String due = parentTask.getDateStamp();
 
                 taskCount++;
@@ -189,12 +200,19 @@ public class SpreadsheetUtil {
                 taskSheet.value(taskCount, 4, time);
                 taskSheet.value(taskCount, 5, date);
                 taskSheet.value(taskCount, 6, due);
+                if (taskCount % FLUSH_ROWS == 0)
+                    taskSheet.flush();
             }
         }
+        taskSheet.finish();
     }
 
     /**
-     * Populates a schedule Worksheet if it exists.
+     * Populates a schedule Worksheet, streaming its rows to the Workbook and finishing it.
+     * <p>
+     * Each Day is a column listing its SubTasks and Events in order of occurrence. Since rows can only be
+     * streamed in order, the sheet is written row by row while keeping a cursor into the SubTasks and Events of
+     * every Day, instead of arranging each Day's items up front.
      *
      * @param scheduleSheet The nullable {@code Schedule} Worksheet.
      * @param schedule Schedule that will be used to populate the Worksheet.
@@ -202,49 +220,68 @@ public class SpreadsheetUtil {
      *                   for the user's choice to enable/disable coloring.
      *                   This choice affects the font color of each event/task
      *                   under a day's column in the schedule.
+     * @throws IOException when the rows cannot be written to the Workbook.
      */
-    public static void populateScheduleSheet(Worksheet scheduleSheet, List<Day> schedule, UserConfig userConfig) {
-        for (int i = 0; i < schedule.size(); i++) {
-            Day day = schedule.get(i);
-
-            List<String> arrangedIDs = arrangeTasksAndEventsInOrderOfOccurrence(day);
-            for (int j = 0; j < arrangedIDs.size(); j++) {
-                String id = arrangedIDs.get(j);
-
-                Time.TimeStamp ts = null;
-                String name = "";
-                Card.Color color = null;
+    public static void populateScheduleSheet(Worksheet scheduleSheet, List<Day> schedule, UserConfig userConfig)
+            throws IOException {
+        if (scheduleSheet == null)
+            return;
 
-                StringBuilder output = new StringBuilder();
+        // the schedule may be a linked list, so its Days are indexed through an array
+        Day[] days = schedule.toArray(new Day[0]);
+        int numRows = 0;
+        for (Day day : days) {
+            numRows = Math.max(numRows, day.getNumSubTasks() + day.getNumEvents());
+        }
+        // index of the next SubTask and Event of each Day
+        int[] taskIdx = new int[days.length];
+        int[] eventIdx = new int[days.length];
+        StringBuilder output = new StringBuilder();
+
+        for (int row = 1; row <= numRows; row++) {
+            for (int i = 0; i < days.length; i++) {
+                Day day = days[i];
+                boolean hasTask = taskIdx[i] < day.getNumSubTasks();
+                boolean hasEvent = eventIdx[i] < day.getNumEvents();
+                if (!hasTask && !hasEvent)
+                    continue;
+
+                Time.TimeStamp ts;
+                String name;
+                Card.Color color;
+                if (hasEvent && (!hasTask || day.getEvent(eventIdx[i]).getTimeStamp().getStartMinute()
+                        < day.getSubTask(taskIdx[i]).getTimeStamp().getStartMinute())) {
+                    Event event = day.getEvent(eventIdx[i]++);
 
-                int index = Integer.parseInt(String.valueOf(id.charAt(1)));
-                if (id.charAt(0) == 't') {
-                    Task.SubTask subTask = day.getSubTask(index);
+                    ts = event.getTimeStamp();
+                    name = event.getName();
+                    color = event.getCard() != null ? event.getCard().getColor() : null;
+                } else {
+                    Task.SubTask subTask = day.getSubTask(taskIdx[i]++);
 
                     ts = subTask.getTimeStamp();
                     name = subTask.getParentTask().getName();
                     color = subTask.getParentTask().getColor();
                 }
-                else if (id.charAt(0) == 'e') {
-                    Event event = day.getEvent(index);
-
-                    ts = event.getTimeStamp();
-                    name = event.getName();
-                    color = event.getCard() != null ? event.getCard().getColor() : null;
-                }
 
+                output.setLength(0);
                 output.append(ts).append(" - ").append(name);
 
-                scheduleSheet.value(j + 1, i, output.toString());
+                scheduleSheet.value(row, i, output.toString());
 
-                scheduleSheet.style(j + 1, i).fontColor(
+                scheduleSheet.style(row, i).fontColor(
                         convertColorsEnumToFastExcelColorEnum(color)
                 ).set();
             }
+            if (row % FLUSH_ROWS == 0)
+                scheduleSheet.flush();
         }
+        scheduleSheet.finish();
     }
 
     private static String convertColorsEnumToFastExcelColorEnum(Card.Color colorID) {
+        if (colorID == null)
+            return org.dhatim.fastexcel.Color.BLACK;
         switch (colorID) {
             case RED:
                 return org.dhatim.fastexcel.Color.RED;
@@ -270,36 +307,4 @@ public class SpreadsheetUtil {
                 return org.dhatim.fastexcel.Color.BLACK;
         }
     }
-
-    private static List<String> arrangeTasksAndEventsInOrderOfOccurrence(Day day) {
-        int[] taskEventPair = new int[2];
-
-        List<String> arrangedIDs = new ArrayList<>();
-
-        for (int i = 0; i < (day.getNumEvents() + day.getNumSubTasks()); i++) {
-            if (taskEventPair[0] >= day.getNumSubTasks()) {
-                arrangedIDs.add("e" + taskEventPair[1]);
-                taskEventPair[1]++;
-            }
-            else if (taskEventPair[1] >= day.getNumEvents()) {
-                arrangedIDs.add("t" + taskEventPair[0]);
-                taskEventPair[0]++;
-            }
-            else {
-                Event e1 = day.getEvent(taskEventPair[1]);
-                Task.SubTask st1 = day.getSubTask(taskEventPair[0]);
-
-                if (Time.isBefore(e1.getTimeStamp().getStart(), st1.getTimeStamp().getStart())) {
-                    arrangedIDs.add("e" + taskEventPair[1]);
-                    taskEventPair[1]++;
-                }
-                else {
-                    arrangedIDs.add("t" + taskEventPair[0]);
-                    taskEventPair[0]++;
-                }
-            }
-        }
-
-        return arrangedIDs;
-    }
 }
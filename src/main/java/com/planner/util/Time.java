@@ -1,21 +1,28 @@
 package com.planner.util;
 
 import com.planner.models.Event;
-import com.planner.models.UserConfig;
 import com.planner.schedule.day.Day;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.List;
 
 /**
- * Handles all time operations involving Calendar instances
+ * Handles all time operations involving Calendar instances. Scheduling works on local epoch-minutes
+ * (minutes since the epoch in wall clock time) so that no Calendar needs to be created or cloned;
+ * Calendar instances are only produced for display and export.
  *
  * @author Andrew Roe
  * @author Abah Olotuche Gabriel
  */
 public class Time {
 
+    /** Number of milliseconds in a minute */
+    private static final long MILLIS_PER_MINUTE = 60_000L;
+    /** Number of minutes in a day */
+    public static final long MINUTES_PER_DAY = 1440L;
+
     /**
      * Determines the difference of days between two Calendar instances
      *
@@ -111,115 +118,124 @@ public class Time {
         return clone;
     }
 
+    /**
+     * Converts a Calendar instance to minutes since the epoch in local (wall clock) time.
+     * Seconds and milliseconds are dropped, and no Calendar objects are allocated.
+     *
+     * @param date Calendar instance being converted
+     * @return local epoch-minute for the Calendar instance
+     */
+    public static long toEpochMinute(Calendar date) {
+        long millis = date.getTimeInMillis() + date.get(Calendar.ZONE_OFFSET) + date.get(Calendar.DST_OFFSET);
+        return Math.floorDiv(millis, MILLIS_PER_MINUTE);
+    }
+
+    /**
+     * Converts a local epoch-minute back into a Calendar instance. Only meant to be used at the
+     * display/export boundary, since it allocates a new Calendar.
+     *
+     * @param epochMinute local epoch-minute
+     * @return new Calendar instance for the epoch-minute
+     */
+    public static Calendar toCalendar(long epochMinute) {
+        LocalDate localDate = LocalDate.ofEpochDay(getEpochDay(epochMinute));
+        int minuteOfDay = getMinuteOfDay(epochMinute);
+        Calendar date = Calendar.getInstance();
+        date.clear();
+        date.set(localDate.getYear(), localDate.getMonthValue() - 1, localDate.getDayOfMonth(),
+                minuteOfDay / 60, minuteOfDay % 60, 0);
+        return date;
+    }
+
+    /**
+     * Gets the number of days since the epoch for a local epoch-minute
+     *
+     * @param epochMinute local epoch-minute
+     * @return local epoch-day
+     */
+    public static long getEpochDay(long epochMinute) {
+        return Math.floorDiv(epochMinute, MINUTES_PER_DAY);
+    }
+
+    /**
+     * Gets the minute within its day (0-1439) for a local epoch-minute
+     *
+     * @param epochMinute local epoch-minute
+     * @return minute of the day
+     */
+    public static int getMinuteOfDay(long epochMinute) {
+        return (int) Math.floorMod(epochMinute, MINUTES_PER_DAY);
+    }
+
+    /**
+     * Gets the local epoch-minute for midnight of the day containing the given epoch-minute
+     *
+     * @param epochMinute local epoch-minute
+     * @return local epoch-minute at 12:00am of the same day
+     */
+    public static long getStartOfDay(long epochMinute) {
+        return getEpochDay(epochMinute) * MINUTES_PER_DAY;
+    }
+
+    /**
+     * Determines the closest available epoch-minute within a quarter of an hour (above or below)
+     *
+     * @param epochMinute current time being measured
+     * @param isAbove whether time will be above or below to nearest quarter
+     * @return epoch-minute to nearest quarter
+     */
+    public static long getNearestQuarterOfHour(long epochMinute, boolean isAbove) {
+        long quarters = isAbove ? Math.floorDiv(epochMinute + 14, 15) : Math.floorDiv(epochMinute, 15);
+        return quarters * 15;
+    }
+
     // [COMPLETE]
     public static double getTimeInterval(Calendar curr, Calendar event) {
+        return getTimeInterval(toEpochMinute(curr), toEpochMinute(event));
+    }
+
+    // [COMPLETE]
+    public static double getTimeInterval(long curr, long event) {
         // determine how many hours or minutes exist between current time and upcoming event
         //   if the minutes is less than 30, return 0
         //     e.g. 1 hour and 27 minutes --> 1 hour
         //     e.g. 1 hour and 40 minutes --> 1.5 hours
         //   we can safely assume that the event is properly aligned within the quarter period of the day (0, 15, 30, 45)
-        Calendar currTemp = cloneAndResetSecMillis(curr);
-        Calendar eventTemp = cloneAndResetSecMillis(event);
-        long milliseconds = Math.abs(currTemp.getTimeInMillis() - eventTemp.getTimeInMillis());
-        int min = (int) Math.round(milliseconds / 1000.0 / 60.0);
-        double hours = (int) (min / 60.0);
+        long min = Math.abs(curr - event);
+        double hours = (int) (min / 60);
         min %= 60;
         hours += min >= 30 ? 0.5 : 0;
         return hours;
     }
 
     // [COMPLETE]
-    public static Calendar getFirstAvailableTimeInDay(List<TimeStamp> taskTimeStamps, List<TimeStamp> eventTimeStamps, UserConfig userConfig, Calendar time, boolean isToday) {
-        Calendar startTime;
-        if (isToday && time.get(Calendar.HOUR_OF_DAY) >= userConfig.getDailyHoursRange()[0] && taskTimeStamps.isEmpty() && !userConfig.isDefaultAtStart()) {
-            startTime = Time.getNearestQuarterOfHour(time, true);
-        } else if (taskTimeStamps.isEmpty()) {
-            startTime = Time.getFormattedCalendarInstance(time, 0);
-            startTime.set(Calendar.HOUR_OF_DAY, userConfig.getDailyHoursRange()[0]);
-            startTime.set(Calendar.MINUTE, 0);
-        } else {
-            TimeStamp ts = taskTimeStamps.get(taskTimeStamps.size() - 1);
-            startTime = (Calendar) ts.getEnd().clone();
-        }
-
-        if (eventTimeStamps.isEmpty()) {
-            return startTime;
-        }
-
-        /*
-        Steps for determining correct start time with events throughout day:
-        1. Check whether startTime interferes with the event
-        2. If it does, assign the end of the event to startTime
-            a. If no more events, loop will break with correct value (so, do nothing here)
-            b. If there are events, simply continue (so, do nothing here)
-        3. If it doesn't, check whether it is before or after startTime
-            a. If it's before, continue (if no more events, no changes to startTime)
-            b. If it's after, check how much time there is between
-                i. If enough, break
-                ii. If not enough, assign end of event to startTime and loop again
-         */
-        for (TimeStamp eTS : eventTimeStamps) {
-            if (isInsideEventBlock(startTime, eTS)) startTime = eTS.getEnd();
-            else {
-                if (isAfter(startTime, eTS.getEnd())) {
-                    // do nothing here
-                } else {
-                    double hours = getTimeInterval(startTime, eTS.getStart());
-                    if (hours > 0) break;
-                    else startTime = eTS.getEnd();
-                }
-            }
-        }
-
-        // todo need to think about whether we should have startTime configured with getNearestQuarterOfHour() (at most, we're losing 14 minutes, but that could theoretically cost us 30 min due to formatting)
-        // todo might need another config option to allow tasks to be scheduled with 'unclean' times around events (not an issue without events, at most you'd be losing is 14 minutes)
-        // todo would need to update line 162
-        return startTime;
-    }
-
-    // [COMPLETE]
-    public static boolean isInsideEventBlock(Calendar startTime, TimeStamp eventTimeStamp) {
-        return !isAfter(startTime, eventTimeStamp.getEnd()) && !isBefore(startTime, eventTimeStamp.getStart());
+    public static boolean isInsideEventBlock(long startTime, TimeStamp eventTimeStamp) {
+        return startTime < eventTimeStamp.getEndMinute() && startTime >= eventTimeStamp.getStartMinute();
     }
 
     // [COMPLETE]
     public static boolean isAfter(Calendar startTime, Calendar eventEnd) {
-        Calendar startTemp = cloneAndResetSecMillis(startTime);
-        Calendar eventTemp = cloneAndResetSecMillis(eventEnd);
-        return startTemp.compareTo(eventTemp) >= 0;
+        return toEpochMinute(startTime) >= toEpochMinute(eventEnd);
     }
 
     // [COMPLETE]
     public static boolean isBefore(Calendar startTime, Calendar eventStart) {
-        Calendar startTemp = cloneAndResetSecMillis(startTime);
-        Calendar eventTemp = cloneAndResetSecMillis(eventStart);
-        return startTemp.compareTo(eventTemp) < 0;
-    }
-
-    // [COMPLETE]
-    public static Calendar cloneAndResetSecMillis(Calendar date) {
-        Calendar temp = (Calendar) date.clone();
-        temp.set(Calendar.SECOND, 0);
-        temp.set(Calendar.MILLISECOND, 0);
-        return temp;
+        return toEpochMinute(startTime) < toEpochMinute(eventStart);
     }
 
     // [COMPLETE]
     public static boolean isConflictingEvent(Event curr, Event other) {
-        Calendar currStart = cloneAndResetSecMillis(curr.getTimeStamp().getStart());
-        Calendar currEnd = cloneAndResetSecMillis(curr.getTimeStamp().getEnd());
-        Calendar otherStart = cloneAndResetSecMillis(other.getTimeStamp().getEnd());
-        Calendar otherEnd = cloneAndResetSecMillis(other.getTimeStamp().getEnd());
-
-        if (currStart.compareTo(otherStart) >= 0 && currStart.compareTo(otherEnd) < 0) return true;
-        else return currEnd.compareTo(otherStart) > 0 && currEnd.compareTo(otherEnd) < 0;
+        TimeStamp currTimeStamp = curr.getTimeStamp();
+        TimeStamp otherTimeStamp = other.getTimeStamp();
+        return currTimeStamp.getStartMinute() < otherTimeStamp.getEndMinute()
+                && otherTimeStamp.getStartMinute() < currTimeStamp.getEndMinute();
     }
 
     // [COMPLETE]
     public static List<Double> computeTimeBlocks(Day day) {
         List<Double> intervals = new ArrayList<>();
         for (TimeStamp taskTimeStamp : day.getTaskTimeStamps()) {
-            intervals.add(Time.getTimeInterval(taskTimeStamp.getStart(), taskTimeStamp.getEnd()));
+            intervals.add(Time.getTimeInterval(taskTimeStamp.getStartMinute(), taskTimeStamp.getEndMinute()));
         }
         return intervals;
     }
@@ -232,43 +248,73 @@ public class Time {
      * @author Andrew Roe
      */
     public static class TimeStamp implements Comparable<TimeStamp> {
-        private final Calendar start;
-        private final Calendar end;
-        private final String strStamp;
+        /** Local epoch-minute for the start of the interval */
+        private final long startMinute;
+        /** Local epoch-minute for the end of the interval */
+        private final long endMinute;
+        /** Calendar form of the start, created lazily for display/export */
+        private Calendar start;
+        /** Calendar form of the end, created lazily for display/export */
+        private Calendar end;
+        /** Display form of the interval, created lazily */
+        private String strStamp;
 
         public TimeStamp(Calendar start, Calendar end) {
             start.set(Calendar.SECOND, 0);
             start.set(Calendar.MILLISECOND, 0);
             end.set(Calendar.SECOND, 0);
             end.set(Calendar.MILLISECOND, 0);
-            if (start.compareTo(end) >= 0) throw new IllegalArgumentException("Start time is greater than or equal to end time");
+            this.startMinute = toEpochMinute(start);
+            this.endMinute = toEpochMinute(end);
+            if (startMinute >= endMinute) throw new IllegalArgumentException("Start time is greater than or equal to end time");
             this.start = start;
             this.end = end;
-            strStamp = buildStamp();
+        }
+
+        /**
+         * Constructs a TimeStamp directly from local epoch-minutes without touching any Calendar
+         *
+         * @param startMinute local epoch-minute for the start
+         * @param endMinute local epoch-minute for the end
+         */
+        public TimeStamp(long startMinute, long endMinute) {
+            if (startMinute >= endMinute) throw new IllegalArgumentException("Start time is greater than or equal to end time");
+            this.startMinute = startMinute;
+            this.endMinute = endMinute;
+        }
+
+        public long getStartMinute() {
+            return startMinute;
+        }
+
+        public long getEndMinute() {
+            return endMinute;
         }
 
         public Calendar getStart() {
+            if (start == null) start = toCalendar(startMinute);
             return start;
         }
 
         public Calendar getEnd() {
+            if (end == null) end = toCalendar(endMinute);
             return end;
         }
 
         public int getStartHour() {
-            return start.get(Calendar.HOUR_OF_DAY);
+            return getMinuteOfDay(startMinute) / 60;
         }
 
         public int getStartMin() {
-            return start.get(Calendar.MINUTE);
+            return getMinuteOfDay(startMinute) % 60;
         }
 
         public int getEndHour() {
-            return end.get(Calendar.HOUR_OF_DAY);
+            return getMinuteOfDay(endMinute) / 60;
         }
 
         public int getEndMin() {
-            return end.get(Calendar.MINUTE);
+            return getMinuteOfDay(endMinute) % 60;
         }
 
         private String buildStamp() {
@@ -309,16 +355,13 @@ public class Time {
 
         @Override
         public String toString() {
+            if (strStamp == null) strStamp = buildStamp();
             return strStamp;
         }
 
         @Override
         public int compareTo(TimeStamp o) {
-            if (this.getStartHour() < o.getStartHour()) return -1;
-            else if (this.getStartHour() > o.getStartHour()) return 1;
-            else {
-                return Integer.compare(this.getStartMin(), o.getStartMin());
-            }
+            return Integer.compare(getMinuteOfDay(this.startMinute), getMinuteOfDay(o.startMinute));
         }
     }
 
@@ -0,0 +1,243 @@
+package com.planner.io;
+
+import com.google.api.client.util.DateTime;
+import com.google.api.services.calendar.model.Event;
+import com.google.api.services.calendar.model.EventDateTime;
+import com.google.api.services.calendar.model.Events;
+import com.planner.manager.ScheduleManager;
+import com.planner.models.Task;
+import com.planner.models.UserConfig;
+import com.planner.schedule.day.Day;
+import com.planner.util.Time;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CalendarSyncTest {
+
+    @TempDir
+    Path dir;
+
+    /** Start of the first generated event */
+    private static final long START = System.currentTimeMillis() + 60 * 60 * 1000;
+
+    @Test
+    void insertsInBatches() throws Exception {
+        LocalCalendarService service = new LocalCalendarService(5, 0);
+        CalendarSync sync = new CalendarSync(service, 3, 1);
+        List<CalendarService.Call> calls = insertCalls(1234);
+        CalendarSync.Summary summary = sync.execute(calls);
+
+        assertEquals(1234, summary.getSucceeded());
+        assertEquals(0, summary.getFailed());
+        assertEquals(1234, service.size());
+        assertEquals(25, service.getNumRequests());
+        assertTrue(service.getMaxInFlight() <= 3);
+        Set<String> ids = new HashSet<>();
+        for (CalendarService.Call call : calls) {
+            assertTrue(call.isSuccessful());
+            ids.add(call.getResult().getId());
+        }
+        assertEquals(1234, ids.size());
+    }
+
+    @Test
+    void retriesRateLimitedCalls() throws Exception {
+        LocalCalendarService service = new LocalCalendarService(0, 1000);
+        CalendarSync sync = new CalendarSync(service, 4, 50);
+        CalendarSync.Summary summary = sync.execute(insertCalls(1500));
+
+        assertEquals(1500, summary.getSucceeded());
+        assertEquals(0, summary.getFailed());
+        assertTrue(service.getNumRejected() > 0);
+        assertEquals(service.getNumRejected(), summary.getRetries());
+        assertEquals(1500, service.size());
+    }
+
+    @Test
+    void listsAndDeletesAcrossPages() throws Exception {
+        LocalCalendarService service = new LocalCalendarService();
+        CalendarSync sync = new CalendarSync(service, 4, 1);
+        sync.execute(insertCalls(6000));
+
+        List<Event> events = sync.listAll(new DateTime(START - 1));
+        assertEquals(6000, events.size());
+        for (int i = 1; i < events.size(); i++) {
+            assertTrue(events.get(i - 1).getStart().getDateTime().getValue()
+                    <= events.get(i).getStart().getDateTime().getValue());
+        }
+        // events last 30 minutes, so those starting after minute 2970 end after minute 3000
+        assertEquals(3029, sync.listAll(new DateTime(START + 3000L * 60_000)).size());
+
+        List<CalendarService.Call> deletes = new ArrayList<>();
+        for (Event event : events) {
+            deletes.add(CalendarService.Call.delete(event.getId()));
+        }
+        deletes.add(CalendarService.Call.delete("missing"));
+        CalendarSync.Summary summary = sync.execute(deletes);
+        assertEquals(6000, summary.getSucceeded());
+        assertEquals(1, summary.getFailed());
+        assertEquals(0, service.size());
+    }
+
+    @Test
+    void exportsAndCleansSchedule() throws Exception {
+        ScheduleManager sm = new ScheduleManager(new UserConfig());
+        sm.addTask("homework", 3, Time.getFormattedCalendarInstance(2), -1);
+        sm.addTask("essay", 5.5, Time.getFormattedCalendarInstance(4), -1);
+        sm.buildSchedule();
+        int numSubTasks = countSubTasks(sm, null);
+
+        LocalCalendarService service = new LocalCalendarService();
+        GoogleCalendarIO io = new GoogleCalendarIO(sm.getEventLog(), new CalendarSync(service, 2, 1),
+                dir.resolve("sync.json"));
+        new CalendarSync(service).execute(List.of(CalendarService.Call.insert(event(0, "Dentist"))));
+        assertEquals(numSubTasks, io.exportScheduleToGoogle(sm.getUserConfig(), sm.getSchedule()).getNumInserts());
+        assertEquals(numSubTasks + 1, service.size());
+
+        assertEquals(numSubTasks, io.cleanGoogleSchedule());
+        assertEquals(1, service.size());
+        assertEquals(numSubTasks, io.exportScheduleToGoogle(sm.getUserConfig(), sm.getSchedule()).getNumInserts());
+    }
+
+    @Test
+    void exportsOnlyChanges() throws Exception {
+        ScheduleManager sm = new ScheduleManager(new UserConfig());
+        Task homework = sm.addTask("homework", 3, Time.getFormattedCalendarInstance(2), -1);
+        Task essay = sm.addTask("essay", 5.5, Time.getFormattedCalendarInstance(4), -1);
+        sm.addTask("project", 9, Time.getFormattedCalendarInstance(6), -1);
+        sm.buildSchedule();
+        int numSubTasks = countSubTasks(sm, null);
+
+        LocalCalendarService service = new LocalCalendarService();
+        Path stateFile = dir.resolve("sync.json");
+        GoogleCalendarIO io = new GoogleCalendarIO(sm.getEventLog(), new CalendarSync(service, 2, 1), stateFile);
+        CalendarSyncState.Delta delta = io.exportScheduleToGoogle(sm.getUserConfig(), sm.getSchedule());
+        assertEquals(numSubTasks, delta.getNumInserts());
+        assertEquals(numSubTasks, service.size());
+
+        long requests = service.getNumRequests();
+        delta = io.exportScheduleToGoogle(sm.getUserConfig(), sm.getSchedule());
+        assertTrue(delta.isEmpty());
+        assertEquals(numSubTasks, delta.getNumUnchanged());
+        assertEquals(requests, service.getNumRequests());
+
+        sm.modTask(essay.getId(), "paper", essay.getTotalHours(), essay.getDueDate(), -1);
+        sm.buildSchedule();
+        delta = io.exportScheduleToGoogle(sm.getUserConfig(), sm.getSchedule());
+        assertEquals(countSubTasks(sm, "paper"), delta.getNumUpdates());
+        assertEquals(0, delta.getNumInserts() + delta.getNumDeletes());
+        assertEquals(requests + 1, service.getNumRequests());
+        CalendarSyncState state = CalendarSyncState.read(stateFile);
+        assertEquals("paper", service.getEvent(state.getEventId("task-" + essay.getId() + "-1")).getSummary());
+
+        // rebuilds the state from the calendar
+        Files.delete(stateFile);
+        assertTrue(io.exportScheduleToGoogle(sm.getUserConfig(), sm.getSchedule()).isEmpty());
+
+        // recreates an event deleted by hand once it changes
+        String removed = state.getEventId("task-" + essay.getId() + "-1");
+        new CalendarSync(service).execute(List.of(CalendarService.Call.delete(removed)));
+        sm.modTask(essay.getId(), "thesis", essay.getTotalHours(), essay.getDueDate(), -1);
+        sm.buildSchedule();
+        io.exportScheduleToGoogle(sm.getUserConfig(), sm.getSchedule());
+        assertEquals(numSubTasks, service.size());
+        assertNull(service.getEvent(removed));
+
+        // keeps the SubTasks of a deleted Task that already ended
+        long now = System.currentTimeMillis();
+        int numEnded = 0;
+        for (Day day : sm.getSchedule()) {
+            for (Task.SubTask subTask : day.getSubTaskList()) {
+                if (subTask.getParentTask() == homework && subTask.getTimeStamp().getEnd().getTimeInMillis() <= now) {
+                    numEnded++;
+                }
+            }
+        }
+        sm.deleteTask(homework.getId());
+        sm.buildSchedule();
+        io.exportScheduleToGoogle(sm.getUserConfig(), sm.getSchedule());
+        assertEquals(countSubTasks(sm, null) + numEnded, service.size());
+        for (Event event : new CalendarSync(service).listAll(new DateTime(0))) {
+            if ("homework".equals(event.getSummary())) {
+                assertTrue(event.getEnd().getDateTime().getValue() <= now);
+            }
+        }
+    }
+
+    @Test
+    void recordsCallsCompletedBeforeFailure() throws Exception {
+        ScheduleManager sm = new ScheduleManager(new UserConfig());
+        sm.addTask("homework", 3, Time.getFormattedCalendarInstance(2), -1);
+        sm.buildSchedule();
+        LocalCalendarService service = new LocalCalendarService();
+        Path stateFile = dir.resolve("sync.json");
+        GoogleCalendarIO io = new GoogleCalendarIO(sm.getEventLog(), new CalendarSync(service, 2, 1), stateFile);
+        io.exportScheduleToGoogle(sm.getUserConfig(), sm.getSchedule());
+
+        for (int i = 0; i < 80; i++) {
+            sm.addTask("task " + i, 0.5, Time.getFormattedCalendarInstance(1 + i % 6), -1);
+        }
+        sm.buildSchedule();
+        int numSubTasks = countSubTasks(sm, null);
+        assertTrue(numSubTasks > CalendarService.MAX_BATCH_SIZE + 1);
+
+        // rejects every batch after the first
+        CalendarService failing = new CalendarService() {
+            private int numBatches;
+
+            @Override
+            public void executeBatch(List<CalendarService.Call> calls) throws IOException {
+                if (++numBatches > 1) throw new CalendarService.ServiceException(400, "badRequest", "Bad request");
+                service.executeBatch(calls);
+            }
+
+            @Override
+            public Events listEvents(DateTime timeMin, String pageToken, int maxResults) throws IOException {
+                return service.listEvents(timeMin, pageToken, maxResults);
+            }
+        };
+        GoogleCalendarIO failingIO = new GoogleCalendarIO(sm.getEventLog(), new CalendarSync(failing, 1, 1), stateFile);
+        assertThrows(CalendarService.ServiceException.class,
+                () -> failingIO.exportScheduleToGoogle(sm.getUserConfig(), sm.getSchedule()));
+        assertTrue(service.size() > 1);
+
+        // only the calls that were never sent are sent again
+        io.exportScheduleToGoogle(sm.getUserConfig(), sm.getSchedule());
+        assertEquals(numSubTasks, service.size());
+    }
+
+    private static int countSubTasks(ScheduleManager sm, String name) {
+        int count = 0;
+        for (Day day : sm.getSchedule()) {
+            for (Task.SubTask subTask : day.getSubTaskList()) {
+                if (name == null || name.equals(subTask.getParentTask().getName())) count++;
+            }
+        }
+        return count;
+    }
+
+    private static List<CalendarService.Call> insertCalls(int n) {
+        List<CalendarService.Call> calls = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            calls.add(CalendarService.Call.insert(event(i, "Event " + i)));
+        }
+        return calls;
+    }
+
+    private static Event event(int minute, String summary) {
+        long start = START + minute * 60_000L;
+        return new Event().setSummary(summary)
+                .setStart(new EventDateTime().setDateTime(new DateTime(start)))
+                .setEnd(new EventDateTime().setDateTime(new DateTime(start + 30 * 60_000)));
+    }
+}
@@ -0,0 +1,75 @@
+package com.planner.io;
+
+import com.planner.manager.ScheduleManager;
+import com.planner.models.Card;
+import com.planner.models.Event;
+import com.planner.models.UserConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JBinTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void importJBin() throws Exception {
+        ScheduleManager sm = new ScheduleManager(new UserConfig());
+        JBin.importJBin(Paths.get("data/jbin/event.jbin"), sm);
+
+        assertEquals(9, sm.getNumTasks());
+        assertEquals(5, sm.getCards().size());
+        assertEquals("Painting", sm.getTask(8).getName());
+        assertEquals(4.0, sm.getTask(8).getTotalHours());
+        assertEquals("Default", sm.getTask(8).getTag());
+        assertEquals("Business Law", sm.getTask(4).getTag());
+        assertEquals(Card.Color.INDIGO, sm.getTask(7).getColor());
+
+        int numEvents = 0;
+        for (int i = 0; i < sm.getRecurEvents().size(); i++) {
+            numEvents += sm.getRecurEvents().get(i).size();
+        }
+        assertEquals(9, numEvents);
+        Event law = sm.getRecurEvents().get(Event.DayOfWeek.MON.ordinal()).get(0);
+        assertEquals("Class-LAW", law.getName());
+        assertEquals("Business Law", law.getCard().getName());
+        assertEquals("11:15-12:30", law.get24HourTimeStampString());
+    }
+
+    @Test
+    void exportAndImport() throws Exception {
+        ScheduleManager sm = new ScheduleManager(new UserConfig());
+        JBin.importJBin(Paths.get("data/jbin/test.jbin"), sm);
+        Path file = dir.resolve("jbin").resolve("copy.jbin");
+        JBin.exportJBin(file, sm);
+
+        ScheduleManager copy = new ScheduleManager(new UserConfig());
+        JBin.importJBin(file, copy);
+        StringWriter expected = new StringWriter();
+        JBin.writeJBin(expected, sm);
+        StringWriter actual = new StringWriter();
+        JBin.writeJBin(actual, copy);
+        assertEquals(expected.toString(), actual.toString());
+        assertEquals(1, copy.getIndivEvents().size());
+        assertEquals("30-06-2024", copy.getIndivEvents().get(0).getDateStamp());
+    }
+
+    @Test
+    void invalidJBin() {
+        ScheduleManager sm = new ScheduleManager(new UserConfig());
+        Exception e = assertThrows(IllegalArgumentException.class,
+                () -> JBin.readJBin(new StringReader("01-01-2025\nTASK {\n  essay, 2.0\n}\n"), sm));
+        assertTrue(e.getMessage().startsWith("Invalid JBin line 3"));
+        assertThrows(IllegalArgumentException.class,
+                () -> JBin.readJBin(new StringReader("01-01-2025\nCARD {\n  school, BLUE, T0\n}\n"), sm));
+        assertThrows(IllegalArgumentException.class,
+                () -> JBin.readJBin(new StringReader("01-01-2025\nTASK {\n"), sm));
+    }
+}
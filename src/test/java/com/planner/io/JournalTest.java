@@ -0,0 +1,203 @@
+package com.planner.io;
+
+import com.planner.manager.ScheduleManager;
+import com.planner.models.Card;
+import com.planner.models.Event;
+import com.planner.models.Task;
+import com.planner.models.UserConfig;
+import com.planner.util.Time;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void replayMutations() {
+        String journal = dir.resolve("journal.bin").toString();
+        String snapshot = dir.resolve("snapshot.bin").toString();
+        ScheduleManager sm = new ScheduleManager(new UserConfig());
+        sm.openJournal(journal, snapshot);
+        populate(sm);
+        sm.syncJournal();
+
+        // a crashed session left only the journal behind
+        ScheduleManager copy = new ScheduleManager(new UserConfig());
+        assertFalse(copy.loadSnapshot(snapshot));
+        copy.openJournal(journal, snapshot);
+        assertSamePlanner(sm, copy);
+        assertEquals(sm.getJournalSequence(), copy.getJournalSequence());
+
+        // new mutations follow the replayed ones
+        copy.addTask("slides", 1, Time.getFormattedCalendarInstance(3), 1);
+        copy.syncJournal();
+        ScheduleManager next = new ScheduleManager(new UserConfig());
+        next.openJournal(journal, snapshot);
+        assertSamePlanner(copy, next);
+    }
+
+    @Test
+    void tornRecord() throws Exception {
+        Path journal = dir.resolve("journal.bin");
+        String snapshot = dir.resolve("snapshot.bin").toString();
+        ScheduleManager sm = new ScheduleManager(new UserConfig());
+        sm.openJournal(journal.toString(), snapshot);
+        sm.addCard("school", Card.Color.BLUE);
+        sm.addTask("homework", 3, Time.getFormattedCalendarInstance(2), 0);
+        sm.syncJournal();
+        long size = Files.size(journal);
+        sm.addTask("essay", 5.5, Time.getFormattedCalendarInstance(1), 0);
+        sm.syncJournal();
+
+        // the crash tore the last record
+        byte[] bytes = Files.readAllBytes(journal);
+        Files.write(journal, Arrays.copyOf(bytes, bytes.length - 5));
+        ScheduleManager copy = new ScheduleManager(new UserConfig());
+        copy.openJournal(journal.toString(), snapshot);
+        assertEquals(1, copy.getNumTasks());
+        assertNull(copy.getTask(1));
+        assertEquals(size, Files.size(journal));
+
+        copy.addTask("report", 9, Time.getFormattedCalendarInstance(4), 0);
+        copy.syncJournal();
+        ScheduleManager next = new ScheduleManager(new UserConfig());
+        next.openJournal(journal.toString(), snapshot);
+        assertEquals("report", next.getTask(1).getName());
+
+        Files.write(journal, new byte[]{1, 2, 3, 4, 5, 6, 7});
+        assertThrows(IllegalArgumentException.class,
+                () -> new ScheduleManager(new UserConfig()).openJournal(journal.toString(), snapshot));
+    }
+
+    @Test
+    void compactJournal() throws Exception {
+        Path journal = dir.resolve("journal.bin");
+        String snapshot = dir.resolve("snapshot.bin").toString();
+        ScheduleManager sm = new ScheduleManager(new UserConfig());
+        sm.openJournal(journal.toString(), snapshot);
+        populate(sm);
+        sm.syncJournal();
+        byte[] beforeCompaction = Files.readAllBytes(journal);
+        sm.closeJournal();
+        assertTrue(Files.size(journal) < beforeCompaction.length);
+
+        ScheduleManager copy = new ScheduleManager(new UserConfig());
+        assertTrue(copy.loadSnapshot(snapshot));
+        copy.openJournal(journal.toString(), snapshot);
+        assertSamePlanner(sm, copy);
+
+        // a crash between saving the snapshot and truncating the journal replays nothing twice
+        copy.closeJournal();
+        Files.write(journal, beforeCompaction);
+        ScheduleManager crashed = new ScheduleManager(new UserConfig());
+        assertTrue(crashed.loadSnapshot(snapshot));
+        crashed.openJournal(journal.toString(), snapshot);
+        assertSamePlanner(sm, crashed);
+        assertEquals(4, crashed.addTask("slides", 1, Time.getFormattedCalendarInstance(3), 1).getId());
+    }
+
+    @Test
+    void compactInBackground() throws Exception {
+        Path journal = dir.resolve("journal.bin");
+        Path snapshot = dir.resolve("snapshot.bin");
+        // the journal is not attached to the manager, so each mutation is appended here
+        ScheduleManager sm = new ScheduleManager(new UserConfig());
+        Journal opened = Journal.open(journal, sm, 0);
+        opened.appendAddCard(sm.addCard("school", Card.Color.BLUE));
+        opened.appendAddTask(sm.addTask("homework", 3, Time.getFormattedCalendarInstance(2), 0));
+        opened.sync();
+        sm.setJournalSequence(opened.getSequence());
+        CompletableFuture<Void> compaction = opened.compact(snapshot, Snapshot.toByteArray(sm));
+
+        // records appended after the snapshot was taken are kept by the compaction
+        opened.appendAddTask(sm.addTask("essay", 5.5, Time.getFormattedCalendarInstance(1), 0));
+        sm.setJournalSequence(opened.getSequence());
+        compaction.join();
+        assertEquals(1, opened.getNumRecords());
+        opened.close();
+
+        ScheduleManager copy = new ScheduleManager(new UserConfig());
+        assertTrue(copy.loadSnapshot(snapshot.toString()));
+        assertEquals(1, copy.getNumTasks());
+        copy.openJournal(journal.toString(), snapshot.toString());
+        assertSamePlanner(sm, copy);
+    }
+
+    /**
+     * Performs every kind of journaled mutation
+     *
+     * @param sm manager being mutated
+     */
+    private static void populate(ScheduleManager sm) {
+        sm.addCard("school", Card.Color.BLUE);
+        sm.addCard("work", Card.Color.RED);
+        sm.addCard("misc", Card.Color.GREEN);
+        sm.addTask("homework", 3, Time.getFormattedCalendarInstance(2), 0);
+        sm.addTask("essay", 5.5, Time.getFormattedCalendarInstance(1), 0);
+        sm.addTask("report", 9, Time.getFormattedCalendarInstance(4), 1);
+        sm.addTask("chores", 2, Time.getFormattedCalendarInstance(3), 2);
+        sm.modTask(1, "final essay", 6, Time.getFormattedCalendarInstance(5), 1);
+        sm.modCard(1, null, Card.Color.ORANGE);
+        sm.deleteTask(0);
+        sm.deleteCard(2);
+
+        Calendar start = Time.getFormattedCalendarInstance(1);
+        start.set(Calendar.HOUR_OF_DAY, 9);
+        Calendar end = (Calendar) start.clone();
+        end.set(Calendar.HOUR_OF_DAY, 11);
+        sm.addEvent("lecture", 0, new Time.TimeStamp(start, end), false, null);
+        List<Calendar> week = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            week.add(Time.getFormattedCalendarInstance(i));
+        }
+        start = Time.getFormattedCalendarInstance(0);
+        start.set(Calendar.HOUR_OF_DAY, 13);
+        end = (Calendar) start.clone();
+        end.set(Calendar.HOUR_OF_DAY, 14);
+        sm.addEvent("lunch", 1, new Time.TimeStamp(start, end), true, week);
+        sm.addEvent("gym", 1, new Time.TimeStamp(start, end), true, week.subList(0, 2));
+        sm.modEvent(1, "late lunch", -1, null, week.subList(2, 5));
+        sm.deleteEvent(2);
+    }
+
+    /**
+     * Asserts that two managers hold the same Cards, Tasks and Events
+     *
+     * @param expected original manager
+     * @param actual manager whose state was read back
+     */
+    private static void assertSamePlanner(ScheduleManager expected, ScheduleManager actual) {
+        assertEquals(expected.buildCardStr(), actual.buildCardStr());
+        assertEquals(expected.buildEventStr(), actual.buildEventStr());
+        assertEquals(expected.getNumTasks(), actual.getNumTasks());
+        for (int id = 0; id < expected.getLastTaskId(); id++) {
+            Task task = expected.getTask(id);
+            Task copy = actual.getTask(id);
+            if (task == null) {
+                assertNull(copy);
+                continue;
+            }
+            assertEquals(task.getName(), copy.getName());
+            assertEquals(task.getTotalHours(), copy.getTotalHours());
+            assertEquals(Time.toEpochMinute(task.getDueDate()), Time.toEpochMinute(copy.getDueDate()));
+            assertEquals(task.getCard() != null ? task.getCard().getId() : -1,
+                    copy.getCard() != null ? copy.getCard().getId() : -1);
+        }
+        for (Event.DayOfWeek day : Event.DayOfWeek.values()) {
+            assertEquals(expected.getRecurEvents().get(day.ordinal()).size(),
+                    actual.getRecurEvents().get(day.ordinal()).size());
+        }
+    }
+}
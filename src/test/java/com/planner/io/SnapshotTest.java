@@ -0,0 +1,90 @@
+package com.planner.io;
+
+import com.planner.manager.ScheduleManager;
+import com.planner.models.Card;
+import com.planner.models.UserConfig;
+import com.planner.util.Time;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void resumeSchedule() throws Exception {
+        ScheduleManager sm = new ScheduleManager(new UserConfig());
+        sm.addCard("school", Card.Color.BLUE);
+        sm.addCard("work", Card.Color.RED);
+        sm.addTask("homework", 3, Time.getFormattedCalendarInstance(2), 0);
+        sm.addTask("essay", 5.5, Time.getFormattedCalendarInstance(1), 0);
+        sm.addTask("report", 9, Time.getFormattedCalendarInstance(4), 1);
+        sm.addTask("overdue", 2, Time.getFormattedCalendarInstance(-3), 1);
+
+        Calendar start = Time.getFormattedCalendarInstance(1);
+        start.set(Calendar.HOUR_OF_DAY, 9);
+        Calendar end = (Calendar) start.clone();
+        end.set(Calendar.HOUR_OF_DAY, 11);
+        sm.addEvent("lecture", 0, new Time.TimeStamp(start, end), false, null);
+        List<Calendar> week = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            week.add(Time.getFormattedCalendarInstance(i));
+        }
+        start = Time.getFormattedCalendarInstance(0);
+        start.set(Calendar.HOUR_OF_DAY, 13);
+        end = (Calendar) start.clone();
+        end.set(Calendar.HOUR_OF_DAY, 14);
+        sm.addEvent("lunch", 1, new Time.TimeStamp(start, end), true, week);
+        sm.buildSchedule();
+
+        Path file = dir.resolve("snapshot.bin");
+        sm.saveSnapshot(file.toString());
+        ScheduleManager copy = new ScheduleManager(new UserConfig());
+        assertTrue(copy.loadSnapshot(file.toString()));
+
+        assertEquals(sm.buildScheduleStr(), copy.buildScheduleStr());
+        assertEquals(sm.buildSubTaskStr(), copy.buildSubTaskStr());
+        assertEquals(sm.buildEventStr(), copy.buildEventStr());
+        assertEquals(1, copy.getArchivedTasks().size());
+        assertEquals(sm.getErrorCount(sm.getSchedule().size()), copy.getErrorCount(copy.getSchedule().size()));
+        assertEquals(4, copy.addTask("slides", 1, Time.getFormattedCalendarInstance(3), 1).getId());
+
+        // the resumed schedule is rebuilt like the original one
+        sm.addTask("slides", 1, Time.getFormattedCalendarInstance(3), 1);
+        sm.saveSnapshot(file.toString());
+        ScheduleManager dirty = new ScheduleManager(new UserConfig());
+        assertTrue(dirty.loadSnapshot(file.toString()));
+        sm.buildSchedule();
+        copy.buildSchedule();
+        dirty.buildSchedule();
+        assertEquals(sm.buildScheduleStr(), copy.buildScheduleStr());
+        assertEquals(sm.buildScheduleStr(), dirty.buildScheduleStr());
+        assertFalse(copy.loadSnapshot(dir.resolve("missing.bin").toString()));
+    }
+
+    @Test
+    void invalidSnapshot() throws Exception {
+        ScheduleManager sm = new ScheduleManager(new UserConfig());
+        assertThrows(IllegalArgumentException.class,
+                () -> Snapshot.readSnapshot(ByteBuffer.wrap(new byte[]{1, 2, 3, 4, 5, 6}), sm));
+
+        Path file = dir.resolve("snapshot.bin");
+        sm.addTask("homework", 3, Time.getFormattedCalendarInstance(2), -1);
+        sm.buildSchedule();
+        Snapshot.writeSnapshot(file, sm);
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer truncated = ByteBuffer.wrap(bytes, 0, bytes.length - 3);
+        assertThrows(IllegalArgumentException.class,
+                () -> Snapshot.readSnapshot(truncated, new ScheduleManager(new UserConfig())));
+    }
+}
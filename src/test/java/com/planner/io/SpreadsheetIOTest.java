@@ -0,0 +1,138 @@
+package com.planner.io;
+
+import com.planner.manager.ScheduleManager;
+import com.planner.models.Card;
+import com.planner.models.Event;
+import com.planner.models.Task;
+import com.planner.models.UserConfig;
+import com.planner.schedule.day.Day;
+import com.planner.util.Time;
+import org.dhatim.fastexcel.reader.ReadableWorkbook;
+import org.dhatim.fastexcel.reader.Row;
+import org.dhatim.fastexcel.reader.Sheet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpreadsheetIOTest {
+
+    /** File written by every export, within data/spreadsheets */
+    private static final Path FILE = Paths.get("data/spreadsheets/export-test.xlsx");
+
+    @AfterEach
+    void tearDown() throws Exception {
+        Files.deleteIfExists(FILE);
+    }
+
+    @Test
+    void exportSchedule() throws Exception {
+        ScheduleManager sm = new ScheduleManager(new UserConfig());
+        sm.addCard("school", Card.Color.BLUE);
+        sm.addTask("homework", 3, Time.getFormattedCalendarInstance(2), 0);
+        sm.addTask("essay", 9.5, Time.getFormattedCalendarInstance(1), 0);
+        sm.addTask("report", 14, Time.getFormattedCalendarInstance(4), -1);
+
+        Calendar start = Time.getFormattedCalendarInstance(1);
+        start.set(Calendar.HOUR_OF_DAY, 9);
+        Calendar end = (Calendar) start.clone();
+        end.set(Calendar.HOUR_OF_DAY, 11);
+        sm.addEvent("lecture", 0, new Time.TimeStamp(start, end), false, null);
+        sm.buildSchedule();
+        sm.exportScheduleToExcel("export-test");
+
+        List<Day> schedule = sm.getSchedule();
+        assertTrue(schedule.size() > 1);
+        SimpleDateFormat sdf = new SimpleDateFormat("dd-MM-yyyy");
+        List<String> dates = new ArrayList<>();
+        List<String> items = new ArrayList<>();
+        List<String> taskNames = new ArrayList<>();
+        for (Day day : schedule) {
+            dates.add(sdf.format(day.getDate().getTime()));
+            for (Task.SubTask subTask : day.getSubTaskList()) {
+                items.add(subTask.getTimeStamp() + " - " + subTask.getParentTask().getName());
+                taskNames.add(subTask.getParentTask().getName());
+            }
+            for (Event event : day.getEventList()) {
+                items.add(event.getTimeStamp() + " - " + event.getName());
+            }
+        }
+
+        try (InputStream is = Files.newInputStream(FILE); ReadableWorkbook wb = new ReadableWorkbook(is)) {
+            List<Sheet> sheets = wb.getSheets().collect(Collectors.toList());
+            assertEquals(3, sheets.size());
+            assertEquals("Schedule", sheets.get(0).getName());
+            assertEquals("Events", sheets.get(1).getName());
+            assertEquals("Tasks", sheets.get(2).getName());
+
+            // one column per Day, listing every SubTask and Event of the Day under its date
+            List<Row> rows = sheets.get(0).read();
+            for (int i = 0; i < dates.size(); i++) {
+                assertEquals(dates.get(i), rows.get(0).getCellText(i));
+            }
+            List<String> cells = new ArrayList<>();
+            for (Row row : rows.subList(1, rows.size())) {
+                for (int i = 0; i < row.getCellCount(); i++) {
+                    String text = row.getCellText(i);
+                    if (!text.isEmpty()) {
+                        cells.add(text);
+                    }
+                }
+            }
+            Collections.sort(items);
+            Collections.sort(cells);
+            assertEquals(items, cells);
+
+            rows = sheets.get(1).read();
+            assertEquals(2, rows.size());
+            assertEquals("NAME", rows.get(0).getCellText(1));
+            assertEquals("lecture", rows.get(1).getCellText(1));
+            assertEquals("BLUE", rows.get(1).getCellText(2));
+
+            rows = sheets.get(2).read();
+            assertEquals(taskNames.size() + 1, rows.size());
+            assertEquals("DUE", rows.get(0).getCellText(6));
+            for (int i = 0; i < taskNames.size(); i++) {
+                assertEquals(taskNames.get(i), rows.get(i + 1).getCellText(1));
+            }
+        }
+    }
+
+    @Test
+    void exportLargeSchedule() throws Exception {
+        UserConfig userConfig = new UserConfig();
+        userConfig.setMaxDays(120);
+        ScheduleManager sm = new ScheduleManager(userConfig);
+        for (int i = 0; i < 1500; i++) {
+            sm.addTask("task " + i, 0.5, Time.getFormattedCalendarInstance(1 + i % 119), -1);
+        }
+        sm.buildSchedule();
+        sm.exportScheduleToExcel("export-test");
+
+        int numSubTasks = 0;
+        for (Day day : sm.getSchedule()) {
+            numSubTasks += day.getNumSubTasks();
+        }
+        // the Tasks sheet is flushed to the workbook while it is populated
+        assertTrue(numSubTasks > 1024);
+        try (InputStream is = Files.newInputStream(FILE); ReadableWorkbook wb = new ReadableWorkbook(is)) {
+            List<Sheet> sheets = wb.getSheets().collect(Collectors.toList());
+            assertEquals(2, sheets.size());
+            assertEquals("Tasks", sheets.get(1).getName());
+            List<Row> rows = sheets.get(1).read();
+            assertEquals(numSubTasks + 1, rows.size());
+            assertEquals("task 0", rows.get(1).getCellText(1));
+        }
+    }
+}
@@ -2,12 +2,24 @@ package com.planner.manager;
 
 import com.planner.models.Card;
 import com.planner.models.Event;
+import com.planner.models.Task;
+import com.planner.models.UserConfig;
+import com.planner.schedule.day.Day;
 import com.planner.util.Time;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -107,6 +119,18 @@ class ScheduleManagerTest {
         sm.modTask(0, null, 4, null, -1);
         assertEquals("Task [name=project, total=4.0]", sm.getTaskManager().peek().toString());
 
+        // moving a due date forward or back reorders the queued Tasks
+        sm.addTask("essay", 2, Time.getFormattedCalendarInstance(5), 0);
+        sm.addTask("reading", 1, Time.getFormattedCalendarInstance(3), 0);
+        sm.modTask(0, null, -1, Time.getFormattedCalendarInstance(10), -1);
+        assertEquals("reading", sm.getTaskManager().peek().getName());
+        sm.modTask(1, null, -1, Time.getFormattedCalendarInstance(2), -1);
+        assertEquals("essay", sm.getTaskManager().peek().getName());
+        sm.modTask(1, null, -1, Time.getFormattedCalendarInstance(20), -1);
+        assertEquals("reading", sm.getTaskManager().poll().getName());
+        assertEquals("project", sm.getTaskManager().poll().getName());
+        assertEquals("essay", sm.getTaskManager().poll().getName());
+
         assertNull(sm.modTask(10, "non-existent task", -1, null, -1));
     }
 
@@ -197,6 +221,33 @@ class ScheduleManagerTest {
         assertNull(sm.getTask(0).getCard());
     }
 
+    @Test
+    void deleteCardById() {
+        ScheduleManager sm = new ScheduleManager();
+
+        sm.addCard("school", Card.Color.RED);
+        sm.addCard("work", Card.Color.BLUE);
+
+        Calendar due = Calendar.getInstance();
+        due.set(Calendar.HOUR, due.get(Calendar.HOUR) + 10);
+        sm.addTask("homework", 3, due, 0);
+        sm.addTask("report", 2, due, 1);
+        sm.addTask("slides", 1, due, 1);
+        sm.modTask(2, null, -1, null, 0);
+
+        assertTrue(sm.deleteCard(0));
+        assertEquals(1, sm.getCards().size());
+
+        assertNull(sm.getTask(0).getCard());
+        assertNull(sm.getTask(2).getCard());
+        assertEquals("work", sm.getTask(1).getTag());
+
+        // Cards are found by their ID rather than their position once others are deleted
+        assertEquals("work", sm.getCardById(1).getName());
+        assertEquals(Card.Color.GREEN, sm.modCard(1, null, Card.Color.GREEN).getColor());
+        assertNull(sm.modCard(0, "deleted card", null));
+    }
+
     @Test
     void deleteEvent() {
         ScheduleManager sm = new ScheduleManager();
@@ -229,6 +280,132 @@ class ScheduleManagerTest {
         assertFalse(sm.deleteEvent(2));
     }
 
+    @Test
+    void buildScheduleIncremental() {
+        ScheduleManager sm = new ScheduleManager();
+        sm.addCard("school", Card.Color.BLUE);
+
+        for (int i = 0; i < 20; i++) {
+            sm.addTask("task " + i, 1 + (i % 4) * 1.5, Time.getFormattedCalendarInstance(1 + i % 9), 0);
+        }
+        Calendar start = Time.getFormattedCalendarInstance(3);
+        start.set(Calendar.HOUR_OF_DAY, 10);
+        Calendar end = (Calendar) start.clone();
+        end.set(Calendar.HOUR_OF_DAY, 12);
+        sm.addEvent("lecture", 0, new Time.TimeStamp(start, end), false, null);
+        sm.buildSchedule();
+
+        // edits late in the schedule
+        sm.modTask(19, null, 6, null, -1);
+        assertIncrementalMatchesFull(sm);
+        sm.addTask("late task", 2.5, Time.getFormattedCalendarInstance(8), 0);
+        assertIncrementalMatchesFull(sm);
+
+        // edits that reach the front of the schedule
+        sm.modTask(3, null, -1, Time.getFormattedCalendarInstance(7), -1);
+        assertIncrementalMatchesFull(sm);
+        sm.deleteTask(0);
+        assertIncrementalMatchesFull(sm);
+        sm.deleteEvent(0);
+        assertIncrementalMatchesFull(sm);
+    }
+
+    @Test
+    void buildScheduleParallel() {
+        ScheduleManager sm = new ScheduleManager();
+        sm.addCard("school", Card.Color.BLUE);
+
+        for (int i = 0; i < 200; i++) {
+            sm.addTask("task " + i, 0.5 + (i % 8), Time.getFormattedCalendarInstance(i % 30), 0);
+        }
+        sm.buildSchedule();
+        String sequential = sm.buildScheduleStr();
+
+        // plans 4 partitions even on machines with fewer cores
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            sm.setParallelPlanning(pool);
+            sm.invalidateSchedule();
+            sm.buildSchedule();
+        } finally {
+            pool.shutdown();
+        }
+        assertTrue(sm.getNumMergedPartitions() > 0);
+        assertEquals(sequential, sm.buildScheduleStr());
+    }
+
+    @Test
+    void buildScheduleConcurrently() throws Exception {
+        int numManagers = 8;
+        List<Callable<String>> builds = new ArrayList<>();
+        for (int i = 0; i < numManagers; i++) {
+            int offset = i;
+            builds.add(() -> {
+                ScheduleManager sm = new ScheduleManager();
+                sm.addCard("school", Card.Color.BLUE);
+                for (int j = 0; j < 40; j++) {
+                    sm.addTask("task " + j, 1 + (j + offset) % 6, Time.getFormattedCalendarInstance(j % 12), 0);
+                }
+                sm.buildSchedule();
+                return sm.buildScheduleStr();
+            });
+        }
+        List<String> expected = new ArrayList<>();
+        for (Callable<String> build : builds) {
+            expected.add(build.call());
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = pool.invokeAll(builds);
+            for (int i = 0; i < numManagers; i++) {
+                assertEquals(expected.get(i), results.get(i).get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void buildScheduleDynamic() {
+        UserConfig userConfig = new UserConfig();
+        userConfig.setSchedulingAlgorithm(0);
+        ScheduleManager sm = new ScheduleManager(userConfig);
+        sm.addCard("school", Card.Color.BLUE);
+        for (int i = 0; i < 15; i++) {
+            sm.addTask("task " + i, 1 + (i % 5), Time.getFormattedCalendarInstance(1 + i % 6), 0);
+        }
+        sm.buildSchedule();
+
+        // every Task is spread over the Days up to its due date
+        Map<Task, Double> scheduled = new HashMap<>();
+        Set<Task> spread = new HashSet<>();
+        for (Day day : sm.getSchedule()) {
+            for (Task.SubTask subTask : day.getSubTaskList()) {
+                Task task = subTask.getParentTask();
+                assertTrue(day.getDate().compareTo(task.getDueDate()) <= 0);
+                if (scheduled.containsKey(task)) spread.add(task);
+                scheduled.merge(task, subTask.getSubTaskHours(), Double::sum);
+            }
+        }
+        assertEquals(15, scheduled.size());
+        for (Map.Entry<Task, Double> entry : scheduled.entrySet()) {
+            assertEquals(entry.getKey().getTotalHours(), entry.getValue().doubleValue());
+        }
+        assertFalse(spread.isEmpty());
+
+        sm.modTask(4, null, 2.5, null, -1);
+        assertIncrementalMatchesFull(sm);
+    }
+
+    private void assertIncrementalMatchesFull(ScheduleManager sm) {
+        sm.buildSchedule();
+        String incremental = sm.buildScheduleStr();
+        sm.invalidateSchedule();
+        sm.buildSchedule();
+        assertEquals(sm.buildScheduleStr(), incremental);
+    }
+
     private String eventToString(Event e) {
         StringBuilder eventSb = new StringBuilder();
         eventSb.append(e.getName())
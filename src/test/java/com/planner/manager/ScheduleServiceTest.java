@@ -0,0 +1,120 @@
+package com.planner.manager;
+
+import com.planner.models.Card;
+import com.planner.models.UserConfig;
+import com.planner.schedule.day.Day;
+import com.planner.util.Time;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScheduleServiceTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    void evictLeastRecentlyUsed() throws Exception {
+        try (ScheduleService service = new ScheduleService(new FileTenantStore(root, new UserConfig()), 2, 1, 1)) {
+            String before = service.execute("alice", sm -> {
+                sm.addCard("school", Card.Color.BLUE);
+                sm.addTask("homework", 3, Time.getFormattedCalendarInstance(2), 0);
+                sm.addTask("essay", 2.5, Time.getFormattedCalendarInstance(1), 0);
+                sm.addTask("reading", 1, Time.getFormattedCalendarInstance(3), 0);
+                sm.deleteTask(1);
+
+                Calendar start = Time.getFormattedCalendarInstance(1);
+                start.set(Calendar.HOUR_OF_DAY, 9);
+                Calendar end = (Calendar) start.clone();
+                end.set(Calendar.HOUR_OF_DAY, 11);
+                sm.addEvent("lecture", 0, new Time.TimeStamp(start, end), false, null);
+                sm.buildSchedule();
+                return sm.buildScheduleStr();
+            });
+            service.execute("bob", sm -> sm.addCard("work", Card.Color.RED));
+            assertFalse(Files.exists(root.resolve("alice")));
+
+            service.execute("carol", sm -> sm.addCard("hobbies", Card.Color.GREEN));
+            assertEquals(2, service.getResidentCount());
+            assertTrue(Files.exists(root.resolve("alice").resolve("state.bin")));
+
+            service.execute("alice", sm -> {
+                assertNull(sm.getTask(1));
+                assertEquals("reading", sm.getTask(2).getName());
+                assertEquals("school", sm.getTask(2).getTag());
+                sm.buildSchedule();
+                assertEquals(before, sm.buildScheduleStr());
+                assertEquals(3, sm.addTask("project", 4, Time.getFormattedCalendarInstance(5), 0).getId());
+                return null;
+            });
+        }
+    }
+
+    @Test
+    void buildSchedulesConcurrently() throws Exception {
+        int numTenants = 12;
+        try (ScheduleService service = new ScheduleService(new FileTenantStore(root, new UserConfig()), 5, 4, numTenants)) {
+            for (int i = 0; i < numTenants; i++) {
+                int hours = 1 + i % 5;
+                service.execute("user" + i, sm -> {
+                    sm.addCard("default", Card.Color.BLUE);
+                    for (int j = 0; j < 10; j++) {
+                        sm.addTask("task " + j, hours, Time.getFormattedCalendarInstance(1 + j % 7), 0);
+                    }
+                    return null;
+                });
+            }
+
+            List<Future<List<Day>>> builds = new ArrayList<>();
+            for (int i = 0; i < numTenants; i++) {
+                builds.add(service.buildSchedule("user" + i));
+            }
+            for (Future<List<Day>> build : builds) {
+                assertFalse(build.get().isEmpty());
+            }
+            assertTrue(service.getResidentCount() <= 5);
+        }
+    }
+
+    @Test
+    void keepArchivedTasks() throws Exception {
+        FileTenantStore store = new FileTenantStore(root, new UserConfig());
+        ScheduleManager sm = new ScheduleManager(new UserConfig());
+        sm.addTask("done", 1, Time.getFormattedCalendarInstance(1), -1);
+        sm.addTask("todo", 2, Time.getFormattedCalendarInstance(2), -1);
+        sm.archiveTask(0);
+        store.save("alice", sm);
+
+        ScheduleManager loaded = store.load("alice");
+        assertEquals(1, loaded.getArchivedTasks().size());
+        assertEquals("done", loaded.getArchivedTasks().peek().getName());
+        assertEquals(1, loaded.getNumActiveTasks());
+    }
+
+    @Test
+    void refuseMalformedState() throws Exception {
+        FileTenantStore store = new FileTenantStore(root, new UserConfig());
+        Path dir = Files.createDirectories(root.resolve("alice"));
+        Files.writeString(dir.resolve("state.txt"), "TASK\tnot a task\n");
+        assertThrows(IOException.class, () -> store.load("alice"));
+
+        Files.write(dir.resolve("state.bin"), new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        assertThrows(IOException.class, () -> store.load("alice"));
+    }
+
+    @Test
+    void invalidTenantId() {
+        ScheduleService service = new ScheduleService(new FileTenantStore(root, new UserConfig()), 1, 1, 1);
+        assertThrows(IllegalArgumentException.class, () -> service.execute("../alice", sm -> null));
+        assertThrows(IllegalArgumentException.class, () -> new ScheduleService(null, 0, 1, 1));
+    }
+}
@@ -44,8 +44,11 @@ class UserConfigTest {
         assertEquals(14, userConfig.getMaxDays());
         userConfig.setMaxDays(4);
         assertEquals(4, userConfig.getMaxDays());
+        userConfig.setMaxDays(365);
+        assertEquals(365, userConfig.getMaxDays());
 
-        // test for exception
+        assertThrows(IllegalArgumentException.class, () -> userConfig.setMaxDays(0));
+        assertThrows(IllegalArgumentException.class, () -> userConfig.setMaxDays(366));
     }
 
     @Test
@@ -0,0 +1,74 @@
+package com.planner.schedule.day;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntervalIndexTest {
+
+    private IntervalIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new IntervalIndex();
+        // 9:00am-10:00am, 10:15am-11:00am, 11:20am-12:00pm, 2:00pm-3:00pm
+        index.add(840, 900);
+        index.add(540, 600);
+        index.add(680, 720);
+        index.add(615, 660);
+    }
+
+    @Test
+    void add() {
+        assertEquals(4, index.size());
+        assertEquals(540, index.getStart(0));
+        assertEquals(615, index.getStart(1));
+        assertEquals(680, index.getStart(2));
+        assertEquals(900, index.getEnd(3));
+
+        assertEquals(3, index.add(730, 800));
+        assertThrows(IllegalArgumentException.class, () -> index.add(590, 620));
+    }
+
+    @Test
+    void conflicts() {
+        assertTrue(index.conflicts(550, 560));
+        assertTrue(index.conflicts(500, 545));
+        assertTrue(index.conflicts(650, 700));
+        assertFalse(index.conflicts(600, 615));
+        assertFalse(index.conflicts(720, 840));
+        assertFalse(index.conflicts(900, 1000));
+    }
+
+    @Test
+    void nextStartingAfter() {
+        assertEquals(0, index.nextStartingAfter(480));
+        assertEquals(1, index.nextStartingAfter(540));
+        assertEquals(3, index.nextStartingAfter(700));
+        assertEquals(4, index.nextStartingAfter(840));
+    }
+
+    @Test
+    void firstFreeSlot() {
+        assertEquals(480, index.firstFreeSlot(480, 30));
+        // gaps of 15 and 20 minutes are skipped
+        assertEquals(720, index.firstFreeSlot(550, 30));
+        assertEquals(600, index.firstFreeSlot(550, 15));
+        assertEquals(660, index.firstFreeSlot(610, 20));
+        assertEquals(900, index.firstFreeSlot(720, 180));
+        assertEquals(950, index.firstFreeSlot(950, 30));
+        assertThrows(IllegalArgumentException.class, () -> index.firstFreeSlot(480, 0));
+    }
+
+    @Test
+    void grow() {
+        IntervalIndex large = new IntervalIndex();
+        for (int i = 0; i < 48; i++) {
+            large.add(i * 30L, i * 30L + 20);
+        }
+        assertEquals(48, large.size());
+        assertEquals(48 * 30L - 10, large.firstFreeSlot(0, 15));
+        assertEquals(20, large.firstFreeSlot(0, 10));
+    }
+}
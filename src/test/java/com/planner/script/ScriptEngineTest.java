@@ -0,0 +1,145 @@
+package com.planner.script;
+
+import com.planner.manager.ScheduleManager;
+import com.planner.models.Task;
+import com.planner.models.UserConfig;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScriptEngineTest {
+
+    private final ScheduleManager sm = new ScheduleManager(new UserConfig());
+
+    /**
+     * Runs a script with the given input and returns its output
+     */
+    private String run(String source, String input) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream out = new PrintStream(bytes, true, StandardCharsets.UTF_8);
+        new ScriptEngine(sm, new BufferedReader(new StringReader(input)), out).run(Script.compile(source, "test"));
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void runsRecursiveFunctions() throws Exception {
+        String source = "include: __CURR_CONFIG__\n" +
+                "\n" +
+                "# Outputs all binary codes of a specified length\n" +
+                "func binary(bin, x)\n" +
+                "  if(x.==(0))\n" +
+                "    println(bin)\n" +
+                "    return\n" +
+                "  x.--()\n" +
+                "  binary(bin.add(\"0\"), x)\n" +
+                "  binary(bin.add(\"1\"), x)\n" +
+                "\n" +
+                "print(\"Enter number: \")\n" +
+                "x: input_int()\n" +
+                "binary(\"\", x)\n";
+        assertEquals("Enter number: 00\n01\n10\n11\n", run(source, "2\n"));
+    }
+
+    @Test
+    void runsConditions() throws Exception {
+        String source = "func check(x)\n" +
+                "  if (x.==(0))\n" +
+                "    return \"zero\"\n" +
+                "  elif (x.<(0))\n" +
+                "    return \"negative\"\n" +
+                "  else\n" +
+                "    return \"positive\"\n" +
+                "\n" +
+                "println(check(0), \" \", check(-4), \" \", check(avg(3, 8)))\n" +
+                "flag: input_bool()\n" +
+                "if (flag)\n" +
+                "  println(\"on\")\n" +
+                "else\n" +
+                "  println(\"off\")\n";
+        assertEquals("zero negative positive\noff\n", run(source, "F\n"));
+    }
+
+    @Test
+    void sharesGlobalsWithFunctions() throws Exception {
+        String source = "count: 0\n" +
+                "func tally(n)\n" +
+                "  if (n.>(0))\n" +
+                "    count: count.+(n)\n" +
+                "    last: n\n" +
+                "    tally(n.--())\n" +
+                "tally(4)\n" +
+                "println(count)\r" +
+                "println(1.5.*(2), \" \", 7.%(3), \" \", 7./(2))\r\n";
+        assertEquals("10\n3.0 1 3\n", run(source, ""));
+    }
+
+    @Test
+    void recursesWithoutJavaStack() throws Exception {
+        String source = "func add_tasks(i, n)\n" +
+                "  if (i.==(n))\n" +
+                "    return n\n" +
+                "  task(\"Task \".add(i), 1.5, i.%(14).+(1))\n" +
+                "  return add_tasks(i.++(), n)\n" +
+                "\n" +
+                "println(add_tasks(0, 50000), \" \", num_tasks())\n" +
+                "build()\n";
+        assertEquals("50000 50000\n", run(source, ""));
+        Task task = sm.getTask(49999);
+        assertEquals("Task 49999", task.getName());
+        assertEquals(1.5, task.getTotalHours());
+        assertFalse(sm.scheduleIsEmpty());
+    }
+
+    @Test
+    void callsPlannerBuiltins() throws Exception {
+        String source = "c1: card(\"School\", \"blue\")\n" +
+                "t1: task(\"Essay\", 4, 3)\n" +
+                "add_task_card(t1, get_card(0))\n" +
+                "set_config_attr(RANGE, 9, 20)\n" +
+                "input_tasks(1)\n" +
+                "println(num_tasks())\n";
+        assertEquals("Task -> 2\n", run(source, "\"Read\" 2 @ 01-01-2099 +C0\n"));
+        assertEquals(0, sm.getTask(0).getCard().getId());
+        assertEquals("Read", sm.getTask(1).getName());
+        assertArrayEquals(new int[]{9, 20}, sm.getUserConfig().getDailyHoursRange());
+    }
+
+    @Test
+    void injectsCode() throws Exception {
+        String source = "x: 1\n" +
+                "inject_code()\n" +
+                "println(x)\n";
+        String input = "x: x.+(4)\n" +
+                "func double(n)\n" +
+                "  return n.*(2)\n" +
+                "println(double(x))\n" +
+                "\n";
+        assertEquals("Enter code, followed by an empty line:\n10\n5\n", run(source, input));
+    }
+
+    @Test
+    void reportsErrorsWithTheirLine() {
+        ScriptException e = assertThrows(ScriptException.class, () -> Script.compile("x: 1\ny: z\n", "test"));
+        assertEquals("test:2: Unknown variable 'z'", e.getMessage());
+
+        e = assertThrows(ScriptException.class, () -> Script.compile("build(1)\n", "test"));
+        assertEquals(1, e.getLine());
+        assertThrows(ScriptException.class, () -> Script.compile("func f(a)\n  return a\nf()\n", "test"));
+        assertThrows(ScriptException.class, () -> Script.compile("if (true)\nprintln(1)\n", "test"));
+        assertThrows(ScriptException.class, () -> Script.compile("x: \"open\n", "test"));
+        assertThrows(ScriptException.class, () -> Script.compile("x.?()\n", "test"));
+
+        e = assertThrows(ScriptException.class, () -> run("func f(n)\n  return n./(0)\n\nf(1)\n", ""));
+        assertEquals("test:2: Division by zero", e.getMessage());
+        e = assertThrows(ScriptException.class, () -> run("n: input_int()\n", "abc\n"));
+        assertEquals("test:1: Expected an integer but read 'abc'", e.getMessage());
+        e = assertThrows(ScriptException.class, () -> run("func f()\n  return f()\nf()\n", ""));
+        assertEquals(2, e.getLine());
+    }
+}
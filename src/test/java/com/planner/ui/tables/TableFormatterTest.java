@@ -0,0 +1,143 @@
+package com.planner.ui.tables;
+
+import com.planner.manager.ScheduleManager;
+import com.planner.models.Card;
+import com.planner.models.UserConfig;
+import com.planner.util.Time;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TableFormatterTest {
+
+    @Test
+    void cachedRowsFollowChanges() throws Exception {
+        UserConfig userConfig = new UserConfig();
+        userConfig.setMaxDays(14);
+        ScheduleManager sm = new ScheduleManager(userConfig);
+        sm.addCard("school", Card.Color.BLUE);
+        sm.addCard("work", Card.Color.RED);
+        for (int i = 0; i < 20; i++) {
+            sm.addTask("task " + i, 1 + i % 4, Time.getFormattedCalendarInstance(1 + i % 10), i % 2);
+        }
+        Calendar start = Time.getFormattedCalendarInstance(1);
+        start.set(Calendar.HOUR_OF_DAY, 9);
+        Calendar end = (Calendar) start.clone();
+        end.set(Calendar.HOUR_OF_DAY, 11);
+        sm.addEvent("lecture", 0, new Time.TimeStamp(start, end), false, null);
+        sm.buildSchedule();
+        assertRendersFresh(sm);
+
+        // rendering again reuses every row
+        assertRendersFresh(sm);
+
+        sm.modCard(0, "class", Card.Color.GREEN);
+        assertRendersFresh(sm);
+        sm.modTask(3, "renamed task", -1, null, -1);
+        assertRendersFresh(sm);
+        sm.modEvent(0, "seminar", 1, null, null);
+        assertRendersFresh(sm);
+        assertTrue(sm.buildScheduleStr().contains("seminar"));
+
+        sm.addTask("late task", 2, Time.getFormattedCalendarInstance(2), -1);
+        sm.buildSchedule();
+        assertRendersFresh(sm);
+        StringBuilder sb = new StringBuilder();
+        sm.writeScheduleStr(sb);
+        assertEquals(sm.buildScheduleStr(), sb.toString());
+    }
+
+    @Test
+    void pagedViews() throws Exception {
+        UserConfig userConfig = new UserConfig();
+        userConfig.setMaxDays(30);
+        ScheduleManager sm = new ScheduleManager(userConfig);
+        sm.addCard("school", Card.Color.BLUE);
+        for (int i = 0; i < 40; i++) {
+            sm.addTask("task " + i, 1 + i % 5, Time.getFormattedCalendarInstance(1 + i % 20), i % 3 == 0 ? 0 : -1);
+        }
+        sm.buildSchedule();
+
+        // pages of SubTasks and Tasks add up to the whole table
+        assertEquals(rows(sm.buildSubTaskStr()), pagedRows(sm, false, 7));
+        assertEquals(rows(sm.buildTaskStr()), pagedRows(sm, true, 6));
+
+        StringBuilder sb = new StringBuilder();
+        sm.writeScheduleStr(sb, new TableView(null, null, 2, 3));
+        int numDays = sm.getSchedule().size();
+        assertTrue(sb.toString().endsWith("Page 2 of " + (numDays + 2) / 3 + " (days 4-6 of " + numDays + ")\n"));
+        assertEquals(3, sb.toString().lines()
+                .filter(line -> line.matches("(\u001B\\[0m)?\\d{2}-\\d{2}-\\d{4}"))
+                .count());
+
+        // date ranges are inclusive
+        Calendar from = Time.getFormattedCalendarInstance(2);
+        Calendar to = Time.getFormattedCalendarInstance(4);
+        sb.setLength(0);
+        sm.writeTaskStr(sb, new TableView(from, to, 1, 0));
+        long expected = sm.getTaskManager().stream()
+                .filter(task -> task.getDueDate().compareTo(from) >= 0 && task.getDueDate().compareTo(to) <= 0)
+                .count();
+        assertEquals(expected, rows(sb.toString()).size());
+        assertThrows(IllegalArgumentException.class, () -> new TableView(to, from, 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new TableView(null, null, 0, 5));
+    }
+
+    /**
+     * Collects the rows of a table by displaying it a page at a time
+     *
+     * @param sm manager whose table is displayed
+     * @param tasks whether the Task table is displayed rather than the SubTask table
+     * @param pageSize number of rows per page
+     * @return rows of all pages
+     */
+    private static List<String> pagedRows(ScheduleManager sm, boolean tasks, int pageSize) throws Exception {
+        List<String> rows = new ArrayList<>();
+        for (int page = 1; ; page++) {
+            StringBuilder sb = new StringBuilder();
+            if (tasks) {
+                sm.writeTaskStr(sb, new TableView(null, null, page, pageSize));
+            } else {
+                sm.writeSubTaskStr(sb, new TableView(null, null, page, pageSize));
+            }
+            List<String> pageRows = rows(sb.toString());
+            if (pageRows.isEmpty()) return rows;
+            assertTrue(pageRows.size() <= pageSize);
+            rows.addAll(pageRows);
+        }
+    }
+
+    /**
+     * Gets the rows of a table without its header and footer
+     *
+     * @param table rendered table
+     * @return lines of the table holding a row
+     */
+    private static List<String> rows(String table) {
+        List<String> rows = new ArrayList<>();
+        for (String line : table.split("\n")) {
+            // a row resets its color on the line of the next row
+            line = line.replace("\u001B[0m", "");
+            if (line.contains("|") && !line.startsWith("ID ")) rows.add(line);
+        }
+        return rows;
+    }
+
+    /**
+     * Asserts that the cached tables of a manager equal tables rendered from scratch
+     *
+     * @param sm manager whose tables are checked
+     */
+    private static void assertRendersFresh(ScheduleManager sm) {
+        assertEquals(TableFormatter.formatScheduleTable(sm.getSchedule(), true), sm.buildScheduleStr());
+        assertEquals(TableFormatter.formatSubTaskTable(sm.getSchedule(), sm.getUserConfig()), sm.buildSubTaskStr());
+        assertEquals(TableFormatter.formatTaskTable(sm.getTaskManager(), sm.getArchivedTasks(), true),
+                sm.buildTaskStr());
+        assertEquals(TableFormatter.formatScheduleTable(sm.getSchedule(), false),
+                TableFormatter.formatScheduleTable(sm.getSchedule(), false, sm.getRowCache()));
+    }
+}
@@ -0,0 +1,57 @@
+package com.planner.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CommandLineTest {
+
+    @Test
+    void scan() {
+        CommandLine cmd = new CommandLine();
+        cmd.scan("\ttask  \"read ch 4\" 2.5 @ tmrw +C1 ");
+        assertEquals(6, cmd.size());
+        assertTrue(cmd.is(0, "TASK"));
+        assertTrue(cmd.isQuoted(1));
+        assertEquals("read ch 4", cmd.getName(1));
+        assertEquals("\"read ch 4\"", cmd.get(1));
+        assertEquals(2.5, cmd.getDouble(2));
+        assertEquals(1, cmd.getInt(5, 2));
+        assertTrue(cmd.startsWith(5, "+C"));
+        assertArrayEquals(new String[]{"task", "\"read ch 4\"", "2.5", "@", "tmrw", "+C1"}, cmd.toArray());
+
+        // scanning another line replaces the tokens, growing past the initial capacity
+        cmd.scan("a b c d e f g h i j k l m n o p q r s t");
+        assertEquals(20, cmd.size());
+        assertEquals("t", cmd.get(19));
+        assertEquals(0, cmd.scan("   ").size());
+
+        assertThrows(IllegalArgumentException.class, () -> cmd.scan("card \"open"));
+        assertThrows(IllegalArgumentException.class, () -> cmd.scan("card \"\" red"));
+        assertThrows(IndexOutOfBoundsException.class, () -> cmd.scan("card").get(1));
+    }
+
+    @Test
+    void numbers() {
+        CommandLine cmd = new CommandLine().scan("0.1 -3 1e2 .5 7. 123456789.123456 2147483648 -2147483648 x 1.2.3");
+        assertEquals(0.1, cmd.getDouble(0));
+        assertEquals(-3, cmd.getInt(1, 0));
+        assertEquals(100.0, cmd.getDouble(2));
+        assertEquals(0.5, cmd.getDouble(3));
+        assertEquals(7.0, cmd.getDouble(4));
+        assertEquals(123456789.123456, cmd.getDouble(5));
+        assertThrows(NumberFormatException.class, () -> cmd.getInt(6, 0));
+        assertEquals(Integer.MIN_VALUE, cmd.getInt(7, 0));
+        assertThrows(NumberFormatException.class, () -> cmd.getInt(8, 0));
+        assertThrows(NumberFormatException.class, () -> cmd.getDouble(8));
+        assertThrows(NumberFormatException.class, () -> cmd.getDouble(9));
+    }
+
+    @Test
+    void of() {
+        CommandLine cmd = CommandLine.of("event", "true", "\"supply chain class\"", "@", "mon");
+        assertEquals(5, cmd.size());
+        assertEquals("supply chain class", cmd.getName(2));
+        assertTrue(cmd.is(4, "MON"));
+    }
+}
@@ -0,0 +1,82 @@
+package com.planner.util;
+
+import com.planner.models.Card;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventLogTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void levels() {
+        EventLog log = new EventLog();
+        assertEquals(EventLog.Level.INFO, log.getLevel());
+        log.log(EventLog.Level.DEBUG, "hidden");
+        log.reportCardAction(new Card(3, "school", Card.Color.BLUE), 0);
+        log.reportException(new IllegalArgumentException("failure"));
+
+        String str = log.toString();
+        assertFalse(str.contains("hidden"));
+        assertTrue(str.contains("[INFO] CREATE(CARD): ID=3, TITLE=school"));
+        assertTrue(str.contains("[ERROR] failure"));
+
+        log.setLevel(EventLog.Level.DEBUG);
+        log.log(EventLog.Level.DEBUG, "shown");
+        assertTrue(log.toString().contains("[DEBUG] shown"));
+        log.setLevel(EventLog.Level.ERROR);
+        log.reportSchedulingStart();
+        assertFalse(log.toString().contains("SCHEDULING"));
+        assertThrows(IllegalArgumentException.class, () -> log.setLevel(null));
+    }
+
+    @Test
+    void boundedHistory() {
+        EventLog log = new EventLog();
+        for (int i = 0; i < 50000; i++) {
+            log.log(EventLog.Level.INFO, "record " + i);
+        }
+        String[] lines = log.toString().split("\n");
+        assertTrue(lines.length <= 1002);
+        assertTrue(lines[lines.length - 1].endsWith("record 49999"));
+        assertEquals(0, log.getDroppedRecords());
+
+        log.clear();
+        assertEquals(1, log.toString().trim().split("\n").length);
+    }
+
+    @Test
+    void rollingFile() throws Exception {
+        Path file = dir.resolve("system.log");
+        EventLog log = new EventLog();
+        log.reportUserLogin();
+        log.openFile(file, 2000, 2);
+        for (int i = 0; i < 200; i++) {
+            log.log(EventLog.Level.INFO, "record " + i);
+        }
+        log.close();
+
+        assertTrue(Files.size(file) <= 2000);
+        assertTrue(Files.size(dir.resolve("system.log.1")) <= 2000);
+        assertTrue(Files.exists(dir.resolve("system.log.2")));
+        assertFalse(Files.exists(dir.resolve("system.log.3")));
+        List<String> lines = Files.readAllLines(file);
+        assertTrue(lines.get(lines.size() - 1).endsWith("record 199"));
+
+        // a new session appends to the file
+        EventLog next = new EventLog();
+        next.openFile(file, 1 << 20, 2);
+        next.reportExitSession();
+        next.close();
+        lines = Files.readAllLines(file);
+        assertTrue(lines.get(lines.size() - 1).endsWith("CURRENT SESSION HAS ENDED..."));
+        assertTrue(lines.stream().anyMatch(line -> line.endsWith("record 199")));
+    }
+}
@@ -0,0 +1,78 @@
+package com.planner.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndexedHeapTest {
+
+    /** Element with a mutable priority */
+    private static class Item {
+        private final int id;
+        private int priority;
+
+        private Item(int id, int priority) {
+            this.id = id;
+            this.priority = priority;
+        }
+    }
+
+    private static final Comparator<Item> ORDER =
+            Comparator.<Item>comparingInt(item -> item.priority).thenComparingInt(item -> item.id);
+
+    @Test
+    void addAndPoll() {
+        IndexedHeap<Item> heap = new IndexedHeap<>(ORDER, item -> item.id);
+        int[] priorities = {5, 3, 9, 1, 7};
+        for (int i = 0; i < priorities.length; i++) {
+            heap.add(new Item(i, priorities[i]));
+        }
+        assertEquals(5, heap.size());
+        assertThrows(IllegalArgumentException.class, () -> heap.add(new Item(2, 4)));
+        assertThrows(IllegalArgumentException.class, () -> heap.add(new Item(-1, 4)));
+
+        assertEquals(3, heap.poll().id);
+        assertEquals(1, heap.poll().id);
+        assertEquals(0, heap.peek().id);
+        assertEquals(3, heap.size());
+    }
+
+    @Test
+    void removeAndUpdate() {
+        IndexedHeap<Item> heap = new IndexedHeap<>(ORDER, item -> item.id);
+        List<Item> items = new ArrayList<>();
+        Random rand = new Random(12);
+        for (int i = 0; i < 500; i++) {
+            Item item = new Item(i, rand.nextInt(100));
+            items.add(item);
+            heap.add(item);
+        }
+        for (int i = 0; i < 2000; i++) {
+            Item item = items.get(rand.nextInt(items.size()));
+            if (rand.nextBoolean()) {
+                item.priority = rand.nextInt(100);
+                assertTrue(heap.update(item));
+            } else if (heap.remove(item)) {
+                assertFalse(heap.contains(item));
+                heap.add(item);
+            }
+        }
+        Item removed = items.get(42);
+        assertTrue(heap.remove(removed));
+        assertFalse(heap.remove(removed));
+        assertFalse(heap.update(removed));
+
+        items.remove(removed);
+        items.sort(ORDER);
+        for (Item item : items) {
+            assertSame(item, heap.poll());
+        }
+        assertTrue(heap.isEmpty());
+        assertNull(heap.poll());
+    }
+}
@@ -0,0 +1,48 @@
+package com.planner.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntMapTest {
+
+    @Test
+    void putAndGet() {
+        IntMap<String> map = new IntMap<>();
+        assertNull(map.put(3, "three"));
+        assertNull(map.put(-7, "minus seven"));
+        assertEquals("three", map.put(3, "THREE"));
+
+        assertEquals(2, map.size());
+        assertEquals("THREE", map.get(3));
+        assertEquals("minus seven", map.get(-7));
+        assertNull(map.get(4));
+        assertThrows(IllegalArgumentException.class, () -> map.put(5, null));
+    }
+
+    @Test
+    void matchesHashMap() {
+        IntMap<Integer> map = new IntMap<>();
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random rand = new Random(21);
+        for (int i = 0; i < 20000; i++) {
+            int key = rand.nextInt(3000);
+            if (rand.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.put(key, i), map.put(key, i));
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (int key = 0; key < 3000; key++) {
+            assertEquals(expected.get(key), map.get(key));
+        }
+        int[] sum = new int[1];
+        map.forEachValue(value -> sum[0] += value);
+        assertEquals(expected.values().stream().mapToInt(Integer::intValue).sum(), sum[0]);
+    }
+}
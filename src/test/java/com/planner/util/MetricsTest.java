@@ -0,0 +1,71 @@
+package com.planner.util;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.planner.manager.ScheduleManager;
+import com.planner.models.UserConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void histogramBuckets() {
+        for (long value = 0; value < 1 << 20; value++) {
+            int bucket = Metrics.Histogram.bucketOf(value);
+            assertTrue(value <= Metrics.Histogram.upperBoundOf(bucket));
+            assertTrue(bucket == 0 || value > Metrics.Histogram.upperBoundOf(bucket - 1));
+        }
+        assertEquals(Long.MAX_VALUE, Metrics.Histogram.upperBoundOf(Metrics.Histogram.bucketOf(Long.MAX_VALUE)));
+    }
+
+    @Test
+    void histogramPercentiles() {
+        Metrics.Histogram histogram = Metrics.histogram("test.percentiles");
+        assertSame(histogram, Metrics.histogram("test.percentiles"));
+        assertEquals(0, histogram.getPercentile(50));
+        for (int i = 1; i <= 10_000; i++) {
+            histogram.record(i);
+        }
+        histogram.record(-5);
+        assertEquals(10_001, histogram.getCount());
+        assertEquals(10_000, histogram.getMax());
+        assertEquals(5000, histogram.getPercentile(50), 5000 * 0.04);
+        assertEquals(9900, histogram.getPercentile(99), 9900 * 0.04);
+        assertEquals(10_000, histogram.getPercentile(100));
+        assertThrows(IllegalArgumentException.class, () -> histogram.getPercentile(101));
+
+        Metrics.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+    }
+
+    @Test
+    void instrumentedBuild() throws Exception {
+        ScheduleManager sm = new ScheduleManager(new UserConfig());
+        sm.addTask("homework", 3, Time.getFormattedCalendarInstance(2), -1);
+        sm.addTask("essay", 5.5, Time.getFormattedCalendarInstance(1), -1);
+        Metrics.Histogram build = Metrics.histogram("schedule.build_ns");
+        long builds = build.getCount();
+        sm.buildSchedule();
+        assertEquals(builds + 1, build.getCount());
+        assertTrue(Metrics.histogram("schedule.assign_day_ns").getCount() > 0);
+        assertTrue(Metrics.histogram("day.add_subtask_ns").getCount() > 0);
+        Metrics.counter("test.counter").add(3);
+
+        Path file = dir.resolve("logs").resolve("metrics.json");
+        Metrics.writeDump(file);
+        JsonObject dump = JsonParser.parseString(Files.readString(file)).getAsJsonObject();
+        assertEquals(3, dump.getAsJsonObject("counters").get("test.counter").getAsLong());
+        assertTrue(dump.getAsJsonObject("histograms").getAsJsonObject("schedule.build_ns").get("count").getAsLong() > 0);
+        assertTrue(Metrics.buildMetricsStr().contains("schedule.build_us"));
+    }
+}
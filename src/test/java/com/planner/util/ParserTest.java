@@ -1,9 +1,12 @@
 package com.planner.util;
 
 import com.planner.models.Card;
+import com.planner.ui.tables.TableView;
 import org.junit.jupiter.api.Test;
 
+import java.time.LocalDate;
 import java.util.Arrays;
+import java.util.Calendar;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -17,6 +20,30 @@ class ParserTest {
 
     @Test
     void parseTask() {
+        Parser.TaskInfo ti = Parser.parseTask(new CommandLine().scan("task \"finish ch12\" 4.5 @ 03-09-2024 +C2"));
+        assertEquals("finish ch12", ti.getDesc());
+        assertEquals(4.5, ti.getHours());
+        assertEquals(2, ti.getCardId());
+        assertEquals(LocalDate.of(2024, 9, 3).toEpochDay() * Time.MINUTES_PER_DAY, ti.getDueMinute());
+        Calendar due = ti.getDue();
+        assertEquals(3, due.get(Calendar.DAY_OF_MONTH));
+        assertEquals(Calendar.SEPTEMBER, due.get(Calendar.MONTH));
+
+        // both orders of the fields, with single digits, and leap days
+        assertEquals(ti.getDueMinute(), Parser.parseTask(Parser.tokenize("task 1 @ 2024-9-3")).getDueMinute());
+        assertEquals(LocalDate.of(2024, 2, 29).toEpochDay() * Time.MINUTES_PER_DAY,
+                Parser.parseTask(Parser.tokenize("task 1 @ 29-02-2024")).getDueMinute());
+        assertEquals(LocalDate.now().plusDays(1).toEpochDay() * Time.MINUTES_PER_DAY,
+                Parser.parseTask(Parser.tokenize("task 1 @ TMRW")).getDueMinute());
+        assertEquals(Parser.NO_DATE, Parser.parseTask(Parser.tokenize("task \"read\" 2")).getDueMinute());
+        assertNull(Parser.parseTask(Parser.tokenize("task \"read\" 2")).getDue());
+
+        assertThrows(IllegalArgumentException.class, () -> Parser.parseTask(Parser.tokenize("task 1 @ 29-02-2023")));
+        assertThrows(IllegalArgumentException.class, () -> Parser.parseTask(Parser.tokenize("task 1 @ 32-01-2024")));
+        assertThrows(IllegalArgumentException.class, () -> Parser.parseTask(Parser.tokenize("task 1 @ 01-13-2024")));
+        assertThrows(IllegalArgumentException.class, () -> Parser.parseTask(Parser.tokenize("task 1 @ 01-01-2024x")));
+        assertThrows(IllegalArgumentException.class, () -> Parser.parseTask(Parser.tokenize("task 1 +C-1")));
+        assertThrows(IllegalArgumentException.class, () -> Parser.parseTask(Parser.tokenize("task 1 four")));
     }
 
     @Test
@@ -26,16 +53,80 @@ class ParserTest {
         System.out.println(ci.getName() + ", " + ci.getColor());
     }
 
+    @Test
+    void parseView() {
+        assertTrue(Parser.parseView(Parser.tokenize("sched")).isAll());
+        TableView view = Parser.parseView(Parser.tokenize("sched --page 3"));
+        assertTrue(view.isPaged());
+        assertEquals(2L * Parser.DEFAULT_PAGE_SIZE, view.getFirstRow());
+        view = Parser.parseView(Parser.tokenize("subtask --from 01-11-2024 --to 30-11-2024 --size 5"));
+        assertEquals(0, view.getFirstRow());
+        assertEquals(5, view.getEndRow(100));
+        // the last day of the range is included
+        long lastDay = Parser.parseView(Parser.tokenize("task --from 30-11-2024")).getFromMinute();
+        assertTrue(view.includes(lastDay + Time.MINUTES_PER_DAY - 1));
+        assertFalse(view.includes(lastDay + Time.MINUTES_PER_DAY));
+        assertThrows(IllegalArgumentException.class, () -> Parser.parseView(Parser.tokenize("sched --page")));
+        assertThrows(IllegalArgumentException.class, () -> Parser.parseView(Parser.tokenize("sched --page 0")));
+        assertThrows(IllegalArgumentException.class, () -> Parser.parseView(Parser.tokenize("sched --size 2 --size 3")));
+        assertThrows(IllegalArgumentException.class, () -> Parser.parseView(Parser.tokenize("sched --day 2")));
+    }
+
     @Test
     void parseEvent() {
+        Parser.EventInfo ei = Parser.parseEvent(Parser.tokenize("event true \"standup\" @ mon wed 9-9:30am +C1"));
+        assertTrue(ei.isRecurring());
+        assertEquals("standup", ei.getName());
+        assertEquals(1, ei.getCardId());
+        assertEquals(2, ei.getDates().size());
+        assertEquals(9 * 60, ei.getStartMinute());
+        assertEquals(9 * 60 + 30, ei.getEndMinute());
+
+        ei = Parser.parseEvent(Parser.tokenize("event false +C4 @ 3pm-5 25-12-2024 \"holiday meal\""));
+        long day = LocalDate.of(2024, 12, 25).toEpochDay() * Time.MINUTES_PER_DAY;
+        assertArrayEquals(new long[]{day}, ei.getDateMinutes());
+        Time.TimeStamp timeStamp = ei.getTimeStamp(day);
+        assertEquals(day + 15 * 60, timeStamp.getStartMinute());
+        assertEquals(day + 17 * 60, timeStamp.getEndMinute());
+
+        // noon and midnight on either end of the range
+        assertEquals(12 * 60, Parser.parseEvent(Parser.tokenize("event false \"a\" @ 12pm-1")).getStartMinute());
+        assertEquals(0, Parser.parseEvent(Parser.tokenize("event false \"a\" @ 12am-1am")).getStartMinute());
+        assertEquals(22 * 60 + 5, Parser.parseEvent(Parser.tokenize("event false \"a\" @ 10:05PM-11pm")).getStartMinute());
+
+        assertThrows(IllegalArgumentException.class, () -> Parser.parseEvent(Parser.tokenize("event false \"a\" @ mon")));
+        assertThrows(IllegalArgumentException.class, () -> Parser.parseEvent(Parser.tokenize("event false \"a\" @ 3-4 5-6")));
+        assertThrows(IllegalArgumentException.class, () -> Parser.parseEvent(Parser.tokenize("event false \"a\" @ 3pm-1am")));
+        assertThrows(IllegalArgumentException.class, () -> Parser.parseEvent(Parser.tokenize("event false \"a\" @ 3pm")));
+        assertThrows(IllegalArgumentException.class, () -> Parser.parseEvent(Parser.tokenize("event false \"a\" @ 3:7-4")));
+        assertThrows(IllegalArgumentException.class, () -> Parser.parseEvent(Parser.tokenize("event false \"a\" @ 13-14")));
+        assertThrows(IllegalArgumentException.class, () -> Parser.parseEvent(Parser.tokenize("event maybe \"a\" @ 3-4")));
     }
 
     @Test
     void parseDay() {
+        Parser.DayInfo di = Parser.parseDay(new String[]{"10-09-2004", "T0", "10-12pm", "E0", "E2", "T1", "1-2am", "E1"});
+        long day = LocalDate.of(2004, 9, 10).toEpochDay() * Time.MINUTES_PER_DAY;
+        assertEquals(day, Time.toEpochMinute(di.getDate()));
+        assertEquals(day + 10 * 60, di.getTaskTimeStampsMap().get(0).getStartMinute());
+        assertEquals(day + 12 * 60, di.getTaskTimeStampsMap().get(0).getEndMinute());
+        assertEquals(day + 2 * 60, di.getTaskTimeStampsMap().get(1).getEndMinute());
+        assertEquals(Arrays.asList(0, 2, 1), di.getEventIds());
+
+        assertThrows(IllegalArgumentException.class, () -> Parser.parseDay(new String[]{"10-09-2004", "T0", "T1"}));
+        assertThrows(IllegalArgumentException.class, () -> Parser.parseDay(new String[]{"10-09-2004", "T0", "12--2am"}));
+        assertThrows(IllegalArgumentException.class, () -> Parser.parseDay(new String[]{"T0", "10-12pm"}));
+        assertThrows(IllegalArgumentException.class, () -> Parser.parseDay(new String[]{"10-09-2004", "E0", "10-12pm"}));
     }
 
     @Test
     void parseModTask() {
+        Parser.TaskInfo ti = Parser.parseModTask(Parser.tokenize("mod task 3 \"renamed\" 2"));
+        assertEquals(3, ti.getTaskId());
+        assertEquals("renamed", ti.getDesc());
+        assertEquals(2.0, ti.getHours());
+        assertEquals(-1, ti.getCardId());
+        assertThrows(IllegalArgumentException.class, () -> Parser.parseModTask(Parser.tokenize("mod task x 2")));
     }
 
     @Test
@@ -44,6 +135,11 @@ class ParserTest {
 
     @Test
     void parseModCard() {
+        Parser.CardInfo ci = Parser.parseModCard(Parser.tokenize("mod card 1 light_coral"));
+        assertEquals(1, ci.getId());
+        assertNull(ci.getName());
+        assertEquals(Card.Color.LIGHT_CORAL, ci.getColor());
+        assertThrows(IllegalArgumentException.class, () -> Parser.parseModCard(Parser.tokenize("mod card 1 teal")));
     }
 
     @Test
@@ -0,0 +1,74 @@
+package com.planner.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RingBufferTest {
+
+    @Test
+    void offerAndPoll() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(3);
+        assertEquals(4, buffer.capacity());
+        assertTrue(buffer.isEmpty());
+        assertNull(buffer.poll());
+
+        for (int lap = 0; lap < 3; lap++) {
+            for (int i = 0; i < 4; i++) {
+                assertTrue(buffer.offer(lap * 4 + i));
+            }
+            assertFalse(buffer.offer(-1));
+            for (int i = 0; i < 4; i++) {
+                assertEquals(Integer.valueOf(lap * 4 + i), buffer.poll());
+            }
+            assertTrue(buffer.isEmpty());
+        }
+        assertThrows(NullPointerException.class, () -> buffer.offer(null));
+        assertThrows(IllegalArgumentException.class, () -> new RingBuffer<>(0));
+    }
+
+    @Test
+    void concurrentProducers() throws InterruptedException {
+        RingBuffer<Long> buffer = new RingBuffer<>(64);
+        int numProducers = 4;
+        int perProducer = 20000;
+        Thread[] producers = new Thread[numProducers];
+        for (int p = 0; p < numProducers; p++) {
+            long base = (long) p * perProducer;
+            producers[p] = new Thread(() -> {
+                for (long i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(base + i)) {
+                        Thread.yield();
+                    }
+                }
+            });
+            producers[p].start();
+        }
+
+        // every element arrives exactly once, and in order for each producer
+        long[] last = new long[numProducers];
+        Arrays.fill(last, -1);
+        AtomicLong sum = new AtomicLong();
+        for (int received = 0; received < numProducers * perProducer; ) {
+            Long element = buffer.poll();
+            if (element == null) {
+                Thread.yield();
+                continue;
+            }
+            int p = (int) (element / perProducer);
+            assertTrue(element % perProducer > last[p]);
+            last[p] = element % perProducer;
+            sum.addAndGet(element);
+            received++;
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        long n = (long) numProducers * perProducer;
+        assertEquals(n * (n - 1) / 2, sum.get());
+        assertTrue(buffer.isEmpty());
+    }
+}
@@ -0,0 +1,48 @@
+package com.planner.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Calendar;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeTest {
+
+    @Test
+    void toEpochMinute() {
+        Calendar cal = Calendar.getInstance();
+        cal.clear();
+        cal.set(2024, Calendar.MARCH, 10, 14, 45);
+
+        long minute = Time.toEpochMinute(cal);
+        assertEquals(14 * 60 + 45, Time.getMinuteOfDay(minute));
+        assertEquals(minute - 14 * 60 - 45, Time.getStartOfDay(minute));
+        assertEquals(0, Time.toCalendar(minute).compareTo(cal));
+    }
+
+    @Test
+    void getNearestQuarterOfHour() {
+        long midnight = Time.getStartOfDay(Time.toEpochMinute(Calendar.getInstance()));
+        assertEquals(midnight + 615, Time.getNearestQuarterOfHour(midnight + 601, true));
+        assertEquals(midnight + 600, Time.getNearestQuarterOfHour(midnight + 601, false));
+        assertEquals(midnight + 600, Time.getNearestQuarterOfHour(midnight + 600, true));
+    }
+
+    @Test
+    void getTimeInterval() {
+        assertEquals(1.5, Time.getTimeInterval(540, 630));
+        assertEquals(0.5, Time.getTimeInterval(660, 705));
+    }
+
+    @Test
+    void timeStamp() {
+        long midnight = Time.getStartOfDay(Time.toEpochMinute(Calendar.getInstance()));
+        Time.TimeStamp ts = new Time.TimeStamp(midnight + 570, midnight + 720);
+        assertEquals(9, ts.getStartHour());
+        assertEquals(30, ts.getStartMin());
+        assertEquals(12, ts.getEndHour());
+        assertEquals(0, ts.getEndMin());
+        assertEquals("09:30am-12:00pm", ts.toString());
+        assertEquals(midnight + 570, Time.toEpochMinute(ts.getStart()));
+    }
+}